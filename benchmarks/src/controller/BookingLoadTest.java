@@ -0,0 +1,335 @@
+package controller;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import config.AppConfig;
+import config.DatabaseConnection;
+import dao.DAOFactory;
+import dao.UserDAO;
+import model.Doctor;
+import model.Patient;
+import model.Secretary;
+import util.BenchmarkData;
+
+/**
+ * Test de charge des réservations : N postes d'accueil virtuels (voir ReceptionDesk)
+ * travaillent simultanément à travers les contrôleurs, par étapes de nombres de postes
+ * croissants, contre la couche DAO en mémoire ou contre MySQL.
+ *
+ * Chaque étape rapporte le débit, les centiles de durée par opération, les taux de
+ * conflits et de relances et l'occupation du pool de connexions ; le bilan final
+ * indique le plus grand nombre de postes servis sous le seuil de durée fixé.
+ *
+ * Paramètres (propriétés système) :
+ * - charge.backend : memoire (défaut), mysql (serveur local de DatabaseConnection, base
+ *   jetable : des données de test y sont ajoutées) ou docker (serveur MySQL démarré
+ *   dans un conteneur à partir de charge.schema, image charge.image)
+ * - charge.postes : nombres de postes des étapes (défaut 5,10,20,40)
+ * - charge.duree, charge.chauffe : durées de mesure et de chauffe de chaque étape, en s
+ * - charge.reflexion : temps de réflexion moyen entre deux actions, en ms
+ * - charge.reservations : part des appels aboutissant à une réservation
+ * - charge.collisions : part des réservations visant le premier créneau libre de la
+ *   spécialité la plus demandée
+ * - charge.relances : nombre de relances après un conflit
+ * - charge.horizon : nombre de jours de planning ouverts à la réservation
+ * - charge.medecins, charge.patients : volume des données créées au départ
+ * - charge.seuil : 95e centile maximal admis pour chaque opération, en ms
+ *
+ * Lancer : mvn -f benchmarks/pom.xml package exec:exec@charge -Dcharge.args="-Dcharge.postes=10,50"
+ */
+public final class BookingLoadTest {
+
+    private static final PrintStream OUT = System.out;
+
+    private static final String[] SPECIALTIES = {"Médecine générale", "Cardiologie", "Pédiatrie", "Dermatologie"};
+
+    private static final String[] LAST_NAMES = {"Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard",
+            "Durand", "Dubois", "Moreau", "Laurent", "Simon", "Michel", "Lefèvre", "Leroy", "Roux", "David",
+            "Bertrand", "Morel", "Fournier", "Girard", "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau",
+            "Vincent", "Müller", "Lefebvre", "Faure", "André", "Mercier", "Blanc", "Guérin", "Boyer", "Garnier",
+            "Chevalier", "François", "Legrand", "Gauthier", "Garcia"};
+
+    private static final String[] FIRST_NAMES = {"Jean", "Marie", "Pierre", "Nathalie", "Michel", "Isabelle",
+            "Philippe", "Sylvie", "Alain", "Catherine", "Nicolas", "Françoise", "Éric", "Sandrine", "Laurent",
+            "Valérie", "Stéphane", "Christine", "Julien", "Céline", "Hélène", "Louis", "Chloé", "Hugo", "Léa"};
+
+    // Taille des lots d'insertion des patients
+    private static final int PATIENT_BATCH_SIZE = 1_000;
+
+    // Période de relevé de l'occupation du pool
+    private static final long POOL_SAMPLE_MILLIS = 100;
+
+    /**
+     * Paramètres du test, lus dans les propriétés système
+     */
+    static final class Settings {
+        final String backend = System.getProperty("charge.backend", AppConfig.DAO_BACKEND_MEMORY);
+        final int[] deskCounts = parseCounts(System.getProperty("charge.postes", "5,10,20,40"));
+        final int durationSeconds = Integer.getInteger("charge.duree", 60);
+        final int warmupSeconds = Integer.getInteger("charge.chauffe", 10);
+        final long thinkMillis = Long.getLong("charge.reflexion", 1_000L);
+        final double bookingShare = Double.parseDouble(System.getProperty("charge.reservations", "0.6"));
+        final double collisionRate = Double.parseDouble(System.getProperty("charge.collisions", "0.2"));
+        final int maxRetries = Integer.getInteger("charge.relances", 3);
+        final int horizonDays = Integer.getInteger("charge.horizon", 30);
+        final int doctorCount = Integer.getInteger("charge.medecins", 20);
+        final int patientCount = Integer.getInteger("charge.patients", 5_000);
+        final long thresholdMillis = Long.getLong("charge.seuil", 500L);
+        final String image = System.getProperty("charge.image", "mysql:8.0");
+        final Path schema = Paths.get(System.getProperty("charge.schema", "database/schema.sql"));
+
+        private static int[] parseCounts(String value) {
+            String[] parts = value.split(",");
+            int[] counts = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                counts[i] = Integer.parseInt(parts[i].trim());
+                if (counts[i] <= 0) {
+                    throw new IllegalArgumentException("Nombre de postes invalide: " + parts[i]);
+                }
+            }
+            return counts;
+        }
+
+        int maxDeskCount() {
+            int max = 0;
+            for (int count : deskCounts) {
+                max = Math.max(max, count);
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Données créées au départ : secrétaires (une par poste), médecins et patients
+     */
+    static final class Fixture {
+        final List<Secretary> secretaries = new ArrayList<>();
+        final List<Doctor> doctors = new ArrayList<>();
+        final List<Integer> doctorIds = new ArrayList<>();
+        final List<Patient> patients = new ArrayList<>();
+        final Map<Integer, Patient> patientsById = new HashMap<>();
+        final String hotSpecialty = SPECIALTIES[0];
+
+        /**
+         * Crée les données de test ; les noms d'utilisateur portent un suffixe propre à
+         * l'exécution, pour pouvoir relancer le test sur la même base
+         */
+        static Fixture seed(Settings settings) throws Exception {
+            Fixture fixture = new Fixture();
+            UserDAO userDAO = DAOFactory.getInstance().getUserDAO();
+            String run = Long.toString(System.currentTimeMillis(), 36);
+            LocalDateTime now = LocalDateTime.now();
+            SplittableRandom random = new SplittableRandom(42);
+
+            for (int i = 1; i <= settings.maxDeskCount(); i++) {
+                Secretary secretary = new Secretary(0, "accueil" + i + "-" + run, "charge", "Accueil " + i, true, now);
+                secretary.setId(userDAO.addSecretary(secretary));
+                fixture.secretaries.add(secretary);
+            }
+
+            String workHours = BenchmarkData.workHours(BenchmarkData.SPLIT);
+            for (int i = 1; i <= settings.doctorCount; i++) {
+                Doctor doctor = new Doctor(0, "medecin" + i + "-" + run, "charge",
+                        "Dr " + LAST_NAMES[i % LAST_NAMES.length] + " " + i, true, now,
+                        SPECIALTIES[i % SPECIALTIES.length], workHours, "01" + (40000000 + i));
+                doctor.setId(userDAO.addDoctor(doctor));
+                fixture.doctors.add(doctor);
+                fixture.doctorIds.add(doctor.getId());
+            }
+
+            PatientController patientController = PatientController.getInstance();
+            List<Patient> batch = new ArrayList<>(PATIENT_BATCH_SIZE);
+            for (int i = 0; i < settings.patientCount; i++) {
+                batch.add(new Patient(LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LocalDate.of(1940, 1, 1).plusDays(random.nextInt(29_000)),
+                        String.format("06%08d", i)));
+                if (batch.size() == PATIENT_BATCH_SIZE || i == settings.patientCount - 1) {
+                    int[] ids = patientController.addPatients(batch);
+                    for (int j = 0; j < ids.length; j++) {
+                        Patient patient = batch.get(j);
+                        patient.setId(ids[j]);
+                        fixture.patients.add(patient);
+                        fixture.patientsById.put(ids[j], patient);
+                    }
+                    batch.clear();
+                }
+            }
+            return fixture;
+        }
+    }
+
+    /**
+     * Résultat d'une étape, pour le bilan
+     */
+    private static final class StageResult {
+        final int deskCount;
+        final LoadStats stats;
+
+        StageResult(int deskCount, LoadStats stats) {
+            this.deskCount = deskCount;
+            this.stats = stats;
+        }
+    }
+
+    // Mesures de l'étape en cours, relevées par l'échantillonneur du pool
+    private static volatile LoadStats current;
+
+    private BookingLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Le journal des contrôleurs (une ligne par réservation) fausserait les mesures
+        Logger root = Logger.getLogger("");
+        root.setLevel(Level.WARNING);
+        for (Handler handler : root.getHandlers()) {
+            handler.setLevel(Level.WARNING);
+        }
+
+        Settings settings = new Settings();
+        MySqlStandIn standIn = null;
+        int status = 0;
+        try {
+            String backend = settings.backend;
+            if ("docker".equals(backend)) {
+                OUT.println("Démarrage du serveur MySQL (" + settings.image + ")...");
+                standIn = MySqlStandIn.start(settings.image, settings.schema);
+                backend = AppConfig.DAO_BACKEND_MYSQL;
+            }
+            DAOFactory.initialize(backend);
+
+            OUT.printf("Couche DAO : %s ; création de %d médecins, %d patients, %d secrétaires...%n", backend,
+                    settings.doctorCount, settings.patientCount, settings.maxDeskCount());
+            Fixture fixture = Fixture.seed(settings);
+
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "charge-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(() -> {
+                LoadStats stats = current;
+                if (stats != null) {
+                    stats.samplePool();
+                }
+            }, POOL_SAMPLE_MILLIS, POOL_SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+            List<StageResult> results = new ArrayList<>();
+            for (int deskCount : settings.deskCounts) {
+                OUT.printf("%n=== %d postes : %d s de mesure après %d s de chauffe ===%n", deskCount,
+                        settings.durationSeconds, settings.warmupSeconds);
+                LoadStats stats = runStage(settings, fixture, deskCount);
+                stats.print(OUT);
+                results.add(new StageResult(deskCount, stats));
+            }
+            sampler.shutdownNow();
+
+            printSummary(settings, results);
+        } catch (Exception e) {
+            status = 1;
+            e.printStackTrace();
+        } finally {
+            if (DatabaseConnection.getPoolStatsIfConnected() != null) {
+                DatabaseConnection.getInstance().closeConnection();
+            }
+            if (standIn != null) {
+                standIn.close();
+            }
+        }
+        // Les services de l'application (mesures, bus d'événements) ne s'arrêtent pas d'eux-mêmes
+        System.exit(status);
+    }
+
+    /**
+     * Exécute une étape : démarre les postes, les laisse chauffer, mesure, puis les arrête.
+     * Les rendez-vous réservés restent en base : le planning se remplit d'une étape à l'autre.
+     */
+    private static LoadStats runStage(Settings settings, Fixture fixture, int deskCount) throws InterruptedException {
+        List<ReceptionDesk> desks = new ArrayList<>(deskCount);
+        List<Thread> threads = new ArrayList<>(deskCount);
+        LoadStats warmup = new LoadStats();
+        for (int i = 0; i < deskCount; i++) {
+            ReceptionDesk desk = new ReceptionDesk(fixture.secretaries.get(i), fixture, settings, warmup,
+                    31L * deskCount + i);
+            Thread thread = new Thread(desk, "poste-" + (i + 1));
+            thread.setDaemon(true);
+            desks.add(desk);
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        TimeUnit.SECONDS.sleep(settings.warmupSeconds);
+
+        LoadStats stats = new LoadStats();
+        for (ReceptionDesk desk : desks) {
+            desk.measureInto(stats);
+        }
+        current = stats;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(settings.durationSeconds);
+        stats.finish(System.nanoTime() - start);
+        current = null;
+
+        for (ReceptionDesk desk : desks) {
+            desk.stop();
+        }
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return stats;
+    }
+
+    /**
+     * Imprime le tableau comparatif des étapes et la capacité estimée
+     */
+    private static void printSummary(Settings settings, List<StageResult> results) {
+        OUT.printf("%n=== Bilan (seuil : 95e centile <= %d ms pour chaque opération) ===%n", settings.thresholdMillis);
+        OUT.printf("%7s %12s %12s %14s %12s %10s %10s %10s %11s%n", "postes", "opérations/s", "réservations/s",
+                "p95 résa ms", "p95 max ms", "conflits %", "relances %", "pool sat %", "expirations");
+
+        int capacity = 0;
+        for (StageResult result : results) {
+            LoadStats stats = result.stats;
+            OUT.printf("%7d %12.1f %12.2f %14.1f %12.1f %10.1f %10.1f %10s %11d%n", result.deskCount,
+                    stats.totalOperations() / stats.seconds(), stats.booked.sum() / stats.seconds(),
+                    LoadStats.millis(stats.percentileMicros(LoadStats.Operation.RESERVATION, 95)),
+                    LoadStats.millis(stats.worstP95Micros()), stats.conflictRate(), stats.retryRate(),
+                    stats.hasPool() ? String.format("%.1f", stats.poolSaturation()) : "-", stats.poolTimeouts());
+
+            boolean withinThreshold = stats.worstP95Micros() <= settings.thresholdMillis * 1000
+                    && stats.poolTimeouts() == 0 && stats.errors.sum() == 0;
+            if (withinThreshold) {
+                capacity = Math.max(capacity, result.deskCount);
+            }
+        }
+
+        if (capacity == 0) {
+            OUT.println("Capacité estimée : aucune étape ne respecte le seuil");
+        } else if (capacity == settings.maxDeskCount()) {
+            OUT.println("Capacité estimée : au moins " + capacity
+                    + " postes (seuil respecté à toutes les étapes, augmenter charge.postes)");
+        } else {
+            OUT.println("Capacité estimée : " + capacity + " postes");
+        }
+    }
+}
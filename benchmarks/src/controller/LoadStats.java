@@ -0,0 +1,205 @@
+package controller;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import config.DatabaseConnection;
+import config.PoolStats;
+import util.LatencyHistogram;
+
+/**
+ * Mesures d'une étape du test de charge : durées par opération, issues des
+ * réservations et occupation du pool de connexions (échantillonnée périodiquement).
+ * Les enregistrements sont concurrents et sans verrou ; l'échantillonnage du pool
+ * n'est appelé que par un seul thread.
+ */
+final class LoadStats {
+
+    /**
+     * Opérations mesurées, appelées par les postes d'accueil via les contrôleurs
+     */
+    enum Operation {
+        RECHERCHE_PATIENT("recherche patient"),
+        CRENEAUX("créneaux libres"),
+        RESERVATION("réservation"),
+        PLANNING("planning");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+
+    // Issues des demandes de réservation (une demande = un appel de patient à satisfaire)
+    final LongAdder bookingRequests = new LongAdder();
+    final LongAdder booked = new LongAdder();
+    final LongAdder conflicts = new LongAdder();
+    final LongAdder retries = new LongAdder();
+    final LongAdder abandoned = new LongAdder();
+    final LongAdder noFreeSlot = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    // Occupation du pool (null pour la couche en mémoire)
+    private final PoolStats poolAtStart;
+    private PoolStats poolAtEnd;
+    private long poolSamples;
+    private long saturatedSamples;
+    private long waitersSum;
+    private int maxActive;
+    private int maxWaiters;
+
+    private long elapsedNanos;
+
+    LoadStats() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+        this.poolAtStart = DatabaseConnection.getPoolStatsIfConnected();
+    }
+
+    /**
+     * Enregistre la durée d'une opération
+     *
+     * @param operation L'opération
+     * @param startNanos L'instant de début (System.nanoTime)
+     */
+    void record(Operation operation, long startNanos) {
+        latencies.get(operation).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Relève l'occupation du pool (appelé périodiquement par un seul thread)
+     */
+    void samplePool() {
+        PoolStats stats = DatabaseConnection.getPoolStatsIfConnected();
+        if (stats == null) {
+            return;
+        }
+        poolSamples++;
+        if (stats.getActive() >= stats.getMaxSize()) {
+            saturatedSamples++;
+        }
+        waitersSum += stats.getWaiters();
+        maxActive = Math.max(maxActive, stats.getActive());
+        maxWaiters = Math.max(maxWaiters, stats.getWaiters());
+    }
+
+    /**
+     * Termine la mesure
+     *
+     * @param elapsedNanos La durée de la mesure
+     */
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        this.poolAtEnd = DatabaseConnection.getPoolStatsIfConnected();
+    }
+
+    double seconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    long percentileMicros(Operation operation, double percentile) {
+        return latencies.get(operation).getPercentileMicros(percentile);
+    }
+
+    /**
+     * @return Le 95e centile le plus élevé parmi les opérations mesurées
+     */
+    long worstP95Micros() {
+        long worst = 0;
+        for (LatencyHistogram histogram : latencies.values()) {
+            if (histogram.getCount() > 0) {
+                worst = Math.max(worst, histogram.getPercentileMicros(95));
+            }
+        }
+        return worst;
+    }
+
+    long totalOperations() {
+        long total = 0;
+        for (LatencyHistogram histogram : latencies.values()) {
+            total += histogram.getCount();
+        }
+        return total;
+    }
+
+    /**
+     * @return La part des tentatives de réservation refusées pour conflit, en %
+     */
+    double conflictRate() {
+        long attempts = latencies.get(Operation.RESERVATION).getCount();
+        return attempts == 0 ? 0 : 100.0 * conflicts.sum() / attempts;
+    }
+
+    /**
+     * @return Le nombre moyen de relances par demande de réservation, en %
+     */
+    double retryRate() {
+        long requests = bookingRequests.sum();
+        return requests == 0 ? 0 : 100.0 * retries.sum() / requests;
+    }
+
+    boolean hasPool() {
+        return poolAtStart != null && poolAtEnd != null;
+    }
+
+    /**
+     * @return La part des relevés où toutes les connexions étaient prêtées, en %
+     */
+    double poolSaturation() {
+        return poolSamples == 0 ? 0 : 100.0 * saturatedSamples / poolSamples;
+    }
+
+    long poolTimeouts() {
+        return hasPool() ? poolAtEnd.getTimeoutCount() - poolAtStart.getTimeoutCount() : 0;
+    }
+
+    /**
+     * @return L'attente moyenne d'une connexion pendant la mesure, en microsecondes
+     */
+    long poolMeanWaitMicros() {
+        long borrows = poolAtEnd.getBorrowCount() - poolAtStart.getBorrowCount();
+        return borrows == 0 ? 0 : (poolAtEnd.getTotalWaitMicros() - poolAtStart.getTotalWaitMicros()) / borrows;
+    }
+
+    /**
+     * Imprime le rapport détaillé de l'étape
+     */
+    void print(PrintStream out) {
+        double seconds = seconds();
+        out.printf("%-20s %9s %9s %9s %9s %9s %9s%n", "Opération", "appels", "appels/s",
+                "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.printf("%-20s %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey().label, histogram.getCount(),
+                    histogram.getCount() / seconds, millis(histogram.getPercentileMicros(50)),
+                    millis(histogram.getPercentileMicros(95)), millis(histogram.getPercentileMicros(99)),
+                    millis(histogram.getMaxMicros()));
+        }
+        out.printf("Débit : %.1f opérations/s, %.2f réservations/s%n", totalOperations() / seconds,
+                booked.sum() / seconds);
+        out.printf("Réservations : %d demandes, %d réservées, %d conflits (%.1f %% des tentatives), "
+                        + "%d relances (%.1f %% des demandes), %d abandons, %d sans créneau libre, %d erreurs%n",
+                bookingRequests.sum(), booked.sum(), conflicts.sum(), conflictRate(), retries.sum(), retryRate(),
+                abandoned.sum(), noFreeSlot.sum(), errors.sum());
+        if (hasPool()) {
+            out.printf("Pool : %d/%d connexions prêtées au plus, saturé %.1f %% du temps, "
+                            + "%d threads en attente au plus (%.1f en moyenne), attente moyenne %.2f ms, %d expirations%n",
+                    maxActive, poolAtEnd.getMaxSize(), poolSaturation(), maxWaiters,
+                    poolSamples == 0 ? 0.0 : (double) waitersSum / poolSamples, millis(poolMeanWaitMicros()),
+                    poolTimeouts());
+        } else {
+            out.println("Pool : sans objet (couche DAO en mémoire)");
+        }
+    }
+
+    static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
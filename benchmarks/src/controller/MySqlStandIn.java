@@ -0,0 +1,118 @@
+package controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serveur MySQL jetable pour le test de charge : conteneur Docker publié sur le port
+ * 3306 (celui de DatabaseConnection), compte root sans mot de passe, base créée par
+ * database/schema.sql. Le conteneur est supprimé à la fermeture.
+ */
+final class MySqlStandIn implements AutoCloseable {
+
+    // Mêmes paramètres que DatabaseConnection
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/medical_appointments";
+    private static final String DB_USER = "root";
+    private static final String DB_PASSWORD = "";
+
+    private static final long STARTUP_TIMEOUT_SECONDS = 180;
+
+    private final String containerName;
+
+    private MySqlStandIn(String containerName) {
+        this.containerName = containerName;
+    }
+
+    /**
+     * Démarre le conteneur et attend que le schéma soit chargé
+     *
+     * @param image L'image MySQL (ex. mysql:8.0)
+     * @param schema Le script de création de la base
+     * @return Le serveur démarré
+     * @throws IOException Si Docker échoue ou si le serveur ne répond pas à temps
+     * @throws InterruptedException Si l'attente est interrompue
+     */
+    static MySqlStandIn start(String image, Path schema) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(schema)) {
+            throw new IOException("Script de schéma introuvable: " + schema.toAbsolutePath());
+        }
+        String containerName = "rdv-charge-" + Long.toString(System.currentTimeMillis(), 36);
+        docker("run", "-d", "--rm", "--name", containerName, "-p", "3306:3306",
+                "-e", "MYSQL_ALLOW_EMPTY_PASSWORD=yes",
+                "-v", schema.toAbsolutePath() + ":/docker-entrypoint-initdb.d/schema.sql:ro",
+                image);
+
+        MySqlStandIn standIn = new MySqlStandIn(containerName);
+        Runtime.getRuntime().addShutdownHook(new Thread(standIn::close));
+        try {
+            standIn.awaitSchema();
+        } catch (IOException | InterruptedException e) {
+            standIn.close();
+            throw e;
+        }
+        return standIn;
+    }
+
+    /**
+     * Attend la fin de l'initialisation : le serveur n'écoute sur le réseau qu'une fois
+     * les scripts d'initialisation exécutés
+     */
+    private void awaitSchema() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STARTUP_TIMEOUT_SECONDS);
+        SQLException lastError = null;
+        while (System.nanoTime() < deadline) {
+            try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeQuery("SELECT COUNT(*) FROM schema_version").close();
+                return;
+            } catch (SQLException e) {
+                lastError = e;
+                Thread.sleep(1_000);
+            }
+        }
+        throw new IOException("Le serveur MySQL " + containerName + " n'a pas démarré en "
+                + STARTUP_TIMEOUT_SECONDS + " s", lastError);
+    }
+
+    @Override
+    public void close() {
+        try {
+            docker("rm", "-f", containerName);
+        } catch (IOException e) {
+            // Déjà supprimé (arrêt puis crochet d'arrêt) : rien à faire
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Exécute une commande Docker
+     *
+     * @return La sortie de la commande
+     * @throws IOException Si la commande échoue
+     */
+    private static String docker(String... args) throws IOException, InterruptedException {
+        String[] command = new String[args.length + 1];
+        command[0] = "docker";
+        System.arraycopy(args, 0, command, 1, args.length);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+        if (process.waitFor() != 0) {
+            throw new IOException("Échec de " + Arrays.toString(command) + ": " + output);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,244 @@
+package controller;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import config.AppConfig;
+import model.AvailableSlot;
+import model.BookingResult;
+import model.Doctor;
+import model.Patient;
+import model.PatientSummary;
+import model.Secretary;
+
+/**
+ * Poste d'accueil virtuel : enchaîne des appels de patients comme une secrétaire,
+ * en passant par les contrôleurs de l'application.
+ *
+ * Un appel commence par la recherche du patient ; il se poursuit soit par une
+ * réservation (consultation des créneaux libres, temps de réflexion, puis
+ * createAppointment, relancée sur un autre créneau en cas de conflit), soit par
+ * la consultation d'un planning. Une part des réservations vise le premier créneau
+ * libre d'une spécialité très demandée : plusieurs postes se disputent alors le même
+ * créneau, comme lors d'une ouverture de planning.
+ */
+final class ReceptionDesk implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(ReceptionDesk.class.getName());
+
+    // Durées des consultations proposées, la plus fréquente en double
+    private static final int[] DURATIONS = {15, 20, 30, 30, 45};
+
+    // Nombre de jours essayés quand le jour choisi est complet
+    private static final int DAYS_TRIED = 7;
+
+    private final Secretary secretary;
+    private final BookingLoadTest.Fixture fixture;
+    private final BookingLoadTest.Settings settings;
+    private final SplittableRandom random;
+
+    // Mesures en cours : celles de la chauffe, puis celles de l'étape
+    private volatile LoadStats stats;
+
+    private final AppointmentController appointmentController = AppointmentController.getInstance();
+    private final DoctorController doctorController = DoctorController.getInstance();
+    private final PatientController patientController = PatientController.getInstance();
+
+    private volatile boolean running = true;
+
+    ReceptionDesk(Secretary secretary, BookingLoadTest.Fixture fixture, BookingLoadTest.Settings settings,
+                  LoadStats stats, long seed) {
+        this.secretary = secretary;
+        this.fixture = fixture;
+        this.settings = settings;
+        this.stats = stats;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Dirige les mesures suivantes vers un autre recueil (fin de la chauffe)
+     */
+    void measureInto(LoadStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Termine le poste après l'opération en cours (le thread doit aussi être interrompu
+     * pour écourter le temps de réflexion)
+     */
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                handleCall();
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                stats.errors.increment();
+                LOGGER.log(Level.WARNING, "Erreur du poste " + secretary.getUsername(), e);
+            }
+        }
+    }
+
+    /**
+     * Un appel de patient : recherche, puis réservation ou consultation de planning
+     */
+    private void handleCall() throws Exception {
+        Patient patient = findPatient();
+        if (!think()) {
+            return;
+        }
+        if (random.nextDouble() < settings.bookingShare) {
+            book(patient);
+        } else {
+            consultPlanning();
+        }
+        think();
+    }
+
+    /**
+     * Recherche d'un patient par le début de son nom ou par son téléphone
+     *
+     * @return Le patient retenu parmi les résultats (le patient cherché à défaut)
+     */
+    private Patient findPatient() throws Exception {
+        Patient wanted = fixture.patients.get(random.nextInt(fixture.patients.size()));
+
+        long start = System.nanoTime();
+        List<PatientSummary> results;
+        if (random.nextInt(5) == 0) {
+            results = patientController.searchPatientSummariesByPhone(wanted.getPhone());
+        } else {
+            String lastName = wanted.getLastName();
+            results = patientController.searchPatientSummariesByName(
+                    lastName.substring(0, Math.min(lastName.length(), 3 + random.nextInt(3))), wanted.getFirstName());
+        }
+        stats.record(LoadStats.Operation.RECHERCHE_PATIENT, start);
+
+        for (PatientSummary result : results) {
+            if (result.getId() == wanted.getId()) {
+                return wanted;
+            }
+        }
+        Patient found = results.isEmpty() ? null : fixture.patientsById.get(results.get(0).getId());
+        return found != null ? found : wanted;
+    }
+
+    /**
+     * Demande de réservation, relancée sur un nouveau créneau après un conflit
+     */
+    private void book(Patient patient) throws Exception {
+        stats.bookingRequests.increment();
+        int duration = DURATIONS[random.nextInt(DURATIONS.length)];
+
+        for (int attempt = 0; attempt <= settings.maxRetries; attempt++) {
+            if (attempt > 0) {
+                stats.retries.increment();
+            }
+
+            AvailableSlot slot = chooseSlot(duration);
+            if (slot == null) {
+                stats.noFreeSlot.increment();
+                return;
+            }
+            // Le temps de confirmer le créneau avec le patient : un autre poste peut le prendre
+            if (!think()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                appointmentController.createAppointment(patient, slot.getDoctor(), secretary,
+                        slot.getStartDateTime(), duration, AppConfig.APPOINTMENT_TYPES[0], null);
+                stats.record(LoadStats.Operation.RESERVATION, start);
+                stats.booked.increment();
+                return;
+            } catch (IllegalArgumentException e) {
+                stats.record(LoadStats.Operation.RESERVATION, start);
+                if (!BookingResult.Outcome.CONFLIT.getMessage().equals(e.getMessage())) {
+                    throw e;
+                }
+                stats.conflicts.increment();
+            }
+        }
+        stats.abandoned.increment();
+    }
+
+    /**
+     * Choisit un créneau : le premier créneau libre de la spécialité très demandée
+     * (collision probable avec les autres postes) ou un créneau au hasard d'un médecin
+     * et d'un jour quelconques
+     *
+     * @return Le créneau, ou null si aucun n'est libre
+     */
+    private AvailableSlot chooseSlot(int duration) throws Exception {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        if (random.nextDouble() < settings.collisionRate) {
+            long start = System.nanoTime();
+            List<AvailableSlot> slots = doctorController.findFirstAvailableSlots(fixture.hotSpecialty, tomorrow,
+                    settings.horizonDays, duration, 3);
+            stats.record(LoadStats.Operation.CRENEAUX, start);
+            return slots.isEmpty() ? null : slots.get(0);
+        }
+
+        Doctor doctor = fixture.doctors.get(random.nextInt(fixture.doctors.size()));
+        LocalDate date = tomorrow.plusDays(random.nextInt(settings.horizonDays));
+        for (int i = 0; i < DAYS_TRIED; i++, date = date.plusDays(1)) {
+            long start = System.nanoTime();
+            List<String> slots = doctorController.getAvailableTimeSlots(doctor.getId(), date, duration);
+            stats.record(LoadStats.Operation.CRENEAUX, start);
+            if (!slots.isEmpty()) {
+                LocalTime time = LocalTime.parse(slots.get(random.nextInt(slots.size())));
+                return new AvailableSlot(doctor, LocalDateTime.of(date, time), duration);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Consultation d'un planning : vue de la semaine de tous les médecins ou journée d'un médecin
+     */
+    private void consultPlanning() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(random.nextInt(settings.horizonDays));
+
+        long start = System.nanoTime();
+        if (random.nextBoolean()) {
+            appointmentController.getPlanningGrid(fixture.doctorIds, date.with(DayOfWeek.MONDAY), 7);
+        } else {
+            Doctor doctor = fixture.doctors.get(random.nextInt(fixture.doctors.size()));
+            doctorController.getDoctorDailyPlanning(doctor.getId(), date);
+        }
+        stats.record(LoadStats.Operation.PLANNING, start);
+    }
+
+    /**
+     * Temps de réflexion de la secrétaire, de loi exponentielle
+     *
+     * @return false si le poste a été arrêté pendant l'attente
+     */
+    private boolean think() {
+        if (settings.thinkMillis <= 0) {
+            return running;
+        }
+        long pause = (long) (-settings.thinkMillis * Math.log(1 - random.nextDouble()));
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return running;
+    }
+}
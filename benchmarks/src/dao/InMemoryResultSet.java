@@ -0,0 +1,111 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ResultSet en mémoire pour les bancs d'essai des mappers, sans base de données.
+ * Reproduit les coûts du pilote MySQL qui comptent pour la conversion des lignes :
+ * la lecture par libellé passe par une recherche insensible à la casse
+ * (findColumn), et chaque appel à getMetaData() crée un nouvel objet.
+ * Seules les méthodes utilisées par les mappers sont prises en charge.
+ */
+final class InMemoryResultSet implements InvocationHandler {
+
+    private final String[] labels;
+    private final Object[][] rows;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private int cursor = -1;
+    private boolean lastWasNull;
+
+    private InMemoryResultSet(String[] labels, Object[][] rows) {
+        this.labels = labels;
+        this.rows = rows;
+        for (int i = 0; i < labels.length; i++) {
+            positions.putIfAbsent(labels[i].toLowerCase(Locale.ROOT), i + 1);
+        }
+    }
+
+    /**
+     * Crée un ResultSet positionné avant la première ligne
+     *
+     * @param labels Les libellés des colonnes
+     * @param rows Les lignes (une valeur par colonne)
+     * @return Le ResultSet
+     */
+    static ResultSet of(String[] labels, Object[][] rows) {
+        return (ResultSet) Proxy.newProxyInstance(InMemoryResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new InMemoryResultSet(labels, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "next":
+                return ++cursor < rows.length;
+            case "getMetaData":
+                return metaData();
+            case "findColumn":
+                return findColumn((String) args[0]);
+            case "wasNull":
+                return lastWasNull;
+            case "close":
+                return null;
+            case "getString":
+                return (String) value(args[0]);
+            case "getInt": {
+                Object value = value(args[0]);
+                return value != null ? ((Number) value).intValue() : 0;
+            }
+            case "getBoolean": {
+                Object value = value(args[0]);
+                return value != null && (Boolean) value;
+            }
+            case "getTimestamp":
+                return (Timestamp) value(args[0]);
+            case "getDate":
+                return (Date) value(args[0]);
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private Object value(Object column) throws SQLException {
+        int index = column instanceof Integer ? (Integer) column : findColumn((String) column);
+        Object value = rows[cursor][index - 1];
+        lastWasNull = value == null;
+        return value;
+    }
+
+    private int findColumn(String label) throws SQLException {
+        Integer index = positions.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Column '" + label + "' not found.");
+        }
+        return index;
+    }
+
+    private ResultSetMetaData metaData() {
+        return (ResultSetMetaData) Proxy.newProxyInstance(InMemoryResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return labels.length;
+                        case "getColumnLabel":
+                        case "getColumnName":
+                            return labels[(Integer) args[0] - 1];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,170 @@
+package dao;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Appointment;
+import model.AppointmentStatus;
+import model.Doctor;
+import model.Patient;
+
+/**
+ * Banc d'essai JMH du coût de conversion d'une ligne de ResultSet.
+ * Compare les anciens mappers (lecture par libellé, métadonnées interrogées à chaque
+ * ligne, try/catch pour les colonnes jointes) aux mappers par index de RowMapper.
+ * Les résultats sont exprimés en nanosecondes par ligne.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    // Lignes par ResultSet (une journée chargée pour l'ensemble du cabinet)
+    private static final int ROWS = 500;
+
+    // Colonnes de SELECT rv.*, p.nom as patient_nom, p.prenom as patient_prenom, u.nom_complet as medecin_nom
+    private static final String[] APPOINTMENT_COLUMNS = {
+        "id_rendezvous", "id_patient_fk", "id_medecin_fk", "id_secretaire_creation_fk",
+        "date_heure_debut", "duree_minutes", "type_consultation", "statut_rdv", "notes_rdv",
+        "date_creation_rdv", "date_derniere_maj_rdv", "patient_nom", "patient_prenom", "medecin_nom"
+    };
+
+    // Colonnes de SELECT * FROM patients
+    private static final String[] PATIENT_COLUMNS = {
+        "id_patient", "nom", "prenom", "date_naissance", "telephone", "adresse", "email",
+        "notes_administratives", "date_creation_fiche"
+    };
+
+    private Object[][] appointmentRows;
+    private Object[][] patientRows;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime day = LocalDate.of(2025, 3, 10).atTime(8, 0);
+        appointmentRows = new Object[ROWS][];
+        patientRows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            Timestamp start = Timestamp.valueOf(day.plusMinutes(15L * i));
+            appointmentRows[i] = new Object[]{
+                i + 1, 1000 + i, 1 + i % 8, 1, start, 30, "Consultation",
+                i % 3 == 0 ? "CONFIRME" : "PLANIFIE", i % 4 == 0 ? null : "Notes du rendez-vous " + i,
+                start, start, "Nom" + i, "Prénom" + i, "Dr Médecin " + (i % 8)
+            };
+            patientRows[i] = new Object[]{
+                1000 + i, "Nom" + i, "Prénom" + i, Date.valueOf(LocalDate.of(1960 + i % 50, 1 + i % 12, 1)),
+                "06" + (10000000 + i), i + " rue de la Paix", "patient" + i + "@example.fr",
+                null, Timestamp.valueOf(day)
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Appointment> appointmentByLabel() throws SQLException {
+        ResultSet rs = InMemoryResultSet.of(APPOINTMENT_COLUMNS, appointmentRows);
+        List<Appointment> appointments = new ArrayList<>();
+        while (rs.next()) {
+            appointments.add(legacyAppointment(rs));
+        }
+        return appointments;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Appointment> appointmentByIndex() throws SQLException {
+        return RowMapper.mapAll(InMemoryResultSet.of(APPOINTMENT_COLUMNS, appointmentRows),
+                AppointmentDAOImpl.APPOINTMENT_MAPPER);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Patient> patientByLabel() throws SQLException {
+        ResultSet rs = InMemoryResultSet.of(PATIENT_COLUMNS, patientRows);
+        List<Patient> patients = new ArrayList<>();
+        while (rs.next()) {
+            patients.add(legacyPatient(rs));
+        }
+        return patients;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Patient> patientByIndex() throws SQLException {
+        return RowMapper.mapAll(InMemoryResultSet.of(PATIENT_COLUMNS, patientRows),
+                PatientDAOImpl.PATIENT_MAPPER);
+    }
+
+    /**
+     * Ancienne conversion d'une ligne de rendez-vous (lecture par libellé)
+     */
+    static Appointment legacyAppointment(ResultSet rs) throws SQLException {
+        int patientId = rs.getInt("id_patient_fk");
+        int doctorId = rs.getInt("id_medecin_fk");
+
+        Appointment appointment = new Appointment(rs.getInt("id_rendezvous"), patientId, doctorId,
+                rs.getInt("id_secretaire_creation_fk"), rs.getTimestamp("date_heure_debut").toLocalDateTime(),
+                rs.getInt("duree_minutes"), rs.getString("type_consultation"),
+                AppointmentStatus.fromLabel(rs.getString("statut_rdv")), rs.getString("notes_rdv"),
+                rs.getTimestamp("date_creation_rdv").toLocalDateTime(),
+                rs.getTimestamp("date_derniere_maj_rdv").toLocalDateTime());
+
+        try {
+            if (rs.getMetaData().getColumnCount() > 11) {
+                String patientLastName = rs.getString("patient_nom");
+                String patientFirstName = rs.getString("patient_prenom");
+                String doctorName = rs.getString("medecin_nom");
+
+                if (patientLastName != null && patientFirstName != null) {
+                    Patient patient = new Patient();
+                    patient.setId(patientId);
+                    patient.setLastName(patientLastName);
+                    patient.setFirstName(patientFirstName);
+                    appointment.setPatient(patient);
+                }
+                if (doctorName != null) {
+                    Doctor doctor = new Doctor();
+                    doctor.setId(doctorId);
+                    doctor.setFullName(doctorName);
+                    appointment.setDoctor(doctor);
+                }
+            }
+        } catch (SQLException e) {
+            // Colonnes jointes absentes
+        }
+        return appointment;
+    }
+
+    /**
+     * Ancienne conversion d'une ligne de patient (lecture par libellé)
+     */
+    static Patient legacyPatient(ResultSet rs) throws SQLException {
+        Date birthDate = rs.getDate("date_naissance");
+        Timestamp creationTimestamp = rs.getTimestamp("date_creation_fiche");
+        return new Patient(rs.getInt("id_patient"), rs.getString("nom"), rs.getString("prenom"),
+                birthDate != null ? birthDate.toLocalDate() : null, rs.getString("telephone"),
+                rs.getString("adresse"), rs.getString("email"), rs.getString("notes_administratives"),
+                creationTimestamp != null ? creationTimestamp.toLocalDateTime() : LocalDateTime.now());
+    }
+}
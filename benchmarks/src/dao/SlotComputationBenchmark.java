@@ -0,0 +1,68 @@
+package dao;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import model.AppointmentSummary;
+import model.Doctor;
+import util.BenchmarkData;
+
+/**
+ * Banc d'essai JMH du calcul des créneaux libres de DoctorDAOImpl.getAvailableTimeSlots
+ * (horaires de travail moins les rendez-vous de l'index, puis recherche des débuts
+ * libres), sans base de données : l'index est alimenté par recordAppointment.
+ * Une opération calcule les créneaux d'une journée pour tous les médecins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotComputationBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int doctorCount;
+
+    @Param({"8", "24", "48"})
+    public int appointmentsPerDay;
+
+    @Param({BenchmarkData.SIMPLE, BenchmarkData.SPLIT, BenchmarkData.FRAGMENTED})
+    public String schedule;
+
+    private List<Doctor> doctors;
+    private AppointmentIntervalIndex index;
+
+    @Setup
+    public void setUp() {
+        doctors = BenchmarkData.doctors(doctorCount, schedule);
+        index = new AppointmentIntervalIndex(null);
+        for (Doctor doctor : doctors) {
+            // Semaine entière : les rendez-vous des jours voisins sont écartés par l'index
+            for (AppointmentSummary summary : BenchmarkData.weekSummaries(doctor, BenchmarkData.MONDAY,
+                    appointmentsPerDay, doctor.getId() * 10_000)) {
+                index.recordAppointment(BenchmarkData.toAppointment(summary));
+            }
+        }
+    }
+
+    @Benchmark
+    public void availableTimeSlots(Blackhole blackhole) {
+        for (Doctor doctor : doctors) {
+            blackhole.consume(DoctorDAOImpl.computeAvailableTimeSlots(index, doctor, BenchmarkData.MONDAY, 30));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import util.BenchmarkData;
+
+/**
+ * Banc d'essai JMH des horaires de travail des médecins : représentation structurée
+ * (Doctor.getStructuredWorkHours, formulaire des médecins) et compilation des horaires
+ * saisis (Doctor.setWorkHours). Une opération traite tous les médecins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkHoursBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int doctorCount;
+
+    @Param({BenchmarkData.SIMPLE, BenchmarkData.SPLIT, BenchmarkData.FRAGMENTED})
+    public String schedule;
+
+    private List<Doctor> doctors;
+    private String workHours;
+
+    @Setup
+    public void setUp() {
+        doctors = BenchmarkData.doctors(doctorCount, schedule);
+        workHours = BenchmarkData.workHours(schedule);
+    }
+
+    @Benchmark
+    public void structuredWorkHours(Blackhole blackhole) {
+        for (Doctor doctor : doctors) {
+            blackhole.consume(doctor.getStructuredWorkHours());
+        }
+    }
+
+    @Benchmark
+    public void setWorkHours(Blackhole blackhole) {
+        for (Doctor doctor : doctors) {
+            doctor.setWorkHours(workHours);
+            blackhole.consume(doctor.getWorkSchedule());
+        }
+    }
+}
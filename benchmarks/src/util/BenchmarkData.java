@@ -0,0 +1,161 @@
+package util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Appointment;
+import model.AppointmentStatus;
+import model.AppointmentSummary;
+import model.Doctor;
+
+/**
+ * Jeux de données des bancs d'essai : médecins, horaires et rendez-vous générés de
+ * façon déterministe, selon les paramètres communs des scénarios (nombre de médecins,
+ * rendez-vous par jour, complexité des horaires).
+ */
+public final class BenchmarkData {
+
+    /**
+     * Horaires d'une seule plage, du lundi au vendredi
+     */
+    public static final String SIMPLE = "SIMPLE";
+
+    /**
+     * Matinée et après-midi en semaine, samedi matin
+     */
+    public static final String SPLIT = "SPLIT";
+
+    /**
+     * Cinq plages par jour, sept jours sur sept
+     */
+    public static final String FRAGMENTED = "FRAGMENTED";
+
+    // Lundi de référence des scénarios
+    public static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+    private static final String[] WEEK_DAYS = {"lundi", "mardi", "mercredi", "jeudi", "vendredi"};
+    private static final String[] SPECIALTIES = {"Médecine générale", "Cardiologie", "Pédiatrie", "Dermatologie"};
+    private static final int[] DURATIONS = {15, 30, 30, 45, 20};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param complexity SIMPLE, SPLIT ou FRAGMENTED
+     * @return Les horaires au format de Doctor.setWorkHours
+     */
+    public static String workHours(String complexity) {
+        StringBuilder builder = new StringBuilder();
+        switch (complexity) {
+            case SIMPLE:
+                for (String day : WEEK_DAYS) {
+                    append(builder, day, "08:00-18:00");
+                }
+                break;
+            case SPLIT:
+                for (String day : WEEK_DAYS) {
+                    append(builder, day, "08:30-12:30,13:30-19:00");
+                }
+                append(builder, "samedi", "09:00-12:00");
+                break;
+            case FRAGMENTED:
+                for (String day : new String[] {"lundi", "mardi", "mercredi", "jeudi", "vendredi", "samedi", "dimanche"}) {
+                    append(builder, day, "07:00-09:00,09:15-11:45,12:30-15:00,15:15-17:30,18:00-21:00");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Complexité d'horaires inconnue: " + complexity);
+        }
+        return builder.toString();
+    }
+
+    private static void append(StringBuilder builder, String day, String ranges) {
+        if (builder.length() > 0) {
+            builder.append(';');
+        }
+        builder.append(day).append(':').append(ranges);
+    }
+
+    /**
+     * @param count Le nombre de médecins
+     * @param complexity La complexité de leurs horaires
+     * @return Des médecins actifs, d'ID 1 à count
+     */
+    public static List<Doctor> doctors(int count, String complexity) {
+        String workHours = workHours(complexity);
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            doctors.add(new Doctor(i, "medecin" + i, "hash", "Dr Médecin " + i, true,
+                    MONDAY.minusYears(1).atStartOfDay(), SPECIALTIES[i % SPECIALTIES.length], workHours,
+                    "01" + (40000000 + i)));
+        }
+        return doctors;
+    }
+
+    /**
+     * Rendez-vous d'un médecin pour un jour : placés les uns après les autres dans ses
+     * plages de travail, puis en surréservation (chevauchements) au-delà de leur capacité ;
+     * un rendez-vous sur dix est annulé
+     *
+     * @param doctor Le médecin
+     * @param date Le jour
+     * @param perDay Le nombre de rendez-vous (0 si le médecin ne travaille pas ce jour)
+     * @param firstId L'ID du premier rendez-vous
+     * @return Les rendez-vous, par heure de début
+     */
+    public static List<AppointmentSummary> daySummaries(Doctor doctor, LocalDate date, int perDay, int firstId) {
+        List<AppointmentSummary> summaries = new ArrayList<>(perDay);
+        int[] ranges = doctor.getWorkSchedule().ranges(date.getDayOfWeek());
+        if (ranges.length == 0) {
+            return summaries;
+        }
+        int range = 0;
+        int minute = ranges[0];
+        for (int i = 0; i < perDay; i++) {
+            int id = firstId + i;
+            int duration = DURATIONS[id % DURATIONS.length];
+            if (minute + duration > ranges[range + 1]) {
+                range += 2;
+                if (range >= ranges.length) {
+                    // Journée pleine : surréservation à partir du début de la journée
+                    range = 0;
+                }
+                minute = ranges[range];
+            }
+            AppointmentStatus status = id % 10 == 0 ? AppointmentStatus.ANNULE_PATIENT
+                    : id % 3 == 0 ? AppointmentStatus.CONFIRME : AppointmentStatus.PLANIFIE;
+            summaries.add(new AppointmentSummary(id, 1000 + id, doctor.getId(), date.atStartOfDay().plusMinutes(minute),
+                    duration, status, "Consultation", "Nom" + id + " Prénom" + id, doctor.getFullName()));
+            minute += duration;
+        }
+        return summaries;
+    }
+
+    /**
+     * @param doctor Le médecin
+     * @param weekStart Le lundi de la semaine
+     * @param perDay Le nombre de rendez-vous par jour travaillé
+     * @param firstId L'ID du premier rendez-vous
+     * @return Les rendez-vous de la semaine, par heure de début
+     */
+    public static List<AppointmentSummary> weekSummaries(Doctor doctor, LocalDate weekStart, int perDay, int firstId) {
+        List<AppointmentSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            summaries.addAll(daySummaries(doctor, weekStart.plusDays(i), perDay, firstId + summaries.size()));
+        }
+        return summaries;
+    }
+
+    /**
+     * @param summary Un résumé de rendez-vous
+     * @return Le rendez-vous complet correspondant
+     */
+    public static Appointment toAppointment(AppointmentSummary summary) {
+        LocalDateTime created = summary.getStartDateTime().minusDays(7);
+        return new Appointment(summary.getId(), summary.getPatientId(), summary.getDoctorId(), 1,
+                summary.getStartDateTime(), summary.getDurationMinutes(), summary.getAppointmentType(),
+                summary.getStatus(), null, created, created);
+    }
+}
@@ -0,0 +1,116 @@
+package util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import model.AppointmentSummary;
+import model.Doctor;
+
+/**
+ * Banc d'essai JMH des utilitaires de dates du planning : génération des créneaux
+ * d'une journée de travail (DateTimeUtils.generateTimeSlots, plage par plage) et
+ * détection des chevauchements entre les rendez-vous d'une journée
+ * (DateTimeUtils.isOverlapping, toutes les paires).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeUtilsBenchmark {
+
+    /**
+     * Plages de travail d'un lundi ("HH:mm", début et fin)
+     */
+    @State(Scope.Benchmark)
+    public static class WorkDay {
+
+        @Param({BenchmarkData.SIMPLE, BenchmarkData.SPLIT, BenchmarkData.FRAGMENTED})
+        public String schedule;
+
+        @Param({"5", "15"})
+        public int slotMinutes;
+
+        String[] starts;
+        String[] ends;
+
+        @Setup
+        public void setUp() {
+            Doctor doctor = BenchmarkData.doctors(1, schedule).get(0);
+            List<String> ranges = doctor.getWorkSchedule().formattedRanges(DayOfWeek.MONDAY);
+            starts = new String[ranges.size()];
+            ends = new String[ranges.size()];
+            for (int i = 0; i < ranges.size(); i++) {
+                String[] bounds = ranges.get(i).split("-");
+                starts[i] = bounds[0];
+                ends[i] = bounds[1];
+            }
+        }
+    }
+
+    /**
+     * Rendez-vous d'une journée (début et fin)
+     */
+    @State(Scope.Benchmark)
+    public static class Appointments {
+
+        @Param({"8", "24", "48"})
+        public int appointmentsPerDay;
+
+        @Param({BenchmarkData.SIMPLE, BenchmarkData.FRAGMENTED})
+        public String schedule;
+
+        LocalDateTime[] starts;
+        LocalDateTime[] ends;
+
+        @Setup
+        public void setUp() {
+            Doctor doctor = BenchmarkData.doctors(1, schedule).get(0);
+            List<AppointmentSummary> day = BenchmarkData.daySummaries(doctor, BenchmarkData.MONDAY,
+                    appointmentsPerDay, 1);
+            starts = new LocalDateTime[day.size()];
+            ends = new LocalDateTime[day.size()];
+            for (int i = 0; i < day.size(); i++) {
+                starts[i] = day.get(i).getStartDateTime();
+                ends[i] = day.get(i).getEndDateTime();
+            }
+        }
+    }
+
+    @Benchmark
+    public void generateTimeSlots(WorkDay workDay, Blackhole blackhole) {
+        for (int i = 0; i < workDay.starts.length; i++) {
+            blackhole.consume(DateTimeUtils.generateTimeSlots(workDay.starts[i], workDay.ends[i], workDay.slotMinutes));
+        }
+    }
+
+    @Benchmark
+    public int overlappingPairs(Appointments appointments) {
+        LocalDateTime[] starts = appointments.starts;
+        LocalDateTime[] ends = appointments.ends;
+        int overlapping = 0;
+        for (int i = 0; i < starts.length; i++) {
+            for (int j = i + 1; j < starts.length; j++) {
+                if (DateTimeUtils.isOverlapping(starts[i], ends[i], starts[j], ends[j])) {
+                    overlapping++;
+                }
+            }
+        }
+        return overlapping;
+    }
+}
@@ -0,0 +1,133 @@
+package util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.AppointmentSummary;
+import model.Doctor;
+
+/**
+ * Banc d'essai JMH des exports PDF : planning journalier, planning hebdomadaire d'un
+ * médecin et document fusionné de tous les médecins (export groupé de la semaine).
+ * Chaque opération produit le fichier complet (mise en page, écriture et remplacement
+ * atomique) dans un dossier temporaire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PDFExporterBenchmark {
+
+    /**
+     * Dossier de sortie, propre à chaque thread et supprimé en fin d'essai
+     */
+    @State(Scope.Thread)
+    public static class Output {
+        Path directory;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("bancs-pdf");
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+
+        String file(String name) {
+            return directory.resolve(name).toString();
+        }
+    }
+
+    /**
+     * Planning d'un médecin, pour un jour et pour la semaine
+     */
+    @State(Scope.Benchmark)
+    public static class DoctorPlanning {
+
+        @Param({"8", "32"})
+        public int appointmentsPerDay;
+
+        @Param({BenchmarkData.SIMPLE, BenchmarkData.FRAGMENTED})
+        public String schedule;
+
+        Doctor doctor;
+        List<AppointmentSummary> day;
+        List<AppointmentSummary> week;
+
+        @Setup
+        public void setUp() {
+            doctor = BenchmarkData.doctors(1, schedule).get(0);
+            day = BenchmarkData.daySummaries(doctor, BenchmarkData.MONDAY, appointmentsPerDay, 1);
+            week = BenchmarkData.weekSummaries(doctor, BenchmarkData.MONDAY, appointmentsPerDay, 1);
+        }
+    }
+
+    /**
+     * Plannings de la semaine de tous les médecins
+     */
+    @State(Scope.Benchmark)
+    public static class AllPlannings {
+
+        @Param({"1", "10", "50"})
+        public int doctorCount;
+
+        @Param({"8", "32"})
+        public int appointmentsPerDay;
+
+        Map<Doctor, List<AppointmentSummary>> plannings;
+
+        @Setup
+        public void setUp() {
+            plannings = new LinkedHashMap<>();
+            for (Doctor doctor : BenchmarkData.doctors(doctorCount, BenchmarkData.SPLIT)) {
+                plannings.put(doctor, BenchmarkData.weekSummaries(doctor, BenchmarkData.MONDAY, appointmentsPerDay,
+                        doctor.getId() * 10_000));
+            }
+        }
+    }
+
+    @Benchmark
+    public String dailyPlanning(Output output, DoctorPlanning planning) throws IOException {
+        return PDFExporter.exportDailyPlanningToPDF(planning.doctor, BenchmarkData.MONDAY, planning.day,
+                output.file("journalier.pdf"));
+    }
+
+    @Benchmark
+    public String weeklyPlanning(Output output, DoctorPlanning planning) throws IOException {
+        return PDFExporter.exportWeeklyPlanningToPDF(planning.doctor, BenchmarkData.MONDAY, planning.week,
+                output.file("hebdomadaire.pdf"));
+    }
+
+    @Benchmark
+    public String weeklyPlanningsMerged(Output output, AllPlannings plannings) throws IOException {
+        return PDFExporter.exportWeeklyPlanningsToPDF(plannings.plannings, BenchmarkData.MONDAY,
+                output.file("semaine.pdf"));
+    }
+}
@@ -0,0 +1,246 @@
+-- Banc d'essai des requêtes de planning sur une table rendez_vous volumineuse
+--
+-- Compare, sur plusieurs millions de rendez-vous :
+--   A. les anciennes requêtes (DATE(date_heure_debut) = ?) avec les index de la version 1 ;
+--   B. les requêtes à plage semi-ouverte (date_heure_debut >= ? AND < ?) avec les mêmes index ;
+--   C. les requêtes à plage semi-ouverte avec les index composites de la migration V2.
+--
+-- Prérequis : MySQL 8.0.18 ou supérieur (EXPLAIN ANALYZE).
+-- Le script travaille dans une base séparée (medical_appointments_bench) et ne touche
+-- pas à la base de l'application. Compter quelques minutes pour le peuplement.
+--
+-- Utilisation :
+--   mysql -u root < database/benchmarks/planning_queries_benchmark.sql > resultats.txt
+-- Les temps réels figurent dans la sortie d'EXPLAIN ANALYZE (« actual time=... »).
+
+DROP DATABASE IF EXISTS medical_appointments_bench;
+CREATE DATABASE medical_appointments_bench;
+USE medical_appointments_bench;
+
+-- Paramètres du jeu de données
+SET @nb_medecins = 40;
+SET @rdv_par_medecin_et_jour = 16;
+SET @nb_rendez_vous = 5000000;
+SET @nb_patients = 200000;
+
+-- ---------------------------------------------------------------------------
+-- Tables (mêmes colonnes que schema.sql, sans clés étrangères pour accélérer le peuplement)
+-- ---------------------------------------------------------------------------
+
+CREATE TABLE utilisateurs (
+    id_utilisateur INT AUTO_INCREMENT PRIMARY KEY,
+    nom_utilisateur VARCHAR(50) NOT NULL UNIQUE,
+    mot_de_passe_hash VARCHAR(255) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    nom_complet VARCHAR(100) NOT NULL,
+    actif BOOLEAN NOT NULL DEFAULT TRUE,
+    date_creation_compte DATETIME NOT NULL
+);
+
+CREATE TABLE patients (
+    id_patient INT AUTO_INCREMENT PRIMARY KEY,
+    nom VARCHAR(50) NOT NULL,
+    prenom VARCHAR(50) NOT NULL,
+    date_naissance DATE,
+    telephone VARCHAR(20) NOT NULL,
+    adresse TEXT,
+    email VARCHAR(100),
+    notes_administratives TEXT,
+    date_creation_fiche DATETIME NOT NULL,
+    INDEX idx_patients_nom (nom, prenom)
+);
+
+-- Index de la version 1 du schéma
+CREATE TABLE rendez_vous (
+    id_rendezvous INT AUTO_INCREMENT PRIMARY KEY,
+    id_patient_fk INT NOT NULL,
+    id_medecin_fk INT NOT NULL,
+    id_secretaire_creation_fk INT NOT NULL,
+    date_heure_debut DATETIME NOT NULL,
+    duree_minutes INT NOT NULL,
+    type_consultation VARCHAR(50),
+    statut_rdv VARCHAR(30) NOT NULL,
+    notes_rdv TEXT,
+    date_creation_rdv DATETIME NOT NULL,
+    date_derniere_maj_rdv DATETIME NOT NULL,
+    INDEX idx_rdv_patient (id_patient_fk),
+    INDEX idx_rdv_medecin (id_medecin_fk),
+    INDEX idx_rdv_date (date_heure_debut),
+    INDEX idx_rdv_statut (statut_rdv)
+);
+
+-- ---------------------------------------------------------------------------
+-- Peuplement
+-- ---------------------------------------------------------------------------
+
+CREATE TABLE chiffres (n INT PRIMARY KEY);
+INSERT INTO chiffres VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+-- Séquence 0 .. 9 999 999
+CREATE TABLE sequence (n INT PRIMARY KEY);
+INSERT INTO sequence (n)
+SELECT a.n + 10 * b.n + 100 * c.n + 1000 * d.n + 10000 * e.n + 100000 * f.n + 1000000 * g.n
+FROM chiffres a, chiffres b, chiffres c, chiffres d, chiffres e, chiffres f, chiffres g;
+
+INSERT INTO utilisateurs (nom_utilisateur, mot_de_passe_hash, role, nom_complet, actif, date_creation_compte)
+SELECT CONCAT('docteur', n + 1), 'x', 'MEDECIN', CONCAT('Dr. Médecin ', n + 1), TRUE, NOW()
+FROM sequence WHERE n < @nb_medecins;
+
+INSERT INTO patients (nom, prenom, date_naissance, telephone, email, date_creation_fiche)
+SELECT CONCAT('Nom', n), CONCAT('Prenom', n % 997),
+       DATE_SUB('2020-01-01', INTERVAL n % 30000 DAY),
+       LPAD(n, 10, '0'), CONCAT('patient', n, '@exemple.fr'), NOW()
+FROM sequence WHERE n < @nb_patients;
+
+-- Chaque médecin reçoit @rdv_par_medecin_et_jour rendez-vous de 30 minutes par jour,
+-- à partir de 8h00, sur plusieurs années d'historique. Une partie est annulée.
+INSERT INTO rendez_vous (id_patient_fk, id_medecin_fk, id_secretaire_creation_fk, date_heure_debut,
+                         duree_minutes, type_consultation, statut_rdv, notes_rdv,
+                         date_creation_rdv, date_derniere_maj_rdv)
+SELECT (n * 7919) % @nb_patients + 1,
+       n % @nb_medecins + 1,
+       1,
+       TIMESTAMPADD(MINUTE,
+                    480 + ((n DIV @nb_medecins) % @rdv_par_medecin_et_jour) * 30,
+                    TIMESTAMPADD(DAY, n DIV (@nb_medecins * @rdv_par_medecin_et_jour), '2010-01-01')),
+       30,
+       'Consultation standard',
+       CASE WHEN n % 10 = 0 THEN 'ANNULE_PATIENT' WHEN n % 3 = 0 THEN 'REALISE' ELSE 'CONFIRME' END,
+       'Notes de consultation',
+       NOW(), NOW()
+FROM sequence WHERE n < @nb_rendez_vous;
+
+ANALYZE TABLE rendez_vous, patients, utilisateurs;
+
+-- Jour et médecin observés : l'historique couvre environ 21 ans à partir du 2010-01-01
+-- (jusqu'en mai 2031), le jour est choisi dans sa dernière année
+SET @medecin = 7;
+SET @patient = 4242;
+SET @jour = '2031-03-18';
+SET @debut_jour = TIMESTAMP(@jour);
+SET @fin_jour = TIMESTAMP(DATE_ADD(@jour, INTERVAL 1 DAY));
+SET @debut_semaine = TIMESTAMP('2031-03-17');
+SET @fin_semaine = TIMESTAMP('2031-03-24');
+
+SELECT COUNT(*) AS nb_rendez_vous FROM rendez_vous;
+
+-- ---------------------------------------------------------------------------
+-- A. Anciennes requêtes, index version 1
+-- ---------------------------------------------------------------------------
+
+SELECT 'A. Planning journalier d''un médecin - DATE() = ?' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE rv.id_medecin_fk = @medecin AND DATE(rv.date_heure_debut) = @jour
+ORDER BY rv.date_heure_debut;
+
+SELECT 'A. Planning hebdomadaire d''un médecin - DATE() BETWEEN' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE rv.id_medecin_fk = @medecin AND DATE(rv.date_heure_debut) BETWEEN '2031-03-17' AND '2031-03-23'
+ORDER BY rv.date_heure_debut;
+
+SELECT 'A. Rendez-vous du jour (tous médecins) - DATE() = ?' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE DATE(rv.date_heure_debut) = @jour
+ORDER BY rv.date_heure_debut;
+
+SELECT 'A. Comptage journalier d''un médecin - DATE() = ?' AS requete;
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM rendez_vous
+WHERE id_medecin_fk = @medecin AND DATE(date_heure_debut) = @jour
+AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET');
+
+SELECT 'A. Historique d''un patient' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.* FROM rendez_vous rv WHERE rv.id_patient_fk = @patient ORDER BY rv.date_heure_debut;
+
+-- ---------------------------------------------------------------------------
+-- B. Plages semi-ouvertes, index version 1
+-- ---------------------------------------------------------------------------
+
+SELECT 'B. Planning journalier d''un médecin - plage semi-ouverte' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE rv.id_medecin_fk = @medecin AND rv.date_heure_debut >= @debut_jour AND rv.date_heure_debut < @fin_jour
+ORDER BY rv.date_heure_debut;
+
+SELECT 'B. Planning hebdomadaire d''un médecin - plage semi-ouverte' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE rv.id_medecin_fk = @medecin AND rv.date_heure_debut >= @debut_semaine AND rv.date_heure_debut < @fin_semaine
+ORDER BY rv.date_heure_debut;
+
+SELECT 'B. Comptage journalier d''un médecin - plage semi-ouverte' AS requete;
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM rendez_vous
+WHERE id_medecin_fk = @medecin AND date_heure_debut >= @debut_jour AND date_heure_debut < @fin_jour
+AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET');
+
+-- ---------------------------------------------------------------------------
+-- C. Plages semi-ouvertes, index composites de la migration V2
+-- ---------------------------------------------------------------------------
+
+ALTER TABLE rendez_vous
+    ADD INDEX idx_rdv_medecin_debut_statut (id_medecin_fk, date_heure_debut, statut_rdv),
+    ADD INDEX idx_rdv_patient_debut (id_patient_fk, date_heure_debut);
+ALTER TABLE rendez_vous
+    DROP INDEX idx_rdv_medecin,
+    DROP INDEX idx_rdv_patient;
+ANALYZE TABLE rendez_vous;
+
+SELECT 'C. Planning journalier d''un médecin - index composite' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE rv.id_medecin_fk = @medecin AND rv.date_heure_debut >= @debut_jour AND rv.date_heure_debut < @fin_jour
+ORDER BY rv.date_heure_debut;
+
+SELECT 'C. Planning hebdomadaire d''un médecin - index composite' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE rv.id_medecin_fk = @medecin AND rv.date_heure_debut >= @debut_semaine AND rv.date_heure_debut < @fin_semaine
+ORDER BY rv.date_heure_debut;
+
+SELECT 'C. Rendez-vous du jour (tous médecins) - plage semi-ouverte' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.*, p.nom AS patient_nom, p.prenom AS patient_prenom, u.nom_complet AS medecin_nom
+FROM rendez_vous rv
+JOIN patients p ON rv.id_patient_fk = p.id_patient
+JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur
+WHERE rv.date_heure_debut >= @debut_jour AND rv.date_heure_debut < @fin_jour
+ORDER BY rv.date_heure_debut;
+
+SELECT 'C. Comptage journalier d''un médecin - index couvrant' AS requete;
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM rendez_vous
+WHERE id_medecin_fk = @medecin AND date_heure_debut >= @debut_jour AND date_heure_debut < @fin_jour
+AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET');
+
+SELECT 'C. Historique d''un patient - index composite' AS requete;
+EXPLAIN ANALYZE
+SELECT rv.* FROM rendez_vous rv WHERE rv.id_patient_fk = @patient ORDER BY rv.date_heure_debut;
+
+-- Nettoyage (décommenter pour supprimer la base de test)
+-- DROP DATABASE medical_appointments_bench;
@@ -0,0 +1,34 @@
+-- Migration V2 : index composites pour les requêtes de planning
+--
+-- Les requêtes journalières et hebdomadaires filtrent sur une plage semi-ouverte
+-- de date_heure_debut pour un médecin (ou un patient) donné. Les index composites
+-- ci-dessous servent ces requêtes par un parcours de plage, et couvrent le filtre
+-- sur le statut sans relire la ligne.
+--
+-- Les index mono-colonne idx_rdv_medecin et idx_rdv_patient deviennent redondants
+-- (préfixes des nouveaux index) et sont supprimés une fois les clés étrangères
+-- couvertes par les index composites.
+--
+-- À appliquer sur une base créée avec la version 1 de schema.sql.
+
+USE medical_appointments;
+
+CREATE TABLE IF NOT EXISTS schema_version (
+    version INT PRIMARY KEY,
+    description VARCHAR(200) NOT NULL,
+    date_application DATETIME NOT NULL
+);
+
+INSERT IGNORE INTO schema_version (version, description, date_application)
+VALUES (1, 'Schéma initial', NOW());
+
+ALTER TABLE rendez_vous
+    ADD INDEX idx_rdv_medecin_debut_statut (id_medecin_fk, date_heure_debut, statut_rdv),
+    ADD INDEX idx_rdv_patient_debut (id_patient_fk, date_heure_debut);
+
+ALTER TABLE rendez_vous
+    DROP INDEX idx_rdv_medecin,
+    DROP INDEX idx_rdv_patient;
+
+INSERT INTO schema_version (version, description, date_application)
+VALUES (2, 'Index composites rendez_vous (médecin, début, statut) et (patient, début)', NOW());
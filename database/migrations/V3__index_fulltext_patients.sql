@@ -0,0 +1,22 @@
+-- Migration V3 : index FULLTEXT n-grammes pour la recherche de patients
+--
+-- Les recherches par nom et par email utilisaient LIKE '%x%', qu'aucun index
+-- B-tree ne peut servir : chaque recherche parcourait toute la table patients.
+-- Par défaut, l'application sert désormais ces recherches depuis un index
+-- mémoire par trigrammes (dao.PatientSearchIndex) ; les index ci-dessous ne sont
+-- utilisés que si l'application est lancée avec -Dpatients.recherche=fulltext.
+--
+-- Le parseur ngram découpe le texte en n-grammes de ngram_token_size caractères
+-- (2 par défaut) : les saisies d'un seul caractère ne trouvent rien dans ce mode.
+-- La collation utf8mb4_0900_ai_ci rend la recherche insensible aux accents.
+--
+-- À appliquer sur une base en version 2.
+
+USE medical_appointments;
+
+ALTER TABLE patients
+    ADD FULLTEXT INDEX ft_patients_nom (nom, prenom) WITH PARSER ngram,
+    ADD FULLTEXT INDEX ft_patients_email (email) WITH PARSER ngram;
+
+INSERT INTO schema_version (version, description, date_application)
+VALUES (3, 'Index FULLTEXT n-grammes patients (nom, prénom) et (email)', NOW());
@@ -0,0 +1,21 @@
+-- Migration V5 : index couvrant pour la charge mensuelle du planning
+--
+-- La carte de charge du mois (PlanningView) compte les rendez-vous actifs et
+-- additionne leur durée par jour, pour un médecin, en une requête GROUP BY.
+-- L'ajout de duree_minutes à l'index (médecin, début, statut) permet de servir
+-- cette requête par un parcours de plage sur l'index seul, sans relire les lignes.
+-- Le nouvel index a le même préfixe que idx_rdv_medecin_debut_statut et le
+-- remplace pour toutes les requêtes de planning et pour la clé étrangère.
+--
+-- À appliquer sur une base en version 4.
+
+USE medical_appointments;
+
+ALTER TABLE rendez_vous
+    ADD INDEX idx_rdv_medecin_debut_statut_duree (id_medecin_fk, date_heure_debut, statut_rdv, duree_minutes);
+
+ALTER TABLE rendez_vous
+    DROP INDEX idx_rdv_medecin_debut_statut;
+
+INSERT INTO schema_version (version, description, date_application)
+VALUES (5, 'Index couvrant rendez_vous (médecin, début, statut, durée) pour la charge mensuelle', NOW());
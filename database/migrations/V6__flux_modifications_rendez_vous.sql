@@ -0,0 +1,29 @@
+-- Migration V6 : flux des modifications de rendez-vous (rafraîchissement incrémental)
+--
+-- Les vues interrogent périodiquement les rendez-vous modifiés depuis leur dernier
+-- filigrane (date_derniere_maj_rdv >= ?) au lieu de tout recharger. L'index sur
+-- date_derniere_maj_rdv sert cette requête par un parcours de plage : son coût
+-- dépend du nombre de changements, non du volume de rendez-vous.
+--
+-- Les suppressions définitives laissent une trace dans rendez_vous_suppressions
+-- (écrite par l'application dans la transaction de suppression). Les traces plus
+-- anciennes que la durée de rétention sont purgées ; une vue dont le filigrane est
+-- plus ancien recharge tout.
+--
+-- À appliquer sur une base en version 5.
+
+USE medical_appointments;
+
+ALTER TABLE rendez_vous
+    ADD INDEX idx_rdv_maj (date_derniere_maj_rdv);
+
+CREATE TABLE rendez_vous_suppressions (
+    id_rendezvous INT PRIMARY KEY,
+    id_medecin_fk INT NOT NULL,
+    date_heure_debut DATETIME NOT NULL,
+    date_suppression DATETIME NOT NULL,
+    INDEX idx_suppressions_date (date_suppression)
+);
+
+INSERT INTO schema_version (version, description, date_application)
+VALUES (6, 'Index rendez_vous (date de mise à jour) et table rendez_vous_suppressions pour le flux des modifications', NOW());
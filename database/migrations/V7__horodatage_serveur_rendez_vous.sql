@@ -0,0 +1,81 @@
+-- Migration V7 : date de dernière modification des rendez-vous posée par le serveur
+--
+-- Le flux des modifications (V6) compare date_derniere_maj_rdv à un filigrane lu
+-- sur le serveur (SELECT NOW()), alors que la date était écrite avec l'horloge du
+-- poste : les écritures d'un poste en retard de plus que le recouvrement du flux
+-- n'apparaissaient jamais chez les autres. L'application écrit désormais NOW()
+-- dans ses requêtes ; la procédure reserver_rendez_vous en fait autant et perd son
+-- paramètre p_date_maj. Tant que cette migration n'est pas appliquée, l'application
+-- réserve côté Java (procédure de la version 4 ignorée).
+--
+-- À appliquer sur une base en version 6.
+
+USE medical_appointments;
+
+DROP PROCEDURE IF EXISTS reserver_rendez_vous;
+
+DELIMITER //
+
+CREATE PROCEDURE reserver_rendez_vous(
+    IN p_id_patient INT,
+    IN p_id_medecin INT,
+    IN p_id_secretaire INT,
+    IN p_debut DATETIME,
+    IN p_duree INT,
+    IN p_type VARCHAR(50),
+    IN p_statut VARCHAR(30),
+    IN p_notes TEXT,
+    IN p_date_creation DATETIME,
+    OUT p_resultat VARCHAR(20),
+    OUT p_id_rendezvous INT)
+BEGIN
+    DECLARE v_medecin INT DEFAULT NULL;
+    DECLARE v_conflit INT DEFAULT NULL;
+
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    START TRANSACTION;
+
+    SELECT id_medecin INTO v_medecin
+    FROM medecins
+    WHERE id_medecin = p_id_medecin
+    FOR UPDATE;
+
+    IF v_medecin IS NULL THEN
+        ROLLBACK;
+        SET p_resultat = 'MEDECIN_INCONNU', p_id_rendezvous = 0;
+    ELSE
+        -- Un rendez-vous dure au plus 24 h : la recherche est bornée vers le passé
+        SELECT id_rendezvous INTO v_conflit
+        FROM rendez_vous
+        WHERE id_medecin_fk = p_id_medecin
+          AND date_heure_debut >= p_debut - INTERVAL 1440 MINUTE
+          AND date_heure_debut < p_debut + INTERVAL p_duree MINUTE
+          AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET')
+          AND date_heure_debut + INTERVAL duree_minutes MINUTE > p_debut
+        ORDER BY date_heure_debut
+        LIMIT 1;
+
+        IF v_conflit IS NOT NULL THEN
+            ROLLBACK;
+            SET p_resultat = 'CONFLIT', p_id_rendezvous = v_conflit;
+        ELSE
+            INSERT INTO rendez_vous (id_patient_fk, id_medecin_fk, id_secretaire_creation_fk,
+                                     date_heure_debut, duree_minutes, type_consultation, statut_rdv,
+                                     notes_rdv, date_creation_rdv, date_derniere_maj_rdv)
+            VALUES (p_id_patient, p_id_medecin, p_id_secretaire, p_debut, p_duree, p_type, p_statut,
+                    p_notes, p_date_creation, NOW());
+            SET p_id_rendezvous = LAST_INSERT_ID(), p_resultat = 'RESERVE';
+            COMMIT;
+        END IF;
+    END IF;
+END //
+
+DELIMITER ;
+
+INSERT INTO schema_version (version, description, date_application)
+VALUES (7, 'Date de dernière modification des rendez-vous posée par le serveur (procédure reserver_rendez_vous)', NOW());
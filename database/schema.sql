@@ -42,7 +42,11 @@ CREATE TABLE patients (
     date_creation_fiche DATETIME NOT NULL,
     
     INDEX idx_patients_nom (nom, prenom),
-    INDEX idx_patients_telephone (telephone)
+    INDEX idx_patients_telephone (telephone),
+    
+    -- Recherche par sous-chaîne en mode FULLTEXT (voir migrations/V3)
+    FULLTEXT INDEX ft_patients_nom (nom, prenom) WITH PARSER ngram,
+    FULLTEXT INDEX ft_patients_email (email) WITH PARSER ngram
 );
 
 -- Table des rendez-vous
@@ -63,11 +67,104 @@ CREATE TABLE rendez_vous (
     FOREIGN KEY (id_medecin_fk) REFERENCES medecins(id_medecin) ON DELETE RESTRICT,
     FOREIGN KEY (id_secretaire_creation_fk) REFERENCES utilisateurs(id_utilisateur) ON DELETE RESTRICT,
     
-    INDEX idx_rdv_patient (id_patient_fk),
-    INDEX idx_rdv_medecin (id_medecin_fk),
+    -- Index composites couvrant les requêtes de planning et la charge mensuelle (voir migrations/V2 et V5)
+    INDEX idx_rdv_medecin_debut_statut_duree (id_medecin_fk, date_heure_debut, statut_rdv, duree_minutes),
+    INDEX idx_rdv_patient_debut (id_patient_fk, date_heure_debut),
     INDEX idx_rdv_date (date_heure_debut),
-    INDEX idx_rdv_statut (statut_rdv)
+    INDEX idx_rdv_statut (statut_rdv),
+    
+    -- Flux des modifications : rendez-vous modifiés depuis un filigrane (voir migrations/V6)
+    INDEX idx_rdv_maj (date_derniere_maj_rdv)
+);
+
+-- Traces des rendez-vous supprimés, lues par le flux des modifications (voir migrations/V6)
+CREATE TABLE rendez_vous_suppressions (
+    id_rendezvous INT PRIMARY KEY,
+    id_medecin_fk INT NOT NULL,
+    date_heure_debut DATETIME NOT NULL,
+    date_suppression DATETIME NOT NULL,
+    INDEX idx_suppressions_date (date_suppression)
+);
+
+-- Contrainte pour éviter les doublons de rendez-vous (même médecin, même créneau) :
+-- la procédure reserver_rendez_vous vérifie le créneau et insère le rendez-vous
+-- dans une seule transaction, sous un verrou par médecin (voir migrations/V4 et V7)
+DELIMITER //
+
+CREATE PROCEDURE reserver_rendez_vous(
+    IN p_id_patient INT,
+    IN p_id_medecin INT,
+    IN p_id_secretaire INT,
+    IN p_debut DATETIME,
+    IN p_duree INT,
+    IN p_type VARCHAR(50),
+    IN p_statut VARCHAR(30),
+    IN p_notes TEXT,
+    IN p_date_creation DATETIME,
+    OUT p_resultat VARCHAR(20),
+    OUT p_id_rendezvous INT)
+BEGIN
+    DECLARE v_medecin INT DEFAULT NULL;
+    DECLARE v_conflit INT DEFAULT NULL;
+
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    START TRANSACTION;
+
+    SELECT id_medecin INTO v_medecin
+    FROM medecins
+    WHERE id_medecin = p_id_medecin
+    FOR UPDATE;
+
+    IF v_medecin IS NULL THEN
+        ROLLBACK;
+        SET p_resultat = 'MEDECIN_INCONNU', p_id_rendezvous = 0;
+    ELSE
+        -- Un rendez-vous dure au plus 24 h : la recherche est bornée vers le passé
+        SELECT id_rendezvous INTO v_conflit
+        FROM rendez_vous
+        WHERE id_medecin_fk = p_id_medecin
+          AND date_heure_debut >= p_debut - INTERVAL 1440 MINUTE
+          AND date_heure_debut < p_debut + INTERVAL p_duree MINUTE
+          AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET')
+          AND date_heure_debut + INTERVAL duree_minutes MINUTE > p_debut
+        ORDER BY date_heure_debut
+        LIMIT 1;
+
+        IF v_conflit IS NOT NULL THEN
+            ROLLBACK;
+            SET p_resultat = 'CONFLIT', p_id_rendezvous = v_conflit;
+        ELSE
+            INSERT INTO rendez_vous (id_patient_fk, id_medecin_fk, id_secretaire_creation_fk,
+                                     date_heure_debut, duree_minutes, type_consultation, statut_rdv,
+                                     notes_rdv, date_creation_rdv, date_derniere_maj_rdv)
+            VALUES (p_id_patient, p_id_medecin, p_id_secretaire, p_debut, p_duree, p_type, p_statut,
+                    p_notes, p_date_creation, NOW());
+            SET p_id_rendezvous = LAST_INSERT_ID(), p_resultat = 'RESERVE';
+            COMMIT;
+        END IF;
+    END IF;
+END //
+
+DELIMITER ;
+
+-- Historique des migrations appliquées (voir le dossier migrations/)
+CREATE TABLE schema_version (
+    version INT PRIMARY KEY,
+    description VARCHAR(200) NOT NULL,
+    date_application DATETIME NOT NULL
 );
 
--- Contrainte pour éviter les doublons de rendez-vous (même médecin, même créneau)
--- Cette contrainte est gérée dans le code de l'application via la méthode hasAppointmentConflict
\ No newline at end of file
+INSERT INTO schema_version (version, description, date_application)
+VALUES
+(1, 'Schéma initial', NOW()),
+(2, 'Index composites rendez_vous (médecin, début, statut) et (patient, début)', NOW()),
+(3, 'Index FULLTEXT n-grammes patients (nom, prénom) et (email)', NOW()),
+(4, 'Procédure de réservation atomique reserver_rendez_vous', NOW()),
+(5, 'Index couvrant rendez_vous (médecin, début, statut, durée) pour la charge mensuelle', NOW()),
+(6, 'Index rendez_vous (date de mise à jour) et table rendez_vous_suppressions pour le flux des modifications', NOW()),
+(7, 'Date de dernière modification des rendez-vous posée par le serveur (procédure reserver_rendez_vous)', NOW());
@@ -30,8 +30,39 @@ public class AppConfig {
     public static final String EXPORT_DIRECTORY = System.getProperty("user.home") + "/Documents/MedicalAppointments/exports/";
     public static final String PDF_EXPORT_PREFIX = "planning_";
     
+    // Recherche de patients : index mémoire ("index") ou index FULLTEXT MySQL ("fulltext"),
+    // sélectionnée par la propriété système patients.recherche
+    public static final String PATIENT_SEARCH_INDEX = "index";
+    public static final String PATIENT_SEARCH_FULLTEXT = "fulltext";
+    public static final String PATIENT_SEARCH_MODE = System.getProperty("patients.recherche", PATIENT_SEARCH_INDEX);
+    public static final int MAX_SEARCH_RESULTS = 200;
+    
+    // Rafraîchissement incrémental des vues : intervalle d'interrogation du flux des
+    // modifications, et recouvrement relu à chaque fois (transactions validées après
+    // l'interrogation précédente ; les dates sont posées par l'horloge du serveur)
+    public static final int CHANGE_POLL_INTERVAL_MILLIS = 15_000;
+    public static final int CHANGE_FEED_OVERLAP_SECONDS = 120;
+
+    // Bus d'événements : délai de regroupement des événements publiés en rafale
+    // (un lot par abonné et par fenêtre)
+    public static final int EVENT_COALESCE_MILLIS = 50;
+
+    // Mesures de la couche DAO : seuil du journal des appels lents (modifiable par JMX),
+    // période du résumé journalisé et nom du MBean
+    public static final long DAO_SLOW_CALL_MILLIS = 250;
+    public static final int DAO_METRICS_SUMMARY_MINUTES = 5;
+    public static final String DAO_METRICS_MBEAN_NAME = "medical.appointments:type=DaoMetrics";
+    
+    // Implémentation de la couche DAO : MySQL ("mysql") ou base en mémoire ("memoire",
+    // tests de charge et mode hors ligne), sélectionnée par la propriété système dao.backend
+    public static final String DAO_BACKEND_MYSQL = "mysql";
+    public static final String DAO_BACKEND_MEMORY = "memoire";
+    public static final String DAO_BACKEND = System.getProperty("dao.backend", DAO_BACKEND_MYSQL);
+    
     // Limites et contraintes diverses
     public static final int MAX_LOGIN_ATTEMPTS = 3;
+    // Durée maximale d'un rendez-vous : les contrôles de chevauchement ne remontent pas au-delà
+    public static final int MAX_APPOINTMENT_MINUTES = 24 * 60;
     public static final int MIN_PASSWORD_LENGTH = 6;
     
     // Types de consultation
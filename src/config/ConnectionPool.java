@@ -0,0 +1,641 @@
+package config;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import util.LatencyHistogram;
+
+/**
+ * Pool de connexions JDBC borné, exposé sous forme de DataSource.
+ * Les connexions prêtées sont des proxys : leur méthode close() remet la
+ * connexion physique dans le pool au lieu de la fermer.
+ * Le pool valide les connexions à l'emprunt, évince les connexions inactives,
+ * détecte les fuites (connexions empruntées trop longtemps) et tient des statistiques.
+ */
+public class ConnectionPool implements DataSource {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    // Délai (en secondes) accordé à Connection.isValid lors de la validation
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // Une connexion rendue il y a moins de ce délai n'est pas revalidée à l'emprunt
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    // Période de la tâche de maintenance (éviction et détection de fuites)
+    private static final long MAINTENANCE_PERIOD_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    // Verrou protégeant l'état du pool
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+
+    // Connexions physiques disponibles (LIFO pour garder les connexions « chaudes »)
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+    // Connexions actuellement prêtées
+    private final Map<PooledConnection, Boolean> borrowed = new IdentityHashMap<>();
+
+    // Nombre total de connexions physiques (prêtées + disponibles + en cours de création)
+    private int totalConnections;
+
+    // Nombre de threads en attente d'une connexion
+    private int waiters;
+
+    private boolean closed;
+
+    // Statistiques
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+
+    private final ScheduledExecutorService maintenance;
+
+    // Délai maximal d'ouverture d'une connexion physique en secondes (0 : borné par l'attente d'emprunt seule)
+    private volatile int loginTimeout;
+
+    /**
+     * Constructeur du pool de connexions.
+     *
+     * @param url L'URL JDBC de la base de données
+     * @param user L'utilisateur de la base de données
+     * @param password Le mot de passe
+     * @param minSize Le nombre minimal de connexions maintenues ouvertes
+     * @param maxSize Le nombre maximal de connexions physiques
+     * @param borrowTimeoutMillis Le délai maximal d'attente d'une connexion
+     * @param idleTimeoutMillis La durée d'inactivité au-delà de laquelle une connexion est fermée
+     * @param leakThresholdMillis La durée d'emprunt au-delà de laquelle une fuite est signalée (0 pour désactiver)
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tailles de pool invalides: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maintenance.scheduleWithFixedDelay(this::runMaintenance,
+                MAINTENANCE_PERIOD_MILLIS, MAINTENANCE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ouvre les connexions minimales du pool.
+     *
+     * @throws SQLException Si la première connexion ne peut pas être établie
+     */
+    public void warmUp() throws SQLException {
+        fillToMinimum(true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startWait = System.nanoTime();
+        PooledConnection pooled = acquire(startWait);
+
+        long waited = System.nanoTime() - startWait;
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        waitHistogram.record(TimeUnit.NANOSECONDS.toMicros(waited));
+
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.borrowStack = leakThresholdMillis > 0
+                ? new Exception("Connexion empruntée ici")
+                : null;
+
+        return pooled.newHandle();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Le pool n'accepte pas d'identifiants spécifiques");
+    }
+
+    /**
+     * Emprunte une connexion physique valide, en créant une nouvelle connexion si
+     * le pool n'a pas atteint sa taille maximale, ou en attendant sinon.
+     */
+    private PooledConnection acquire(long startWait) throws SQLException {
+        long deadline = startWait + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean mustCreate = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Le pool de connexions est fermé");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        borrowed.put(candidate, Boolean.TRUE);
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        // Réserver la place avant de créer la connexion hors verrou
+                        totalConnections++;
+                        mustCreate = true;
+                        break;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLTransientConnectionException(
+                                "Aucune connexion disponible après " + borrowTimeoutMillis + " ms (pool saturé: "
+                                + totalConnections + "/" + maxSize + ")");
+                    }
+
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLTransientConnectionException("Attente d'une connexion interrompue", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mustCreate) {
+                try {
+                    long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMillis <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLTransientConnectionException(
+                                "Aucune connexion disponible après " + borrowTimeoutMillis + " ms");
+                    }
+                    PooledConnection created = createPhysicalConnection(remainingMillis);
+                    lock.lock();
+                    try {
+                        borrowed.put(created, Boolean.TRUE);
+                    } finally {
+                        lock.unlock();
+                    }
+                    return created;
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            }
+
+            // Valider la connexion si elle est restée inactive
+            if (isAlive(candidate)) {
+                return candidate;
+            }
+
+            LOGGER.fine("Connexion invalide retirée du pool");
+            lock.lock();
+            try {
+                borrowed.remove(candidate);
+            } finally {
+                lock.unlock();
+            }
+            destroy(candidate);
+        }
+    }
+
+    private boolean isAlive(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Ouvre une connexion physique. Les délais du pilote pendant l'ouverture
+     * (connectTimeout pour la connexion TCP, socketTimeout pour l'échange initial avec
+     * le serveur) sont bornés par le temps laissé à l'appelant et par loginTimeout s'il
+     * est défini : sans eux, une base injoignable ou figée bloquerait l'emprunt jusqu'au
+     * délai TCP du système. Le délai de lecture est ensuite levé pour les requêtes.
+     *
+     * @param timeoutMillis Le temps restant à l'appelant en millisecondes (positif)
+     */
+    private PooledConnection createPhysicalConnection(long timeoutMillis) throws SQLException {
+        // 0 signifierait « sans limite » pour le pilote MySQL
+        long connectTimeoutMillis = Math.max(1, Math.min(timeoutMillis, Integer.MAX_VALUE));
+        int loginTimeoutSeconds = loginTimeout;
+        if (loginTimeoutSeconds > 0) {
+            connectTimeoutMillis = Math.min(connectTimeoutMillis, TimeUnit.SECONDS.toMillis(loginTimeoutSeconds));
+        }
+
+        Properties properties = new Properties();
+        if (user != null) {
+            properties.setProperty("user", user);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("connectTimeout", Long.toString(connectTimeoutMillis));
+        properties.setProperty("socketTimeout", Long.toString(connectTimeoutMillis));
+
+        Connection physical = DriverManager.getConnection(url, properties);
+        try {
+            // Sans délai de lecture ensuite, comme une connexion ouverte sans socketTimeout
+            physical.setNetworkTimeout(Runnable::run, 0);
+        } catch (SQLException e) {
+            closeQuietly(physical);
+            throw e;
+        }
+        createdCount.incrementAndGet();
+        LOGGER.fine("Nouvelle connexion physique ouverte");
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Libère une place réservée dans le pool et réveille un éventuel thread en attente.
+     */
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ferme définitivement une connexion physique et libère sa place dans le pool.
+     */
+    private void destroy(PooledConnection pooled) {
+        closeQuietly(pooled.physical);
+        destroyedCount.incrementAndGet();
+        releaseSlot();
+    }
+
+    private void closeQuietly(Connection physical) {
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Erreur lors de la fermeture d'une connexion physique", e);
+        }
+    }
+
+    /**
+     * Remet une connexion empruntée dans le pool après avoir réinitialisé son état.
+     */
+    private void giveBack(PooledConnection pooled) {
+        boolean reusable = resetState(pooled.physical);
+
+        lock.lock();
+        try {
+            borrowed.remove(pooled);
+            pooled.borrowStack = null;
+            if (reusable && !closed) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(pooled);
+    }
+
+    /**
+     * Annule une transaction laissée ouverte et remet la connexion en mode auto-commit.
+     *
+     * @return true si la connexion peut être réutilisée
+     */
+    private boolean resetState(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Réinitialisation de la connexion impossible, connexion écartée", e);
+            return false;
+        }
+    }
+
+    /**
+     * Tâche périodique : ferme les connexions inactives au-delà du minimum,
+     * signale les fuites et rouvre les connexions minimales.
+     */
+    private void runMaintenance() {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+            fillToMinimum(false);
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Erreur lors de la maintenance du pool de connexions", e);
+        }
+    }
+
+    private void evictIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            // Les connexions les plus anciennes sont en fin de file
+            while (totalConnections - evicted.size() > minSize && !idle.isEmpty()
+                    && now - idle.peekLast().lastReturnedAt > idleTimeoutMillis) {
+                evicted.add(idle.pollLast());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            destroy(pooled);
+        }
+        if (!evicted.isEmpty()) {
+            LOGGER.fine(evicted.size() + " connexion(s) inactive(s) fermée(s)");
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            for (PooledConnection pooled : borrowed.keySet()) {
+                Exception stack = pooled.borrowStack;
+                if (stack != null && now - pooled.borrowedAt > leakThresholdMillis) {
+                    leakCount.incrementAndGet();
+                    // Ne signaler chaque emprunt qu'une seule fois
+                    pooled.borrowStack = null;
+                    LOGGER.log(Level.WARNING, "Fuite de connexion probable: connexion empruntée depuis "
+                            + (now - pooled.borrowedAt) + " ms", stack);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fillToMinimum(boolean failOnError) throws SQLException {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                PooledConnection created = createPhysicalConnection(borrowTimeoutMillis);
+                lock.lock();
+                try {
+                    created.lastReturnedAt = System.currentTimeMillis();
+                    idle.addLast(created);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                releaseSlot();
+                if (failOnError) {
+                    throw e;
+                }
+                LOGGER.log(Level.WARNING, "Impossible de rouvrir les connexions minimales du pool", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ferme le pool : les connexions disponibles sont fermées immédiatement,
+     * les connexions prêtées le seront à leur restitution.
+     */
+    public void close() {
+        List<PooledConnection> toClose;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        maintenance.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            destroy(pooled);
+        }
+        LOGGER.info("Pool de connexions fermé");
+    }
+
+    /**
+     * Retourne un instantané des statistiques du pool.
+     *
+     * @return Les statistiques courantes
+     */
+    public PoolStats getStats() {
+        // Percentiles calculés hors verrou : l'histogramme est lu sans synchronisation
+        long p50Wait = waitHistogram.getPercentileMicros(50);
+        long p95Wait = waitHistogram.getPercentileMicros(95);
+        long p99Wait = waitHistogram.getPercentileMicros(99);
+        lock.lock();
+        try {
+            return new PoolStats(borrowed.size(), idle.size(), waiters, totalConnections, maxSize,
+                    borrowCount.get(), timeoutCount.get(),
+                    TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get()),
+                    TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()),
+                    createdCount.get(), destroyedCount.get(), leakCount.get(),
+                    p50Wait, p95Wait, p99Wait);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Méthodes de l'interface DataSource sans objet pour ce pool
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // Le pool utilise java.util.logging
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Le pool n'implémente pas " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Connexion physique gérée par le pool.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Exception borrowStack;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.lastReturnedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Crée le proxy remis à l'appelant pour un emprunt.
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Gestionnaire du proxy de connexion : close() restitue la connexion au pool,
+     * et toute utilisation après restitution est refusée.
+     */
+    private final class Handle implements InvocationHandler {
+
+        private volatile PooledConnection pooled;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close":
+                    PooledConnection toReturn;
+                    synchronized (this) {
+                        toReturn = pooled;
+                        pooled = null;
+                    }
+                    if (toReturn != null) {
+                        giveBack(toReturn);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "restituée" : pooled.physical) + "]";
+                default:
+                    break;
+            }
+
+            PooledConnection current = pooled;
+            if (current == null) {
+                throw new SQLException("La connexion a déjà été restituée au pool");
+            }
+
+            try {
+                return method.invoke(current.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,44 +1,64 @@
 package config;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
 /**
- * Gère la connexion à la base de données MySQL en utilisant le pattern Singleton
- * pour assurer qu'une seule instance de connexion est utilisée dans l'application.
+ * Gère l'accès à la base de données MySQL en utilisant le pattern Singleton.
+ * L'instance unique détient un pool de connexions borné : chaque appel à
+ * getConnection() emprunte une connexion, que l'appelant restitue en la fermant.
  */
 public class DatabaseConnection {
-    
+
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
-    
+
     // Constantes de connexion à la base de données
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/medical_appointments";
+    // rewriteBatchedStatements : les lots d'insertions partent en une requête multi-valeurs
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/medical_appointments"
+            + "?rewriteBatchedStatements=true";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "";
     private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
-    
+
+    // Paramètres du pool de connexions
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = 60_000;
+
     // Instance unique (Singleton)
     private static DatabaseConnection instance;
-    
-    // La connexion à la base de données
-    private Connection connection;
-    
+
+    // Le pool de connexions à la base de données
+    private final ConnectionPool pool;
+
     /**
      * Constructeur privé (Singleton)
-     * Initialise la connexion à la base de données.
+     * Initialise le pool de connexions à la base de données.
      */
     private DatabaseConnection() {
         try {
             // Charger le driver JDBC
             Class.forName(DB_DRIVER);
-            
-            // Établir la connexion
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+
+            // Créer le pool et ouvrir les connexions minimales
+            pool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD,
+                    POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_BORROW_TIMEOUT_MILLIS,
+                    POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS);
+            try {
+                pool.warmUp();
+            } catch (SQLException | RuntimeException e) {
+                // Le pool a déjà démarré sa tâche de maintenance : l'arrêter avant d'abandonner
+                pool.close();
+                throw e;
+            }
             LOGGER.info("Connexion à la base de données établie avec succès");
-            
+
         } catch (ClassNotFoundException e) {
             LOGGER.log(Level.SEVERE, "Driver JDBC non trouvé", e);
             throw new RuntimeException("Driver JDBC non trouvé", e);
@@ -47,7 +67,7 @@ public class DatabaseConnection {
             throw new RuntimeException("Échec de connexion à la base de données", e);
         }
     }
-    
+
     /**
      * Obtient l'instance unique de la connexion (Singleton)
      * @return L'instance de DatabaseConnection
@@ -58,40 +78,49 @@ public class DatabaseConnection {
         }
         return instance;
     }
-    
+
     /**
-     * Récupère la connexion à la base de données
-     * @return L'objet Connection
+     * Emprunte une connexion au pool.
+     * La connexion doit être fermée par l'appelant (try-with-resources)
+     * afin d'être restituée au pool.
+     *
+     * @return Une connexion empruntée au pool
+     * @throws SQLException Si aucune connexion n'est disponible dans le délai imparti
      */
-    public Connection getConnection() {
-        try {
-            // Vérifier si la connexion est fermée ou invalide
-            if (connection == null || connection.isClosed()) {
-                // Rétablir la connexion
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                LOGGER.info("Reconnexion à la base de données établie");
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la vérification/reconnexion", e);
-            throw new RuntimeException("Erreur lors de la vérification/reconnexion", e);
-        }
-        
-        return connection;
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
     }
-    
+
+    /**
+     * Récupère la source de données (le pool de connexions)
+     * @return La DataSource de l'application
+     */
+    public DataSource getDataSource() {
+        return pool;
+    }
+
+    /**
+     * Récupère les statistiques du pool de connexions
+     * @return Un instantané des statistiques du pool
+     */
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Récupère les statistiques du pool sans ouvrir la connexion à la base
+     * (supervision, résumés périodiques)
+     * @return Un instantané des statistiques du pool, ou null si le pool n'est pas encore créé
+     */
+    public static synchronized PoolStats getPoolStatsIfConnected() {
+        return instance != null ? instance.getPoolStats() : null;
+    }
+
     /**
-     * Ferme la connexion à la base de données
+     * Ferme le pool et toutes ses connexions
      */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                LOGGER.info("Connexion à la base de données fermée");
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture de la connexion", e);
-            } finally {
-                connection = null;
-            }
-        }
+        pool.close();
+        LOGGER.info("Connexion à la base de données fermée");
     }
 }
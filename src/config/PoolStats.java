@@ -0,0 +1,165 @@
+package config;
+
+/**
+ * Instantané immuable des statistiques du pool de connexions.
+ */
+public final class PoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final int total;
+    private final int maxSize;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long totalWaitMicros;
+    private final long maxWaitMicros;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long leakCount;
+    private final long p50WaitMicros;
+    private final long p95WaitMicros;
+    private final long p99WaitMicros;
+
+    PoolStats(int active, int idle, int waiters, int total, int maxSize, long borrowCount,
+              long timeoutCount, long totalWaitMicros, long maxWaitMicros,
+              long createdCount, long destroyedCount, long leakCount,
+              long p50WaitMicros, long p95WaitMicros, long p99WaitMicros) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.totalWaitMicros = totalWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.leakCount = leakCount;
+        this.p50WaitMicros = p50WaitMicros;
+        this.p95WaitMicros = p95WaitMicros;
+        this.p99WaitMicros = p99WaitMicros;
+    }
+
+    /**
+     * @return Le nombre de connexions actuellement prêtées
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * @return Le nombre de connexions disponibles dans le pool
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return Le nombre de threads en attente d'une connexion
+     */
+    public int getWaiters() {
+        return waiters;
+    }
+
+    /**
+     * @return Le nombre total de connexions physiques
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return La taille maximale du pool
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return Le nombre total d'emprunts réussis
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * @return Le nombre d'emprunts ayant expiré faute de connexion disponible
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /**
+     * @return Le temps d'attente cumulé des emprunts, en microsecondes
+     */
+    public long getTotalWaitMicros() {
+        return totalWaitMicros;
+    }
+
+    /**
+     * @return Le temps d'attente maximal observé, en microsecondes
+     */
+    public long getMaxWaitMicros() {
+        return maxWaitMicros;
+    }
+
+    /**
+     * @return Le temps d'attente moyen par emprunt, en microsecondes
+     */
+    public long getAverageWaitMicros() {
+        return borrowCount == 0 ? 0 : totalWaitMicros / borrowCount;
+    }
+
+    /**
+     * @return Le temps d'attente médian des emprunts, en microsecondes
+     */
+    public long getP50WaitMicros() {
+        return p50WaitMicros;
+    }
+
+    /**
+     * @return Le 95e percentile du temps d'attente des emprunts, en microsecondes
+     */
+    public long getP95WaitMicros() {
+        return p95WaitMicros;
+    }
+
+    /**
+     * @return Le 99e percentile du temps d'attente des emprunts, en microsecondes
+     */
+    public long getP99WaitMicros() {
+        return p99WaitMicros;
+    }
+
+    /**
+     * @return Le nombre de connexions physiques ouvertes depuis le démarrage
+     */
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * @return Le nombre de connexions physiques fermées depuis le démarrage
+     */
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    /**
+     * @return Le nombre de fuites de connexion détectées
+     */
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{actives=" + active + ", disponibles=" + idle + ", en attente=" + waiters
+                + ", total=" + total + "/" + maxSize + ", emprunts=" + borrowCount
+                 + ", expirations=" + timeoutCount + ", attente moyenne=" + getAverageWaitMicros() + "µs"
+                + ", attente p95=" + p95WaitMicros + "µs, p99=" + p99WaitMicros + "µs"
+                + ", attente max=" + maxWaitMicros + "µs, fuites=" + leakCount + "}";
+    }
+}
@@ -2,24 +2,42 @@ package controller;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import config.AppConfig;
 import dao.AppointmentDAO;
-import dao.AppointmentDAOImpl;
 import dao.DAOException;
+import dao.DAOFactory;
 import model.Appointment;
+import model.AppointmentChanges;
+import model.AppointmentEvent;
+import model.AppointmentSummary;
 import model.AppointmentStatus;
+import model.BookingResult;
+import model.ChangeType;
 import model.Doctor;
+import model.DoctorDay;
+import model.DoctorEvent;
+import model.MonthLoad;
 import model.Patient;
+import model.PatientEvent;
+import model.PlanningGrid;
 import model.Secretary;
+import util.EventBus;
+import util.LruCache;
 
 /**
  * Contrôleur pour la gestion des rendez-vous.
  * Implémente le pattern Singleton pour assurer une seule instance.
+ * Chaque écriture réussie publie un AppointmentEvent sur le bus d'événements.
  */
 public class AppointmentController {
     
@@ -31,15 +49,35 @@ public class AppointmentController {
     // DAO pour les opérations sur les rendez-vous
     private final AppointmentDAO appointmentDAO;
     
+    // Paramètres du cache des rendez-vous
+    private static final int CACHE_MAX_SIZE = 500;
+    private static final long CACHE_TTL_MILLIS = 2 * 60_000;
+    
     // Cache des rendez-vous récemment consultés (optimisation)
-    private final Map<Integer, Appointment> appointmentCache;
+    private final LruCache<Integer, Appointment> appointmentCache;
+    
+    // Charge mensuelle par (médecin, mois) ; la durée de vie borne le retard sur les
+    // écritures des autres postes, les écritures locales invalident les mois concernés
+    private static final int MONTH_LOAD_CACHE_MAX_SIZE = 200;
+    private static final long MONTH_LOAD_CACHE_TTL_MILLIS = 60_000;
+    private final LruCache<String, MonthLoad> monthLoadCache;
+    
+    private final EventBus eventBus;
     
     /**
      * Constructeur privé (Singleton)
      */
     private AppointmentController() {
-        this.appointmentDAO = new AppointmentDAOImpl();
-        this.appointmentCache = new HashMap<>();
+        this.appointmentDAO = DAOFactory.getInstance().getAppointmentDAO();
+        this.appointmentCache = new LruCache<>("rendez-vous", CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
+        this.monthLoadCache = new LruCache<>("charge mensuelle", MONTH_LOAD_CACHE_MAX_SIZE,
+                MONTH_LOAD_CACHE_TTL_MILLIS);
+        this.eventBus = EventBus.getInstance();
+        
+        // Les rendez-vous en cache portent leur patient et leur médecin : invalider
+        // ceux dont le patient ou le médecin a été modifié
+        eventBus.subscribe(PatientEvent.class, this::onPatientEvents, EventBus.DIRECT);
+        eventBus.subscribe(DoctorEvent.class, this::onDoctorEvents, EventBus.DIRECT);
     }
     
     /**
@@ -63,26 +101,73 @@ public class AppointmentController {
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public int addAppointment(Appointment appointment) throws IllegalArgumentException, DAOException {
+        BookingResult result = bookAppointment(appointment);
+        if (!result.isBooked()) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+        return result.getAppointmentId();
+    }
+    
+    /**
+     * Réserve un créneau. Un créneau déjà occupé ou un médecin inconnu sont retournés
+     * dans le résultat, sans exception.
+     * 
+     * @param appointment Le rendez-vous à réserver
+     * @return Le résultat de la réservation
+     * @throws IllegalArgumentException Si le rendez-vous est invalide
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public BookingResult bookAppointment(Appointment appointment) throws IllegalArgumentException, DAOException {
         // Validation des données
         validateAppointment(appointment);
         
-        // Vérifier les conflits de rendez-vous
-        if (hasAppointmentConflict(appointment.getDoctorId(), 
-                                  appointment.getStartDateTime(), 
-                                  appointment.getEndDateTime(), 
-                                  0)) {
-            throw new IllegalArgumentException("Ce créneau n'est pas disponible pour le médecin sélectionné.");
+        // Réserver le créneau (vérification et insertion atomiques côté base). L'index mémoire
+        // des conflits n'est pas consulté ici : il peut dater de 60 s et refuserait à tort un
+        // créneau libéré entre-temps par un autre poste
+        BookingResult result = appointmentDAO.bookAppointment(appointment);
+        if (!result.isBooked()) {
+            LOGGER.info("Réservation refusée: " + result);
+            return result;
         }
         
-        // Ajouter le rendez-vous
-        int appointmentId = appointmentDAO.addAppointment(appointment);
-        appointment.setId(appointmentId);
-        
         // Ajouter au cache
-        appointmentCache.put(appointmentId, appointment);
+        appointmentCache.put(result.getAppointmentId(), appointment);
+        invalidateMonthLoad(appointment);
+        eventBus.publish(AppointmentEvent.of(ChangeType.CREATED, appointment));
         
-        LOGGER.info("Rendez-vous ajouté avec succès, ID: " + appointmentId);
-        return appointmentId;
+        LOGGER.info("Rendez-vous ajouté avec succès, ID: " + result.getAppointmentId());
+        return result;
+    }
+    
+    /**
+     * Ajoute plusieurs rendez-vous en une seule transaction
+     * 
+     * @param appointments Les rendez-vous à ajouter
+     * @return Les IDs des rendez-vous créés, dans l'ordre de la liste
+     * @throws IllegalArgumentException Si un rendez-vous est invalide ou en conflit (aucun n'est alors ajouté)
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public int[] addAppointments(List<Appointment> appointments) throws IllegalArgumentException, DAOException {
+        for (Appointment appointment : appointments) {
+            validateAppointment(appointment);
+        }
+        
+        // Les créneaux sont vérifiés en base, par médecin, dans la transaction du lot
+        int[] appointmentIds;
+        try {
+            appointmentIds = appointmentDAO.addAppointments(appointments);
+        } catch (DAOException e) {
+            throw conflictOrRethrow(e);
+        }
+        
+        for (Appointment appointment : appointments) {
+            appointmentCache.put(appointment.getId(), appointment);
+            invalidateMonthLoad(appointment);
+            eventBus.publish(AppointmentEvent.of(ChangeType.CREATED, appointment));
+        }
+        
+        LOGGER.info(appointmentIds.length + " rendez-vous ajoutés avec succès");
+        return appointmentIds;
     }
     
     /**
@@ -99,19 +184,30 @@ public class AppointmentController {
         }
         validateAppointment(appointment);
         
-        // Vérifier les conflits de rendez-vous
-        if (hasAppointmentConflict(appointment.getDoctorId(), 
-                                  appointment.getStartDateTime(), 
-                                  appointment.getEndDateTime(), 
-                                  appointment.getId())) {
-            throw new IllegalArgumentException("Ce créneau n'est pas disponible pour le médecin sélectionné.");
-        }
+        // Ancienne journée, si le cache contient une autre instance que celle modifiée
+        Appointment previous = appointmentCache.peek(appointment.getId());
+        DoctorDay previousDay = previous != null && previous != appointment && previous.getStartDateTime() != null
+                ? DoctorDay.of(previous.getDoctorId(), previous.getStartDateTime()) : null;
         
-        // Mettre à jour le rendez-vous
-        appointmentDAO.updateAppointment(appointment);
+        // Mettre à jour le rendez-vous : le créneau est vérifié par la base dans la transaction
+        // (et non par l'index mémoire, qui peut être en retard sur les autres postes)
+        try {
+            appointmentDAO.updateAppointment(appointment);
+        } catch (DAOException e) {
+            throw conflictOrRethrow(e);
+        }
         
-        // Mettre à jour le cache
+        // Mettre à jour le cache ; l'ancien jour du rendez-vous n'est pas connu de façon sûre
         appointmentCache.put(appointment.getId(), appointment);
+        monthLoadCache.invalidateAll();
+        
+        Set<DoctorDay> days = new HashSet<>();
+        days.add(DoctorDay.of(appointment.getDoctorId(), appointment.getStartDateTime()));
+        if (previousDay != null) {
+            days.add(previousDay);
+        }
+        eventBus.publish(new AppointmentEvent(ChangeType.UPDATED, Collections.singleton(appointment.getId()),
+                Collections.singleton(appointment.getPatientId()), days));
         
         LOGGER.info("Rendez-vous mis à jour avec succès, ID: " + appointment.getId());
     }
@@ -127,7 +223,10 @@ public class AppointmentController {
         appointmentDAO.deleteAppointment(appointmentId);
         
         // Supprimer du cache
-        appointmentCache.remove(appointmentId);
+        AppointmentEvent event = eventFromCache(ChangeType.DELETED, Collections.singleton(appointmentId));
+        invalidateMonthLoad(appointmentId);
+        appointmentCache.invalidate(appointmentId);
+        eventBus.publish(event);
         
         LOGGER.info("Rendez-vous supprimé avec succès, ID: " + appointmentId);
     }
@@ -142,16 +241,68 @@ public class AppointmentController {
     public void updateAppointmentStatus(int appointmentId, AppointmentStatus status) throws DAOException {
         appointmentDAO.updateAppointmentStatus(appointmentId, status);
         
-        // Mettre à jour le cache si le rendez-vous y est présent
-        if (appointmentCache.containsKey(appointmentId)) {
-            Appointment appointment = appointmentCache.get(appointmentId);
-            appointment.setStatus(status);
-            appointment.updateLastModified();
-        }
+        // Invalider l'entrée : elle sera relue avec son nouveau statut
+        AppointmentEvent event = eventFromCache(ChangeType.STATUS_CHANGED, Collections.singleton(appointmentId));
+        invalidateMonthLoad(appointmentId);
+        appointmentCache.invalidate(appointmentId);
+        eventBus.publish(event);
         
         LOGGER.info("Statut du rendez-vous modifié avec succès, ID: " + appointmentId + ", Statut: " + status);
     }
     
+    /**
+     * Change le statut de plusieurs rendez-vous en une seule transaction
+     * (clôture de journée : rendez-vous réalisés et patients absents)
+     * 
+     * @param statuses Le nouveau statut par ID de rendez-vous
+     * @return Le nombre de rendez-vous mis à jour
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public int updateAppointmentStatuses(Map<Integer, AppointmentStatus> statuses) throws DAOException {
+        int updated = appointmentDAO.updateAppointmentStatuses(statuses);
+        
+        // Invalider les entrées : elles seront relues avec leur nouveau statut
+        AppointmentEvent event = eventFromCache(ChangeType.STATUS_CHANGED, statuses.keySet());
+        for (Integer appointmentId : statuses.keySet()) {
+            invalidateMonthLoad(appointmentId);
+            appointmentCache.invalidate(appointmentId);
+        }
+        if (!statuses.isEmpty()) {
+            eventBus.publish(event);
+        }
+        
+        LOGGER.info("Statuts modifiés avec succès pour " + updated + " rendez-vous");
+        return updated;
+    }
+    
+    /**
+     * Annule tous les rendez-vous planifiés ou confirmés d'un médecin pour une journée
+     * (absence du médecin). Les rendez-vous passent au statut ANNULE_CABINET.
+     * 
+     * @param doctorId L'ID du médecin
+     * @param date La journée à annuler
+     * @return Le nombre de rendez-vous annulés
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public int cancelDoctorDay(int doctorId, LocalDate date) throws DAOException {
+        List<Integer> cancelledIds = appointmentDAO.cancelDoctorDay(doctorId, date);
+        
+        AppointmentEvent event = eventFromCache(ChangeType.STATUS_CHANGED, cancelledIds);
+        for (Integer appointmentId : cancelledIds) {
+            appointmentCache.invalidate(appointmentId);
+        }
+        if (!cancelledIds.isEmpty()) {
+            invalidateMonthLoad(doctorId, date);
+            // La journée est connue même si les rendez-vous n'étaient pas en cache
+            eventBus.publish(new AppointmentEvent(ChangeType.STATUS_CHANGED, cancelledIds, event.getPatientIds(),
+                    Collections.singleton(new DoctorDay(doctorId, date))));
+        }
+        
+        LOGGER.info("Journée du " + date + " annulée pour le médecin ID " + doctorId + ": "
+                + cancelledIds.size() + " rendez-vous annulés");
+        return cancelledIds.size();
+    }
+    
     /**
      * Annule un rendez-vous
      * 
@@ -175,20 +326,8 @@ public class AppointmentController {
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public Appointment getAppointmentById(int appointmentId) throws DAOException {
-        // Vérifier d'abord dans le cache
-        if (appointmentCache.containsKey(appointmentId)) {
-            return appointmentCache.get(appointmentId);
-        }
-        
-        // Sinon, récupérer depuis la base de données
-        Appointment appointment = appointmentDAO.getAppointmentById(appointmentId);
-        
-        // Ajouter au cache si trouvé
-        if (appointment != null) {
-            appointmentCache.put(appointmentId, appointment);
-        }
-        
-        return appointment;
+        // Vérifier d'abord dans le cache, sinon récupérer depuis la base de données
+        return appointmentCache.get(appointmentId, () -> appointmentDAO.getAppointmentById(appointmentId));
     }
     
     /**
@@ -238,6 +377,19 @@ public class AppointmentController {
         return appointmentDAO.getAppointmentsByDoctorAndDateRange(doctorId, startDate, endDate);
     }
     
+    /**
+     * Récupère la charge d'un mois (rendez-vous actifs et minutes réservées par jour),
+     * calculée en une requête agrégée et mise en cache par (médecin, mois)
+     * 
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @param month Le mois
+     * @return La charge du mois
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public MonthLoad getMonthLoad(int doctorId, YearMonth month) throws DAOException {
+        return monthLoadCache.get(monthLoadKey(doctorId, month), () -> appointmentDAO.getMonthLoad(doctorId, month));
+    }
+    
     /**
      * Vérifie s'il existe un conflit de rendez-vous pour un médecin
      * 
@@ -264,6 +416,124 @@ public class AppointmentController {
         return appointmentDAO.getAppointmentsByDate(date);
     }
     
+    /**
+     * Récupère une page des résumés de rendez-vous d'une journée (pagination par clé)
+     * 
+     * @param date La date des rendez-vous
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @param after Le dernier rendez-vous de la page précédente (null pour la première page)
+     * @param limit La taille de la page
+     * @return La page de résumés, par heure de début
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<AppointmentSummary> getDailyAppointmentsPage(LocalDate date, int doctorId, AppointmentSummary after,
+                                                             int limit) throws DAOException {
+        return appointmentDAO.getAppointmentSummariesPage(date.atStartOfDay(), date.plusDays(1).atStartOfDay(),
+                doctorId, after, limit);
+    }
+    
+    /**
+     * Récupère les résumés des rendez-vous d'une plage de jours (planning, exports).
+     * Utiliser getAppointmentById pour le rendez-vous complet.
+     * 
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @param startDate Le premier jour
+     * @param endDate Le dernier jour (inclus)
+     * @return Les résumés des rendez-vous, par heure de début
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<AppointmentSummary> getAppointmentSummaries(int doctorId, LocalDate startDate, LocalDate endDate)
+            throws DAOException {
+        return appointmentDAO.getAppointmentSummaries(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(),
+                doctorId);
+    }
+    
+    /**
+     * Charge en une requête les rendez-vous d'une fenêtre de jours pour un ensemble
+     * de médecins (planning de tous les médecins côte à côte)
+     * 
+     * @param doctorIds Les IDs des médecins, dans l'ordre d'affichage
+     * @param startDate Le premier jour de la fenêtre
+     * @param dayCount Le nombre de jours de la fenêtre
+     * @return La grille médecin → jour → rendez-vous triés
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public PlanningGrid getPlanningGrid(List<Integer> doctorIds, LocalDate startDate, int dayCount)
+            throws DAOException {
+        List<AppointmentSummary> appointments = appointmentDAO.getAppointmentSummariesForDoctors(
+                startDate.atStartOfDay(), startDate.plusDays(dayCount).atStartOfDay(), doctorIds);
+        return PlanningGrid.of(doctorIds, startDate, dayCount, appointments);
+    }
+    
+    /**
+     * Déplace la fenêtre d'une grille de planning : seuls les jours qui n'étaient pas
+     * encore visibles sont lus en base, les autres sont repris de la grille existante
+     * 
+     * @param grid La grille affichée
+     * @param startDate Le premier jour de la nouvelle fenêtre
+     * @param dayCount Le nombre de jours de la nouvelle fenêtre
+     * @return La nouvelle grille (la grille existante n'est pas modifiée)
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public PlanningGrid movePlanningGrid(PlanningGrid grid, LocalDate startDate, int dayCount) throws DAOException {
+        List<LocalDate> missingDays = grid.getMissingDays(startDate, dayCount);
+        if (missingDays.isEmpty()) {
+            return grid.moveTo(startDate, dayCount, startDate, startDate, Collections.emptyList());
+        }
+        
+        // Une seule plage contiguë pour un décalage d'un jour ou d'une semaine
+        LocalDate from = missingDays.get(0);
+        LocalDate to = missingDays.get(missingDays.size() - 1).plusDays(1);
+        List<AppointmentSummary> loaded = appointmentDAO.getAppointmentSummariesForDoctors(
+                from.atStartOfDay(), to.atStartOfDay(), grid.getDoctorIds());
+        return grid.moveTo(startDate, dayCount, from, to, loaded);
+    }
+    
+    /**
+     * Flux des modifications : rendez-vous créés, modifiés ou supprimés depuis un filigrane
+     * (y compris par les autres postes). Les rendez-vous et charges mensuelles en cache
+     * concernés sont invalidés ; la charge du mois d'origine d'un rendez-vous déplacé
+     * absent du cache se met à jour à l'expiration de sa durée de vie.
+     * 
+     * @param watermark Le filigrane de l'interrogation précédente, ou null pour obtenir
+     *                  seulement le filigrane courant (avant un chargement complet)
+     * @return Les changements et le prochain filigrane
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public AppointmentChanges getAppointmentsChangedSince(LocalDateTime watermark) throws DAOException {
+        AppointmentChanges changes = appointmentDAO.getAppointmentsChangedSince(watermark);
+        
+        if (changes.isFullReloadRequired()) {
+            appointmentCache.invalidateAll();
+            monthLoadCache.invalidateAll();
+            return changes;
+        }
+        for (AppointmentSummary appointment : changes.getUpdated()) {
+            Appointment cached = appointmentCache.peek(appointment.getId());
+            if (cached != null) {
+                invalidateMonthLoad(cached);
+                appointmentCache.invalidate(appointment.getId());
+            }
+            invalidateMonthLoad(appointment.getDoctorId(), appointment.getStartDateTime().toLocalDate());
+        }
+        for (AppointmentChanges.Deletion deletion : changes.getDeletions()) {
+            appointmentCache.invalidate(deletion.getAppointmentId());
+            invalidateMonthLoad(deletion.getDoctorId(), deletion.getStartDateTime().toLocalDate());
+        }
+        return changes;
+    }
+    
+    /**
+     * Récupère les résumés des rendez-vous d'un patient
+     * 
+     * @param patientId L'ID du patient
+     * @return Les résumés des rendez-vous du patient, par heure de début
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<AppointmentSummary> getAppointmentSummariesByPatient(int patientId) throws DAOException {
+        return appointmentDAO.getAppointmentSummariesByPatient(patientId);
+    }
+    
     /**
      * Récupère tous les rendez-vous avec un statut spécifique
      * 
@@ -352,6 +622,21 @@ public class AppointmentController {
         return appointmentDAO.searchAppointmentsByCriteria(criteria);
     }
     
+    /**
+     * Traduit un conflit détecté par la base lors de l'enregistrement en erreur de validation,
+     * comme un conflit détecté avant l'enregistrement ; les autres erreurs sont propagées.
+     * 
+     * @param e L'erreur levée par le DAO
+     * @return L'exception de validation correspondant au conflit
+     * @throws DAOException Si l'erreur n'est pas un conflit de créneau
+     */
+    private IllegalArgumentException conflictOrRethrow(DAOException e) throws DAOException {
+        if (e.isConstraintViolation()) {
+            return new IllegalArgumentException("Ce créneau n'est pas disponible pour le médecin sélectionné.");
+        }
+        throw e;
+    }
+    
     /**
      * Valide les données d'un rendez-vous
      * 
@@ -383,6 +668,12 @@ public class AppointmentController {
             throw new IllegalArgumentException("Durée du rendez-vous invalide.");
         }
         
+        // Les contrôles de chevauchement ne remontent pas au-delà de la durée maximale
+        if (appointment.getDurationMinutes() > AppConfig.MAX_APPOINTMENT_MINUTES) {
+            throw new IllegalArgumentException("La durée d'un rendez-vous ne peut pas dépasser "
+                    + (AppConfig.MAX_APPOINTMENT_MINUTES / 60) + " heures.");
+        }
+        
         // Vérifier que la date n'est pas dans le passé
         if (appointment.getStartDateTime().isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("La date du rendez-vous ne peut pas être dans le passé.");
@@ -391,11 +682,115 @@ public class AppointmentController {
         // Autres validations peuvent être ajoutées selon les besoins
     }
     
+    /**
+     * Invalide la charge mensuelle du médecin et du mois d'un rendez-vous
+     * (ainsi que celle de tous les médecins pour ce mois)
+     * 
+     * @param appointment Le rendez-vous créé ou modifié
+     */
+    private void invalidateMonthLoad(Appointment appointment) {
+        if (appointment.getStartDateTime() == null) {
+            monthLoadCache.invalidateAll();
+            return;
+        }
+        invalidateMonthLoad(appointment.getDoctorId(), appointment.getStartDateTime().toLocalDate());
+    }
+    
+    /**
+     * Invalide la charge mensuelle d'un rendez-vous désigné par son ID. Sans le
+     * rendez-vous en cache, toutes les charges mensuelles sont invalidées.
+     * À appeler avant d'invalider le rendez-vous dans appointmentCache.
+     * 
+     * @param appointmentId L'ID du rendez-vous
+     */
+    private void invalidateMonthLoad(int appointmentId) {
+        Appointment cached = appointmentCache.peek(appointmentId);
+        if (cached != null) {
+            invalidateMonthLoad(cached);
+        } else {
+            monthLoadCache.invalidateAll();
+        }
+    }
+    
+    private void invalidateMonthLoad(int doctorId, LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        monthLoadCache.invalidate(monthLoadKey(doctorId, month));
+        monthLoadCache.invalidate(monthLoadKey(0, month));
+    }
+    
+    private static String monthLoadKey(int doctorId, YearMonth month) {
+        return doctorId + "/" + month;
+    }
+    
+    /**
+     * Construit l'événement de rendez-vous désignés par leur ID, à partir du cache.
+     * Si l'un d'eux n'est pas en cache, patients et journées sont laissés inconnus.
+     * À appeler avant d'invalider les rendez-vous dans appointmentCache.
+     * 
+     * @param type La nature de la modification
+     * @param appointmentIds Les IDs des rendez-vous
+     * @return L'événement
+     */
+    private AppointmentEvent eventFromCache(ChangeType type, Collection<Integer> appointmentIds) {
+        Set<Integer> patientIds = new HashSet<>();
+        Set<DoctorDay> days = new HashSet<>();
+        for (Integer appointmentId : appointmentIds) {
+            Appointment cached = appointmentCache.peek(appointmentId);
+            if (cached == null || cached.getStartDateTime() == null) {
+                return new AppointmentEvent(type, appointmentIds, Collections.emptySet(), Collections.emptySet());
+            }
+            patientIds.add(cached.getPatientId());
+            days.add(DoctorDay.of(cached.getDoctorId(), cached.getStartDateTime()));
+        }
+        return new AppointmentEvent(type, appointmentIds, patientIds, days);
+    }
+    
+    /**
+     * Invalide les rendez-vous en cache des patients modifiés ou supprimés
+     * (thread du bus d'événements)
+     */
+    private void onPatientEvents(List<PatientEvent> events) {
+        Set<Integer> patientIds = new HashSet<>();
+        for (PatientEvent event : events) {
+            if (event.getType() != ChangeType.CREATED) {
+                patientIds.addAll(event.getPatientIds());
+            }
+        }
+        if (!patientIds.isEmpty()) {
+            appointmentCache.invalidateIf(appointment -> patientIds.contains(appointment.getPatientId()));
+        }
+    }
+    
+    /**
+     * Invalide les rendez-vous en cache des médecins modifiés (thread du bus d'événements)
+     */
+    private void onDoctorEvents(List<DoctorEvent> events) {
+        Set<Integer> doctorIds = new HashSet<>();
+        for (DoctorEvent event : events) {
+            if (event.getType() != ChangeType.CREATED) {
+                doctorIds.add(event.getDoctorId());
+            }
+        }
+        if (!doctorIds.isEmpty()) {
+            appointmentCache.invalidateIf(appointment -> doctorIds.contains(appointment.getDoctorId()));
+        }
+    }
+    
     /**
      * Vide le cache des rendez-vous
      */
     public void clearCache() {
-        appointmentCache.clear();
-        LOGGER.info("Cache des rendez-vous vidé");
+        appointmentCache.invalidateAll();
+        monthLoadCache.invalidateAll();
+        LOGGER.info("Cache des rendez-vous vidé (" + appointmentCache + ")");
+    }
+    
+    /**
+     * Récupère le cache des rendez-vous (statistiques d'utilisation)
+     * 
+     * @return Le cache des rendez-vous
+     */
+    public LruCache<Integer, Appointment> getCache() {
+        return appointmentCache;
     }
 }
\ No newline at end of file
@@ -6,8 +6,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import dao.DAOException;
+import dao.DAOFactory;
 import dao.UserDAO;
-import dao.UserDAOImpl;
 import model.Doctor;
 import model.Secretary;
 import model.User;
@@ -36,7 +36,7 @@ public class AuthController {
      * Constructeur privé (Singleton)
      */
     private AuthController() {
-        this.userDAO = new UserDAOImpl();
+        this.userDAO = DAOFactory.getInstance().getUserDAO();
         this.currentUser = null;
         this.loginAttempts = 0;
     }
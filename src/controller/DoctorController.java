@@ -2,21 +2,27 @@ package controller;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import dao.DAOException;
+import dao.DAOFactory;
+import dao.DoctorDAO;
 import dao.UserDAO;
-import dao.UserDAOImpl;
 import model.Appointment;
+import model.AvailableSlot;
+import model.ChangeType;
 import model.Doctor;
+import model.DoctorEvent;
+import util.EventBus;
+import util.LruCache;
 
 /**
  * Contrôleur pour la gestion des médecins.
  * Implémente le pattern Singleton pour assurer une seule instance.
+ * Chaque écriture réussie publie un DoctorEvent sur le bus d'événements.
  */
 public class DoctorController {
     
@@ -28,15 +34,35 @@ public class DoctorController {
     // DAO pour les opérations sur les utilisateurs (dont les médecins)
     private final UserDAO userDAO;
     
+    // DAO spécifique aux médecins (disponibilités)
+    private final DoctorDAO doctorDAO;
+    
+    // Paramètres des caches
+    private static final int CACHE_MAX_SIZE = 200;
+    private static final long CACHE_TTL_MILLIS = 10 * 60_000;
+    private static final int LIST_CACHE_MAX_SIZE = 50;
+    
+    // Clés des listes de référence en cache
+    private static final String ALL_DOCTORS_KEY = "tous";
+    private static final String SPECIALTY_KEY_PREFIX = "specialite:";
+    private static final String SPECIALTIES_KEY = "specialites";
+    
     // Cache des médecins récemment consultés (optimisation)
-    private final Map<Integer, Doctor> doctorCache;
+    private final LruCache<Integer, Doctor> doctorCache;
+    
+    // Cache des listes de médecins (tous, par spécialité) et des spécialités
+    private final LruCache<String, List<Doctor>> doctorListCache;
+    private final LruCache<String, List<String>> specialtyCache;
     
     /**
      * Constructeur privé (Singleton)
      */
     private DoctorController() {
-        this.userDAO = new UserDAOImpl();
-        this.doctorCache = new HashMap<>();
+        this.userDAO = DAOFactory.getInstance().getUserDAO();
+        this.doctorDAO = DAOFactory.getInstance().getDoctorDAO();
+        this.doctorCache = new LruCache<>("médecins", CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
+        this.doctorListCache = new LruCache<>("listes de médecins", LIST_CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
+        this.specialtyCache = new LruCache<>("spécialités", 1, CACHE_TTL_MILLIS);
     }
     
     /**
@@ -72,8 +98,10 @@ public class DoctorController {
         int doctorId = userDAO.addDoctor(doctor);
         doctor.setId(doctorId);
         
-        // Ajouter au cache
+        // Ajouter au cache et invalider les listes de référence
         doctorCache.put(doctorId, doctor);
+        invalidateLists();
+        EventBus.getInstance().publish(new DoctorEvent(ChangeType.CREATED, doctorId));
         
         LOGGER.info("Médecin ajouté avec succès, ID: " + doctorId);
         return doctorId;
@@ -104,8 +132,10 @@ public class DoctorController {
         // Mettre à jour le médecin
         userDAO.updateDoctor(doctor);
         
-        // Mettre à jour le cache
+        // Mettre à jour le cache et invalider les listes de référence
         doctorCache.put(doctor.getId(), doctor);
+        invalidateLists();
+        EventBus.getInstance().publish(new DoctorEvent(ChangeType.UPDATED, doctor.getId()));
         
         LOGGER.info("Médecin mis à jour avec succès, ID: " + doctor.getId());
     }
@@ -120,11 +150,10 @@ public class DoctorController {
     public void setDoctorActive(int doctorId, boolean active) throws DAOException {
         userDAO.setUserActive(doctorId, active);
         
-        // Mettre à jour le cache si le médecin y est présent
-        if (doctorCache.containsKey(doctorId)) {
-            Doctor doctor = doctorCache.get(doctorId);
-            doctor.setActive(active);
-        }
+        // Invalider le médecin et les listes de référence
+        doctorCache.invalidate(doctorId);
+        invalidateLists();
+        EventBus.getInstance().publish(new DoctorEvent(ChangeType.STATUS_CHANGED, doctorId));
         
         LOGGER.info("Statut du médecin modifié avec succès, ID: " + doctorId + ", Actif: " + active);
     }
@@ -137,51 +166,42 @@ public class DoctorController {
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public Doctor getDoctorById(int doctorId) throws DAOException {
-        // Vérifier d'abord dans le cache
-        if (doctorCache.containsKey(doctorId)) {
-            return doctorCache.get(doctorId);
-        }
-        
-        // Sinon, récupérer depuis la base de données
-        Doctor doctor = userDAO.getDoctorById(doctorId);
-        
-        // Ajouter au cache si trouvé
-        if (doctor != null) {
-            doctorCache.put(doctorId, doctor);
-        }
-        
-        return doctor;
+        // Vérifier d'abord dans le cache, sinon récupérer depuis la base de données
+        return doctorCache.get(doctorId, () -> userDAO.getDoctorById(doctorId));
     }
     
     /**
      * Récupère tous les médecins
      * 
-     * @return Liste de tous les médecins
+     * @return Liste non modifiable de tous les médecins
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public List<Doctor> getAllDoctors() throws DAOException {
-        return userDAO.getAllDoctors();
+        return doctorListCache.get(ALL_DOCTORS_KEY,
+                () -> Collections.unmodifiableList(userDAO.getAllDoctors()));
     }
     
     /**
      * Récupère les médecins par spécialité
      * 
      * @param specialty La spécialité à rechercher
-     * @return Liste des médecins ayant cette spécialité
+     * @return Liste non modifiable des médecins ayant cette spécialité
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public List<Doctor> getDoctorsBySpecialty(String specialty) throws DAOException {
-        return userDAO.getDoctorsBySpecialty(specialty);
+        return doctorListCache.get(SPECIALTY_KEY_PREFIX + specialty,
+                () -> Collections.unmodifiableList(userDAO.getDoctorsBySpecialty(specialty)));
     }
     
     /**
      * Récupère toutes les spécialités médicales disponibles
      * 
-     * @return Liste des spécialités uniques
+     * @return Liste non modifiable des spécialités uniques
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public List<String> getAllSpecialties() throws DAOException {
-        return userDAO.getAllSpecialties();
+        return specialtyCache.get(SPECIALTIES_KEY,
+                () -> Collections.unmodifiableList(userDAO.getAllSpecialties()));
     }
     
     /**
@@ -242,6 +262,41 @@ public class DoctorController {
         return !appointmentController.hasAppointmentConflict(doctorId, startDateTime, endDateTime, excludeAppointmentId);
     }
     
+    /**
+     * Récupère les heures de début possibles pour un rendez-vous d'une durée donnée
+     * 
+     * @param doctorId L'ID du médecin
+     * @param date La date souhaitée
+     * @param durationMinutes La durée du rendez-vous en minutes
+     * @return Liste des heures de début libres (format HH:mm)
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<String> getAvailableTimeSlots(int doctorId, LocalDate date, int durationMinutes) throws DAOException {
+        return doctorDAO.getAvailableTimeSlots(doctorId, date, durationMinutes);
+    }
+    
+    /**
+     * Recherche les prochains créneaux libres parmi les médecins d'une spécialité
+     * 
+     * @param specialty La spécialité recherchée
+     * @param fromDate Le premier jour de la recherche
+     * @param days Le nombre de jours à parcourir
+     * @param durationMinutes La durée du rendez-vous en minutes
+     * @param limit Le nombre maximal de créneaux à retourner
+     * @return Les créneaux libres, par ordre chronologique
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<AvailableSlot> findFirstAvailableSlots(String specialty, LocalDate fromDate, int days,
+                                                      int durationMinutes, int limit) throws DAOException {
+        if (specialty == null || specialty.trim().isEmpty()) {
+            throw new IllegalArgumentException("La spécialité est obligatoire.");
+        }
+        if (durationMinutes <= 0) {
+            throw new IllegalArgumentException("Durée du rendez-vous invalide.");
+        }
+        return doctorDAO.findFirstAvailableSlots(specialty, fromDate, days, durationMinutes, limit);
+    }
+    
     /**
      * Exporte le planning d'un médecin en PDF
      * 
@@ -302,7 +357,25 @@ public class DoctorController {
      * Vide le cache des médecins
      */
     public void clearCache() {
-        doctorCache.clear();
-        LOGGER.info("Cache des médecins vidé");
+        doctorCache.invalidateAll();
+        invalidateLists();
+        LOGGER.info("Cache des médecins vidé (" + doctorCache + ")");
+    }
+    
+    /**
+     * Récupère le cache des médecins (statistiques d'utilisation)
+     * 
+     * @return Le cache des médecins
+     */
+    public LruCache<Integer, Doctor> getCache() {
+        return doctorCache;
+    }
+    
+    /**
+     * Invalide les listes de référence (médecins, spécialités) après une écriture
+     */
+    private void invalidateLists() {
+        doctorListCache.invalidateAll();
+        specialtyCache.invalidateAll();
     }
 }
\ No newline at end of file
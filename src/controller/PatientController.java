@@ -1,21 +1,33 @@
 package controller;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 import dao.DAOException;
+import dao.DAOFactory;
 import dao.PatientDAO;
-import dao.PatientDAOImpl;
 import model.Appointment;
+import model.AppointmentSummary;
+import model.ChangeType;
 import model.Patient;
+import model.PatientEvent;
+import model.PatientSummary;
+import util.EventBus;
+import util.LruCache;
 
 /**
  * Contrôleur pour la gestion des patients.
  * Implémente le pattern Singleton pour assurer une seule instance.
+ * Chaque écriture réussie publie un PatientEvent sur le bus d'événements.
  */
 public class PatientController {
     
@@ -27,15 +39,22 @@ public class PatientController {
     // DAO pour les opérations sur les patients
     private final PatientDAO patientDAO;
     
+    // Paramètres du cache des patients
+    private static final int CACHE_MAX_SIZE = 1000;
+    private static final long CACHE_TTL_MILLIS = 5 * 60_000;
+    
+    // Format d'adresse email accepté (validation simple), compilé une seule fois
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    
     // Cache des patients récemment consultés (optimisation)
-    private final Map<Integer, Patient> patientCache;
+    private final LruCache<Integer, Patient> patientCache;
     
     /**
      * Constructeur privé (Singleton)
      */
     private PatientController() {
-        this.patientDAO = new PatientDAOImpl();
-        this.patientCache = new HashMap<>();
+        this.patientDAO = DAOFactory.getInstance().getPatientDAO();
+        this.patientCache = new LruCache<>("patients", CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
     }
     
     /**
@@ -73,11 +92,65 @@ public class PatientController {
         
         // Ajouter au cache
         patientCache.put(patientId, patient);
+        EventBus.getInstance().publish(PatientEvent.of(ChangeType.CREATED, patientId));
         
         LOGGER.info("Patient ajouté avec succès, ID: " + patientId);
         return patientId;
     }
     
+    /**
+     * Ajoute plusieurs patients en une seule transaction.
+     * Les doublons ne sont pas recherchés ici (une requête par patient) : l'appelant
+     * les écarte au préalable, par exemple lors d'un import.
+     * 
+     * @param patients Les patients à ajouter
+     * @return Les IDs des patients créés, dans l'ordre de la liste
+     * @throws IllegalArgumentException Si un patient est invalide (aucun n'est alors ajouté)
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public int[] addPatients(List<Patient> patients) throws IllegalArgumentException, DAOException {
+        for (Patient patient : patients) {
+            validatePatient(patient);
+        }
+        
+        // Pas de mise en cache : un import évincerait les fiches consultées récemment
+        int[] patientIds = patientDAO.addPatients(patients);
+        if (patientIds.length > 0) {
+            List<Integer> ids = new ArrayList<>(patientIds.length);
+            for (int patientId : patientIds) {
+                ids.add(patientId);
+            }
+            EventBus.getInstance().publish(new PatientEvent(ChangeType.CREATED, ids));
+        }
+        
+        LOGGER.info(patientIds.length + " patients ajoutés avec succès");
+        return patientIds;
+    }
+    
+    /**
+     * Importe des patients depuis un fichier CSV (UTF-8, avec ligne d'en-tête).
+     * Les lignes invalides et les doublons sont écartés et comptés dans le bilan ;
+     * voir PatientImporter pour le déroulement. Les patients importés ne sont pas mis en cache.
+     * 
+     * @param file Le fichier à importer
+     * @param listener Le suivi de l'avancement, appelé après chaque lot (peut être null)
+     * @return Le bilan de l'import
+     * @throws IOException Si le fichier est illisible ou si l'en-tête est incomplet
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     *                      (les lots déjà traités restent enregistrés)
+     */
+    public PatientImporter.Report importPatients(Path file, PatientImporter.ProgressListener listener)
+            throws IOException, DAOException {
+        PatientImporter.Report report;
+        try {
+            report = new PatientImporter(patientDAO).importFile(file, listener);
+        } finally {
+            // Les lots déjà traités restent enregistrés, même en cas d'erreur
+            EventBus.getInstance().publish(new PatientEvent(ChangeType.CREATED, Collections.emptySet()));
+        }
+        return report;
+    }
+    
     /**
      * Met à jour les informations d'un patient existant
      * 
@@ -97,6 +170,7 @@ public class PatientController {
         
         // Mettre à jour le cache
         patientCache.put(patient.getId(), patient);
+        EventBus.getInstance().publish(PatientEvent.of(ChangeType.UPDATED, patient.getId()));
         
         LOGGER.info("Patient mis à jour avec succès, ID: " + patient.getId());
     }
@@ -112,7 +186,8 @@ public class PatientController {
         patientDAO.deletePatient(patientId);
         
         // Supprimer du cache
-        patientCache.remove(patientId);
+        patientCache.invalidate(patientId);
+        EventBus.getInstance().publish(PatientEvent.of(ChangeType.DELETED, patientId));
         
         LOGGER.info("Patient supprimé avec succès, ID: " + patientId);
     }
@@ -125,20 +200,8 @@ public class PatientController {
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public Patient getPatientById(int patientId) throws DAOException {
-        // Vérifier d'abord dans le cache
-        if (patientCache.containsKey(patientId)) {
-            return patientCache.get(patientId);
-        }
-        
-        // Sinon, récupérer depuis la base de données
-        Patient patient = patientDAO.getPatientById(patientId);
-        
-        // Ajouter au cache si trouvé
-        if (patient != null) {
-            patientCache.put(patientId, patient);
-        }
-        
-        return patient;
+        // Vérifier d'abord dans le cache, sinon récupérer depuis la base de données
+        return patientCache.get(patientId, () -> patientDAO.getPatientById(patientId));
     }
     
     /**
@@ -151,6 +214,20 @@ public class PatientController {
         return patientDAO.getAllPatients();
     }
     
+    /**
+     * Récupère une page de résumés de patients par ordre alphabétique (pagination par clé).
+     * Les résumés ne contiennent ni l'adresse ni les notes : utiliser
+     * getPatientById pour la fiche complète.
+     * 
+     * @param after Le dernier patient de la page précédente (null pour la première page)
+     * @param limit La taille de la page
+     * @return La page de patients
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<PatientSummary> getPatientsPage(PatientSummary after, int limit) throws DAOException {
+        return patientDAO.getPatientsPage(after, limit);
+    }
+    
     /**
      * Recherche des patients par nom et/ou prénom
      * 
@@ -174,6 +251,29 @@ public class PatientController {
         return patientDAO.searchPatientsByPhone(phone);
     }
     
+    /**
+     * Recherche des résumés de patients par nom et/ou prénom (listes de résultats)
+     * 
+     * @param lastName Le nom de famille (peut être null)
+     * @param firstName Le prénom (peut être null)
+     * @return Les patients correspondants, par pertinence décroissante
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<PatientSummary> searchPatientSummariesByName(String lastName, String firstName) throws DAOException {
+        return patientDAO.searchPatientSummariesByName(lastName, firstName);
+    }
+    
+    /**
+     * Recherche des résumés de patients par numéro de téléphone (listes de résultats)
+     * 
+     * @param phone Le numéro de téléphone à rechercher
+     * @return Les patients correspondants
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public List<PatientSummary> searchPatientSummariesByPhone(String phone) throws DAOException {
+        return patientDAO.searchPatientSummariesByPhone(phone);
+    }
+    
     /**
      * Recherche avancée de patients selon plusieurs critères
      * 
@@ -247,12 +347,12 @@ public class PatientController {
      * Récupère l'historique des rendez-vous d'un patient
      * 
      * @param patientId L'ID du patient
-     * @return Liste des rendez-vous du patient
+     * @return Les résumés des rendez-vous du patient
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
-    public List<Appointment> getPatientAppointmentHistory(int patientId) throws DAOException {
+    public List<AppointmentSummary> getPatientAppointmentHistory(int patientId) throws DAOException {
         AppointmentController appointmentController = AppointmentController.getInstance();
-        return appointmentController.getAppointmentsByPatient(patientId);
+        return appointmentController.getAppointmentSummariesByPatient(patientId);
     }
     
     /**
@@ -269,12 +369,12 @@ public class PatientController {
     }
     
     /**
-     * Valide les données d'un patient
+     * Valide les données d'un patient (règles partagées avec l'import de patients)
      * 
      * @param patient Le patient à valider
      * @throws IllegalArgumentException Si les données du patient sont invalides
      */
-    private void validatePatient(Patient patient) throws IllegalArgumentException {
+    static void validatePatient(Patient patient) throws IllegalArgumentException {
         if (patient == null) {
             throw new IllegalArgumentException("Le patient ne peut pas être null.");
         }
@@ -305,16 +405,25 @@ public class PatientController {
      * @param email L'adresse email à vérifier
      * @return true si l'email est valide, false sinon
      */
-    private boolean isValidEmail(String email) {
+    private static boolean isValidEmail(String email) {
         // Validation simple
-        return email != null && email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
+        return email != null && EMAIL_PATTERN.matcher(email).matches();
     }
     
     /**
      * Vide le cache des patients
      */
     public void clearCache() {
-        patientCache.clear();
-        LOGGER.info("Cache des patients vidé");
+        patientCache.invalidateAll();
+        LOGGER.info("Cache des patients vidé (" + patientCache + ")");
+    }
+    
+    /**
+     * Récupère le cache des patients (statistiques d'utilisation)
+     * 
+     * @return Le cache des patients
+     */
+    public LruCache<Integer, Patient> getCache() {
+        return patientCache;
     }
 }
\ No newline at end of file
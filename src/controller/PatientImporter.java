@@ -0,0 +1,478 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import dao.DAOException;
+import dao.PatientDAO;
+import model.Patient;
+import util.CsvReader;
+import util.DateTimeUtils;
+
+/**
+ * Import de patients depuis un fichier CSV (reprise de données d'un autre logiciel).
+ *
+ * Le fichier est lu en flux, par lots de CHUNK_SIZE lignes : seules les lignes du lot
+ * en cours sont en mémoire, quelle que soit la taille du fichier. Pour chaque lot :
+ * <ol>
+ *   <li>les lignes sont converties, normalisées et validées en parallèle
+ *       (mêmes règles que PatientController) ;</li>
+ *   <li>les doublons sont recherchés en une requête pour tout le lot, puis à
+ *       l'intérieur du lot (les lots précédents sont déjà en base) ;</li>
+ *   <li>les patients restants sont ajoutés par lots JDBC, en une transaction.</li>
+ * </ol>
+ * Les lignes invalides sont écartées et signalées, sans interrompre l'import.
+ * L'import s'arrête entre deux lots si le thread appelant est interrompu.
+ */
+public class PatientImporter {
+
+    private static final Logger LOGGER = Logger.getLogger(PatientImporter.class.getName());
+
+    // Nombre de lignes lues, validées et enregistrées ensemble
+    static final int CHUNK_SIZE = 1000;
+
+    // Nombre maximal d'erreurs conservées dans le rapport (les suivantes sont seulement comptées)
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Longueurs maximales des colonnes de la table patients
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_PHONE_LENGTH = 20;
+    private static final int MAX_EMAIL_LENGTH = 100;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PHONE_SEPARATORS = Pattern.compile("[\\s.\\-/()]");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
+    /**
+     * Colonnes reconnues ; l'en-tête est comparé sans accents, casse ni ponctuation
+     */
+    enum Column {
+        LAST_NAME(true, "nom", "lastname", "nomdefamille"),
+        FIRST_NAME(true, "prenom", "firstname"),
+        BIRTH_DATE(false, "datenaissance", "datedenaissance", "naissance", "birthdate"),
+        PHONE(true, "telephone", "tel", "phone"),
+        ADDRESS(false, "adresse", "address"),
+        EMAIL(false, "email", "mail", "courriel"),
+        NOTES(false, "notesadministratives", "notes", "remarques");
+
+        private final boolean required;
+        private final String[] aliases;
+
+        Column(boolean required, String... aliases) {
+            this.required = required;
+            this.aliases = aliases;
+        }
+    }
+
+    /**
+     * Suivi de l'avancement, appelé après chaque lot sur le thread de l'import
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Report progress);
+    }
+
+    /**
+     * Ligne écartée lors de l'import
+     */
+    public static final class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * @return Le numéro de ligne dans le fichier (à partir de 1)
+         */
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Ligne " + line + " : " + message;
+        }
+    }
+
+    /**
+     * Bilan (intermédiaire ou final) d'un import. Instance immuable.
+     */
+    public static final class Report {
+        private final long rowsRead;
+        private final int imported;
+        private final int duplicates;
+        private final int rejected;
+        private final List<RowError> errors;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+
+        Report(long rowsRead, int imported, int duplicates, int rejected,
+               List<RowError> errors, boolean cancelled, long elapsedMillis) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.rejected = rejected;
+            this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        /**
+         * @return Les lignes écartées pour erreur (au plus MAX_REPORTED_ERRORS)
+         */
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return rowsRead + " lignes lues, " + imported + " patients importés, "
+                    + duplicates + " doublons ignorés, " + rejected + " lignes rejetées"
+                    + (cancelled ? " (import interrompu)" : "") + " en " + elapsedMillis + " ms";
+        }
+    }
+
+    /**
+     * Résultat de la conversion d'une ligne : un patient ou une erreur
+     */
+    private static final class ParsedRow {
+        final long line;
+        final Patient patient;
+        final String error;
+
+        ParsedRow(long line, Patient patient, String error) {
+            this.line = line;
+            this.patient = patient;
+            this.error = error;
+        }
+    }
+
+    private final PatientDAO patientDAO;
+
+    // Compteurs de l'import en cours
+    private long rowsRead;
+    private int imported;
+    private int duplicates;
+    private int rejected;
+    private final List<RowError> errors = new ArrayList<>();
+    private long startNanos;
+
+    /**
+     * Constructeur. Un importeur ne sert qu'à un seul import.
+     *
+     * @param patientDAO Le DAO des patients
+     */
+    PatientImporter(PatientDAO patientDAO) {
+        this.patientDAO = patientDAO;
+    }
+
+    /**
+     * Importe un fichier CSV encodé en UTF-8
+     *
+     * @param file Le fichier, avec une ligne d'en-tête
+     * @param listener Le suivi de l'avancement (peut être null)
+     * @return Le bilan de l'import
+     * @throws IOException Si le fichier est illisible ou si l'en-tête est incomplet
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     *                      (les lots déjà traités restent enregistrés)
+     */
+    Report importFile(Path file, ProgressListener listener) throws IOException, DAOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(reader, listener);
+        }
+    }
+
+    /**
+     * Importe un flux CSV
+     *
+     * @param source Le flux, avec une ligne d'en-tête
+     * @param listener Le suivi de l'avancement (peut être null)
+     * @return Le bilan de l'import
+     * @throws IOException Si le flux est illisible ou si l'en-tête est incomplet
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     *                      (les lots déjà traités restent enregistrés)
+     */
+    Report importCsv(Reader source, ProgressListener listener) throws IOException, DAOException {
+        startNanos = System.nanoTime();
+        CsvReader csv = new CsvReader(source);
+
+        String[] header = csv.next();
+        if (header == null) {
+            throw new IOException("Le fichier est vide.");
+        }
+        int[] columns = mapHeader(header);
+
+        List<String[]> records = new ArrayList<>(CHUNK_SIZE);
+        List<Long> lines = new ArrayList<>(CHUNK_SIZE);
+        boolean cancelled = false;
+
+        String[] record;
+        while ((record = csv.next()) != null) {
+            records.add(record);
+            lines.add(csv.getLineNumber());
+            if (records.size() == CHUNK_SIZE) {
+                processChunk(records, lines, columns);
+                records.clear();
+                lines.clear();
+                notify(listener, false);
+
+                if (Thread.currentThread().isInterrupted()) {
+                    cancelled = true;
+                    break;
+                }
+            }
+        }
+        if (!cancelled && !records.isEmpty()) {
+            processChunk(records, lines, columns);
+        }
+
+        Report report = snapshot(cancelled);
+        if (listener != null) {
+            listener.onProgress(report);
+        }
+        LOGGER.info("Import de patients terminé : " + report);
+        return report;
+    }
+
+    /**
+     * Valide, dédoublonne et enregistre un lot de lignes
+     */
+    private void processChunk(List<String[]> records, List<Long> lines, int[] columns) throws DAOException {
+        rowsRead += records.size();
+
+        // Conversion et validation en parallèle ; l'ordre des lignes est conservé
+        List<Integer> indexes = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            indexes.add(i);
+        }
+        List<ParsedRow> parsed = indexes.parallelStream()
+                .map(i -> parseRow(records.get(i), lines.get(i), columns))
+                .collect(Collectors.toList());
+
+        List<ParsedRow> valid = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            if (row.error != null) {
+                reject(row.line, row.error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Doublons : une seule requête pour les patients déjà en base
+        List<Patient> candidates = new ArrayList<>(valid.size());
+        for (ParsedRow row : valid) {
+            candidates.add(row.patient);
+        }
+        Set<String> known = new HashSet<>();
+        for (Patient existing : patientDAO.findExistingPatients(candidates)) {
+            known.add(identityKey(existing));
+        }
+
+        List<Patient> toInsert = new ArrayList<>(valid.size());
+        for (Patient patient : candidates) {
+            // Sans date de naissance, un patient n'est jamais considéré comme un doublon
+            if (patient.getBirthDate() != null && !known.add(identityKey(patient))) {
+                duplicates++;
+            } else {
+                toInsert.add(patient);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            imported += patientDAO.addPatients(toInsert).length;
+        }
+    }
+
+    /**
+     * Convertit, normalise et valide une ligne du fichier. Sans état partagé :
+     * appelée en parallèle.
+     */
+    private static ParsedRow parseRow(String[] record, long line, int[] columns) {
+        String lastName = normalizeName(field(record, columns, Column.LAST_NAME));
+        String firstName = normalizeName(field(record, columns, Column.FIRST_NAME));
+        String phone = normalizePhone(field(record, columns, Column.PHONE));
+        String email = field(record, columns, Column.EMAIL);
+        String birthDateText = field(record, columns, Column.BIRTH_DATE);
+
+        if (email != null) {
+            email = email.toLowerCase(Locale.ROOT);
+        }
+
+        LocalDate birthDate = DateTimeUtils.parseDate(birthDateText);
+        if (birthDateText != null && birthDate == null) {
+            return new ParsedRow(line, null, "Date de naissance invalide : " + birthDateText);
+        }
+
+        if (length(lastName) > MAX_NAME_LENGTH || length(firstName) > MAX_NAME_LENGTH) {
+            return new ParsedRow(line, null, "Le nom ou le prénom dépasse " + MAX_NAME_LENGTH + " caractères.");
+        }
+        if (length(phone) > MAX_PHONE_LENGTH) {
+            return new ParsedRow(line, null, "Le numéro de téléphone dépasse " + MAX_PHONE_LENGTH + " caractères.");
+        }
+        if (length(email) > MAX_EMAIL_LENGTH) {
+            return new ParsedRow(line, null, "L'adresse email dépasse " + MAX_EMAIL_LENGTH + " caractères.");
+        }
+
+        Patient patient = new Patient(lastName, firstName, birthDate, phone);
+        patient.setAddress(field(record, columns, Column.ADDRESS));
+        patient.setEmail(email);
+        patient.setAdministrativeNotes(field(record, columns, Column.NOTES));
+
+        try {
+            PatientController.validatePatient(patient);
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(line, null, e.getMessage());
+        }
+        return new ParsedRow(line, patient, null);
+    }
+
+    /**
+     * Associe chaque colonne reconnue à sa position dans l'en-tête
+     *
+     * @return Les positions, indexées par Column.ordinal() (-1 si la colonne est absente)
+     * @throws IOException Si une colonne obligatoire est absente
+     */
+    static int[] mapHeader(String[] header) throws IOException {
+        Map<String, Column> byAlias = new HashMap<>();
+        for (Column column : Column.values()) {
+            for (String alias : column.aliases) {
+                byAlias.put(alias, column);
+            }
+        }
+
+        int[] positions = new int[Column.values().length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i];
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                // Marque d'ordre des octets laissée par Excel
+                name = name.substring(1);
+            }
+            Column column = byAlias.get(headerKey(name));
+            if (column != null && positions[column.ordinal()] < 0) {
+                positions[column.ordinal()] = i;
+            }
+        }
+
+        for (Column column : Column.values()) {
+            if (column.required && positions[column.ordinal()] < 0) {
+                throw new IOException("Colonne obligatoire absente de l'en-tête : " + column.aliases[0]);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Clé de doublon : nom, prénom et date de naissance, sans distinction de casse
+     * ni d'accents (comme la collation de la table patients)
+     */
+    static String identityKey(Patient patient) {
+        return foldName(patient.getLastName()) + '\u001F' + foldName(patient.getFirstName()) + '\u001F'
+                + patient.getBirthDate();
+    }
+
+    private static String foldName(String name) {
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    private static String headerKey(String name) {
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(name.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    /**
+     * Valeur d'un champ, ou null si la colonne est absente ou la valeur vide
+     */
+    private static String field(String[] record, int[] columns, Column column) {
+        int position = columns[column.ordinal()];
+        if (position < 0 || position >= record.length) {
+            return null;
+        }
+        String value = record[position].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalizeName(String value) {
+        return value == null ? null : WHITESPACE.matcher(value).replaceAll(" ");
+    }
+
+    private static String normalizePhone(String value) {
+        return value == null ? null : PHONE_SEPARATORS.matcher(value).replaceAll("");
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private void reject(long line, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    private void notify(ProgressListener listener, boolean cancelled) {
+        if (listener != null) {
+            listener.onProgress(snapshot(cancelled));
+        }
+    }
+
+    private Report snapshot(boolean cancelled) {
+        return new Report(rowsRead, imported, duplicates, rejected, errors, cancelled,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
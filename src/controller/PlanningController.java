@@ -3,14 +3,16 @@ package controller;
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import config.AppConfig;
 import dao.DAOException;
-import model.Appointment;
+import model.AppointmentSummary;
 import model.Doctor;
+import model.MonthLoad;
 import util.DateTimeUtils;
 import util.PDFExporter;
 
@@ -66,7 +68,7 @@ public class PlanningController {
      */
     public String exportDailyPlanning(Doctor doctor, LocalDate date) throws DAOException, IOException {
         // Récupérer les rendez-vous du médecin pour la date spécifiée
-        List<Appointment> appointments = appointmentController.getAppointmentsByDoctorAndDate(doctor.getId(), date);
+        List<AppointmentSummary> appointments = appointmentController.getAppointmentSummaries(doctor.getId(), date, date);
         
         // Générer le chemin du fichier PDF
         String outputFilePath = PDFExporter.generatePlanningFilePath(doctor, date, false);
@@ -90,7 +92,7 @@ public class PlanningController {
         LocalDate weekEndDate = weekStartDate.plusDays(6);
         
         // Récupérer les rendez-vous du médecin pour la semaine
-        List<Appointment> appointments = appointmentController.getAppointmentsByDoctorAndDateRange(
+        List<AppointmentSummary> appointments = appointmentController.getAppointmentSummaries(
                 doctor.getId(), weekStartDate, weekEndDate);
         
         // Générer le chemin du fichier PDF
@@ -101,7 +103,23 @@ public class PlanningController {
     }
     
     /**
-     * Compte le nombre de rendez-vous pour un médecin et une date donnée
+     * Exporte en PDF le planning hebdomadaire de chaque médecin (un fichier par médecin),
+     * en parallèle et à partir d'une seule lecture des rendez-vous de la semaine
+     * 
+     * @param date Une date dans la semaine
+     * @param merged true pour générer aussi un document unique avec une section par médecin
+     * @return Le bilan de l'export, avec la durée de génération de chaque PDF
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     * @throws InterruptedException Si l'export est interrompu
+     */
+    public WeeklyPlanningExport.Report exportAllWeeklyPlannings(LocalDate date, boolean merged)
+            throws DAOException, InterruptedException {
+        return new WeeklyPlanningExport(appointmentController, doctorController).run(date, merged);
+    }
+    
+    /**
+     * Compte le nombre de rendez-vous actifs pour un médecin et une date donnée
+     * (lu dans la charge mensuelle en cache)
      * 
      * @param doctorId L'ID du médecin
      * @param date La date des rendez-vous
@@ -109,8 +127,7 @@ public class PlanningController {
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public int countAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws DAOException {
-        List<Appointment> appointments = appointmentController.getAppointmentsByDoctorAndDate(doctorId, date);
-        return appointments.size();
+        return getMonthLoad(doctorId, YearMonth.from(date)).getAppointmentCount(date);
     }
     
     /**
@@ -135,8 +152,19 @@ public class PlanningController {
      * @throws DAOException Si une erreur survient lors de l'accès aux données
      */
     public List<Integer> getDaysWithAppointmentsForMonth(int doctorId, int year, int month) throws DAOException {
-        // Cette méthode pourrait être implémentée mais nécessiterait une requête SQL spécifique
-        // ou une analyse des rendez-vous du mois pour extraire les jours
-        throw new UnsupportedOperationException("Méthode non implémentée");
+        return getMonthLoad(doctorId, YearMonth.of(year, month)).getDaysWithAppointments();
+    }
+    
+    /**
+     * Obtient la charge d'un mois (rendez-vous actifs et minutes réservées par jour)
+     * pour la carte de charge du planning
+     * 
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @param month Le mois
+     * @return La charge du mois
+     * @throws DAOException Si une erreur survient lors de l'accès aux données
+     */
+    public MonthLoad getMonthLoad(int doctorId, YearMonth month) throws DAOException {
+        return appointmentController.getMonthLoad(doctorId, month);
     }
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package controller;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import dao.DAOException;
+import model.AppointmentSummary;
+import model.Doctor;
+import util.DateTimeUtils;
+import util.PDFExporter;
+
+/**
+ * Export groupé des plannings hebdomadaires de tous les médecins (préparation
+ * de la semaine suivante, chaque vendredi).
+ *
+ * Les rendez-vous de la semaine sont lus en une seule requête pour tous les médecins,
+ * puis répartis en mémoire. Les PDF sont générés en parallèle sur un pool borné de
+ * threads ; chaque fichier est écrit par PDFExporter à travers un flux tamponné puis
+ * renommé atomiquement dans AppConfig.EXPORT_DIRECTORY. L'échec d'un médecin
+ * n'empêche pas l'export des autres. Les listes de rendez-vous sont partagées
+ * en lecture seule entre les threads.
+ */
+public class WeeklyPlanningExport {
+
+    private static final Logger LOGGER = Logger.getLogger(WeeklyPlanningExport.class.getName());
+
+    // Nombre maximal de PDF générés simultanément (génération liée au processeur)
+    private static final int MAX_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Export d'un médecin
+     */
+    public static final class DoctorExport {
+        private final Doctor doctor;
+        private final int appointmentCount;
+        private final String filePath;
+        private final String error;
+        private final long renderMillis;
+
+        DoctorExport(Doctor doctor, int appointmentCount, String filePath, String error, long renderMillis) {
+            this.doctor = doctor;
+            this.appointmentCount = appointmentCount;
+            this.filePath = filePath;
+            this.error = error;
+            this.renderMillis = renderMillis;
+        }
+
+        public Doctor getDoctor() {
+            return doctor;
+        }
+
+        public int getAppointmentCount() {
+            return appointmentCount;
+        }
+
+        /**
+         * @return Le chemin du PDF généré, ou null en cas d'échec
+         */
+        public String getFilePath() {
+            return filePath;
+        }
+
+        /**
+         * @return Le message d'erreur, ou null si l'export a réussi
+         */
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * @return La durée de génération du PDF, en millisecondes
+         */
+        public long getRenderMillis() {
+            return renderMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Dr. " + doctor.getFullName() + " : "
+                    + (isSuccess() ? appointmentCount + " rendez-vous, " + renderMillis + " ms" : "échec (" + error + ")");
+        }
+    }
+
+    /**
+     * Bilan d'un export groupé. Instance immuable.
+     */
+    public static final class Report {
+        private final LocalDate weekStartDate;
+        private final List<DoctorExport> exports;
+        private final String mergedFilePath;
+        private final long queryMillis;
+        private final long elapsedMillis;
+
+        Report(LocalDate weekStartDate, List<DoctorExport> exports, String mergedFilePath,
+               long queryMillis, long elapsedMillis) {
+            this.weekStartDate = weekStartDate;
+            this.exports = Collections.unmodifiableList(new ArrayList<>(exports));
+            this.mergedFilePath = mergedFilePath;
+            this.queryMillis = queryMillis;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public LocalDate getWeekStartDate() {
+            return weekStartDate;
+        }
+
+        /**
+         * @return Les exports par médecin, dans l'ordre de la liste des médecins
+         */
+        public List<DoctorExport> getExports() {
+            return exports;
+        }
+
+        /**
+         * @return Le chemin du document regroupant tous les médecins, ou null s'il n'a pas été demandé
+         */
+        public String getMergedFilePath() {
+            return mergedFilePath;
+        }
+
+        /**
+         * @return La durée de la lecture des rendez-vous, en millisecondes
+         */
+        public long getQueryMillis() {
+            return queryMillis;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public int getFailureCount() {
+            int failures = 0;
+            for (DoctorExport export : exports) {
+                if (!export.isSuccess()) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return exports.size() + " plannings exportés (" + getFailureCount() + " échecs) en "
+                    + elapsedMillis + " ms, dont " + queryMillis + " ms de lecture";
+        }
+    }
+
+    private final AppointmentController appointmentController;
+    private final DoctorController doctorController;
+
+    WeeklyPlanningExport(AppointmentController appointmentController, DoctorController doctorController) {
+        this.appointmentController = appointmentController;
+        this.doctorController = doctorController;
+    }
+
+    /**
+     * Exporte le planning hebdomadaire de chaque médecin
+     *
+     * @param date Une date dans la semaine à exporter
+     * @param merged true pour générer aussi un document unique avec une section par médecin
+     * @return Le bilan de l'export
+     * @throws DAOException Si une erreur survient lors de la lecture des rendez-vous
+     * @throws InterruptedException Si l'export est interrompu
+     */
+    Report run(LocalDate date, boolean merged) throws DAOException, InterruptedException {
+        long start = System.nanoTime();
+        LocalDate weekStartDate = DateTimeUtils.getFirstDayOfWeek(date);
+        LocalDate weekEndDate = weekStartDate.plusDays(6);
+
+        // Une seule requête pour la semaine de tous les médecins (doctorId = 0)
+        List<Doctor> doctors = doctorController.getAllDoctors();
+        List<AppointmentSummary> appointments = appointmentController.getAppointmentSummaries(
+                0, weekStartDate, weekEndDate);
+        long queryMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<Integer, List<AppointmentSummary>> byDoctor = new HashMap<>();
+        for (AppointmentSummary appointment : appointments) {
+            byDoctor.computeIfAbsent(appointment.getDoctorId(), id -> new ArrayList<>()).add(appointment);
+        }
+        Map<Doctor, List<AppointmentSummary>> plannings = new LinkedHashMap<>();
+        for (Doctor doctor : doctors) {
+            plannings.put(doctor, byDoctor.getOrDefault(doctor.getId(), Collections.emptyList()));
+        }
+
+        List<DoctorExport> exports = new ArrayList<>(doctors.size());
+        String mergedFilePath = null;
+
+        ExecutorService workers = createWorkers(doctors.size());
+        try {
+            List<Future<DoctorExport>> futures = new ArrayList<>(doctors.size());
+            for (Map.Entry<Doctor, List<AppointmentSummary>> planning : plannings.entrySet()) {
+                futures.add(workers.submit(() -> export(planning.getKey(), weekStartDate, planning.getValue())));
+            }
+
+            // Le document regroupé est généré en même temps, sur le thread appelant
+            if (merged && !plannings.isEmpty()) {
+                mergedFilePath = exportMerged(plannings, weekStartDate);
+            }
+
+            for (Future<DoctorExport> future : futures) {
+                try {
+                    exports.add(future.get());
+                } catch (ExecutionException e) {
+                    // export() intercepte déjà les erreurs attendues
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Report report = new Report(weekStartDate, exports, mergedFilePath, queryMillis,
+                (System.nanoTime() - start) / 1_000_000);
+        LOGGER.info("Export groupé de la semaine du " + weekStartDate + " : " + report);
+        for (DoctorExport export : exports) {
+            LOGGER.fine(export.toString());
+        }
+        return report;
+    }
+
+    /**
+     * Génère le PDF d'un médecin (exécuté sur un thread du pool)
+     */
+    private static DoctorExport export(Doctor doctor, LocalDate weekStartDate, List<AppointmentSummary> appointments) {
+        long start = System.nanoTime();
+        try {
+            String outputFilePath = PDFExporter.generatePlanningFilePath(doctor, weekStartDate, true);
+            String path = PDFExporter.exportWeeklyPlanningToPDF(doctor, weekStartDate, appointments, outputFilePath);
+            return new DoctorExport(doctor, appointments.size(), path, null, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Échec de l'export du planning du Dr. " + doctor.getFullName(), e);
+            return new DoctorExport(doctor, appointments.size(), null, e.getMessage(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Génère le document regroupant tous les médecins
+     *
+     * @return Le chemin du document, ou null en cas d'échec (l'erreur est journalisée)
+     */
+    private static String exportMerged(Map<Doctor, List<AppointmentSummary>> plannings, LocalDate weekStartDate) {
+        try {
+            return PDFExporter.exportWeeklyPlanningsToPDF(plannings, weekStartDate,
+                    PDFExporter.generateMergedPlanningFilePath(weekStartDate));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Échec de l'export du planning regroupé", e);
+            return null;
+        }
+    }
+
+    private static ExecutorService createWorkers(int doctorCount) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(MAX_WORKERS, doctorCount)), runnable -> {
+            Thread thread = new Thread(runnable, "export-pdf-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -2,9 +2,16 @@ package dao;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import model.Appointment;
+import model.AppointmentChanges;
+import model.AppointmentSummary;
 import model.AppointmentStatus;
+import model.BookingResult;
+import model.MonthLoad;
 
 /**
  * Interface DAO pour la gestion des rendez-vous.
@@ -21,6 +28,29 @@ public interface AppointmentDAO {
      */
     int addAppointment(Appointment appointment) throws DAOException;
     
+    /**
+     * Réserve un créneau : vérification des chevauchements et insertion dans une même
+     * transaction, sous un verrou propre au médecin. Un créneau déjà occupé n'est pas
+     * une erreur et est retourné dans le résultat.
+     * 
+     * @param appointment Le rendez-vous à enregistrer (son ID est renseigné si la réservation aboutit)
+     * @return Le résultat de la réservation
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    BookingResult bookAppointment(Appointment appointment) throws DAOException;
+    
+    /**
+     * Ajoute plusieurs rendez-vous en une seule transaction, par lots JDBC.
+     * Les créneaux sont vérifiés pour chaque médecin, sous son verrou, contre les
+     * rendez-vous existants et contre les autres rendez-vous du lot.
+     * 
+     * @param appointments Les rendez-vous à ajouter (leur ID est renseigné après l'ajout)
+     * @return Les IDs générés, dans l'ordre de la liste
+     * @throws DAOException En cas de conflit de créneau ou d'erreur de persistance
+     *                      (aucun rendez-vous n'est alors ajouté)
+     */
+    int[] addAppointments(List<Appointment> appointments) throws DAOException;
+    
     /**
      * Met à jour les informations d'un rendez-vous existant
      * 
@@ -46,6 +76,27 @@ public interface AppointmentDAO {
      */
     void updateAppointmentStatus(int appointmentId, AppointmentStatus status) throws DAOException;
     
+    /**
+     * Change le statut de plusieurs rendez-vous en une seule transaction, par lots JDBC
+     * (par exemple en fin de journée : réalisés et absents)
+     * 
+     * @param statuses Le nouveau statut par ID de rendez-vous
+     * @return Le nombre de rendez-vous mis à jour
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    int updateAppointmentStatuses(Map<Integer, AppointmentStatus> statuses) throws DAOException;
+    
+    /**
+     * Annule (statut ANNULE_CABINET) tous les rendez-vous planifiés ou confirmés
+     * d'un médecin pour une journée
+     * 
+     * @param doctorId L'ID du médecin
+     * @param date La journée à annuler
+     * @return Les IDs des rendez-vous annulés
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<Integer> cancelDoctorDay(int doctorId, LocalDate date) throws DAOException;
+    
     /**
      * Récupère un rendez-vous par son ID
      * 
@@ -115,6 +166,66 @@ public interface AppointmentDAO {
      */
     List<Appointment> getAppointmentsByDate(LocalDate date) throws DAOException;
     
+    /**
+     * Récupère les résumés des rendez-vous d'une période, triés par début puis ID.
+     * Seules les colonnes affichées en liste sont lues ; les objets liés ne sont pas chargés.
+     * 
+     * @param from Début de la période
+     * @param to Fin de la période (exclue)
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @return Les résumés des rendez-vous de la période
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<AppointmentSummary> getAppointmentSummaries(LocalDateTime from, LocalDateTime to, int doctorId) throws DAOException;
+    
+    /**
+     * Récupère en une requête les résumés des rendez-vous d'une période pour un ensemble
+     * de médecins (tableau de bord), triés par médecin, début puis ID
+     * 
+     * @param from Début de la période
+     * @param to Fin de la période (exclue)
+     * @param doctorIds Les IDs des médecins
+     * @return Les résumés des rendez-vous de la période (liste vide si aucun médecin)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<AppointmentSummary> getAppointmentSummariesForDoctors(LocalDateTime from, LocalDateTime to,
+                                                               Collection<Integer> doctorIds) throws DAOException;
+    
+    /**
+     * Flux des modifications : rendez-vous créés, modifiés ou supprimés depuis un filigrane.
+     * Les changements d'une fenêtre de recouvrement précédant le filigrane sont relivrés.
+     * 
+     * @param watermark Le filigrane de l'interrogation précédente, ou null pour obtenir
+     *                  seulement le filigrane courant (avant un chargement complet)
+     * @return Les changements et le prochain filigrane (heure du serveur)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    AppointmentChanges getAppointmentsChangedSince(LocalDateTime watermark) throws DAOException;
+    
+    /**
+     * Récupère une page de résumés de rendez-vous d'une période, triés par début puis ID
+     * (pagination par clé)
+     * 
+     * @param from Début de la période
+     * @param to Fin de la période (exclue)
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @param after Le dernier rendez-vous de la page précédente (null pour la première page)
+     * @param limit Le nombre maximal de rendez-vous à retourner
+     * @return La page de résumés, vide après le dernier rendez-vous
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<AppointmentSummary> getAppointmentSummariesPage(LocalDateTime from, LocalDateTime to, int doctorId,
+                                                         AppointmentSummary after, int limit) throws DAOException;
+    
+    /**
+     * Récupère les résumés des rendez-vous d'un patient (historique), triés par début
+     * 
+     * @param patientId L'ID du patient
+     * @return Les résumés des rendez-vous du patient
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<AppointmentSummary> getAppointmentSummariesByPatient(int patientId) throws DAOException;
+    
     /**
      * Récupère tous les rendez-vous avec un statut spécifique
      * 
@@ -134,6 +245,17 @@ public interface AppointmentDAO {
      */
     int countAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws DAOException;
     
+    /**
+     * Calcule la charge d'un mois en une requête agrégée (GROUP BY jour) : nombre de
+     * rendez-vous actifs et minutes réservées par jour, annulations exclues
+     * 
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @param month Le mois
+     * @return La charge du mois, jour par jour
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    MonthLoad getMonthLoad(int doctorId, YearMonth month) throws DAOException;
+    
     /**
      * Récupère les prochains rendez-vous d'un patient
      * 
@@ -1,27 +1,40 @@
 package dao;
 
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import config.AppConfig;
 import config.DatabaseConnection;
 import model.Appointment;
+import model.AppointmentChanges;
+import model.AppointmentSummary;
 import model.AppointmentStatus;
+import model.BookingResult;
 import model.Doctor;
+import model.MonthLoad;
 import model.Patient;
-import model.Secretary;
 
 /**
  * Implémentation MySQL de l'interface AppointmentDAO.
@@ -31,22 +44,33 @@ public class AppointmentDAOImpl implements AppointmentDAO {
 
     private static final Logger LOGGER = Logger.getLogger(AppointmentDAOImpl.class.getName());
 
-    // Requêtes SQL pour les opérations sur les rendez-vous
+    // Requêtes SQL pour les opérations sur les rendez-vous.
+    // date_derniere_maj_rdv est horodatée par le serveur (NOW()), comme le filigrane du
+    // flux des modifications : l'heure des postes n'intervient pas
     private static final String SQL_INSERT_APPOINTMENT = "INSERT INTO rendez_vous (id_patient_fk, id_medecin_fk, id_secretaire_creation_fk, "
             +
             "date_heure_debut, duree_minutes, type_consultation, statut_rdv, notes_rdv, " +
             "date_creation_rdv, date_derniere_maj_rdv) " +
-            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())";
 
     private static final String SQL_UPDATE_APPOINTMENT = "UPDATE rendez_vous SET id_patient_fk = ?, id_medecin_fk = ?, "
             +
             "date_heure_debut = ?, duree_minutes = ?, type_consultation = ?, " +
-            "statut_rdv = ?, notes_rdv = ?, date_derniere_maj_rdv = ? " +
+            "statut_rdv = ?, notes_rdv = ?, date_derniere_maj_rdv = NOW() " +
             "WHERE id_rendezvous = ?";
 
     private static final String SQL_DELETE_APPOINTMENT = "DELETE FROM rendez_vous WHERE id_rendezvous = ?";
 
-    private static final String SQL_UPDATE_APPOINTMENT_STATUS = "UPDATE rendez_vous SET statut_rdv = ?, date_derniere_maj_rdv = ? "
+    // Trace de suppression lue par le flux des modifications (migration V6), horodatée par le serveur
+    private static final String SQL_INSERT_TOMBSTONE = "INSERT INTO rendez_vous_suppressions " +
+            "(id_rendezvous, id_medecin_fk, date_heure_debut, date_suppression) " +
+            "SELECT id_rendezvous, id_medecin_fk, date_heure_debut, NOW() FROM rendez_vous " +
+            "WHERE id_rendezvous = ?";
+
+    private static final String SQL_PURGE_TOMBSTONES = "DELETE FROM rendez_vous_suppressions " +
+            "WHERE date_suppression < NOW() - INTERVAL ? DAY";
+
+    private static final String SQL_UPDATE_APPOINTMENT_STATUS = "UPDATE rendez_vous SET statut_rdv = ?, date_derniere_maj_rdv = NOW() "
             +
             "WHERE id_rendezvous = ?";
 
@@ -83,7 +107,7 @@ public class AppointmentDAOImpl implements AppointmentDAO {
             "JOIN patients p ON rv.id_patient_fk = p.id_patient " +
             "JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur " +
             "WHERE rv.id_medecin_fk = ? " +
-            "AND DATE(rv.date_heure_debut) = ? " +
+            "AND rv.date_heure_debut >= ? AND rv.date_heure_debut < ? " +
             "ORDER BY rv.date_heure_debut";
 
     private static final String SQL_SELECT_APPOINTMENTS_BY_DOCTOR_AND_DATE_RANGE = "SELECT rv.*, p.nom as patient_nom, p.prenom as patient_prenom, "
@@ -93,15 +117,50 @@ public class AppointmentDAOImpl implements AppointmentDAO {
             "JOIN patients p ON rv.id_patient_fk = p.id_patient " +
             "JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur " +
             "WHERE rv.id_medecin_fk = ? " +
-            "AND DATE(rv.date_heure_debut) BETWEEN ? AND ? " +
+            "AND rv.date_heure_debut >= ? AND rv.date_heure_debut < ? " +
             "ORDER BY rv.date_heure_debut";
 
-    private static final String SQL_CHECK_APPOINTMENT_CONFLICT = "SELECT COUNT(*) FROM rendez_vous " +
+    // Borne la recherche des chevauchements vers le passé (plage indexée sur date_heure_debut) ;
+    // les durées supérieures sont refusées par checkDuration
+    static final int MAX_APPOINTMENT_MINUTES = AppConfig.MAX_APPOINTMENT_MINUTES;
+
+    private static final String SQL_LOCK_APPOINTMENT_CONFLICTS = "SELECT id_rendezvous FROM rendez_vous " +
             "WHERE id_medecin_fk = ? " +
             "AND id_rendezvous != ? " +
             "AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET') " +
-            "AND ((date_heure_debut < ? AND DATE_ADD(date_heure_debut, INTERVAL duree_minutes MINUTE) > ?) " +
-            "OR (date_heure_debut >= ? AND date_heure_debut < ?))";
+            "AND date_heure_debut >= ? AND date_heure_debut < ? " +
+            "AND DATE_ADD(date_heure_debut, INTERVAL duree_minutes MINUTE) > ? " +
+            "LIMIT 1 FOR UPDATE";
+
+    // Verrou par médecin : sérialise les réservations d'un même médecin
+    private static final String SQL_LOCK_DOCTOR = "SELECT id_medecin FROM medecins WHERE id_medecin = ? FOR UPDATE";
+
+    // Rendez-vous actifs d'un médecin sur une plage, verrouillés pour un ajout par lots
+    private static final String SQL_LOCK_DOCTOR_APPOINTMENTS = "SELECT id_rendezvous, date_heure_debut, duree_minutes " +
+            "FROM rendez_vous " +
+            "WHERE id_medecin_fk = ? " +
+            "AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET') " +
+            "AND date_heure_debut >= ? AND date_heure_debut < ? " +
+            "FOR UPDATE";
+
+    // Rendez-vous encore à venir (planifiés ou confirmés) d'un médecin sur une plage
+    private static final String SQL_LOCK_ACTIVE_APPOINTMENT_IDS = "SELECT id_rendezvous FROM rendez_vous " +
+            "WHERE id_medecin_fk = ? " +
+            "AND date_heure_debut >= ? AND date_heure_debut < ? " +
+            "AND statut_rdv IN ('PLANIFIE', 'CONFIRME') " +
+            "FOR UPDATE";
+
+    // Réservation atomique côté serveur (migration V4)
+    private static final String SQL_CALL_BOOK_APPOINTMENT = "{CALL reserver_rendez_vous(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)}";
+
+    // Code d'erreur MySQL : procédure inexistante (base antérieure à la version 4)
+    private static final int ER_SP_DOES_NOT_EXIST = 1305;
+
+    // Code d'erreur MySQL : nombre d'arguments incorrect (procédure de la version 4, avant la version 7)
+    private static final int ER_SP_WRONG_NO_OF_ARGS = 1318;
+
+    // Passe à false si la procédure est absente : la réservation se fait alors côté Java
+    private static volatile boolean bookingProcedureAvailable = true;
 
     private static final String SQL_SELECT_APPOINTMENTS_BY_DATE = "SELECT rv.*, p.nom as patient_nom, p.prenom as patient_prenom, "
             +
@@ -109,9 +168,58 @@ public class AppointmentDAOImpl implements AppointmentDAO {
             "FROM rendez_vous rv " +
             "JOIN patients p ON rv.id_patient_fk = p.id_patient " +
             "JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur " +
-            "WHERE DATE(rv.date_heure_debut) = ? " +
+            "WHERE rv.date_heure_debut >= ? AND rv.date_heure_debut < ? " +
+            "ORDER BY rv.date_heure_debut";
+
+    // Projection des écrans de liste : ni notes ni dates de suivi, pas de chargement des objets liés
+    private static final String SQL_SELECT_APPOINTMENT_SUMMARIES = "SELECT rv.id_rendezvous, rv.id_patient_fk, "
+            +
+            "rv.id_medecin_fk, rv.date_heure_debut, rv.duree_minutes, rv.statut_rdv, rv.type_consultation, " +
+            "p.nom as patient_nom, p.prenom as patient_prenom, u.nom_complet as medecin_nom " +
+            "FROM rendez_vous rv " +
+            "JOIN patients p ON rv.id_patient_fk = p.id_patient " +
+            "JOIN utilisateurs u ON rv.id_medecin_fk = u.id_utilisateur ";
+
+    private static final String SQL_SELECT_APPOINTMENT_SUMMARIES_BY_PERIOD = SQL_SELECT_APPOINTMENT_SUMMARIES +
+            "WHERE rv.date_heure_debut >= ? AND rv.date_heure_debut < ?";
+
+    private static final String SQL_SELECT_APPOINTMENT_SUMMARIES_BY_PATIENT = SQL_SELECT_APPOINTMENT_SUMMARIES +
+            "WHERE rv.id_patient_fk = ? " +
             "ORDER BY rv.date_heure_debut";
 
+    // Semaine d'un ensemble de médecins (tableau de bord) : parcours de l'index (médecin, début)
+    private static final String SQL_SELECT_APPOINTMENT_SUMMARIES_BY_DOCTORS = SQL_SELECT_APPOINTMENT_SUMMARIES +
+            "WHERE rv.id_medecin_fk IN ({ids}) AND rv.date_heure_debut >= ? AND rv.date_heure_debut < ? " +
+            "ORDER BY rv.id_medecin_fk, rv.date_heure_debut, rv.id_rendezvous";
+
+    // Flux des modifications : parcours de l'index idx_rdv_maj (migration V6)
+    private static final String SQL_SELECT_CURRENT_TIMESTAMP = "SELECT NOW()";
+
+    private static final String SQL_SELECT_APPOINTMENT_SUMMARIES_CHANGED_SINCE = SQL_SELECT_APPOINTMENT_SUMMARIES +
+            "WHERE rv.date_derniere_maj_rdv >= ? " +
+            "ORDER BY rv.date_derniere_maj_rdv, rv.id_rendezvous LIMIT ?";
+
+    private static final String SQL_SELECT_TOMBSTONES_SINCE = "SELECT id_rendezvous, id_medecin_fk, " +
+            "date_heure_debut FROM rendez_vous_suppressions " +
+            "WHERE date_suppression >= ? " +
+            "ORDER BY date_suppression, id_rendezvous LIMIT ?";
+
+    // Durée de conservation des traces de suppression : un filigrane plus ancien impose un rechargement
+    static final int TOMBSTONE_RETENTION_DAYS = 7;
+
+    // Au-delà, un rechargement complet coûte moins que la fusion des changements
+    static final int MAX_CHANGES = 2000;
+
+    // Filtre médecin et clé de pagination (date_heure_debut, id_rendezvous) ajoutés à la demande
+    private static final String SQL_PERIOD_DOCTOR_FILTER = " AND rv.id_medecin_fk = ?";
+
+    private static final String SQL_PAGE_AFTER_KEY = " AND rv.date_heure_debut >= ? " +
+            "AND (rv.date_heure_debut > ? OR rv.id_rendezvous > ?)";
+
+    private static final String SQL_PERIOD_ORDER = " ORDER BY rv.date_heure_debut, rv.id_rendezvous";
+
+    private static final String SQL_PAGE_LIMIT = " LIMIT ?";
+
     private static final String SQL_SELECT_APPOINTMENTS_BY_STATUS = "SELECT rv.*, p.nom as patient_nom, p.prenom as patient_prenom, "
             +
             "u.nom_complet as medecin_nom " +
@@ -123,9 +231,19 @@ public class AppointmentDAOImpl implements AppointmentDAO {
 
     private static final String SQL_COUNT_APPOINTMENTS_BY_DOCTOR_AND_DATE = "SELECT COUNT(*) FROM rendez_vous " +
             "WHERE id_medecin_fk = ? " +
-            "AND DATE(date_heure_debut) = ? " +
+            "AND date_heure_debut >= ? AND date_heure_debut < ? " +
             "AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET')";
 
+    // Charge d'un mois par jour ; avec un médecin, requête couverte par idx_rdv_medecin_debut_statut_duree (V5)
+    private static final String SQL_SELECT_MONTH_LOAD = "SELECT DATE(date_heure_debut) AS jour, " +
+            "COUNT(*) AS nb_rdv, SUM(duree_minutes) AS minutes_reservees FROM rendez_vous " +
+            "WHERE date_heure_debut >= ? AND date_heure_debut < ? " +
+            "AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET')";
+
+    private static final String SQL_MONTH_LOAD_DOCTOR_FILTER = " AND id_medecin_fk = ?";
+
+    private static final String SQL_MONTH_LOAD_GROUP_BY = " GROUP BY DATE(date_heure_debut)";
+
     private static final String SQL_SELECT_UPCOMING_APPOINTMENTS_BY_PATIENT = "SELECT rv.*, p.nom as patient_nom, p.prenom as patient_prenom, "
             +
             "u.nom_complet as medecin_nom " +
@@ -157,116 +275,168 @@ public class AppointmentDAOImpl implements AppointmentDAO {
     // Référence à la connexion à la base de données
     private final DatabaseConnection dbConnection;
 
+    // Index mémoire partagé des rendez-vous par médecin
+    private final AppointmentIntervalIndex intervalIndex;
+
     /**
      * Constructeur par défaut.
      * Récupère l'instance singleton de la connexion à la base de données.
      */
     public AppointmentDAOImpl() {
         this.dbConnection = DatabaseConnection.getInstance();
-        this.patientDAO = new PatientDAOImpl();
-        this.userDAO = new UserDAOImpl();
+        this.patientDAO = DaoMetrics.instrument(new PatientDAOImpl());
+        this.userDAO = DaoMetrics.instrument(new UserDAOImpl());
+        this.intervalIndex = AppointmentIntervalIndex.getInstance();
     }
 
     /**
-     * Crée un objet Appointment à partir d'un ResultSet
-     * 
-     * @param rs Le ResultSet contenant les données du rendez-vous
-     * @return Un objet Appointment initialisé avec les données du ResultSet
-     * @throws SQLException En cas d'erreur d'accès aux données du ResultSet
+     * Mapping d'une ligne de rendez-vous (colonnes de rv.*). Les colonnes jointes
+     * patient_nom, patient_prenom et medecin_nom sont facultatives : lorsqu'elles sont
+     * présentes, un patient et un médecin partiels sont affectés au rendez-vous.
      */
-    private Appointment createAppointmentFromResultSet(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id_rendezvous");
-        int patientId = rs.getInt("id_patient_fk");
-        int doctorId = rs.getInt("id_medecin_fk");
-        int secretaryId = rs.getInt("id_secretaire_creation_fk");
-
-        // Convertir Timestamp en LocalDateTime
-        Timestamp startTimestamp = rs.getTimestamp("date_heure_debut");
-        LocalDateTime startDateTime = startTimestamp.toLocalDateTime();
-
-        int durationMinutes = rs.getInt("duree_minutes");
-        String appointmentType = rs.getString("type_consultation");
-        String statusString = rs.getString("statut_rdv");
-        AppointmentStatus status = AppointmentStatus.fromLabel(statusString);
-        String notes = rs.getString("notes_rdv");
-
-        Timestamp creationTimestamp = rs.getTimestamp("date_creation_rdv");
-        LocalDateTime creationDateTime = creationTimestamp.toLocalDateTime();
-
-        Timestamp lastModifiedTimestamp = rs.getTimestamp("date_derniere_maj_rdv");
-        LocalDateTime lastModifiedDateTime = lastModifiedTimestamp.toLocalDateTime();
-
-        Appointment appointment = new Appointment(id, patientId, doctorId, secretaryId,
-                startDateTime, durationMinutes, appointmentType,
-                status, notes, creationDateTime, lastModifiedDateTime);
-
-        // Si les informations patient et médecin sont incluses dans le résultat
-        try {
-            if (rs.getMetaData().getColumnCount() > 11) {
-                String patientLastName = rs.getString("patient_nom");
-                String patientFirstName = rs.getString("patient_prenom");
-                String doctorName = rs.getString("medecin_nom");
-
-                if (patientLastName != null && patientFirstName != null) {
+    static final RowMapper.Factory<Appointment> APPOINTMENT_MAPPER = layout -> {
+        final int id = layout.required("id_rendezvous");
+        final int patientId = layout.required("id_patient_fk");
+        final int doctorId = layout.required("id_medecin_fk");
+        final int secretaryId = layout.required("id_secretaire_creation_fk");
+        final int start = layout.required("date_heure_debut");
+        final int duration = layout.required("duree_minutes");
+        final int type = layout.required("type_consultation");
+        final int status = layout.required("statut_rdv");
+        final int notes = layout.required("notes_rdv");
+        final int creation = layout.required("date_creation_rdv");
+        final int lastModified = layout.required("date_derniere_maj_rdv");
+        final int patientLastName = layout.optional("patient_nom");
+        final int patientFirstName = layout.optional("patient_prenom");
+        final int doctorName = layout.optional("medecin_nom");
+
+        return rs -> {
+            Appointment appointment = new Appointment(rs.getInt(id), rs.getInt(patientId), rs.getInt(doctorId),
+                    rs.getInt(secretaryId), rs.getTimestamp(start).toLocalDateTime(), rs.getInt(duration),
+                    rs.getString(type), AppointmentStatus.fromLabel(rs.getString(status)), rs.getString(notes),
+                    rs.getTimestamp(creation).toLocalDateTime(), rs.getTimestamp(lastModified).toLocalDateTime());
+
+            // Informations patient et médecin jointes, si la requête les inclut
+            if (patientLastName > 0 && patientFirstName > 0) {
+                String lastName = rs.getString(patientLastName);
+                String firstName = rs.getString(patientFirstName);
+                if (lastName != null && firstName != null) {
                     Patient patient = new Patient();
-                    patient.setId(patientId);
-                    patient.setLastName(patientLastName);
-                    patient.setFirstName(patientFirstName);
+                    patient.setId(appointment.getPatientId());
+                    patient.setLastName(lastName);
+                    patient.setFirstName(firstName);
                     appointment.setPatient(patient);
                 }
-
-                if (doctorName != null) {
+            }
+            if (doctorName > 0) {
+                String name = rs.getString(doctorName);
+                if (name != null) {
                     Doctor doctor = new Doctor();
-                    doctor.setId(doctorId);
-                    doctor.setFullName(doctorName);
+                    doctor.setId(appointment.getDoctorId());
+                    doctor.setFullName(name);
                     appointment.setDoctor(doctor);
                 }
             }
-        } catch (SQLException e) {
-            // Si les colonnes supplémentaires ne sont pas présentes, on ignore
-            // silencieusement
-            LOGGER.log(Level.FINE, "Colonnes supplémentaires non disponibles pour le rendez-vous", e);
-        }
+            return appointment;
+        };
+    };
 
-        return appointment;
-    }
+    /**
+     * Mapping d'une ligne de SQL_SELECT_APPOINTMENT_SUMMARIES
+     */
+    static final RowMapper.Factory<AppointmentSummary> SUMMARY_MAPPER = layout -> {
+        final int id = layout.required("id_rendezvous");
+        final int patientId = layout.required("id_patient_fk");
+        final int doctorId = layout.required("id_medecin_fk");
+        final int start = layout.required("date_heure_debut");
+        final int duration = layout.required("duree_minutes");
+        final int status = layout.required("statut_rdv");
+        final int type = layout.required("type_consultation");
+        final int patientLastName = layout.required("patient_nom");
+        final int patientFirstName = layout.required("patient_prenom");
+        final int doctorName = layout.required("medecin_nom");
+
+        return rs -> {
+            String lastName = rs.getString(patientLastName);
+            String firstName = rs.getString(patientFirstName);
+            String patientName = lastName != null && firstName != null ? firstName + " " + lastName : null;
+
+            return new AppointmentSummary(rs.getInt(id), rs.getInt(patientId), rs.getInt(doctorId),
+                    rs.getTimestamp(start).toLocalDateTime(), rs.getInt(duration),
+                    AppointmentStatus.fromLabel(rs.getString(status)), rs.getString(type),
+                    patientName, rs.getString(doctorName));
+        };
+    };
 
     /**
-     * Charge les objets Patient et Doctor liés à un Appointment
+     * Charge les objets Patient, Doctor et Secretary liés à une liste de rendez-vous.
+     * Les entités sont chargées par lots (une requête IN par type d'entité)
+     * et partagées entre les rendez-vous qui les référencent.
      * 
-     * @param appointment Le rendez-vous pour lequel charger les objets liés
+     * @param appointments Les rendez-vous pour lesquels charger les objets liés
      * @throws DAOException En cas d'erreur lors du chargement des objets liés
      */
-    private void loadRelatedObjects(Appointment appointment) throws DAOException {
-        // Charger le patient
-        if (appointment.getPatient() == null || appointment.getPatient().getLastName() == null) {
-            Patient patient = patientDAO.getPatientById(appointment.getPatientId());
-            appointment.setPatient(patient);
-        }
+    private void loadRelatedObjects(List<Appointment> appointments) throws DAOException {
+        new RelatedObjectLoader(patientDAO, userDAO).load(appointments);
+    }
 
-        // Charger le médecin
-        if (appointment.getDoctor() == null || appointment.getDoctor().getFullName() == null) {
-            Doctor doctor = userDAO.getDoctorById(appointment.getDoctorId());
-            appointment.setDoctor(doctor);
-        }
+    @Override
+    public int addAppointment(Appointment appointment) throws DAOException {
+        BookingResult result = bookAppointment(appointment);
 
-        // Charger la secrétaire (si nécessaire)
-        if (appointment.getSecretary() == null) {
-            Secretary secretary = userDAO.getSecretaryById(appointment.getSecretaryId());
-            appointment.setSecretary(secretary);
+        if (!result.isBooked()) {
+            String message = result.getOutcome() == BookingResult.Outcome.CONFLIT
+                    ? AppConfig.ErrorMessages.APPOINTMENT_CONFLICT : result.getMessage();
+            throw new DAOException(message, DAOException.CONSTRAINT_VIOLATION);
         }
+        return result.getAppointmentId();
     }
 
     @Override
-    public int addAppointment(Appointment appointment) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet generatedKeys = null;
+    public BookingResult bookAppointment(Appointment appointment) throws DAOException {
+        checkDuration(appointment, DAOException.INSERTION_ERROR);
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_INSERT_APPOINTMENT, Statement.RETURN_GENERATED_KEYS);
+        // Utiliser la date actuelle si non spécifiée
+        LocalDateTime now = LocalDateTime.now();
+        if (appointment.getCreationDateTime() == null) {
+            appointment.setCreationDateTime(now);
+        }
+        if (appointment.getLastModifiedDateTime() == null) {
+            appointment.setLastModifiedDateTime(now);
+        }
+
+        BookingResult result = null;
+
+        try (Connection conn = dbConnection.getConnection()) {
+            if (bookingProcedureAvailable) {
+                result = callBookingProcedure(conn, appointment);
+            }
+            if (result == null) {
+                result = bookInTransaction(conn, appointment);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de l'ajout du rendez-vous", e);
+            throw new DAOException("Erreur lors de l'ajout du rendez-vous: " + e.getMessage(),
+                    e, DAOException.INSERTION_ERROR);
+        }
+
+        if (result.isBooked()) {
+            appointment.setId(result.getAppointmentId());
+            intervalIndex.recordAppointment(appointment);
+        }
+        return result;
+    }
 
+    /**
+     * Réserve le créneau en un seul aller-retour via la procédure reserver_rendez_vous
+     *
+     * @param conn La connexion
+     * @param appointment Le rendez-vous à enregistrer
+     * @return Le résultat, ou null si la procédure n'existe pas dans la base
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private BookingResult callBookingProcedure(Connection conn, Appointment appointment) throws SQLException {
+        try (CallableStatement stmt = conn.prepareCall(SQL_CALL_BOOK_APPOINTMENT)) {
             stmt.setInt(1, appointment.getPatientId());
             stmt.setInt(2, appointment.getDoctorId());
             stmt.setInt(3, appointment.getSecretaryId());
@@ -275,152 +445,282 @@ public class AppointmentDAOImpl implements AppointmentDAO {
             stmt.setString(6, appointment.getAppointmentType());
             stmt.setString(7, appointment.getStatus().name());
             stmt.setString(8, appointment.getNotes());
+            stmt.setTimestamp(9, Timestamp.valueOf(appointment.getCreationDateTime()));
+            stmt.registerOutParameter(10, Types.VARCHAR);
+            stmt.registerOutParameter(11, Types.INTEGER);
+
+            stmt.execute();
+
+            BookingResult.Outcome outcome = BookingResult.Outcome.valueOf(stmt.getString(10));
+            int id = stmt.getInt(11);
+            switch (outcome) {
+                case RESERVE:
+                    return BookingResult.booked(id);
+                case CONFLIT:
+                    return BookingResult.conflict(id);
+                default:
+                    return BookingResult.unknownDoctor();
+            }
+
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_SP_DOES_NOT_EXIST && e.getErrorCode() != ER_SP_WRONG_NO_OF_ARGS) {
+                throw e;
+            }
+            bookingProcedureAvailable = false;
+            LOGGER.warning("Procédure reserver_rendez_vous absente ou antérieure à la migration V7, "
+                    + "réservation effectuée côté application");
+            return null;
+        }
+    }
+
+    /**
+     * Réserve le créneau dans une transaction côté application : verrou sur le médecin,
+     * recherche d'un chevauchement puis insertion
+     *
+     * @param conn La connexion
+     * @param appointment Le rendez-vous à enregistrer
+     * @return Le résultat de la réservation
+     * @throws SQLException En cas d'erreur d'accès aux données
+     * @throws DAOException Si l'insertion n'a produit aucune ligne ou aucun ID
+     */
+    private BookingResult bookInTransaction(Connection conn, Appointment appointment)
+            throws SQLException, DAOException {
+        // Désactiver l'auto-commit pour la transaction
+        conn.setAutoCommit(false);
+
+        try {
+            if (!lockDoctor(conn, appointment.getDoctorId())) {
+                rollbackQuietly(conn);
+                return BookingResult.unknownDoctor();
+            }
+
+            int conflictingId = findConflictingAppointment(conn, appointment, 0);
+            if (conflictingId > 0) {
+                rollbackQuietly(conn);
+                return BookingResult.conflict(conflictingId);
+            }
+
+            int appointmentId;
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_APPOINTMENT, Statement.RETURN_GENERATED_KEYS)) {
+                bindInsert(stmt, appointment);
 
-            // Utiliser la date actuelle si non spécifiée
-            LocalDateTime now = LocalDateTime.now();
+                int rowsAffected = stmt.executeUpdate();
+
+                if (rowsAffected == 0) {
+                    throw new DAOException("L'ajout du rendez-vous a échoué, aucune ligne affectée.",
+                            DAOException.INSERTION_ERROR);
+                }
+
+                // Récupérer l'ID généré
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new DAOException("L'ajout du rendez-vous a échoué, aucun ID généré.",
+                                DAOException.INSERTION_ERROR);
+                    }
+                    appointmentId = generatedKeys.getInt(1);
+                }
+            }
+
+            // Valider la transaction
+            conn.commit();
+            return BookingResult.booked(appointmentId);
+
+        } catch (SQLException | DAOException e) {
+            rollbackQuietly(conn);
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public int[] addAppointments(List<Appointment> appointments) throws DAOException {
+        int[] appointmentIds = new int[appointments.size()];
+        if (appointments.isEmpty()) {
+            return appointmentIds;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Appointment appointment : appointments) {
+            checkDuration(appointment, DAOException.INSERTION_ERROR);
             if (appointment.getCreationDateTime() == null) {
                 appointment.setCreationDateTime(now);
             }
             if (appointment.getLastModifiedDateTime() == null) {
                 appointment.setLastModifiedDateTime(now);
             }
+        }
 
-            stmt.setTimestamp(9, Timestamp.valueOf(appointment.getCreationDateTime()));
-            stmt.setTimestamp(10, Timestamp.valueOf(appointment.getLastModifiedDateTime()));
+        try (Connection conn = dbConnection.getConnection()) {
 
-            int rowsAffected = stmt.executeUpdate();
+            // Une seule transaction : le lot est enregistré en entier ou pas du tout
+            conn.setAutoCommit(false);
 
-            if (rowsAffected == 0) {
-                throw new DAOException("L'ajout du rendez-vous a échoué, aucune ligne affectée.",
-                        DAOException.INSERTION_ERROR);
-            }
+            try {
+                // Verrous pris dans l'ordre des IDs de médecin pour éviter les interblocages
+                Map<Integer, List<Appointment>> byDoctor = new TreeMap<>();
+                for (Appointment appointment : appointments) {
+                    byDoctor.computeIfAbsent(appointment.getDoctorId(), k -> new ArrayList<>()).add(appointment);
+                }
+                for (Map.Entry<Integer, List<Appointment>> entry : byDoctor.entrySet()) {
+                    if (!lockDoctor(conn, entry.getKey())) {
+                        throw new DAOException("Le médecin sélectionné n'existe pas. ID: " + entry.getKey(),
+                                DAOException.CONSTRAINT_VIOLATION);
+                    }
+                    checkNoConflictInBatch(conn, entry.getKey(), entry.getValue());
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_APPOINTMENT, Statement.RETURN_GENERATED_KEYS)) {
+                    int offset = 0;
+                    for (List<Appointment> chunk : SqlUtils.chunk(appointments, SqlUtils.MAX_BATCH_SIZE)) {
+                        for (Appointment appointment : chunk) {
+                            bindInsert(stmt, appointment);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
 
-            // Récupérer l'ID généré
-            generatedKeys = stmt.getGeneratedKeys();
-            if (generatedKeys.next()) {
-                int appointmentId = generatedKeys.getInt(1);
-                appointment.setId(appointmentId);
-                return appointmentId;
-            } else {
-                throw new DAOException("L'ajout du rendez-vous a échoué, aucun ID généré.",
-                        DAOException.INSERTION_ERROR);
+                        int[] keys = SqlUtils.generatedKeys(stmt, chunk.size());
+                        System.arraycopy(keys, 0, appointmentIds, offset, keys.length);
+                        offset += keys.length;
+                    }
+                }
+
+                // Valider la transaction
+                conn.commit();
+
+            } catch (SQLException | DAOException e) {
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
 
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de l'ajout du rendez-vous", e);
-            throw new DAOException("Erreur lors de l'ajout du rendez-vous: " + e.getMessage(),
+            LOGGER.log(Level.SEVERE, "Erreur lors de l'ajout des rendez-vous", e);
+            throw new DAOException("Erreur lors de l'ajout des rendez-vous: " + e.getMessage(),
                     e, DAOException.INSERTION_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (generatedKeys != null)
-                    generatedKeys.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        for (int i = 0; i < appointmentIds.length; i++) {
+            Appointment appointment = appointments.get(i);
+            appointment.setId(appointmentIds[i]);
+            intervalIndex.recordAppointment(appointment);
+        }
+        LOGGER.info(appointmentIds.length + " rendez-vous ajoutés par lots");
+        return appointmentIds;
     }
 
     @Override
     public void updateAppointment(Appointment appointment) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
+        checkDuration(appointment, DAOException.UPDATE_ERROR);
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_UPDATE_APPOINTMENT);
+        try (Connection conn = dbConnection.getConnection()) {
 
-            stmt.setInt(1, appointment.getPatientId());
-            stmt.setInt(2, appointment.getDoctorId());
-            stmt.setTimestamp(3, Timestamp.valueOf(appointment.getStartDateTime()));
-            stmt.setInt(4, appointment.getDurationMinutes());
-            stmt.setString(5, appointment.getAppointmentType());
-            stmt.setString(6, appointment.getStatus().name());
-            stmt.setString(7, appointment.getNotes());
-
-            // Mettre à jour la date de dernière modification
-            LocalDateTime now = LocalDateTime.now();
-            appointment.setLastModifiedDateTime(now);
-            stmt.setTimestamp(8, Timestamp.valueOf(now));
+            // Désactiver l'auto-commit pour la transaction
+            conn.setAutoCommit(false);
 
-            stmt.setInt(9, appointment.getId());
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_APPOINTMENT)) {
+                // Garde finale : un rendez-vous annulé ne peut pas entrer en conflit
+                if (!appointment.isCancelled()) {
+                    lockDoctor(conn, appointment.getDoctorId());
+                    checkNoConflict(conn, appointment, appointment.getId());
+                }
 
-            int rowsAffected = stmt.executeUpdate();
+                stmt.setInt(1, appointment.getPatientId());
+                stmt.setInt(2, appointment.getDoctorId());
+                stmt.setTimestamp(3, Timestamp.valueOf(appointment.getStartDateTime()));
+                stmt.setInt(4, appointment.getDurationMinutes());
+                stmt.setString(5, appointment.getAppointmentType());
+                stmt.setString(6, appointment.getStatus().name());
+                stmt.setString(7, appointment.getNotes());
 
-            if (rowsAffected == 0) {
-                throw new DAOException(
-                        "La mise à jour du rendez-vous a échoué, aucune ligne affectée. ID: " + appointment.getId(),
-                        DAOException.UPDATE_ERROR);
+                // Date de dernière modification posée par le serveur (NOW()) ; valeur locale indicative
+                appointment.setLastModifiedDateTime(LocalDateTime.now());
+
+                stmt.setInt(8, appointment.getId());
+
+                int rowsAffected = stmt.executeUpdate();
+
+                if (rowsAffected == 0) {
+                    throw new DAOException(
+                            "La mise à jour du rendez-vous a échoué, aucune ligne affectée. ID: " + appointment.getId(),
+                            DAOException.UPDATE_ERROR);
+                }
+
+                // Valider la transaction
+                conn.commit();
+
+            } catch (SQLException | DAOException e) {
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la mise à jour du rendez-vous", e);
             throw new DAOException("Erreur lors de la mise à jour du rendez-vous: " + e.getMessage(),
                     e, DAOException.UPDATE_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        intervalIndex.recordAppointment(appointment);
     }
 
     @Override
     public void deleteAppointment(int appointmentId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
+        try (Connection conn = dbConnection.getConnection()) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_DELETE_APPOINTMENT);
-            stmt.setInt(1, appointmentId);
+            // La trace et la suppression sont validées ensemble
+            conn.setAutoCommit(false);
 
-            int rowsAffected = stmt.executeUpdate();
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_TOMBSTONE)) {
+                    stmt.setInt(1, appointmentId);
+                    stmt.executeUpdate();
+                }
 
-            if (rowsAffected == 0) {
-                throw new DAOException(
-                        "La suppression du rendez-vous a échoué, aucune ligne affectée. ID: " + appointmentId,
-                        DAOException.DELETION_ERROR);
+                int rowsAffected;
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_DELETE_APPOINTMENT)) {
+                    stmt.setInt(1, appointmentId);
+                    rowsAffected = stmt.executeUpdate();
+                }
+
+                if (rowsAffected == 0) {
+                    throw new DAOException(
+                            "La suppression du rendez-vous a échoué, aucune ligne affectée. ID: " + appointmentId,
+                            DAOException.DELETION_ERROR);
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_PURGE_TOMBSTONES)) {
+                    stmt.setInt(1, TOMBSTONE_RETENTION_DAYS);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+
+            } catch (SQLException | DAOException e) {
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la suppression du rendez-vous", e);
             throw new DAOException("Erreur lors de la suppression du rendez-vous: " + e.getMessage(),
                     e, DAOException.DELETION_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        intervalIndex.recordDeletion(appointmentId);
     }
 
     @Override
     public void updateAppointmentStatus(int appointmentId, AppointmentStatus status) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_UPDATE_APPOINTMENT_STATUS);
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_APPOINTMENT_STATUS)) {
 
             stmt.setString(1, status.name());
-            stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
-            stmt.setInt(3, appointmentId);
+            stmt.setInt(2, appointmentId);
 
             int rowsAffected = stmt.executeUpdate();
 
@@ -434,147 +734,374 @@ public class AppointmentDAOImpl implements AppointmentDAO {
             LOGGER.log(Level.SEVERE, "Erreur lors de la mise à jour du statut du rendez-vous", e);
             throw new DAOException("Erreur lors de la mise à jour du statut du rendez-vous: " + e.getMessage(),
                     e, DAOException.UPDATE_ERROR);
-        } finally {
-            // Fermer les ressources
+        }
+
+        intervalIndex.recordStatusChange(appointmentId, status);
+    }
+
+    @Override
+    public int updateAppointmentStatuses(Map<Integer, AppointmentStatus> statuses) throws DAOException {
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+
+        int rowsAffected;
+        try (Connection conn = dbConnection.getConnection()) {
+
+            conn.setAutoCommit(false);
+
             try {
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
+                rowsAffected = executeStatusBatch(conn, statuses);
+                conn.commit();
+
             } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la mise à jour des statuts des rendez-vous", e);
+            throw new DAOException("Erreur lors de la mise à jour des statuts des rendez-vous: " + e.getMessage(),
+                    e, DAOException.UPDATE_ERROR);
+        }
+
+        for (Map.Entry<Integer, AppointmentStatus> entry : statuses.entrySet()) {
+            intervalIndex.recordStatusChange(entry.getKey(), entry.getValue());
         }
+        return rowsAffected;
     }
 
     @Override
-    public Appointment getAppointmentById(int appointmentId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    public List<Integer> cancelDoctorDay(int doctorId, LocalDate date) throws DAOException {
+        List<Integer> cancelledIds = new ArrayList<>();
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENT_BY_ID);
-            stmt.setInt(1, appointmentId);
+        try (Connection conn = dbConnection.getConnection()) {
+
+            conn.setAutoCommit(false);
+
+            try {
+                // Le verrou médecin empêche une réservation concurrente sur la journée
+                lockDoctor(conn, doctorId);
+
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_LOCK_ACTIVE_APPOINTMENT_IDS)) {
+                    stmt.setInt(1, doctorId);
+                    stmt.setTimestamp(2, Timestamp.valueOf(date.atStartOfDay()));
+                    stmt.setTimestamp(3, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            cancelledIds.add(rs.getInt(1));
+                        }
+                    }
+                }
+
+                Map<Integer, AppointmentStatus> statuses = new LinkedHashMap<>();
+                for (Integer id : cancelledIds) {
+                    statuses.put(id, AppointmentStatus.ANNULE_CABINET);
+                }
+                executeStatusBatch(conn, statuses);
 
-            rs = stmt.executeQuery();
+                conn.commit();
 
-            if (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                loadRelatedObjects(appointment);
-                return appointment;
-            } else {
-                return null; // Aucun rendez-vous trouvé
+            } catch (SQLException e) {
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
 
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération du rendez-vous par ID", e);
-            throw new DAOException("Erreur lors de la récupération du rendez-vous: " + e.getMessage(),
-                    e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+            LOGGER.log(Level.SEVERE, "Erreur lors de l'annulation de la journée du médecin", e);
+            throw new DAOException("Erreur lors de l'annulation de la journée du médecin: " + e.getMessage(),
+                    e, DAOException.UPDATE_ERROR);
+        }
+
+        for (Integer id : cancelledIds) {
+            intervalIndex.recordStatusChange(id, AppointmentStatus.ANNULE_CABINET);
+        }
+        return cancelledIds;
+    }
+
+    /**
+     * Exécute des changements de statut par lots JDBC, dans la transaction courante
+     *
+     * @param conn La connexion portant la transaction
+     * @param statuses Nouveau statut par ID de rendez-vous
+     * @return Le nombre de rendez-vous mis à jour
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private int executeStatusBatch(Connection conn, Map<Integer, AppointmentStatus> statuses) throws SQLException {
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+
+        int rowsAffected = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_APPOINTMENT_STATUS)) {
+            for (List<Map.Entry<Integer, AppointmentStatus>> chunk
+                    : SqlUtils.chunk(statuses.entrySet(), SqlUtils.MAX_BATCH_SIZE)) {
+                for (Map.Entry<Integer, AppointmentStatus> entry : chunk) {
+                    stmt.setString(1, entry.getValue().name());
+                    stmt.setInt(2, entry.getKey());
+                    stmt.addBatch();
+                }
+                rowsAffected += SqlUtils.affectedRows(stmt.executeBatch());
             }
         }
+        return rowsAffected;
     }
 
-    @Override
-    public List<Appointment> getAppointmentsByPatient(int patientId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    /**
+     * Lie les paramètres de SQL_INSERT_APPOINTMENT (la date de modification est posée par le serveur)
+     *
+     * @param stmt La requête d'insertion
+     * @param appointment Le rendez-vous (date de création renseignée)
+     * @throws SQLException En cas d'erreur de liaison
+     */
+    private void bindInsert(PreparedStatement stmt, Appointment appointment) throws SQLException {
+        stmt.setInt(1, appointment.getPatientId());
+        stmt.setInt(2, appointment.getDoctorId());
+        stmt.setInt(3, appointment.getSecretaryId());
+        stmt.setTimestamp(4, Timestamp.valueOf(appointment.getStartDateTime()));
+        stmt.setInt(5, appointment.getDurationMinutes());
+        stmt.setString(6, appointment.getAppointmentType());
+        stmt.setString(7, appointment.getStatus().name());
+        stmt.setString(8, appointment.getNotes());
+        stmt.setTimestamp(9, Timestamp.valueOf(appointment.getCreationDateTime()));
+    }
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_PATIENT);
-            stmt.setInt(1, patientId);
+    /**
+     * Vérifie qu'un lot de rendez-vous d'un même médecin ne chevauche ni les rendez-vous
+     * actifs en base, ni d'autres rendez-vous du lot. Les rendez-vous en base sont lus
+     * en une requête sur la plage couverte par le lot, puis comparés par balayage trié.
+     *
+     * @param conn La connexion portant la transaction (verrou médecin déjà pris)
+     * @param doctorId L'ID du médecin
+     * @param batch Les rendez-vous du lot pour ce médecin
+     * @throws SQLException En cas d'erreur d'accès aux données
+     * @throws DAOException Si un créneau est déjà occupé
+     */
+    private void checkNoConflictInBatch(Connection conn, int doctorId, List<Appointment> batch)
+            throws SQLException, DAOException {
+        // Intervalles [début, fin) en secondes ; le troisième élément vaut 1 pour un rendez-vous du lot
+        List<long[]> intervals = new ArrayList<>();
+        LocalDateTime rangeStart = null;
+        LocalDateTime rangeEnd = null;
+        for (Appointment appointment : batch) {
+            if (appointment.isCancelled()) {
+                continue;
+            }
+            intervals.add(new long[]{toEpochSecond(appointment.getStartDateTime()),
+                    toEpochSecond(appointment.getEndDateTime()), 1});
+            if (rangeStart == null || appointment.getStartDateTime().isBefore(rangeStart)) {
+                rangeStart = appointment.getStartDateTime();
+            }
+            if (rangeEnd == null || appointment.getEndDateTime().isAfter(rangeEnd)) {
+                rangeEnd = appointment.getEndDateTime();
+            }
+        }
+        if (intervals.isEmpty()) {
+            return;
+        }
 
-            rs = stmt.executeQuery();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_LOCK_DOCTOR_APPOINTMENTS)) {
+            stmt.setInt(1, doctorId);
+            stmt.setTimestamp(2, Timestamp.valueOf(rangeStart.minusMinutes(MAX_APPOINTMENT_MINUTES)));
+            stmt.setTimestamp(3, Timestamp.valueOf(rangeEnd));
 
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long start = toEpochSecond(rs.getTimestamp(2).toLocalDateTime());
+                    intervals.add(new long[]{start, start + rs.getInt(3) * 60L, 0});
+                }
             }
+        }
 
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
+        // Un chevauchement n'est retenu que s'il implique au moins un rendez-vous du lot
+        intervals.sort((x, y) -> Long.compare(x[0], y[0]));
+        long maxEnd = Long.MIN_VALUE;
+        long maxBatchEnd = Long.MIN_VALUE;
+        for (long[] interval : intervals) {
+            boolean inBatch = interval[2] == 1;
+            if (interval[0] < (inBatch ? maxEnd : maxBatchEnd)) {
+                throw new DAOException(AppConfig.ErrorMessages.APPOINTMENT_CONFLICT,
+                        DAOException.CONSTRAINT_VIOLATION);
+            }
+            maxEnd = Math.max(maxEnd, interval[1]);
+            if (inBatch) {
+                maxBatchEnd = Math.max(maxBatchEnd, interval[1]);
             }
+        }
+    }
 
-            return appointments;
+    /**
+     * Refuse une durée que les contrôles de chevauchement ne couvriraient pas
+     * (recherche bornée à MAX_APPOINTMENT_MINUTES vers le passé)
+     *
+     * @param appointment Le rendez-vous à enregistrer
+     * @param errorCode Le code d'erreur de l'opération
+     * @throws DAOException Si la durée est nulle, négative ou supérieure à MAX_APPOINTMENT_MINUTES
+     */
+    static void checkDuration(Appointment appointment, int errorCode) throws DAOException {
+        if (appointment.getDurationMinutes() <= 0 || appointment.getDurationMinutes() > MAX_APPOINTMENT_MINUTES) {
+            throw new DAOException("Durée du rendez-vous invalide (1 à " + MAX_APPOINTMENT_MINUTES
+                    + " minutes): " + appointment.getDurationMinutes(), errorCode);
+        }
+    }
 
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par patient", e);
-            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
-                    e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Verrouille la ligne du médecin jusqu'à la fin de la transaction courante.
+     * Les réservations et modifications d'un même médecin sont ainsi sérialisées,
+     * sans bloquer celles des autres médecins.
+     *
+     * @param conn La connexion portant la transaction
+     * @param doctorId L'ID du médecin
+     * @return true si le médecin existe
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private boolean lockDoctor(Connection conn, int doctorId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_LOCK_DOCTOR)) {
+            stmt.setInt(1, doctorId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
             }
         }
     }
 
-    @Override
-    public List<Appointment> getAppointmentsByDoctor(int doctorId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    /**
+     * Vérifie en base, dans la transaction courante, qu'aucun rendez-vous actif du médecin
+     * ne chevauche le rendez-vous.
+     *
+     * @param conn La connexion portant la transaction
+     * @param appointment Le rendez-vous à enregistrer
+     * @param excludeAppointmentId ID du rendez-vous à exclure (0 pour une création)
+     * @throws SQLException En cas d'erreur d'accès aux données
+     * @throws DAOException Si le créneau est déjà occupé
+     */
+    private void checkNoConflict(Connection conn, Appointment appointment, int excludeAppointmentId)
+            throws SQLException, DAOException {
+        if (findConflictingAppointment(conn, appointment, excludeAppointmentId) > 0) {
+            throw new DAOException(AppConfig.ErrorMessages.APPOINTMENT_CONFLICT,
+                    DAOException.CONSTRAINT_VIOLATION);
+        }
+    }
 
+    /**
+     * Recherche un rendez-vous actif du médecin chevauchant le rendez-vous. Les lignes
+     * candidates sont verrouillées (FOR UPDATE) jusqu'à la fin de la transaction.
+     *
+     * @param conn La connexion portant la transaction
+     * @param appointment Le rendez-vous à enregistrer
+     * @param excludeAppointmentId ID du rendez-vous à exclure (0 pour une création)
+     * @return L'ID du rendez-vous en conflit, ou 0 si le créneau est libre
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private int findConflictingAppointment(Connection conn, Appointment appointment, int excludeAppointmentId)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_LOCK_APPOINTMENT_CONFLICTS)) {
+            LocalDateTime start = appointment.getStartDateTime();
+
+            stmt.setInt(1, appointment.getDoctorId());
+            stmt.setInt(2, excludeAppointmentId);
+            stmt.setTimestamp(3, Timestamp.valueOf(start.minusMinutes(MAX_APPOINTMENT_MINUTES)));
+            stmt.setTimestamp(4, Timestamp.valueOf(appointment.getEndDateTime()));
+            stmt.setTimestamp(5, Timestamp.valueOf(start));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Annule la transaction en cours sans propager d'erreur
+     * 
+     * @param conn La connexion dont la transaction doit être annulée
+     */
+    private void rollbackQuietly(Connection conn) {
         try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DOCTOR);
-            stmt.setInt(1, doctorId);
+            conn.rollback();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.SEVERE, "Erreur lors du rollback", ex);
+        }
+    }
 
-            rs = stmt.executeQuery();
+    @Override
+    public Appointment getAppointmentById(int appointmentId) throws DAOException {
+        Appointment appointment = null;
 
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
-            }
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENT_BY_ID)) {
 
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
+            stmt.setInt(1, appointmentId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                appointment = RowMapper.mapFirst(rs, APPOINTMENT_MAPPER);
             }
 
-            return appointments;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération du rendez-vous par ID", e);
+            throw new DAOException("Erreur lors de la récupération du rendez-vous: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+
+        if (appointment == null) {
+            return null; // Aucun rendez-vous trouvé
+        }
+
+        // Charger les objets liés une fois la connexion restituée au pool
+        loadRelatedObjects(Collections.singletonList(appointment));
+        return appointment;
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByPatient(int patientId) throws DAOException {
+        List<Appointment> appointments;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_PATIENT)) {
+
+            stmt.setInt(1, patientId);
+            appointments = executeAppointmentQuery(stmt);
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par patient", e);
+            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDoctor(int doctorId) throws DAOException {
+        List<Appointment> appointments;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DOCTOR)) {
+
+            stmt.setInt(1, doctorId);
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par médecin", e);
             throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
     }
 
     @Override
@@ -585,49 +1112,26 @@ public class AppointmentDAOImpl implements AppointmentDAO {
             LOGGER.warning("Date nulle fournie à getAppointmentsByDoctorAndDate, utilisation de la date du jour");
         }
 
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-
-        try {
-            // Le reste du code reste inchangé
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DOCTOR_AND_DATE);
-            stmt.setInt(1, doctorId);
-            stmt.setDate(2, Date.valueOf(date));
-
-            rs = stmt.executeQuery();
+        List<Appointment> appointments;
 
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
-            }
-
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
-            }
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DOCTOR_AND_DATE)) {
 
-            return appointments;
+            stmt.setInt(1, doctorId);
+            stmt.setTimestamp(2, startOfDay(date));
+            stmt.setTimestamp(3, startOfDay(date.plusDays(1)));
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par médecin et date", e);
             throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
     }
 
     @Override
@@ -643,313 +1147,341 @@ public class AppointmentDAOImpl implements AppointmentDAO {
             LOGGER.warning(
                     "Date de fin nulle fournie à getAppointmentsByDoctorAndDateRange, utilisation de startDate + 6 jours");
         }
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DOCTOR_AND_DATE_RANGE);
-            stmt.setInt(1, doctorId);
-            stmt.setDate(2, Date.valueOf(startDate));
-            stmt.setDate(3, Date.valueOf(endDate));
-
-            rs = stmt.executeQuery();
 
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
-            }
+        List<Appointment> appointments;
 
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
-            }
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DOCTOR_AND_DATE_RANGE)) {
 
-            return appointments;
+            stmt.setInt(1, doctorId);
+            stmt.setTimestamp(2, startOfDay(startDate));
+            stmt.setTimestamp(3, startOfDay(endDate.plusDays(1)));
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par médecin et plage de dates", e);
             throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
     }
 
     @Override
     public boolean hasAppointmentConflict(int doctorId, LocalDateTime startDateTime, LocalDateTime endDateTime,
             int excludeAppointmentId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        // Réponse depuis l'index mémoire ; la base reste la garde finale à l'enregistrement
+        return intervalIndex.hasConflict(doctorId, startDateTime, endDateTime, excludeAppointmentId);
+    }
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_CHECK_APPOINTMENT_CONFLICT);
-            stmt.setInt(1, doctorId);
-            stmt.setInt(2, excludeAppointmentId); // ID à exclure (pour les mises à jour)
-            stmt.setTimestamp(3, Timestamp.valueOf(endDateTime)); // Fin du RDV A doit être avant le début du RDV B
-            stmt.setTimestamp(4, Timestamp.valueOf(startDateTime)); // Début du RDV A doit être après la fin du RDV B
-            stmt.setTimestamp(5, Timestamp.valueOf(startDateTime)); // Début du RDV A
-            stmt.setTimestamp(6, Timestamp.valueOf(endDateTime)); // Fin du RDV A
-
-            rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0; // Il y a un conflit si au moins un rendez-vous est trouvé
-            }
+    @Override
+    public List<Appointment> getAppointmentsByDate(LocalDate date) throws DAOException {
+        List<Appointment> appointments;
 
-            return false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DATE)) {
+
+            stmt.setTimestamp(1, startOfDay(date));
+            stmt.setTimestamp(2, startOfDay(date.plusDays(1)));
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la vérification des conflits de rendez-vous", e);
-            throw new DAOException("Erreur lors de la vérification des conflits de rendez-vous: " + e.getMessage(),
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par date", e);
+            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+        }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummaries(LocalDateTime from, LocalDateTime to, int doctorId)
+            throws DAOException {
+        String sql = SQL_SELECT_APPOINTMENT_SUMMARIES_BY_PERIOD
+                + (doctorId > 0 ? SQL_PERIOD_DOCTOR_FILTER : "")
+                + SQL_PERIOD_ORDER;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+            if (doctorId > 0) {
+                stmt.setInt(3, doctorId);
             }
+            return executeSummaryQuery(stmt);
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des résumés de rendez-vous par période", e);
+            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
         }
     }
 
     @Override
-    public List<Appointment> getAppointmentsByDate(LocalDate date) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    public List<AppointmentSummary> getAppointmentSummariesForDoctors(LocalDateTime from, LocalDateTime to,
+            Collection<Integer> doctorIds) throws DAOException {
+        List<AppointmentSummary> summaries = new ArrayList<>();
+        if (doctorIds == null || doctorIds.isEmpty()) {
+            return summaries;
+        }
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_DATE);
-            stmt.setDate(1, Date.valueOf(date));
+        try (Connection conn = dbConnection.getConnection()) {
+            // Une requête par lot d'IDs distincts (un seul lot dans la pratique)
+            for (List<Integer> chunk : SqlUtils.chunk(new LinkedHashSet<>(doctorIds))) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        SqlUtils.expandInClause(SQL_SELECT_APPOINTMENT_SUMMARIES_BY_DOCTORS, chunk.size()))) {
+                    int index = SqlUtils.bindIntegers(stmt, 1, chunk);
+                    stmt.setTimestamp(index++, Timestamp.valueOf(from));
+                    stmt.setTimestamp(index, Timestamp.valueOf(to));
+                    summaries.addAll(executeSummaryQuery(stmt));
+                }
+            }
+            return summaries;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des résumés de rendez-vous par médecins", e);
+            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
+
+    @Override
+    public AppointmentChanges getAppointmentsChangedSince(LocalDateTime watermark) throws DAOException {
+        try (Connection conn = dbConnection.getConnection()) {
+
+            // Heure du serveur lue avant les changements : elle devient le prochain filigrane
+            LocalDateTime serverNow;
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_CURRENT_TIMESTAMP);
+                 ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                serverNow = rs.getTimestamp(1).toLocalDateTime();
+            }
 
-            rs = stmt.executeQuery();
+            List<AppointmentSummary> updated = new ArrayList<>();
+            List<AppointmentChanges.Deletion> deletions = new ArrayList<>();
+            if (watermark == null) {
+                return new AppointmentChanges(serverNow, updated, deletions, false);
+            }
+            if (watermark.isBefore(serverNow.minusDays(TOMBSTONE_RETENTION_DAYS))) {
+                return new AppointmentChanges(serverNow, updated, deletions, true);
+            }
 
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
+            // Fenêtre de recouvrement : horodatage à la seconde, transactions encore
+            // ouvertes lors de l'interrogation précédente (horodatées par NOW() avant leur validation)
+            Timestamp from = Timestamp.valueOf(watermark.minusSeconds(AppConfig.CHANGE_FEED_OVERLAP_SECONDS));
+
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENT_SUMMARIES_CHANGED_SINCE)) {
+                stmt.setTimestamp(1, from);
+                stmt.setInt(2, MAX_CHANGES + 1);
+                updated.addAll(executeSummaryQuery(stmt));
             }
 
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_TOMBSTONES_SINCE)) {
+                stmt.setTimestamp(1, from);
+                stmt.setInt(2, MAX_CHANGES + 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        deletions.add(new AppointmentChanges.Deletion(rs.getInt("id_rendezvous"),
+                                rs.getInt("id_medecin_fk"), rs.getTimestamp("date_heure_debut").toLocalDateTime()));
+                    }
+                }
             }
 
-            return appointments;
+            if (updated.size() + deletions.size() > MAX_CHANGES) {
+                LOGGER.info("Plus de " + MAX_CHANGES + " modifications de rendez-vous depuis " + watermark
+                        + " : rechargement complet demandé");
+                return new AppointmentChanges(serverNow, Collections.emptyList(), Collections.emptyList(), true);
+            }
+            return new AppointmentChanges(serverNow, updated, deletions, false);
 
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par date", e);
-            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
+            LOGGER.log(Level.SEVERE, "Erreur lors de la lecture des modifications de rendez-vous", e);
+            throw new DAOException("Erreur lors de la lecture des modifications de rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+        }
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummariesPage(LocalDateTime from, LocalDateTime to, int doctorId,
+            AppointmentSummary after, int limit) throws DAOException {
+        StringBuilder sql = new StringBuilder(SQL_SELECT_APPOINTMENT_SUMMARIES_BY_PERIOD);
+        if (doctorId > 0) {
+            sql.append(SQL_PERIOD_DOCTOR_FILTER);
+        }
+        if (after != null) {
+            sql.append(SQL_PAGE_AFTER_KEY);
+        }
+        sql.append(SQL_PERIOD_ORDER).append(SQL_PAGE_LIMIT);
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            stmt.setTimestamp(index++, Timestamp.valueOf(from));
+            stmt.setTimestamp(index++, Timestamp.valueOf(to));
+            if (doctorId > 0) {
+                stmt.setInt(index++, doctorId);
             }
+            if (after != null) {
+                Timestamp afterStart = Timestamp.valueOf(after.getStartDateTime());
+                stmt.setTimestamp(index++, afterStart);
+                stmt.setTimestamp(index++, afterStart);
+                stmt.setInt(index++, after.getId());
+            }
+            stmt.setInt(index, limit);
+            return executeSummaryQuery(stmt);
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération d'une page de rendez-vous", e);
+            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
         }
     }
 
     @Override
-    public List<Appointment> getAppointmentsByStatus(AppointmentStatus status) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    public List<AppointmentSummary> getAppointmentSummariesByPatient(int patientId) throws DAOException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENT_SUMMARIES_BY_PATIENT)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_STATUS);
-            stmt.setString(1, status.name());
+            stmt.setInt(1, patientId);
+            return executeSummaryQuery(stmt);
 
-            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des résumés de rendez-vous par patient", e);
+            throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
 
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
-            }
+    @Override
+    public List<Appointment> getAppointmentsByStatus(AppointmentStatus status) throws DAOException {
+        List<Appointment> appointments;
 
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
-            }
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_APPOINTMENTS_BY_STATUS)) {
 
-            return appointments;
+            stmt.setString(1, status.name());
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des rendez-vous par statut", e);
             throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
     }
 
     @Override
     public int countAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_COUNT_APPOINTMENTS_BY_DOCTOR_AND_DATE)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_COUNT_APPOINTMENTS_BY_DOCTOR_AND_DATE);
             stmt.setInt(1, doctorId);
-            stmt.setDate(2, Date.valueOf(date));
-
-            rs = stmt.executeQuery();
+            stmt.setTimestamp(2, startOfDay(date));
+            stmt.setTimestamp(3, startOfDay(date.plusDays(1)));
 
-            if (rs.next()) {
-                return rs.getInt(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+                return 0;
             }
 
-            return 0;
-
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors du comptage des rendez-vous par médecin et date", e);
             throw new DAOException("Erreur lors du comptage des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
-    public List<Appointment> getUpcomingAppointmentsByPatient(int patientId, int limit) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    public MonthLoad getMonthLoad(int doctorId, YearMonth month) throws DAOException {
+        String sql = SQL_SELECT_MONTH_LOAD
+                + (doctorId > 0 ? SQL_MONTH_LOAD_DOCTOR_FILTER : "")
+                + SQL_MONTH_LOAD_GROUP_BY;
+        int[] counts = new int[month.lengthOfMonth()];
+        int[] minutes = new int[month.lengthOfMonth()];
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, startOfDay(month.atDay(1)));
+            stmt.setTimestamp(2, startOfDay(month.plusMonths(1).atDay(1)));
+            if (doctorId > 0) {
+                stmt.setInt(3, doctorId);
+            }
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_UPCOMING_APPOINTMENTS_BY_PATIENT);
-            stmt.setInt(1, patientId);
-            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int day = rs.getDate(1).toLocalDate().getDayOfMonth() - 1;
+                    counts[day] = rs.getInt(2);
+                    minutes[day] = rs.getInt(3);
+                }
+            }
+            return new MonthLoad(doctorId, month, counts, minutes);
 
-            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors du calcul de la charge mensuelle", e);
+            throw new DAOException("Erreur lors du calcul de la charge du mois: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
 
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
-            }
+    @Override
+    public List<Appointment> getUpcomingAppointmentsByPatient(int patientId, int limit) throws DAOException {
+        List<Appointment> appointments;
 
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
-            }
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_UPCOMING_APPOINTMENTS_BY_PATIENT)) {
 
-            return appointments;
+            stmt.setInt(1, patientId);
+            stmt.setInt(2, limit);
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des prochains rendez-vous par patient", e);
             throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
     }
 
     @Override
     public List<Appointment> getUpcomingAppointmentsByDoctor(int doctorId, int limit) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        List<Appointment> appointments;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_UPCOMING_APPOINTMENTS_BY_DOCTOR)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_UPCOMING_APPOINTMENTS_BY_DOCTOR);
             stmt.setInt(1, doctorId);
             stmt.setInt(2, limit);
-
-            rs = stmt.executeQuery();
-
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
-            }
-
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
-            }
-
-            return appointments;
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des prochains rendez-vous par médecin", e);
             throw new DAOException("Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
     }
 
     @Override
@@ -994,8 +1526,10 @@ public class AppointmentDAOImpl implements AppointmentDAO {
                         break;
                     case "date":
                         if (value instanceof LocalDate) {
-                            sqlBuilder.append(" AND DATE(rv.date_heure_debut) = ?");
-                            parameters.add(Date.valueOf((LocalDate) value));
+                            // Plage semi-ouverte [jour, jour + 1) pour exploiter les index sur date_heure_debut
+                            sqlBuilder.append(" AND rv.date_heure_debut >= ? AND rv.date_heure_debut < ?");
+                            parameters.add(startOfDay((LocalDate) value));
+                            parameters.add(startOfDay(((LocalDate) value).plusDays(1)));
                         }
                         break;
                     case "startDateMin":
@@ -1013,9 +1547,9 @@ public class AppointmentDAOImpl implements AppointmentDAO {
                             sqlBuilder.append(" AND rv.date_heure_debut <= ?");
                             parameters.add(Timestamp.valueOf((LocalDateTime) value));
                         } else if (value instanceof LocalDate) {
-                            LocalDateTime endOfDay = ((LocalDate) value).atTime(23, 59, 59);
-                            sqlBuilder.append(" AND rv.date_heure_debut <= ?");
-                            parameters.add(Timestamp.valueOf(endOfDay));
+                            // Jour inclus : borne exclusive au début du jour suivant
+                            sqlBuilder.append(" AND rv.date_heure_debut < ?");
+                            parameters.add(startOfDay(((LocalDate) value).plusDays(1)));
                         }
                         break;
                     case "appointmentType":
@@ -1023,9 +1557,8 @@ public class AppointmentDAOImpl implements AppointmentDAO {
                         parameters.add(value);
                         break;
                     case "patientName":
-                        sqlBuilder.append(" AND (p.nom LIKE ? OR p.prenom LIKE ?)");
-                        parameters.add("%" + value + "%");
-                        parameters.add("%" + value + "%");
+                        // Index de recherche des patients plutôt que LIKE '%x%' sur toute la table
+                        PatientDAOImpl.appendNameFilter(sqlBuilder, parameters, "p.", value.toString(), "");
                         break;
                     default:
                         LOGGER.warning("Critère de recherche inconnu ignoré: " + key);
@@ -1036,13 +1569,10 @@ public class AppointmentDAOImpl implements AppointmentDAO {
 
         sqlBuilder.append(" ORDER BY rv.date_heure_debut");
 
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        List<Appointment> appointments;
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(sqlBuilder.toString());
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sqlBuilder.toString())) {
 
             // Définir les paramètres
             for (int i = 0; i < parameters.size(); i++) {
@@ -1062,37 +1592,58 @@ public class AppointmentDAOImpl implements AppointmentDAO {
                 }
             }
 
-            rs = stmt.executeQuery();
-
-            List<Appointment> appointments = new ArrayList<>();
-            while (rs.next()) {
-                Appointment appointment = createAppointmentFromResultSet(rs);
-                appointments.add(appointment);
-            }
-
-            // Charger les objets liés pour tous les rendez-vous
-            for (Appointment appointment : appointments) {
-                loadRelatedObjects(appointment);
-            }
-
-            return appointments;
+            appointments = executeAppointmentQuery(stmt);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de rendez-vous par critères", e);
             throw new DAOException("Erreur lors de la recherche de rendez-vous: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
+        }
+
+        // Charger les objets liés pour tous les rendez-vous (requêtes groupées)
+        loadRelatedObjects(appointments);
+
+        return appointments;
+    }
+
+    /**
+     * Convertit une date en borne de plage horodatée (début de journée).
+     * Les requêtes par jour ou par semaine utilisent des plages semi-ouvertes
+     * {@code date_heure_debut >= début AND date_heure_debut < fin} plutôt que
+     * {@code DATE(date_heure_debut)}, afin que MySQL puisse utiliser les index.
+     *
+     * @param date La date
+     * @return L'horodatage correspondant à minuit ce jour-là
+     */
+    private static Timestamp startOfDay(LocalDate date) {
+        return Timestamp.valueOf(date.atStartOfDay());
+    }
+
+    /**
+     * Exécute une requête préparée et convertit chaque ligne en Appointment.
+     * Les objets liés ne sont pas chargés ici : l'appelant les charge après
+     * avoir restitué la connexion au pool.
+     *
+     * @param stmt La requête préparée, paramètres déjà définis
+     * @return La liste des rendez-vous
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private List<Appointment> executeAppointmentQuery(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            return RowMapper.mapAll(rs, APPOINTMENT_MAPPER);
+        }
+    }
+
+    /**
+     * Exécute une requête de résumés et convertit chaque ligne en AppointmentSummary
+     *
+     * @param stmt La requête préparée, paramètres déjà définis
+     * @return La liste des résumés
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private List<AppointmentSummary> executeSummaryQuery(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            return RowMapper.mapAll(rs, SUMMARY_MAPPER);
         }
     }
-}
\ No newline at end of file
+}
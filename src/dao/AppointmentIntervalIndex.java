@@ -0,0 +1,509 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import config.DatabaseConnection;
+import model.Appointment;
+import model.AppointmentStatus;
+import util.DayBitmap;
+
+/**
+ * Index mémoire des rendez-vous non annulés, organisé par médecin.
+ * Chaque médecin possède une chronologie triée par heure de début : une
+ * vérification de chevauchement parcourt uniquement les intervalles dont le début
+ * tombe dans [début - durée max, fin), soit O(log n) sans aller-retour SQL.
+ *
+ * Les données sont chargées paresseusement par semaine (une requête IN (...) pour
+ * tous les médecins concernés) et rechargées après EXPIRATION_MILLIS afin de
+ * prendre en compte les écritures des autres postes. Les requêtes de chargement
+ * s'exécutent sans verrou : les vérifications des autres threads continuent sur le
+ * contenu courant, et le résultat n'est intégré que si aucune écriture n'a touché
+ * l'index entre-temps. Les écritures de ce poste sont répercutées immédiatement par
+ * AppointmentDAOImpl (write-through).
+ * L'index est partagé par toutes les instances de DAO.
+ */
+final class AppointmentIntervalIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(AppointmentIntervalIndex.class.getName());
+
+    // Durée de validité d'une semaine chargée
+    private static final long EXPIRATION_MILLIS = 60_000;
+
+    // Nombre de chargements tentés lorsqu'une écriture concurrente rend le résultat périmé
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private static final String SQL_SELECT_INTERVALS = "SELECT id_rendezvous, id_medecin_fk, date_heure_debut, duree_minutes " +
+            "FROM rendez_vous " +
+            "WHERE id_medecin_fk IN ({ids}) " +
+            "AND date_heure_debut >= ? AND date_heure_debut < ? " +
+            "AND statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET')";
+
+    // Instance unique partagée par les DAO
+    private static AppointmentIntervalIndex instance;
+
+    private final DatabaseConnection dbConnection;
+
+    // Les chargements et les écritures prennent le verrou en écriture, les requêtes en lecture
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, DoctorTimeline> timelines = new HashMap<>();
+    private final Map<Integer, Interval> intervalsById = new HashMap<>();
+
+    // Nombre d'écritures (répercussions, invalidations), modifié sous verrou en écriture :
+    // un chargement commencé avant une écriture est écarté
+    private long writeCount;
+
+    /**
+     * Constructeur. Sans connexion (bancs d'essai, DAO en mémoire), l'index est autonome :
+     * il n'est alimenté que par recordAppointment et n'est jamais rechargé.
+     *
+     * @param dbConnection La connexion à la base de données, ou null
+     */
+    AppointmentIntervalIndex(DatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /**
+     * Obtient l'index partagé
+     *
+     * @return L'instance unique de l'index
+     */
+    static synchronized AppointmentIntervalIndex getInstance() {
+        if (instance == null) {
+            instance = new AppointmentIntervalIndex(DatabaseConnection.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Indique si un médecin a un rendez-vous non annulé qui chevauche [start, end)
+     *
+     * @param doctorId L'ID du médecin
+     * @param start Début de la plage
+     * @param end Fin de la plage (exclue)
+     * @param excludeAppointmentId ID d'un rendez-vous à ignorer (0 pour aucun)
+     * @return true en cas de chevauchement
+     * @throws DAOException En cas d'erreur lors du chargement de l'index
+     */
+    boolean hasConflict(int doctorId, LocalDateTime start, LocalDateTime end, int excludeAppointmentId)
+            throws DAOException {
+        ensureLoaded(Collections.singleton(doctorId), start, end);
+
+        lock.readLock().lock();
+        try {
+            DoctorTimeline timeline = timelines.get(doctorId);
+            return timeline != null && timeline.overlaps(toSeconds(start), toSeconds(end), excludeAppointmentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retourne, parmi les médecins donnés, ceux qui sont occupés sur [start, end)
+     *
+     * @param doctorIds Les IDs des médecins à vérifier
+     * @param start Début de la plage
+     * @param end Fin de la plage (exclue)
+     * @return Les IDs des médecins ayant un rendez-vous chevauchant la plage
+     * @throws DAOException En cas d'erreur lors du chargement de l'index
+     */
+    Set<Integer> findBusyDoctors(Collection<Integer> doctorIds, LocalDateTime start, LocalDateTime end)
+            throws DAOException {
+        ensureLoaded(doctorIds, start, end);
+
+        long from = toSeconds(start);
+        long to = toSeconds(end);
+        Set<Integer> busy = new HashSet<>();
+
+        lock.readLock().lock();
+        try {
+            for (Integer doctorId : doctorIds) {
+                DoctorTimeline timeline = timelines.get(doctorId);
+                if (timeline != null && timeline.overlaps(from, to, 0)) {
+                    busy.add(doctorId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return busy;
+    }
+
+    /**
+     * Charge si nécessaire les rendez-vous de plusieurs médecins sur une période,
+     * en vue d'appels successifs à {@link #markBusy(int, LocalDate, DayBitmap)}
+     *
+     * @param doctorIds Les IDs des médecins
+     * @param start Début de la période
+     * @param end Fin de la période (exclue)
+     * @throws DAOException En cas d'erreur lors du chargement de l'index
+     */
+    void preload(Collection<Integer> doctorIds, LocalDateTime start, LocalDateTime end) throws DAOException {
+        ensureLoaded(doctorIds, start, end);
+    }
+
+    /**
+     * Retire d'une carte journalière les plages occupées par les rendez-vous d'un médecin.
+     * Ne déclenche aucun accès à la base : la période doit avoir été préchargée.
+     *
+     * @param doctorId L'ID du médecin
+     * @param day Le jour concerné
+     * @param bitmap La carte de disponibilité du jour à mettre à jour
+     */
+    void markBusy(int doctorId, LocalDate day, DayBitmap bitmap) {
+        long dayStart = toSeconds(day.atStartOfDay());
+        long dayEnd = dayStart + 24 * 3600;
+
+        lock.readLock().lock();
+        try {
+            DoctorTimeline timeline = timelines.get(doctorId);
+            if (timeline != null) {
+                timeline.markBusy(dayStart, dayEnd, bitmap);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Répercute la création ou la modification d'un rendez-vous
+     *
+     * @param appointment Le rendez-vous enregistré en base
+     */
+    void recordAppointment(Appointment appointment) {
+        lock.writeLock().lock();
+        try {
+            writeCount++;
+            removeInterval(appointment.getId());
+            if (!appointment.isCancelled()) {
+                addInterval(new Interval(appointment.getId(), appointment.getDoctorId(),
+                        toSeconds(appointment.getStartDateTime()),
+                        toSeconds(appointment.getEndDateTime())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Répercute un changement de statut
+     *
+     * @param appointmentId L'ID du rendez-vous
+     * @param status Le nouveau statut
+     */
+    void recordStatusChange(int appointmentId, AppointmentStatus status) {
+        boolean cancelled = status == AppointmentStatus.ANNULE_PATIENT
+                || status == AppointmentStatus.ANNULE_CABINET;
+
+        lock.writeLock().lock();
+        try {
+            writeCount++;
+            if (cancelled) {
+                removeInterval(appointmentId);
+            } else if (!intervalsById.containsKey(appointmentId)) {
+                // Rendez-vous réactivé dont l'horaire n'est pas connu : recharger à la prochaine requête
+                for (DoctorTimeline timeline : timelines.values()) {
+                    timeline.markAllStale();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Répercute la suppression d'un rendez-vous
+     *
+     * @param appointmentId L'ID du rendez-vous supprimé
+     */
+    void recordDeletion(int appointmentId) {
+        lock.writeLock().lock();
+        try {
+            writeCount++;
+            removeInterval(appointmentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index ; les semaines seront rechargées à la prochaine requête
+     */
+    void invalidate() {
+        lock.writeLock().lock();
+        try {
+            writeCount++;
+            clearLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Charge les semaines manquantes ou expirées couvrant [start, end) pour les médecins donnés.
+     * La semaine précédente est incluse lorsque la plage commence en début de semaine,
+     * un rendez-vous de la veille pouvant déborder sur la plage.
+     *
+     * Les requêtes s'exécutent sans verrou ; le verrou en écriture n'est pris que pour
+     * intégrer le résultat, écarté si une écriture a eu lieu pendant le chargement (il
+     * pourrait ne pas en tenir compte). Après MAX_LOAD_ATTEMPTS chargements écartés,
+     * l'index répond avec son contenu courant et les semaines restent à recharger.
+     */
+    private void ensureLoaded(Collection<Integer> doctorIds, LocalDateTime start, LocalDateTime end)
+            throws DAOException {
+        if (dbConnection == null) {
+            return;
+        }
+        List<LocalDate> weeks = weeksCovering(start.minusDays(1), end);
+
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            long now = System.currentTimeMillis();
+            Map<LocalDate, Set<Integer>> stale;
+            long writesBefore;
+
+            lock.readLock().lock();
+            try {
+                stale = findStaleWeeks(doctorIds, weeks, now);
+                writesBefore = writeCount;
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (stale.isEmpty()) {
+                return;
+            }
+
+            Map<LocalDate, List<Interval>> loaded = new HashMap<>();
+            for (Map.Entry<LocalDate, Set<Integer>> entry : stale.entrySet()) {
+                loaded.put(entry.getKey(), queryWeek(entry.getKey(), entry.getValue()));
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (writeCount == writesBefore) {
+                    for (Map.Entry<LocalDate, Set<Integer>> entry : stale.entrySet()) {
+                        replaceWeek(entry.getKey(), entry.getValue(), loaded.get(entry.getKey()), now);
+                    }
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.fine("Chargement de l'index des rendez-vous écarté (écriture concurrente), tentative " + attempt);
+        }
+    }
+
+    private Map<LocalDate, Set<Integer>> findStaleWeeks(Collection<Integer> doctorIds, List<LocalDate> weeks, long now) {
+        Map<LocalDate, Set<Integer>> stale = new HashMap<>();
+        for (LocalDate week : weeks) {
+            for (Integer doctorId : doctorIds) {
+                DoctorTimeline timeline = timelines.get(doctorId);
+                if (timeline == null || !timeline.isFresh(week, now)) {
+                    stale.computeIfAbsent(week, k -> new LinkedHashSet<>()).add(doctorId);
+                }
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * Lit en base les rendez-vous actifs d'une semaine pour un ensemble de médecins
+     * (appelé sans verrou)
+     */
+    private List<Interval> queryWeek(LocalDate weekStart, Set<Integer> doctorIds) throws DAOException {
+        List<Interval> loaded = new ArrayList<>();
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : SqlUtils.chunk(doctorIds)) {
+                String sql = SqlUtils.expandInClause(SQL_SELECT_INTERVALS, chunk.size());
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = SqlUtils.bindIntegers(stmt, 1, chunk);
+                    stmt.setTimestamp(index++, Timestamp.valueOf(weekStart.atStartOfDay()));
+                    stmt.setTimestamp(index, Timestamp.valueOf(weekStart.plusWeeks(1).atStartOfDay()));
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            long startSeconds = toSeconds(rs.getTimestamp("date_heure_debut").toLocalDateTime());
+                            loaded.add(new Interval(rs.getInt("id_rendezvous"), rs.getInt("id_medecin_fk"),
+                                    startSeconds, startSeconds + rs.getInt("duree_minutes") * 60L));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors du chargement de l'index des rendez-vous", e);
+            throw new DAOException("Erreur lors du chargement de l'index des rendez-vous: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+        return loaded;
+    }
+
+    /**
+     * Remplace le contenu d'une semaine pour un ensemble de médecins (appelé sous verrou en écriture)
+     */
+    private void replaceWeek(LocalDate weekStart, Set<Integer> doctorIds, List<Interval> loaded, long loadedAt) {
+        long from = toSeconds(weekStart.atStartOfDay());
+        long to = toSeconds(weekStart.plusWeeks(1).atStartOfDay());
+
+        for (Integer doctorId : doctorIds) {
+            DoctorTimeline timeline = timelines.computeIfAbsent(doctorId, k -> new DoctorTimeline());
+            for (Interval removed : timeline.removeStartingBetween(from, to)) {
+                intervalsById.remove(removed.id);
+            }
+            timeline.markLoaded(weekStart, loadedAt);
+        }
+        for (Interval interval : loaded) {
+            removeInterval(interval.id);
+            addInterval(interval);
+        }
+
+        LOGGER.log(Level.FINE, "Index des rendez-vous chargé pour la semaine du {0} ({1} médecin(s), {2} rendez-vous)",
+                new Object[] { weekStart, doctorIds.size(), loaded.size() });
+    }
+
+    private void addInterval(Interval interval) {
+        timelines.computeIfAbsent(interval.doctorId, k -> new DoctorTimeline()).add(interval);
+        intervalsById.put(interval.id, interval);
+    }
+
+    private void removeInterval(int appointmentId) {
+        Interval existing = intervalsById.remove(appointmentId);
+        if (existing != null) {
+            DoctorTimeline timeline = timelines.get(existing.doctorId);
+            if (timeline != null) {
+                timeline.remove(existing);
+            }
+        }
+    }
+
+    private void clearLocked() {
+        timelines.clear();
+        intervalsById.clear();
+    }
+
+    private static List<LocalDate> weeksCovering(LocalDateTime start, LocalDateTime end) {
+        List<LocalDate> weeks = new ArrayList<>();
+        LocalDate week = start.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate last = end.toLocalDate();
+        while (!week.isAfter(last)) {
+            weeks.add(week);
+            week = week.plusWeeks(1);
+        }
+        return weeks;
+    }
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Intervalle [start, end) d'un rendez-vous, en secondes
+     */
+    private static final class Interval {
+        final int id;
+        final int doctorId;
+        final long start;
+        final long end;
+
+        Interval(int id, int doctorId, long start, long end) {
+            this.id = id;
+            this.doctorId = doctorId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Chronologie d'un médecin : intervalles triés par début puis par ID
+     */
+    private static final class DoctorTimeline {
+
+        private final NavigableSet<Interval> intervals = new TreeSet<>((a, b) -> {
+            int cmp = Long.compare(a.start, b.start);
+            return cmp != 0 ? cmp : Integer.compare(a.id, b.id);
+        });
+
+        // Semaines chargées (lundi) et date de chargement
+        private final Map<LocalDate, Long> loadedWeeks = new HashMap<>();
+
+        // Plus longue durée connue, qui borne la recherche vers le passé
+        private long maxDuration;
+
+        boolean isFresh(LocalDate week, long now) {
+            Long loadedAt = loadedWeeks.get(week);
+            return loadedAt != null && now - loadedAt < EXPIRATION_MILLIS;
+        }
+
+        void markLoaded(LocalDate week, long now) {
+            loadedWeeks.put(week, now);
+        }
+
+        void markAllStale() {
+            loadedWeeks.clear();
+        }
+
+        void add(Interval interval) {
+            intervals.add(interval);
+            maxDuration = Math.max(maxDuration, interval.end - interval.start);
+        }
+
+        void remove(Interval interval) {
+            intervals.remove(interval);
+        }
+
+        List<Interval> removeStartingBetween(long from, long to) {
+            List<Interval> removed = new ArrayList<>();
+            Iterator<Interval> it = intervals.subSet(new Interval(Integer.MIN_VALUE, 0, from, from), true,
+                    new Interval(Integer.MIN_VALUE, 0, to, to), false).iterator();
+            while (it.hasNext()) {
+                removed.add(it.next());
+                it.remove();
+            }
+            return removed;
+        }
+
+        void markBusy(long dayStart, long dayEnd, DayBitmap bitmap) {
+            Interval lower = new Interval(Integer.MIN_VALUE, 0, dayStart - maxDuration, 0);
+            Interval upper = new Interval(Integer.MIN_VALUE, 0, dayEnd, 0);
+            for (Interval interval : intervals.subSet(lower, true, upper, false)) {
+                if (interval.end > dayStart) {
+                    bitmap.markBusy((int) ((interval.start - dayStart) / 60), (int) ((interval.end - dayStart) / 60));
+                }
+            }
+        }
+
+        boolean overlaps(long from, long to, int excludeId) {
+            // Seuls les intervalles commençant dans [from - durée max, to) peuvent chevaucher
+            Interval lower = new Interval(Integer.MIN_VALUE, 0, from - maxDuration, 0);
+            Interval upper = new Interval(Integer.MIN_VALUE, 0, to, 0);
+            for (Interval interval : intervals.subSet(lower, true, upper, false)) {
+                if (interval.end > from && interval.id != excludeId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Positions des colonnes d'un ResultSet, résolues une seule fois à partir des métadonnées.
+ * Les mappers de lignes lisent ensuite chaque colonne par index, sans recherche par nom
+ * ni appel aux métadonnées pour chaque ligne.
+ */
+final class ColumnLayout {
+
+    // Libellé en minuscules -> position (à partir de 1) ; la première occurrence l'emporte
+    private final Map<String, Integer> positions;
+
+    private ColumnLayout(Map<String, Integer> positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * Résout les positions des colonnes d'un ResultSet
+     *
+     * @param rs Le ResultSet
+     * @return La disposition des colonnes
+     * @throws SQLException En cas d'erreur d'accès aux métadonnées
+     */
+    static ColumnLayout of(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int count = metaData.getColumnCount();
+        Map<String, Integer> positions = new HashMap<>(count * 2);
+        for (int i = 1; i <= count; i++) {
+            positions.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ColumnLayout(positions);
+    }
+
+    /**
+     * Position d'une colonne obligatoire
+     *
+     * @param label Le libellé (ou alias) de la colonne
+     * @return La position de la colonne (à partir de 1)
+     * @throws SQLException Si la colonne est absente du résultat
+     */
+    int required(String label) throws SQLException {
+        Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+        if (position == null) {
+            throw new SQLException("Colonne absente du résultat: " + label);
+        }
+        return position;
+    }
+
+    /**
+     * Position d'une colonne facultative (jointure présente dans certaines requêtes seulement)
+     *
+     * @param label Le libellé (ou alias) de la colonne
+     * @return La position de la colonne, ou 0 si elle est absente
+     */
+    int optional(String label) {
+        Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+        return position != null ? position : 0;
+    }
+}
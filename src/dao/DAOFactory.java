@@ -0,0 +1,105 @@
+package dao;
+
+import java.util.logging.Logger;
+
+import config.AppConfig;
+
+/**
+ * Fabrique des DAO de l'application. Choisit une fois pour toutes l'implémentation
+ * de la couche de persistance : MySQL (par défaut) ou base en mémoire, pour les tests
+ * de charge et le mode hors ligne (propriété système dao.backend, voir AppConfig).
+ * Les DAO retournés sont partagés et instrumentés par DaoMetrics.
+ * Implémente le pattern Singleton pour assurer une seule instance.
+ */
+public final class DAOFactory {
+
+    private static final Logger LOGGER = Logger.getLogger(DAOFactory.class.getName());
+
+    // Instance unique (Singleton)
+    private static DAOFactory instance;
+
+    private final String backend;
+    private final UserDAO userDAO;
+    private final PatientDAO patientDAO;
+    private final AppointmentDAO appointmentDAO;
+    private final DoctorDAO doctorDAO;
+
+    /**
+     * Constructeur privé (pattern Singleton)
+     *
+     * @param backend L'implémentation choisie (AppConfig.DAO_BACKEND_MYSQL ou DAO_BACKEND_MEMORY)
+     */
+    private DAOFactory(String backend) {
+        this.backend = backend;
+
+        if (AppConfig.DAO_BACKEND_MYSQL.equals(backend)) {
+            this.userDAO = DaoMetrics.instrument(new UserDAOImpl());
+            this.patientDAO = DaoMetrics.instrument(new PatientDAOImpl());
+            this.appointmentDAO = DaoMetrics.instrument(new AppointmentDAOImpl());
+            this.doctorDAO = DaoMetrics.instrument(new DoctorDAOImpl());
+        } else if (AppConfig.DAO_BACKEND_MEMORY.equals(backend)) {
+            // Une seule base partagée : les contraintes entre tables sont vérifiées comme en MySQL
+            InMemoryDatabase db = new InMemoryDatabase();
+            this.userDAO = DaoMetrics.instrument(new InMemoryUserDAO(db));
+            this.patientDAO = DaoMetrics.instrument(new InMemoryPatientDAO(db));
+            this.appointmentDAO = DaoMetrics.instrument(new InMemoryAppointmentDAO(db, patientDAO, userDAO));
+            this.doctorDAO = DaoMetrics.instrument(new InMemoryDoctorDAO(db, userDAO));
+            LOGGER.info("Couche DAO en mémoire : les données ne sont pas enregistrées en base");
+        } else {
+            throw new IllegalArgumentException("Implémentation DAO inconnue: " + backend);
+        }
+    }
+
+    /**
+     * Obtient l'instance unique de la fabrique, avec l'implémentation configurée
+     *
+     * @return L'instance de DAOFactory
+     */
+    public static synchronized DAOFactory getInstance() {
+        if (instance == null) {
+            instance = new DAOFactory(AppConfig.DAO_BACKEND);
+        }
+        return instance;
+    }
+
+    /**
+     * Choisit l'implémentation avant la première utilisation de la fabrique
+     * (bancs d'essai, tests de charge)
+     *
+     * @param backend AppConfig.DAO_BACKEND_MYSQL ou AppConfig.DAO_BACKEND_MEMORY
+     * @return L'instance de DAOFactory
+     * @throws IllegalArgumentException Si l'implémentation est inconnue
+     * @throws IllegalStateException Si la fabrique utilise déjà une autre implémentation
+     */
+    public static synchronized DAOFactory initialize(String backend) {
+        if (instance == null) {
+            instance = new DAOFactory(backend);
+        } else if (!instance.backend.equals(backend)) {
+            throw new IllegalStateException("Couche DAO déjà initialisée avec l'implémentation: " + instance.backend);
+        }
+        return instance;
+    }
+
+    /**
+     * @return L'implémentation utilisée (AppConfig.DAO_BACKEND_MYSQL ou DAO_BACKEND_MEMORY)
+     */
+    public String getBackend() {
+        return backend;
+    }
+
+    public UserDAO getUserDAO() {
+        return userDAO;
+    }
+
+    public PatientDAO getPatientDAO() {
+        return patientDAO;
+    }
+
+    public AppointmentDAO getAppointmentDAO() {
+        return appointmentDAO;
+    }
+
+    public DoctorDAO getDoctorDAO() {
+        return doctorDAO;
+    }
+}
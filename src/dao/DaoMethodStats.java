@@ -0,0 +1,103 @@
+package dao;
+
+import javax.management.ConstructorParameters;
+
+/**
+ * Instantané immuable des mesures d'une méthode DAO (exposé par JMX).
+ */
+public final class DaoMethodStats {
+
+    private final String method;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p95Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    @ConstructorParameters({"method", "calls", "errors", "rows", "meanMicros", "p50Micros", "p95Micros",
+            "p99Micros", "maxMicros"})
+    public DaoMethodStats(String method, long calls, long errors, long rows, long meanMicros, long p50Micros,
+                          long p95Micros, long p99Micros, long maxMicros) {
+        this.method = method;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * @return Le nom de la méthode, préfixé par l'interface DAO (ex. AppointmentDAO.getAppointmentById)
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return Le nombre d'appels terminés (réussis ou en erreur)
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return Le nombre d'appels terminés par une exception
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return Le nombre cumulé de lignes (éléments) retournées
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return La durée moyenne d'un appel, en microsecondes
+     */
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    /**
+     * @return La durée médiane d'un appel, en microsecondes
+     */
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * @return Le 95e percentile de la durée d'un appel, en microsecondes
+     */
+    public long getP95Micros() {
+        return p95Micros;
+    }
+
+    /**
+     * @return Le 99e percentile de la durée d'un appel, en microsecondes
+     */
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    /**
+     * @return La durée maximale observée, en microsecondes
+     */
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return method + ": " + calls + " appels, " + errors + " erreurs, " + rows + " lignes, p50="
+                + p50Micros + "µs, p95=" + p95Micros + "µs, p99=" + p99Micros + "µs, max=" + maxMicros + "µs";
+    }
+}
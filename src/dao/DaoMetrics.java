@@ -0,0 +1,354 @@
+package dao;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import config.AppConfig;
+import config.DatabaseConnection;
+import config.PoolStats;
+import util.LatencyHistogram;
+
+/**
+ * Mesures de la couche DAO : nombre d'appels, d'erreurs et de lignes retournées, et
+ * histogramme des durées (p50/p95/p99) par méthode, plus l'attente des connexions du pool.
+ *
+ * Les DAO sont enveloppés par instrument() dans un décorateur écrit pour leur interface
+ * (InstrumentedAppointmentDAO, etc.) : les mesures de chaque méthode sont des champs
+ * du décorateur, résolus à sa construction, si bien qu'un appel ne fait qu'un appel
+ * direct et des incréments sans verrou ni allocation. Les appels plus lents que le
+ * seuil sont journalisés avec leurs paramètres masqués, assemblés seulement dans ce cas
+ * (seuls les nombres, booléens et énumérations apparaissent : identifiants, limites, statuts).
+ * Les mesures sont publiées par un MBean de la plateforme et résumées périodiquement
+ * dans le journal. Implémente le pattern Singleton pour assurer une seule instance.
+ */
+public final class DaoMetrics implements DaoMetricsMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(DaoMetrics.class.getName());
+
+    // Instance unique (Singleton)
+    private static DaoMetrics instance;
+
+    // Mesures par méthode, partagées entre les décorateurs d'une même interface
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final LongAdder slowCalls = new LongAdder();
+    private volatile long slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(AppConfig.DAO_SLOW_CALL_MILLIS);
+
+    /**
+     * Mesures d'une méthode DAO, tenues par les décorateurs
+     */
+    final class MethodMetrics {
+        final String name;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+
+        // Nombre d'appels au dernier résumé (thread du résumé uniquement)
+        long summarizedCalls;
+
+        MethodMetrics(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Enregistre un appel terminé
+         *
+         * @param startNanos L'instant de début (System.nanoTime)
+         * @param failed true si l'appel a levé une exception
+         * @param rowCount Le nombre de lignes retournées (ignoré en cas d'erreur)
+         * @return La durée de l'appel en nanosecondes s'il dépasse le seuil des appels lents, -1 sinon
+         */
+        long record(long startNanos, boolean failed, long rowCount) {
+            long elapsed = System.nanoTime() - startNanos;
+            latency.record(TimeUnit.NANOSECONDS.toMicros(elapsed));
+            if (failed) {
+                errors.increment();
+            } else {
+                rows.add(rowCount);
+            }
+            return elapsed >= slowCallThresholdNanos ? elapsed : -1;
+        }
+
+        /**
+         * Journalise un appel lent (appelé seulement après record, au-delà du seuil)
+         */
+        void logSlowCall(long elapsedNanos, boolean failed, long rowCount, Object... args) {
+            slowCalls.increment();
+            LOGGER.warning("Appel DAO lent : " + name + "(" + redact(args) + ") "
+                    + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms"
+                    + (failed ? ", en erreur" : ", " + rowCount + " lignes"));
+        }
+
+        DaoMethodStats snapshot() {
+            return new DaoMethodStats(name, latency.getCount(), errors.sum(), rows.sum(), latency.getMeanMicros(),
+                    latency.getPercentileMicros(50), latency.getPercentileMicros(95),
+                    latency.getPercentileMicros(99), latency.getMaxMicros());
+        }
+    }
+
+    /**
+     * Constructeur privé (Singleton) : enregistre le MBean et planifie le résumé périodique
+     */
+    private DaoMetrics() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName(AppConfig.DAO_METRICS_MBEAN_NAME));
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Impossible d'enregistrer le MBean des mesures DAO", e);
+        }
+
+        ScheduledExecutorService summary = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metriques-dao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = AppConfig.DAO_METRICS_SUMMARY_MINUTES;
+        summary.scheduleWithFixedDelay(this::logSummary, period, period, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Obtient l'instance unique des mesures DAO
+     *
+     * @return L'instance de DaoMetrics
+     */
+    public static synchronized DaoMetrics getInstance() {
+        if (instance == null) {
+            instance = new DaoMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Enveloppe un DAO des rendez-vous pour mesurer chacune de ses méthodes
+     *
+     * @param dao L'implémentation
+     * @return Le décorateur qui délègue à l'implémentation
+     */
+    public static AppointmentDAO instrument(AppointmentDAO dao) {
+        return new InstrumentedAppointmentDAO(dao, getInstance());
+    }
+
+    /**
+     * Enveloppe un DAO des médecins pour mesurer chacune de ses méthodes
+     *
+     * @param dao L'implémentation
+     * @return Le décorateur qui délègue à l'implémentation
+     */
+    public static DoctorDAO instrument(DoctorDAO dao) {
+        return new InstrumentedDoctorDAO(dao, getInstance());
+    }
+
+    /**
+     * Enveloppe un DAO des patients pour mesurer chacune de ses méthodes
+     *
+     * @param dao L'implémentation
+     * @return Le décorateur qui délègue à l'implémentation
+     */
+    public static PatientDAO instrument(PatientDAO dao) {
+        return new InstrumentedPatientDAO(dao, getInstance());
+    }
+
+    /**
+     * Enveloppe un DAO des utilisateurs pour mesurer chacune de ses méthodes
+     *
+     * @param dao L'implémentation
+     * @return Le décorateur qui délègue à l'implémentation
+     */
+    public static UserDAO instrument(UserDAO dao) {
+        return new InstrumentedUserDAO(dao, getInstance());
+    }
+
+    /**
+     * Mesures d'une méthode, créées au premier décorateur de son interface
+     *
+     * @param name Le nom qualifié (Interface.méthode)
+     * @return Les mesures partagées de la méthode
+     */
+    MethodMetrics method(String name) {
+        return methods.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    /**
+     * Nombre de lignes retournées : taille des collections, tables et tableaux,
+     * 1 pour un objet, 0 pour null (les résultats scalaires comptent 0)
+     */
+    static long countRows(Collection<?> result) {
+        return result == null ? 0 : result.size();
+    }
+
+    static long countRows(Map<?, ?> result) {
+        return result == null ? 0 : result.size();
+    }
+
+    static long countRows(int[] result) {
+        return result == null ? 0 : result.length;
+    }
+
+    static long countRows(Object result) {
+        return result == null ? 0 : 1;
+    }
+
+    /**
+     * Paramètres d'un appel pour le journal : les textes, dates et objets métier sont
+     * remplacés par leur type (et leur taille), pour ne pas journaliser de données patient
+     */
+    static String redact(Object[] args) {
+        if (args == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            Object arg = args[i];
+            if (arg == null || arg instanceof Number || arg instanceof Boolean || arg instanceof Enum) {
+                builder.append(arg);
+            } else if (arg instanceof CharSequence) {
+                builder.append("<texte:").append(((CharSequence) arg).length()).append('>');
+            } else if (arg instanceof Collection) {
+                builder.append('<').append(arg.getClass().getSimpleName()).append(':')
+                        .append(((Collection<?>) arg).size()).append('>');
+            } else if (arg.getClass().isArray()) {
+                builder.append("<tableau:").append(Array.getLength(arg)).append('>');
+            } else {
+                builder.append('<').append(arg.getClass().getSimpleName()).append('>');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Résumé périodique : méthodes appelées depuis le résumé précédent et attente du pool
+     */
+    private void logSummary() {
+        try {
+            StringBuilder builder = new StringBuilder("Mesures DAO (depuis le démarrage) :");
+            boolean active = false;
+            for (MethodMetrics metrics : sortedByTotalTime()) {
+                long calls = metrics.latency.getCount();
+                // Après une remise à zéro, tous les appels sont nouveaux
+                long newCalls = calls >= metrics.summarizedCalls ? calls - metrics.summarizedCalls : calls;
+                if (newCalls == 0) {
+                    continue;
+                }
+                builder.append("\n  ").append(metrics.snapshot()).append(" (+").append(newCalls).append(" appels)");
+                metrics.summarizedCalls = calls;
+                active = true;
+            }
+            if (!active) {
+                return;
+            }
+            PoolStats poolStats = DatabaseConnection.getPoolStatsIfConnected();
+            if (poolStats != null) {
+                builder.append("\n  ").append(poolStats);
+            }
+            LOGGER.info(builder.toString());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Erreur lors du résumé des mesures DAO", e);
+        }
+    }
+
+    private List<MethodMetrics> sortedByTotalTime() {
+        List<MethodMetrics> sorted = new ArrayList<>(methods.values());
+        sorted.sort(Comparator.comparingLong((MethodMetrics metrics) -> metrics.latency.getSumMicros()).reversed());
+        return sorted;
+    }
+
+    // --- MBean ---
+
+    @Override
+    public List<DaoMethodStats> getMethods() {
+        List<DaoMethodStats> stats = new ArrayList<>();
+        for (MethodMetrics metrics : sortedByTotalTime()) {
+            if (metrics.latency.getCount() > 0) {
+                stats.add(metrics.snapshot());
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.latency.getCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.errors.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getSlowCalls() {
+        return slowCalls.sum();
+    }
+
+    @Override
+    public long getSlowCallThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowCallThresholdNanos);
+    }
+
+    @Override
+    public void setSlowCallThresholdMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Le seuil des appels lents ne peut pas être négatif.");
+        }
+        slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override
+    public long getPoolWaitP50Micros() {
+        PoolStats poolStats = DatabaseConnection.getPoolStatsIfConnected();
+        return poolStats != null ? poolStats.getP50WaitMicros() : 0;
+    }
+
+    @Override
+    public long getPoolWaitP95Micros() {
+        PoolStats poolStats = DatabaseConnection.getPoolStatsIfConnected();
+        return poolStats != null ? poolStats.getP95WaitMicros() : 0;
+    }
+
+    @Override
+    public long getPoolWaitP99Micros() {
+        PoolStats poolStats = DatabaseConnection.getPoolStatsIfConnected();
+        return poolStats != null ? poolStats.getP99WaitMicros() : 0;
+    }
+
+    @Override
+    public int getPoolWaiters() {
+        PoolStats poolStats = DatabaseConnection.getPoolStatsIfConnected();
+        return poolStats != null ? poolStats.getWaiters() : 0;
+    }
+
+    @Override
+    public void reset() {
+        for (MethodMetrics metrics : methods.values()) {
+            metrics.latency.reset();
+            metrics.errors.reset();
+            metrics.rows.reset();
+        }
+        slowCalls.reset();
+    }
+}
@@ -0,0 +1,65 @@
+package dao;
+
+import java.util.List;
+
+/**
+ * Interface de supervision JMX des mesures de la couche DAO.
+ * Les durées sont en microsecondes, cumulées depuis le démarrage ou la dernière remise à zéro.
+ */
+public interface DaoMetricsMXBean {
+
+    /**
+     * @return Les mesures de chaque méthode DAO appelée au moins une fois, par durée cumulée décroissante
+     */
+    List<DaoMethodStats> getMethods();
+
+    /**
+     * @return Le nombre total d'appels DAO
+     */
+    long getTotalCalls();
+
+    /**
+     * @return Le nombre total d'appels DAO terminés par une exception
+     */
+    long getTotalErrors();
+
+    /**
+     * @return Le nombre d'appels ayant dépassé le seuil des appels lents
+     */
+    long getSlowCalls();
+
+    /**
+     * @return Le seuil au-delà duquel un appel est journalisé comme lent, en millisecondes
+     */
+    long getSlowCallThresholdMillis();
+
+    /**
+     * @param millis Le nouveau seuil des appels lents, en millisecondes
+     */
+    void setSlowCallThresholdMillis(long millis);
+
+    /**
+     * @return Le temps d'attente médian d'une connexion du pool (0 si le pool n'est pas ouvert)
+     */
+    long getPoolWaitP50Micros();
+
+    /**
+     * @return Le 95e percentile du temps d'attente d'une connexion du pool
+     */
+    long getPoolWaitP95Micros();
+
+    /**
+     * @return Le 99e percentile du temps d'attente d'une connexion du pool
+     */
+    long getPoolWaitP99Micros();
+
+    /**
+     * @return Le nombre de threads actuellement en attente d'une connexion du pool
+     */
+    int getPoolWaiters();
+
+    /**
+     * Remet à zéro les mesures des méthodes DAO (les statistiques du pool ne sont pas concernées)
+     */
+    void reset();
+}
@@ -1,6 +1,7 @@
 package dao;
 
 import java.util.List;
+import model.AvailableSlot;
 import model.Doctor;
 
 /**
@@ -89,4 +90,29 @@ public interface DoctorDAO {
      * @throws DAOException En cas d'erreur de persistance
      */
     List<String> getAvailableTimeSlots(int doctorId, java.time.LocalDate date) throws DAOException;
-}
\ No newline at end of file
+    
+    /**
+     * Récupère les débuts de créneaux libres d'une durée donnée pour un médecin à une date donnée
+     * 
+     * @param doctorId L'ID du médecin
+     * @param date La date à vérifier
+     * @param durationMinutes La durée souhaitée du rendez-vous en minutes
+     * @return Liste des heures de début possibles (format HH:mm)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<String> getAvailableTimeSlots(int doctorId, java.time.LocalDate date, int durationMinutes) throws DAOException;
+    
+    /**
+     * Recherche les premiers créneaux libres parmi tous les médecins actifs d'une spécialité
+     * 
+     * @param specialty La spécialité recherchée
+     * @param fromDate Le premier jour de la recherche
+     * @param days Le nombre de jours à parcourir
+     * @param durationMinutes La durée souhaitée du rendez-vous en minutes
+     * @param limit Le nombre maximal de créneaux à retourner
+     * @return Les créneaux libres, par ordre chronologique
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<AvailableSlot> findFirstAvailableSlots(String specialty, java.time.LocalDate fromDate, int days,
+                                                int durationMinutes, int limit) throws DAOException;
+}
@@ -6,25 +6,25 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Date;
-import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import config.AppConfig;
 import config.DatabaseConnection;
-import model.Appointment;
+import model.AvailableSlot;
 import model.Doctor;
 import util.DateTimeUtils;
+import util.DayBitmap;
 
 /**
  * Implémentation MySQL de l'interface DoctorDAO.
@@ -36,26 +36,27 @@ public class DoctorDAOImpl implements DoctorDAO {
     private static final Logger LOGGER = Logger.getLogger(DoctorDAOImpl.class.getName());
     
     // Requêtes SQL spécifiques aux médecins
-    private static final String SQL_GET_AVAILABLE_DOCTORS = 
+    private static final String SQL_GET_ACTIVE_DOCTORS = 
             "SELECT u.*, m.specialite, m.horaires_disponibilite, m.telephone_professionnel " +
             "FROM utilisateurs u " +
             "JOIN medecins m ON u.id_utilisateur = m.id_medecin " +
             "WHERE u.role = 'MEDECIN' AND u.actif = TRUE " +
-            "AND NOT EXISTS (" +
-            "    SELECT 1 FROM rendez_vous rv " +
-            "    WHERE rv.id_medecin_fk = u.id_utilisateur " +
-            "    AND rv.statut_rdv NOT IN ('ANNULE_PATIENT', 'ANNULE_CABINET') " +
-            "    AND (? BETWEEN rv.date_heure_debut AND DATE_ADD(rv.date_heure_debut, INTERVAL rv.duree_minutes MINUTE) " +
-            "    OR DATE_ADD(?, INTERVAL ? MINUTE) BETWEEN rv.date_heure_debut AND DATE_ADD(rv.date_heure_debut, INTERVAL rv.duree_minutes MINUTE)) " +
-            ") " +
             "ORDER BY u.nom_complet";
     
+    // Durée de rendez-vous considérée pour la recherche de médecins disponibles
+    static final int DEFAULT_APPOINTMENT_DURATION = 30;
+    
+    // Pas entre deux débuts de créneaux proposés
+    static final int SLOT_STEP_MINUTES = 15;
+    
     // Référence à la connexion à la base de données
     private final DatabaseConnection dbConnection;
     
     // Référence aux autres DAO pour les opérations communes
     private final UserDAO userDAO;
-    private final AppointmentDAO appointmentDAO;
+    
+    // Index mémoire partagé des rendez-vous par médecin
+    private final AppointmentIntervalIndex intervalIndex;
     
     /**
      * Constructeur par défaut.
@@ -63,8 +64,8 @@ public class DoctorDAOImpl implements DoctorDAO {
      */
     public DoctorDAOImpl() {
         this.dbConnection = DatabaseConnection.getInstance();
-        this.userDAO = new UserDAOImpl();
-        this.appointmentDAO = new AppointmentDAOImpl();
+        this.userDAO = DaoMetrics.instrument(new UserDAOImpl());
+        this.intervalIndex = AppointmentIntervalIndex.getInstance();
     }
     
     @Override
@@ -104,192 +105,189 @@ public class DoctorDAOImpl implements DoctorDAO {
     
     @Override
     public List<Doctor> getAvailableDoctors(LocalDateTime dateTime) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        List<Doctor> workingDoctors = new ArrayList<>();
         
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_GET_AVAILABLE_DOCTORS);
-            
-            // Par défaut, on considère une durée de rendez-vous de 30 minutes
-            int defaultDuration = 30;
-            
-            // Paramètres pour vérifier la disponibilité
-            stmt.setTimestamp(1, Timestamp.valueOf(dateTime));
-            stmt.setTimestamp(2, Timestamp.valueOf(dateTime));
-            stmt.setInt(3, defaultDuration);
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_GET_ACTIVE_DOCTORS);
+             ResultSet rs = stmt.executeQuery()) {
             
-            rs = stmt.executeQuery();
-            
-            List<Doctor> availableDoctors = new ArrayList<>();
-            while (rs.next()) {
-                Doctor doctor = createDoctorFromResultSet(rs);
+            for (Doctor doctor : RowMapper.mapAll(rs, UserDAOImpl.DOCTOR_MAPPER)) {
                 
-                // Vérifier également les horaires de disponibilité du médecin
+                // Vérifier les horaires de disponibilité du médecin
                 if (isDoctorWorkingHours(doctor, dateTime)) {
-                    availableDoctors.add(doctor);
+                    workingDoctors.add(doctor);
                 }
             }
             
-            return availableDoctors;
-            
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des médecins disponibles", e);
             throw new DAOException("Erreur lors de la récupération des médecins disponibles: " + e.getMessage(), 
                                 e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+        }
+        
+        if (workingDoctors.isEmpty()) {
+            return workingDoctors;
+        }
+        
+        // Écarter les médecins occupés à l'aide de l'index mémoire des rendez-vous
+        Set<Integer> doctorIds = new HashSet<>();
+        for (Doctor doctor : workingDoctors) {
+            doctorIds.add(doctor.getId());
+        }
+        Set<Integer> busyDoctors = intervalIndex.findBusyDoctors(doctorIds, dateTime,
+                dateTime.plusMinutes(DEFAULT_APPOINTMENT_DURATION));
+        
+        List<Doctor> availableDoctors = new ArrayList<>();
+        for (Doctor doctor : workingDoctors) {
+            if (!busyDoctors.contains(doctor.getId())) {
+                availableDoctors.add(doctor);
             }
         }
+        return availableDoctors;
     }
     
     @Override
     public List<String> getAvailableTimeSlots(int doctorId, LocalDate date) throws DAOException {
-        try {
-            // Récupérer le médecin
-            Doctor doctor = getDoctorById(doctorId);
-            if (doctor == null) {
-                throw new DAOException("Médecin non trouvé avec l'ID: " + doctorId, DAOException.RETRIEVAL_ERROR);
-            }
-            
-            // Récupérer les horaires de travail du médecin pour ce jour
-            Map<String, List<String>> workHours = doctor.getStructuredWorkHours();
-            String dayOfWeek = date.getDayOfWeek().toString().toLowerCase();
-            
-            if (!workHours.containsKey(dayOfWeek)) {
-                // Le médecin ne travaille pas ce jour-là
-                return new ArrayList<>();
-            }
-            
-            // Récupérer les plages horaires de travail de ce jour
-            List<String> dayWorkHours = workHours.get(dayOfWeek);
-            List<String> availableSlots = new ArrayList<>();
-            
-            // Pour chaque plage horaire de travail
-            for (String workSlot : dayWorkHours) {
-                String[] parts = workSlot.split("-");
-                if (parts.length == 2) {
-                    String startStr = parts[0].trim();
-                    String endStr = parts[1].trim();
-                    
-                    // Générer les créneaux disponibles avec un intervalle de 15 minutes
-                    List<String> slots = DateTimeUtils.generateTimeSlots(startStr, endStr, 15);
-                    
-                    // Récupérer les rendez-vous du médecin pour cette date
-                    List<Appointment> appointments = appointmentDAO.getAppointmentsByDoctorAndDate(doctorId, date);
-                    
-                    // Filtrer les créneaux déjà pris
-                    for (String slot : slots) {
-                        LocalTime slotTime = LocalTime.parse(slot, DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT));
-                        LocalDateTime slotDateTime = LocalDateTime.of(date, slotTime);
-                        
-                        boolean isAvailable = true;
-                        for (Appointment appointment : appointments) {
-                            LocalDateTime appointmentStart = appointment.getStartDateTime();
-                            LocalDateTime appointmentEnd = appointment.getEndDateTime();
-                            
-                            // Vérifier si le créneau est occupé
-                            if ((slotDateTime.isEqual(appointmentStart) || slotDateTime.isAfter(appointmentStart)) 
-                                && slotDateTime.isBefore(appointmentEnd)) {
-                                isAvailable = false;
-                                break;
-                            }
-                        }
-                        
-                        if (isAvailable) {
-                            availableSlots.add(slot);
-                        }
-                    }
-                }
-            }
-            
-            return availableSlots;
-            
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des créneaux disponibles", e);
-            throw new DAOException("Erreur lors de la récupération des créneaux disponibles: " + e.getMessage(), 
-                                e, DAOException.RETRIEVAL_ERROR);
+        return getAvailableTimeSlots(doctorId, date, SLOT_STEP_MINUTES);
+    }
+    
+    @Override
+    public List<String> getAvailableTimeSlots(int doctorId, LocalDate date, int durationMinutes) throws DAOException {
+        // Récupérer le médecin
+        Doctor doctor = getDoctorById(doctorId);
+        if (doctor == null) {
+            throw new DAOException("Médecin non trouvé avec l'ID: " + doctorId, DAOException.RETRIEVAL_ERROR);
         }
+        
+        // Un seul chargement des rendez-vous du jour (via l'index mémoire)
+        intervalIndex.preload(Collections.singleton(doctorId), date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        return computeAvailableTimeSlots(intervalIndex, doctor, date, durationMinutes);
     }
     
     /**
-     * Vérifie si un médecin travaille à une date et heure données
+     * Calcul en mémoire des créneaux libres d'un médecin pour un jour (sans accès à la
+     * base : la journée doit avoir été préchargée dans l'index)
      * 
-     * @param doctor Le médecin à vérifier
-     * @param dateTime La date et heure à vérifier
-     * @return true si le médecin travaille à ce moment, false sinon
+     * @param intervalIndex L'index des rendez-vous
+     * @param doctor Le médecin
+     * @param date Le jour concerné
+     * @param durationMinutes La durée du rendez-vous recherché
+     * @return Les heures de début libres, au format HH:mm
      */
-    private boolean isDoctorWorkingHours(Doctor doctor, LocalDateTime dateTime) {
-        try {
-            // Récupérer les horaires de travail du médecin
-            Map<String, List<String>> workHours = doctor.getStructuredWorkHours();
-            String dayOfWeek = dateTime.getDayOfWeek().toString().toLowerCase();
-            
-            if (!workHours.containsKey(dayOfWeek)) {
-                // Le médecin ne travaille pas ce jour-là
-                return false;
+    static List<String> computeAvailableTimeSlots(AppointmentIntervalIndex intervalIndex, Doctor doctor,
+                                                  LocalDate date, int durationMinutes) {
+        int[] workRanges = doctor.getWorkSchedule().ranges(date.getDayOfWeek());
+        DayBitmap day = buildDayBitmap(intervalIndex, doctor, date, workRanges);
+        
+        List<String> availableSlots = new ArrayList<>();
+        for (int minute : day.findFreeStarts(workRanges, durationMinutes, SLOT_STEP_MINUTES, 0, Integer.MAX_VALUE)) {
+            availableSlots.add(DateTimeUtils.formatTime(LocalTime.of(minute / 60, minute % 60)));
+        }
+        return availableSlots;
+    }
+    
+    @Override
+    public List<AvailableSlot> findFirstAvailableSlots(String specialty, LocalDate fromDate, int days,
+                                                       int durationMinutes, int limit) throws DAOException {
+        List<AvailableSlot> result = new ArrayList<>();
+        if (days <= 0 || limit <= 0) {
+            return result;
+        }
+        
+        // Médecins actifs de la spécialité
+        List<Doctor> doctors = new ArrayList<>();
+        Set<Integer> doctorIds = new HashSet<>();
+        for (Doctor doctor : userDAO.getDoctorsBySpecialty(specialty)) {
+            if (doctor.isActive()) {
+                doctors.add(doctor);
+                doctorIds.add(doctor.getId());
             }
-            
-            // Récupérer les plages horaires de travail de ce jour
-            List<String> dayWorkHours = workHours.get(dayOfWeek);
-            LocalTime checkTime = dateTime.toLocalTime();
-            
-            // Pour chaque plage horaire de travail
-            for (String workSlot : dayWorkHours) {
-                String[] parts = workSlot.split("-");
-                if (parts.length == 2) {
-                    LocalTime startTime = LocalTime.parse(parts[0].trim(), DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT));
-                    LocalTime endTime = LocalTime.parse(parts[1].trim(), DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT));
-                    
-                    // Vérifier si l'heure est dans cette plage
-                    if ((checkTime.equals(startTime) || checkTime.isAfter(startTime)) 
-                        && checkTime.isBefore(endTime)) {
-                        return true;
-                    }
-                }
+        }
+        if (doctors.isEmpty()) {
+            return result;
+        }
+        
+        // Une seule série de requêtes pour toute la période, puis calcul en mémoire
+        intervalIndex.preload(doctorIds, fromDate.atStartOfDay(), fromDate.plusDays(days).atStartOfDay());
+        return computeFirstAvailableSlots(intervalIndex, doctors, fromDate, days, durationMinutes, limit);
+    }
+    
+    /**
+     * Calcul en mémoire des premiers créneaux libres de plusieurs médecins (sans accès
+     * à la base : la période doit avoir été préchargée dans l'index)
+     * 
+     * @param intervalIndex L'index des rendez-vous
+     * @param doctors Les médecins candidats
+     * @param fromDate Le premier jour examiné
+     * @param days Le nombre de jours examinés
+     * @param durationMinutes La durée du rendez-vous recherché
+     * @param limit Le nombre maximal de créneaux retournés
+     * @return Les créneaux triés par heure de début puis par nom du médecin
+     */
+    static List<AvailableSlot> computeFirstAvailableSlots(AppointmentIntervalIndex intervalIndex, List<Doctor> doctors,
+                                                          LocalDate fromDate, int days, int durationMinutes, int limit) {
+        List<AvailableSlot> result = new ArrayList<>();
+        LocalDate endDate = fromDate.plusDays(days);
+        LocalDateTime now = LocalDateTime.now();
+        Comparator<AvailableSlot> order = Comparator.comparing(AvailableSlot::getStartDateTime)
+                .thenComparing(slot -> slot.getDoctor().getFullName(), Comparator.nullsLast(Comparator.naturalOrder()));
+        
+        for (LocalDate date = fromDate; date.isBefore(endDate) && result.size() < limit; date = date.plusDays(1)) {
+            if (date.isBefore(now.toLocalDate())) {
+                continue;
             }
+            final LocalDate day = date;
+            final int notBefore = day.equals(now.toLocalDate()) ? now.getHour() * 60 + now.getMinute() + 1 : 0;
+            final int remaining = limit - result.size();
             
-            return false;
-            
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Erreur lors de la vérification des horaires de travail", e);
-            return false;
+            // Balayer en parallèle les cartes journalières de tous les médecins
+            List<AvailableSlot> daySlots = doctors.parallelStream()
+                    .flatMap(doctor -> {
+                        int[] workRanges = doctor.getWorkSchedule().ranges(day.getDayOfWeek());
+                        return buildDayBitmap(intervalIndex, doctor, day, workRanges)
+                                .findFreeStarts(workRanges, durationMinutes, SLOT_STEP_MINUTES, notBefore, remaining).stream()
+                                .map(minute -> new AvailableSlot(doctor, day.atStartOfDay().plusMinutes(minute), durationMinutes));
+                    })
+                    .sorted(order)
+                    .limit(remaining)
+                    .collect(Collectors.toList());
+            result.addAll(daySlots);
         }
+        
+        return result;
     }
     
     /**
-     * Crée un objet Doctor à partir d'un ResultSet
+     * Construit la carte de disponibilité d'un médecin pour un jour :
+     * horaires de travail moins les rendez-vous actifs déjà présents dans l'index
      * 
-     * @param rs Le ResultSet contenant les données du médecin
-     * @return Un objet Doctor initialisé avec les données du ResultSet
-     * @throws SQLException En cas d'erreur d'accès aux données du ResultSet
+     * @param intervalIndex L'index des rendez-vous (période préchargée)
+     * @param doctor Le médecin
+     * @param date Le jour concerné
+     * @param workRanges Les plages de travail du jour (horaires compilés et mis en cache par Doctor)
+     * @return La carte des unités libres du jour
      */
-    private Doctor createDoctorFromResultSet(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id_utilisateur");
-        String username = rs.getString("nom_utilisateur");
-        String passwordHash = rs.getString("mot_de_passe_hash");
-        String fullName = rs.getString("nom_complet");
-        boolean active = rs.getBoolean("actif");
+    private static DayBitmap buildDayBitmap(AppointmentIntervalIndex intervalIndex, Doctor doctor, LocalDate date,
+                                            int[] workRanges) {
+        DayBitmap day = new DayBitmap();
         
-        // Convertir Timestamp en LocalDateTime
-        Timestamp creationTimestamp = rs.getTimestamp("date_creation_compte");
-        LocalDateTime creationDate = creationTimestamp != null
-                ? creationTimestamp.toLocalDateTime()
-                : LocalDateTime.now();
-        
-        // Données spécifiques au médecin
-        String specialty = rs.getString("specialite");
-        String workHours = rs.getString("horaires_disponibilite");
-        String professionalPhone = rs.getString("telephone_professionnel");
+        for (int i = 0; i < workRanges.length; i += 2) {
+            day.markFree(workRanges[i], workRanges[i + 1]);
+        }
         
-        return new Doctor(id, username, passwordHash, fullName, active, creationDate,
-                specialty, workHours, professionalPhone);
+        // Retirer les plages occupées
+        intervalIndex.markBusy(doctor.getId(), date, day);
+        return day;
+    }
+    
+    /**
+     * Vérifie si un médecin travaille à une date et heure données
+     * 
+     * @param doctor Le médecin à vérifier
+     * @param dateTime La date et heure à vérifier
+     * @return true si le médecin travaille à ce moment, false sinon
+     */
+    private boolean isDoctorWorkingHours(Doctor doctor, LocalDateTime dateTime) {
+        return doctor.getWorkSchedule().isWorking(dateTime);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,790 @@
+package dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import config.AppConfig;
+import model.Appointment;
+import model.AppointmentChanges;
+import model.AppointmentStatus;
+import model.AppointmentSummary;
+import model.BookingResult;
+import model.Doctor;
+import model.MonthLoad;
+import model.Secretary;
+
+/**
+ * Implémentation en mémoire de l'interface AppointmentDAO (voir InMemoryDatabase).
+ * Reproduit la sémantique de AppointmentDAOImpl : chevauchement recherché parmi les
+ * rendez-vous non annulés du médecin dont le début tombe dans [début - 24 h, fin),
+ * contraintes de clés étrangères, lots tout ou rien, tris (date_heure_debut, id_rendezvous),
+ * prochains rendez-vous à partir de l'heure courante, flux des modifications avec
+ * fenêtre de recouvrement et traces de suppression.
+ */
+final class InMemoryAppointmentDAO implements AppointmentDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(InMemoryAppointmentDAO.class.getName());
+
+    private final InMemoryDatabase db;
+
+    // DAO utilisés pour compléter les rendez-vous (patient, médecin, secrétaire)
+    private final PatientDAO patientDAO;
+    private final UserDAO userDAO;
+
+    InMemoryAppointmentDAO(InMemoryDatabase db, PatientDAO patientDAO, UserDAO userDAO) {
+        this.db = db;
+        this.patientDAO = patientDAO;
+        this.userDAO = userDAO;
+    }
+
+    @Override
+    public int addAppointment(Appointment appointment) throws DAOException {
+        BookingResult result = bookAppointment(appointment);
+
+        if (!result.isBooked()) {
+            String message = result.getOutcome() == BookingResult.Outcome.CONFLIT
+                    ? AppConfig.ErrorMessages.APPOINTMENT_CONFLICT : result.getMessage();
+            throw new DAOException(message, DAOException.CONSTRAINT_VIOLATION);
+        }
+        return result.getAppointmentId();
+    }
+
+    @Override
+    public BookingResult bookAppointment(Appointment appointment) throws DAOException {
+        AppointmentDAOImpl.checkDuration(appointment, DAOException.INSERTION_ERROR);
+
+        LocalDateTime now = InMemoryDatabase.now();
+        if (appointment.getCreationDateTime() == null) {
+            appointment.setCreationDateTime(now);
+        }
+        if (appointment.getLastModifiedDateTime() == null) {
+            appointment.setLastModifiedDateTime(now);
+        }
+
+        db.lock.writeLock().lock();
+        try {
+            if (!(db.users.get(appointment.getDoctorId()) instanceof Doctor)) {
+                return BookingResult.unknownDoctor();
+            }
+
+            int conflictingId = findConflictingAppointment(appointment.getDoctorId(),
+                    appointment.getStartDateTime(), appointment.getEndDateTime(), 0);
+            if (conflictingId > 0) {
+                return BookingResult.conflict(conflictingId);
+            }
+
+            checkReferences(appointment, DAOException.INSERTION_ERROR);
+            return BookingResult.booked(insert(appointment));
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] addAppointments(List<Appointment> appointments) throws DAOException {
+        int[] appointmentIds = new int[appointments.size()];
+        if (appointments.isEmpty()) {
+            return appointmentIds;
+        }
+
+        LocalDateTime now = InMemoryDatabase.now();
+        for (Appointment appointment : appointments) {
+            AppointmentDAOImpl.checkDuration(appointment, DAOException.INSERTION_ERROR);
+            if (appointment.getCreationDateTime() == null) {
+                appointment.setCreationDateTime(now);
+            }
+            if (appointment.getLastModifiedDateTime() == null) {
+                appointment.setLastModifiedDateTime(now);
+            }
+        }
+
+        db.lock.writeLock().lock();
+        try {
+            // Toutes les vérifications avant la première insertion : le lot est enregistré en entier ou pas du tout
+            Map<Integer, List<Appointment>> byDoctor = new TreeMap<>();
+            for (Appointment appointment : appointments) {
+                byDoctor.computeIfAbsent(appointment.getDoctorId(), k -> new ArrayList<>()).add(appointment);
+            }
+            for (Map.Entry<Integer, List<Appointment>> entry : byDoctor.entrySet()) {
+                if (!(db.users.get(entry.getKey()) instanceof Doctor)) {
+                    throw new DAOException("Le médecin sélectionné n'existe pas. ID: " + entry.getKey(),
+                            DAOException.CONSTRAINT_VIOLATION);
+                }
+                checkNoConflictInBatch(entry.getKey(), entry.getValue());
+            }
+            for (Appointment appointment : appointments) {
+                checkReferences(appointment, DAOException.INSERTION_ERROR);
+            }
+
+            for (int i = 0; i < appointmentIds.length; i++) {
+                appointmentIds[i] = insert(appointments.get(i));
+            }
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+
+        LOGGER.info(appointmentIds.length + " rendez-vous ajoutés par lots");
+        return appointmentIds;
+    }
+
+    /**
+     * Insère un rendez-vous (appelé sous verrou en écriture, vérifications faites)
+     *
+     * @return L'ID attribué, également renseigné sur le rendez-vous
+     */
+    private int insert(Appointment appointment) {
+        int appointmentId = ++db.lastAppointmentId;
+        appointment.setId(appointmentId);
+        db.putAppointment(InMemoryDatabase.copy(appointment));
+        return appointmentId;
+    }
+
+    /**
+     * Vérifie les clés étrangères patient et secrétaire (appelé sous verrou)
+     *
+     * @param appointment Le rendez-vous à enregistrer
+     * @param errorCode Le code d'erreur de l'opération
+     * @throws DAOException Si le patient ou la secrétaire n'existe pas
+     */
+    private void checkReferences(Appointment appointment, int errorCode) throws DAOException {
+        if (!db.patients.containsKey(appointment.getPatientId())) {
+            throw new DAOException("Le patient du rendez-vous n'existe pas. ID: " + appointment.getPatientId(),
+                    errorCode);
+        }
+        if (!db.users.containsKey(appointment.getSecretaryId())) {
+            throw new DAOException("L'utilisateur ayant créé le rendez-vous n'existe pas. ID: "
+                    + appointment.getSecretaryId(), errorCode);
+        }
+    }
+
+    /**
+     * Vérifie qu'un lot de rendez-vous d'un même médecin ne chevauche ni les rendez-vous
+     * actifs enregistrés, ni d'autres rendez-vous du lot (appelé sous verrou en écriture)
+     *
+     * @throws DAOException Si un créneau est déjà occupé
+     */
+    private void checkNoConflictInBatch(int doctorId, List<Appointment> batch) throws DAOException {
+        List<Appointment> active = new ArrayList<>(batch.size());
+        for (Appointment appointment : batch) {
+            if (!appointment.isCancelled()) {
+                active.add(appointment);
+            }
+        }
+        active.sort((x, y) -> x.getStartDateTime().compareTo(y.getStartDateTime()));
+
+        LocalDateTime maxBatchEnd = null;
+        for (Appointment appointment : active) {
+            if ((maxBatchEnd != null && appointment.getStartDateTime().isBefore(maxBatchEnd))
+                    || findConflictingAppointment(doctorId, appointment.getStartDateTime(),
+                            appointment.getEndDateTime(), 0) > 0) {
+                throw new DAOException(AppConfig.ErrorMessages.APPOINTMENT_CONFLICT,
+                        DAOException.CONSTRAINT_VIOLATION);
+            }
+            if (maxBatchEnd == null || appointment.getEndDateTime().isAfter(maxBatchEnd)) {
+                maxBatchEnd = appointment.getEndDateTime();
+            }
+        }
+    }
+
+    /**
+     * Recherche un rendez-vous non annulé du médecin chevauchant [start, end), parmi ceux
+     * dont le début tombe dans [start - MAX_APPOINTMENT_MINUTES, end) (appelé sous verrou)
+     *
+     * @param excludeAppointmentId ID du rendez-vous à exclure (0 pour aucun)
+     * @return L'ID du rendez-vous en conflit, ou 0 si le créneau est libre
+     */
+    private int findConflictingAppointment(int doctorId, LocalDateTime start, LocalDateTime end,
+                                           int excludeAppointmentId) {
+        for (Appointment row : InMemoryDatabase.startingBetween(db.appointmentsByDoctor.get(doctorId),
+                start.minusMinutes(AppointmentDAOImpl.MAX_APPOINTMENT_MINUTES), end)) {
+            if (row.getId() != excludeAppointmentId && !row.isCancelled() && row.getEndDateTime().isAfter(start)) {
+                return row.getId();
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void updateAppointment(Appointment appointment) throws DAOException {
+        AppointmentDAOImpl.checkDuration(appointment, DAOException.UPDATE_ERROR);
+
+        db.lock.writeLock().lock();
+        try {
+            // Garde finale : un rendez-vous annulé ne peut pas entrer en conflit
+            if (!appointment.isCancelled() && findConflictingAppointment(appointment.getDoctorId(),
+                    appointment.getStartDateTime(), appointment.getEndDateTime(), appointment.getId()) > 0) {
+                throw new DAOException(AppConfig.ErrorMessages.APPOINTMENT_CONFLICT,
+                        DAOException.CONSTRAINT_VIOLATION);
+            }
+
+            Appointment previous = db.appointments.get(appointment.getId());
+            if (previous == null) {
+                throw new DAOException(
+                        "La mise à jour du rendez-vous a échoué, aucune ligne affectée. ID: " + appointment.getId(),
+                        DAOException.UPDATE_ERROR);
+            }
+            if (!(db.users.get(appointment.getDoctorId()) instanceof Doctor)) {
+                throw new DAOException("Le médecin sélectionné n'existe pas. ID: " + appointment.getDoctorId(),
+                        DAOException.UPDATE_ERROR);
+            }
+            if (!db.patients.containsKey(appointment.getPatientId())) {
+                throw new DAOException("Le patient du rendez-vous n'existe pas. ID: " + appointment.getPatientId(),
+                        DAOException.UPDATE_ERROR);
+            }
+
+            // Mettre à jour la date de dernière modification
+            appointment.setLastModifiedDateTime(InMemoryDatabase.now());
+
+            // Ni la secrétaire ni la date de création ne sont modifiées (SQL_UPDATE_APPOINTMENT)
+            Appointment row = InMemoryDatabase.copy(appointment);
+            row.setSecretaryId(previous.getSecretaryId());
+            row.setCreationDateTime(previous.getCreationDateTime());
+            db.putAppointment(row);
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAppointment(int appointmentId) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            Appointment previous = db.removeAppointment(appointmentId);
+            if (previous == null) {
+                throw new DAOException(
+                        "La suppression du rendez-vous a échoué, aucune ligne affectée. ID: " + appointmentId,
+                        DAOException.DELETION_ERROR);
+            }
+
+            // La trace et la suppression sont enregistrées ensemble, les traces expirées purgées
+            LocalDateTime now = InMemoryDatabase.now();
+            db.tombstones.addLast(new InMemoryDatabase.Tombstone(appointmentId, previous.getDoctorId(),
+                    previous.getStartDateTime(), now));
+            LocalDateTime expired = now.minusDays(AppointmentDAOImpl.TOMBSTONE_RETENTION_DAYS);
+            while (db.tombstones.peekFirst().deletedAt.isBefore(expired)) {
+                db.tombstones.pollFirst();
+            }
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateAppointmentStatus(int appointmentId, AppointmentStatus status) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            if (!changeStatus(appointmentId, status, InMemoryDatabase.now())) {
+                throw new DAOException(
+                        "La mise à jour du statut du rendez-vous a échoué, aucune ligne affectée. ID: " + appointmentId,
+                        DAOException.UPDATE_ERROR);
+            }
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int updateAppointmentStatuses(Map<Integer, AppointmentStatus> statuses) throws DAOException {
+        int rowsAffected = 0;
+        if (statuses.isEmpty()) {
+            return rowsAffected;
+        }
+
+        LocalDateTime now = InMemoryDatabase.now();
+        db.lock.writeLock().lock();
+        try {
+            for (Map.Entry<Integer, AppointmentStatus> entry : statuses.entrySet()) {
+                if (changeStatus(entry.getKey(), entry.getValue(), now)) {
+                    rowsAffected++;
+                }
+            }
+            return rowsAffected;
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> cancelDoctorDay(int doctorId, LocalDate date) throws DAOException {
+        List<Integer> cancelledIds = new ArrayList<>();
+        LocalDateTime now = InMemoryDatabase.now();
+
+        db.lock.writeLock().lock();
+        try {
+            for (Appointment row : InMemoryDatabase.startingBetween(db.appointmentsByDoctor.get(doctorId),
+                    date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+                if (row.getStatus() == AppointmentStatus.PLANIFIE || row.getStatus() == AppointmentStatus.CONFIRME) {
+                    cancelledIds.add(row.getId());
+                }
+            }
+            // Modifications après le parcours : elles réordonnent l'index parcouru
+            for (Integer id : cancelledIds) {
+                changeStatus(id, AppointmentStatus.ANNULE_CABINET, now);
+            }
+            return cancelledIds;
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change le statut d'un rendez-vous (appelé sous verrou en écriture)
+     *
+     * @return false si le rendez-vous n'existe pas
+     */
+    private boolean changeStatus(int appointmentId, AppointmentStatus status, LocalDateTime now) {
+        Appointment previous = db.appointments.get(appointmentId);
+        if (previous == null) {
+            return false;
+        }
+        Appointment row = InMemoryDatabase.copy(previous);
+        row.setStatus(status);
+        row.setLastModifiedDateTime(now);
+        db.putAppointment(row);
+        return true;
+    }
+
+    @Override
+    public Appointment getAppointmentById(int appointmentId) throws DAOException {
+        Appointment appointment;
+
+        db.lock.readLock().lock();
+        try {
+            Appointment row = db.appointments.get(appointmentId);
+            if (row == null) {
+                return null; // Aucun rendez-vous trouvé
+            }
+            appointment = InMemoryDatabase.copy(row);
+        } finally {
+            db.lock.readLock().unlock();
+        }
+
+        loadRelatedObjects(Collections.singletonList(appointment));
+        return appointment;
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByPatient(int patientId) throws DAOException {
+        return loadAppointments(() -> db.appointmentsByPatient.get(patientId), row -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDoctor(int doctorId) throws DAOException {
+        return loadAppointments(() -> db.appointmentsByDoctor.get(doctorId), row -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws DAOException {
+        // Vérifier si la date est nulle et utiliser la date du jour
+        if (date == null) {
+            date = LocalDate.now();
+            LOGGER.warning("Date nulle fournie à getAppointmentsByDoctorAndDate, utilisation de la date du jour");
+        }
+        return getAppointmentsByDoctorAndDateRange(doctorId, date, date);
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDoctorAndDateRange(int doctorId, LocalDate startDate, LocalDate endDate)
+            throws DAOException {
+        if (startDate == null) {
+            startDate = LocalDate.now();
+            LOGGER.warning(
+                    "Date de début nulle fournie à getAppointmentsByDoctorAndDateRange, utilisation de la date du jour");
+        }
+        if (endDate == null) {
+            endDate = startDate.plusDays(6);
+            LOGGER.warning(
+                    "Date de fin nulle fournie à getAppointmentsByDoctorAndDateRange, utilisation de startDate + 6 jours");
+        }
+
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        return loadAppointments(() -> InMemoryDatabase.startingBetween(db.appointmentsByDoctor.get(doctorId), from, to),
+                row -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean hasAppointmentConflict(int doctorId, LocalDateTime startDateTime, LocalDateTime endDateTime,
+            int excludeAppointmentId) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            return findConflictingAppointment(doctorId, startDateTime, endDateTime, excludeAppointmentId) > 0;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDate(LocalDate date) throws DAOException {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        return loadAppointments(() -> InMemoryDatabase.startingBetween(db.appointmentsByStart, from, to),
+                row -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummaries(LocalDateTime from, LocalDateTime to, int doctorId)
+            throws DAOException {
+        return getAppointmentSummariesPage(from, to, doctorId, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummariesForDoctors(LocalDateTime from, LocalDateTime to,
+            Collection<Integer> doctorIds) throws DAOException {
+        List<AppointmentSummary> summaries = new ArrayList<>();
+        if (doctorIds == null || doctorIds.isEmpty()) {
+            return summaries;
+        }
+
+        db.lock.readLock().lock();
+        try {
+            // Ordre (id_medecin_fk, date_heure_debut, id_rendezvous)
+            for (Integer doctorId : new TreeSet<>(doctorIds)) {
+                for (Appointment row : InMemoryDatabase.startingBetween(db.appointmentsByDoctor.get(doctorId),
+                        from, to)) {
+                    summaries.add(db.toSummary(row));
+                }
+            }
+            return summaries;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public AppointmentChanges getAppointmentsChangedSince(LocalDateTime watermark) throws DAOException {
+        // Heure lue avant les changements : elle devient le prochain filigrane
+        LocalDateTime serverNow = InMemoryDatabase.now();
+
+        List<AppointmentSummary> updated = new ArrayList<>();
+        List<AppointmentChanges.Deletion> deletions = new ArrayList<>();
+        if (watermark == null) {
+            return new AppointmentChanges(serverNow, updated, deletions, false);
+        }
+        if (watermark.isBefore(serverNow.minusDays(AppointmentDAOImpl.TOMBSTONE_RETENTION_DAYS))) {
+            return new AppointmentChanges(serverNow, updated, deletions, true);
+        }
+
+        // Même fenêtre de recouvrement que la base, pour un comportement identique des vues
+        LocalDateTime from = watermark.minusSeconds(AppConfig.CHANGE_FEED_OVERLAP_SECONDS);
+        int maxChanges = AppointmentDAOImpl.MAX_CHANGES;
+
+        db.lock.readLock().lock();
+        try {
+            for (Appointment row : db.appointmentsByLastModified.tailSet(InMemoryDatabase.lastModifiedKey(from), true)) {
+                if (updated.size() > maxChanges) {
+                    break;
+                }
+                updated.add(db.toSummary(row));
+            }
+
+            // Traces par date de suppression croissante : parcours depuis la plus récente
+            Iterator<InMemoryDatabase.Tombstone> newestFirst = db.tombstones.descendingIterator();
+            while (newestFirst.hasNext() && deletions.size() <= maxChanges) {
+                InMemoryDatabase.Tombstone tombstone = newestFirst.next();
+                if (tombstone.deletedAt.isBefore(from)) {
+                    break;
+                }
+                deletions.add(new AppointmentChanges.Deletion(tombstone.appointmentId, tombstone.doctorId,
+                        tombstone.startDateTime));
+            }
+            Collections.reverse(deletions);
+        } finally {
+            db.lock.readLock().unlock();
+        }
+
+        if (updated.size() + deletions.size() > maxChanges) {
+            LOGGER.info("Plus de " + maxChanges + " modifications de rendez-vous depuis " + watermark
+                    + " : rechargement complet demandé");
+            return new AppointmentChanges(serverNow, Collections.emptyList(), Collections.emptyList(), true);
+        }
+        return new AppointmentChanges(serverNow, updated, deletions, false);
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummariesPage(LocalDateTime from, LocalDateTime to, int doctorId,
+            AppointmentSummary after, int limit) throws DAOException {
+        List<AppointmentSummary> summaries = new ArrayList<>();
+
+        db.lock.readLock().lock();
+        try {
+            NavigableSet<Appointment> rows = InMemoryDatabase.startingBetween(
+                    doctorId > 0 ? db.appointmentsByDoctor.get(doctorId) : db.appointmentsByStart, from, to);
+            if (after != null) {
+                rows = rows.tailSet(InMemoryDatabase.startKey(after.getStartDateTime(), after.getId()), false);
+            }
+            for (Appointment row : rows) {
+                if (summaries.size() >= limit) {
+                    break;
+                }
+                summaries.add(db.toSummary(row));
+            }
+            return summaries;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummariesByPatient(int patientId) throws DAOException {
+        List<AppointmentSummary> summaries = new ArrayList<>();
+
+        db.lock.readLock().lock();
+        try {
+            NavigableSet<Appointment> rows = db.appointmentsByPatient.get(patientId);
+            if (rows != null) {
+                for (Appointment row : rows) {
+                    summaries.add(db.toSummary(row));
+                }
+            }
+            return summaries;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByStatus(AppointmentStatus status) throws DAOException {
+        return loadAppointments(() -> db.appointmentsByStatus.get(status), row -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int countAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            int count = 0;
+            for (Appointment row : InMemoryDatabase.startingBetween(db.appointmentsByDoctor.get(doctorId),
+                    date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+                if (!row.isCancelled()) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public MonthLoad getMonthLoad(int doctorId, YearMonth month) throws DAOException {
+        int[] counts = new int[month.lengthOfMonth()];
+        int[] minutes = new int[month.lengthOfMonth()];
+
+        db.lock.readLock().lock();
+        try {
+            for (Appointment row : InMemoryDatabase.startingBetween(
+                    doctorId > 0 ? db.appointmentsByDoctor.get(doctorId) : db.appointmentsByStart,
+                    month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay())) {
+                if (!row.isCancelled()) {
+                    int day = row.getStartDateTime().getDayOfMonth() - 1;
+                    counts[day]++;
+                    minutes[day] += row.getDurationMinutes();
+                }
+            }
+        } finally {
+            db.lock.readLock().unlock();
+        }
+        return new MonthLoad(doctorId, month, counts, minutes);
+    }
+
+    @Override
+    public List<Appointment> getUpcomingAppointmentsByPatient(int patientId, int limit) throws DAOException {
+        LocalDateTime now = LocalDateTime.now();
+        return loadAppointments(() -> startingFrom(db.appointmentsByPatient.get(patientId), now),
+                row -> !row.isCancelled() && row.getStatus() != AppointmentStatus.REALISE
+                        && row.getStatus() != AppointmentStatus.ABSENT, limit);
+    }
+
+    @Override
+    public List<Appointment> getUpcomingAppointmentsByDoctor(int doctorId, int limit) throws DAOException {
+        LocalDateTime now = LocalDateTime.now();
+        return loadAppointments(() -> startingFrom(db.appointmentsByDoctor.get(doctorId), now),
+                row -> !row.isCancelled(), limit);
+    }
+
+    /**
+     * Rendez-vous d'un index dont le début est postérieur ou égal à from
+     */
+    private static NavigableSet<Appointment> startingFrom(NavigableSet<Appointment> rows, LocalDateTime from) {
+        return rows == null ? null : rows.tailSet(InMemoryDatabase.startKey(from, Integer.MIN_VALUE), true);
+    }
+
+    @Override
+    public List<Appointment> searchAppointmentsByCriteria(Map<String, Object> criteria) throws DAOException {
+        if (criteria == null || criteria.isEmpty()) {
+            throw new DAOException("Critères de recherche non spécifiés", DAOException.RETRIEVAL_ERROR);
+        }
+
+        // Index de départ le plus sélectif, plage de début restreinte, puis filtres
+        Integer doctorId = null;
+        Integer patientId = null;
+        AppointmentStatus status = null;
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        Predicate<Appointment> filter = row -> true;
+
+        for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+
+            if (value != null) {
+                switch (key) {
+                    case "doctorId":
+                        int doctor = toInt(value);
+                        doctorId = doctor;
+                        filter = filter.and(row -> row.getDoctorId() == doctor);
+                        break;
+                    case "patientId":
+                        int patient = toInt(value);
+                        patientId = patient;
+                        filter = filter.and(row -> row.getPatientId() == patient);
+                        break;
+                    case "status":
+                        if (value instanceof AppointmentStatus) {
+                            AppointmentStatus wanted = (AppointmentStatus) value;
+                            status = wanted;
+                            filter = filter.and(row -> row.getStatus() == wanted);
+                        } else if (value instanceof String) {
+                            String wanted = (String) value;
+                            filter = filter.and(row -> row.getStatus().name().equalsIgnoreCase(wanted));
+                        }
+                        break;
+                    case "date":
+                        if (value instanceof LocalDate) {
+                            from = later(from, ((LocalDate) value).atStartOfDay());
+                            to = earlier(to, ((LocalDate) value).plusDays(1).atStartOfDay());
+                        }
+                        break;
+                    case "startDateMin":
+                        if (value instanceof LocalDateTime) {
+                            from = later(from, (LocalDateTime) value);
+                        } else if (value instanceof LocalDate) {
+                            from = later(from, ((LocalDate) value).atStartOfDay());
+                        }
+                        break;
+                    case "startDateMax":
+                        if (value instanceof LocalDateTime) {
+                            // Borne incluse
+                            to = earlier(to, ((LocalDateTime) value).plusNanos(1));
+                        } else if (value instanceof LocalDate) {
+                            // Jour inclus : borne exclusive au début du jour suivant
+                            to = earlier(to, ((LocalDate) value).plusDays(1).atStartOfDay());
+                        }
+                        break;
+                    case "appointmentType":
+                        String type = value.toString();
+                        filter = filter.and(row -> InMemoryDatabase.NAME_ORDER.compare(type, row.getAppointmentType()) == 0);
+                        break;
+                    case "patientName":
+                        if (!PatientSearchIndex.nameTerms(value.toString()).isEmpty()) {
+                            Set<Integer> patientIds = new HashSet<>(
+                                    db.patientSearchIndex.searchByName(value.toString(), "", Integer.MAX_VALUE));
+                            filter = filter.and(row -> patientIds.contains(row.getPatientId()));
+                        }
+                        break;
+                    default:
+                        LOGGER.warning("Critère de recherche inconnu ignoré: " + key);
+                        break;
+                }
+            }
+        }
+
+        final Integer byDoctor = doctorId;
+        final Integer byPatient = patientId;
+        final AppointmentStatus byStatus = status;
+        final LocalDateTime rangeStart = from;
+        final LocalDateTime rangeEnd = to;
+        return loadAppointments(() -> {
+            NavigableSet<Appointment> rows = byDoctor != null ? db.appointmentsByDoctor.get(byDoctor)
+                    : byPatient != null ? db.appointmentsByPatient.get(byPatient)
+                    : byStatus != null ? db.appointmentsByStatus.get(byStatus)
+                    : db.appointmentsByStart;
+            if (rows == null) {
+                return null;
+            }
+            if (rangeStart != null) {
+                rows = rows.tailSet(InMemoryDatabase.startKey(rangeStart, Integer.MIN_VALUE), true);
+            }
+            if (rangeEnd != null) {
+                rows = rows.headSet(InMemoryDatabase.startKey(rangeEnd, Integer.MIN_VALUE), false);
+            }
+            return rows;
+        }, filter, Integer.MAX_VALUE);
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+    }
+
+    private static LocalDateTime later(LocalDateTime current, LocalDateTime bound) {
+        return current == null || bound.isAfter(current) ? bound : current;
+    }
+
+    private static LocalDateTime earlier(LocalDateTime current, LocalDateTime bound) {
+        return current == null || bound.isBefore(current) ? bound : current;
+    }
+
+    /**
+     * Source de lignes évaluée sous verrou en lecture (un index ou une de ses vues)
+     */
+    private interface RowSource {
+        NavigableSet<Appointment> rows();
+    }
+
+    /**
+     * Copie, sous verrou en lecture, les lignes acceptées par le filtre, puis charge
+     * les objets liés une fois le verrou relâché
+     *
+     * @param source Les lignes à parcourir, par heure de début (null pour aucune)
+     * @param filter Le filtre des lignes
+     * @param limit Le nombre maximal de rendez-vous retournés
+     * @return Les rendez-vous complétés
+     * @throws DAOException En cas d'erreur lors du chargement des objets liés
+     */
+    private List<Appointment> loadAppointments(RowSource source, Predicate<Appointment> filter, int limit)
+            throws DAOException {
+        List<Appointment> appointments = new ArrayList<>();
+
+        db.lock.readLock().lock();
+        try {
+            NavigableSet<Appointment> rows = source.rows();
+            if (rows != null) {
+                for (Appointment row : rows) {
+                    if (appointments.size() >= limit) {
+                        break;
+                    }
+                    if (filter.test(row)) {
+                        appointments.add(InMemoryDatabase.copy(row));
+                    }
+                }
+            }
+        } finally {
+            db.lock.readLock().unlock();
+        }
+
+        loadRelatedObjects(appointments);
+        return appointments;
+    }
+
+    /**
+     * Charge les objets Patient, Doctor et Secretary liés à une liste de rendez-vous
+     * (même chargeur groupé que AppointmentDAOImpl)
+     */
+    private void loadRelatedObjects(List<Appointment> appointments) throws DAOException {
+        new RelatedObjectLoader(patientDAO, userDAO).load(appointments);
+    }
+}
@@ -0,0 +1,295 @@
+package dao;
+
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import model.Appointment;
+import model.AppointmentStatus;
+import model.AppointmentSummary;
+import model.Doctor;
+import model.Patient;
+import model.PatientSummary;
+import model.Secretary;
+import model.User;
+
+/**
+ * Base de données en mémoire partagée par les DAO en mémoire (tests de charge, mode hors ligne).
+ * Elle reproduit les tables utilisateurs/medecins, patients, rendez_vous et
+ * rendez_vous_suppressions, avec leurs index secondaires :
+ * rendez-vous par heure de début, par médecin et heure, par patient et heure, par statut
+ * et par date de dernière modification ; patients par nom, prénom et ID.
+ *
+ * Un verrou lecture/écriture unique joue le rôle des transactions : les lectures
+ * s'exécutent en parallèle, chaque écriture (contrôle de chevauchement compris) est
+ * atomique et les contraintes entre tables se vérifient sans risque d'interblocage.
+ * Les lignes stockées ne sont jamais exposées ni modifiées sur place : une écriture
+ * remplace la ligne par une copie, une lecture retourne des copies.
+ */
+final class InMemoryDatabase {
+
+    /**
+     * Trace d'un rendez-vous supprimé (table rendez_vous_suppressions)
+     */
+    static final class Tombstone {
+        final int appointmentId;
+        final int doctorId;
+        final LocalDateTime startDateTime;
+        final LocalDateTime deletedAt;
+
+        Tombstone(int appointmentId, int doctorId, LocalDateTime startDateTime, LocalDateTime deletedAt) {
+            this.appointmentId = appointmentId;
+            this.doctorId = doctorId;
+            this.startDateTime = startDateTime;
+            this.deletedAt = deletedAt;
+        }
+    }
+
+    // Comparaison des noms comme la collation de la base : sans casse ni accents
+    private static final Collator COLLATOR = Collator.getInstance(Locale.FRENCH);
+    static {
+        COLLATOR.setStrength(Collator.PRIMARY);
+    }
+
+    static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(COLLATOR::compare);
+
+    // Ordre (date_heure_debut, id_rendezvous) des requêtes de rendez-vous
+    static final Comparator<Appointment> START_ORDER = Comparator.comparing(Appointment::getStartDateTime)
+            .thenComparingInt(Appointment::getId);
+
+    private static final Comparator<Appointment> LAST_MODIFIED_ORDER =
+            Comparator.comparing(Appointment::getLastModifiedDateTime).thenComparingInt(Appointment::getId);
+
+    // Ordre (nom, prenom, id_patient) de la liste des patients
+    static final Comparator<Patient> PATIENT_ORDER = Comparator.comparing(Patient::getLastName, NAME_ORDER)
+            .thenComparing(Patient::getFirstName, NAME_ORDER)
+            .thenComparingInt(Patient::getId);
+
+    static final Comparator<User> USER_ORDER = Comparator.comparing(User::getFullName, NAME_ORDER)
+            .thenComparingInt(User::getId);
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Table utilisateurs (médecins compris) et index unique sur le nom d'utilisateur
+    final Map<Integer, User> users = new HashMap<>();
+    final Map<String, Integer> userIdsByUsername = new HashMap<>();
+    int lastUserId;
+
+    // Table patients, index (nom, prenom, id) et index de recherche autonome
+    final Map<Integer, Patient> patients = new HashMap<>();
+    final NavigableSet<Patient> patientsByName = new TreeSet<>(PATIENT_ORDER);
+    final PatientSearchIndex patientSearchIndex = new PatientSearchIndex(null);
+    int lastPatientId;
+
+    // Table rendez_vous et ses index secondaires
+    final Map<Integer, Appointment> appointments = new HashMap<>();
+    final NavigableSet<Appointment> appointmentsByStart = new TreeSet<>(START_ORDER);
+    final Map<Integer, NavigableSet<Appointment>> appointmentsByDoctor = new HashMap<>();
+    final Map<Integer, NavigableSet<Appointment>> appointmentsByPatient = new HashMap<>();
+    final Map<AppointmentStatus, NavigableSet<Appointment>> appointmentsByStatus = new EnumMap<>(AppointmentStatus.class);
+    final NavigableSet<Appointment> appointmentsByLastModified = new TreeSet<>(LAST_MODIFIED_ORDER);
+    int lastAppointmentId;
+
+    // Chronologies des rendez-vous actifs, utilisées pour le calcul des créneaux libres
+    final AppointmentIntervalIndex intervalIndex = new AppointmentIntervalIndex(null);
+
+    // Table rendez_vous_suppressions, par date de suppression croissante
+    final Deque<Tombstone> tombstones = new ArrayDeque<>();
+
+    /**
+     * Heure courante à la précision d'une colonne DATETIME
+     */
+    static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Enregistre (ou remplace) un utilisateur (appelé sous verrou en écriture)
+     */
+    void putUser(User row) {
+        User previous = users.put(row.getId(), row);
+        if (previous != null) {
+            userIdsByUsername.remove(usernameKey(previous.getUsername()));
+        }
+        userIdsByUsername.put(usernameKey(row.getUsername()), row.getId());
+    }
+
+    /**
+     * Clé de l'index unique des noms d'utilisateur (comparaison sans casse, comme la base)
+     */
+    static String usernameKey(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Enregistre (ou remplace) un patient (appelé sous verrou en écriture)
+     */
+    void putPatient(Patient row) {
+        Patient previous = patients.put(row.getId(), row);
+        if (previous != null) {
+            patientsByName.remove(previous);
+        }
+        patientsByName.add(row);
+        patientSearchIndex.recordPatient(row);
+    }
+
+    /**
+     * Supprime un patient (appelé sous verrou en écriture)
+     *
+     * @return La ligne supprimée, ou null si le patient n'existe pas
+     */
+    Patient removePatient(int patientId) {
+        Patient previous = patients.remove(patientId);
+        if (previous != null) {
+            patientsByName.remove(previous);
+            patientSearchIndex.recordDeletion(patientId);
+        }
+        return previous;
+    }
+
+    /**
+     * Enregistre (ou remplace) un rendez-vous et met à jour tous les index
+     * (appelé sous verrou en écriture)
+     */
+    void putAppointment(Appointment row) {
+        Appointment previous = appointments.put(row.getId(), row);
+        if (previous != null) {
+            unindex(previous);
+        }
+        appointmentsByStart.add(row);
+        appointmentsByDoctor.computeIfAbsent(row.getDoctorId(), k -> new TreeSet<>(START_ORDER)).add(row);
+        appointmentsByPatient.computeIfAbsent(row.getPatientId(), k -> new TreeSet<>(START_ORDER)).add(row);
+        appointmentsByStatus.computeIfAbsent(row.getStatus(), k -> new TreeSet<>(START_ORDER)).add(row);
+        appointmentsByLastModified.add(row);
+        intervalIndex.recordAppointment(row);
+    }
+
+    /**
+     * Supprime un rendez-vous de la table et de ses index (appelé sous verrou en écriture)
+     *
+     * @return La ligne supprimée, ou null si le rendez-vous n'existe pas
+     */
+    Appointment removeAppointment(int appointmentId) {
+        Appointment previous = appointments.remove(appointmentId);
+        if (previous != null) {
+            unindex(previous);
+            intervalIndex.recordDeletion(appointmentId);
+        }
+        return previous;
+    }
+
+    private void unindex(Appointment row) {
+        appointmentsByStart.remove(row);
+        removeFrom(appointmentsByDoctor, row.getDoctorId(), row);
+        removeFrom(appointmentsByPatient, row.getPatientId(), row);
+        removeFrom(appointmentsByStatus, row.getStatus(), row);
+        appointmentsByLastModified.remove(row);
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<Appointment>> index, K key, Appointment row) {
+        NavigableSet<Appointment> rows = index.get(key);
+        if (rows != null && rows.remove(row) && rows.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Clé de recherche dans les index ordonnés par (date_heure_debut, id_rendezvous)
+     *
+     * @param start L'heure de début
+     * @param id L'ID (Integer.MIN_VALUE pour une borne placée avant tous les rendez-vous de cette heure)
+     * @return Un rendez-vous servant uniquement de borne
+     */
+    static Appointment startKey(LocalDateTime start, int id) {
+        Appointment key = new Appointment();
+        key.setStartDateTime(start);
+        key.setId(id);
+        return key;
+    }
+
+    /**
+     * Clé de recherche dans l'index par date de dernière modification
+     */
+    static Appointment lastModifiedKey(LocalDateTime lastModified) {
+        Appointment key = new Appointment();
+        key.setLastModifiedDateTime(lastModified);
+        key.setId(Integer.MIN_VALUE);
+        return key;
+    }
+
+    /**
+     * Rendez-vous d'un index dont le début tombe dans [from, to)
+     */
+    static NavigableSet<Appointment> startingBetween(NavigableSet<Appointment> rows, LocalDateTime from,
+                                                     LocalDateTime to) {
+        if (rows == null || !from.isBefore(to)) {
+            return new TreeSet<>(START_ORDER);
+        }
+        return rows.subSet(startKey(from, Integer.MIN_VALUE), true, startKey(to, Integer.MIN_VALUE), false);
+    }
+
+    /**
+     * Résumé d'un rendez-vous, noms du patient et du médecin joints (appelé sous verrou)
+     */
+    AppointmentSummary toSummary(Appointment row) {
+        Patient patient = patients.get(row.getPatientId());
+        User doctor = users.get(row.getDoctorId());
+        return new AppointmentSummary(row.getId(), row.getPatientId(), row.getDoctorId(), row.getStartDateTime(),
+                row.getDurationMinutes(), row.getStatus(), row.getAppointmentType(),
+                patient != null ? patient.getFirstName() + " " + patient.getLastName() : null,
+                doctor != null ? doctor.getFullName() : null);
+    }
+
+    /**
+     * Copie d'un rendez-vous, sans les objets liés
+     */
+    static Appointment copy(Appointment source) {
+        return new Appointment(source.getId(), source.getPatientId(), source.getDoctorId(), source.getSecretaryId(),
+                source.getStartDateTime(), source.getDurationMinutes(), source.getAppointmentType(),
+                source.getStatus(), source.getNotes(), source.getCreationDateTime(),
+                source.getLastModifiedDateTime());
+    }
+
+    static Patient copy(Patient source) {
+        return new Patient(source.getId(), source.getLastName(), source.getFirstName(), source.getBirthDate(),
+                source.getPhone(), source.getAddress(), source.getEmail(), source.getAdministrativeNotes(),
+                source.getCreationDate());
+    }
+
+    static PatientSummary toSummary(Patient row) {
+        return new PatientSummary(row.getId(), row.getLastName(), row.getFirstName(), row.getBirthDate(),
+                row.getPhone(), row.getEmail());
+    }
+
+    /**
+     * Copie d'un utilisateur selon son rôle
+     *
+     * @throws DAOException Si le rôle n'est pas pris en charge
+     */
+    static User copy(User source) throws DAOException {
+        if (source instanceof Doctor) {
+            return copy((Doctor) source);
+        }
+        if (source instanceof Secretary) {
+            return new Secretary(source.getId(), source.getUsername(), source.getPasswordHash(),
+                    source.getFullName(), source.isActive(), source.getCreationDate());
+        }
+        throw new DAOException("Rôle non supporté: " + source.getRole(), DAOException.RETRIEVAL_ERROR);
+    }
+
+    static Doctor copy(Doctor source) {
+        return new Doctor(source.getId(), source.getUsername(), source.getPasswordHash(), source.getFullName(),
+                source.isActive(), source.getCreationDate(), source.getSpecialty(), source.getWorkHours(),
+                source.getProfessionalPhone());
+    }
+}
@@ -0,0 +1,124 @@
+package dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import model.AvailableSlot;
+import model.Doctor;
+
+/**
+ * Implémentation en mémoire de l'interface DoctorDAO (voir InMemoryDatabase).
+ * Délègue au UserDAO en mémoire comme DoctorDAOImpl délègue à UserDAOImpl, et
+ * calcule les disponibilités avec les mêmes fonctions que DoctorDAOImpl, sur
+ * l'index des créneaux tenu à jour par la base en mémoire.
+ */
+final class InMemoryDoctorDAO implements DoctorDAO {
+
+    private final InMemoryDatabase db;
+    private final UserDAO userDAO;
+
+    InMemoryDoctorDAO(InMemoryDatabase db, UserDAO userDAO) {
+        this.db = db;
+        this.userDAO = userDAO;
+    }
+
+    @Override
+    public int addDoctor(Doctor doctor) throws DAOException {
+        return userDAO.addDoctor(doctor);
+    }
+
+    @Override
+    public void updateDoctor(Doctor doctor) throws DAOException {
+        userDAO.updateDoctor(doctor);
+    }
+
+    @Override
+    public Doctor getDoctorById(int id) throws DAOException {
+        return userDAO.getDoctorById(id);
+    }
+
+    @Override
+    public List<Doctor> getAllDoctors() throws DAOException {
+        return userDAO.getAllDoctors();
+    }
+
+    @Override
+    public List<Doctor> getDoctorsBySpecialty(String specialty) throws DAOException {
+        return userDAO.getDoctorsBySpecialty(specialty);
+    }
+
+    @Override
+    public void setDoctorActive(int doctorId, boolean active) throws DAOException {
+        userDAO.setUserActive(doctorId, active);
+    }
+
+    @Override
+    public List<String> getAllSpecialties() throws DAOException {
+        return userDAO.getAllSpecialties();
+    }
+
+    @Override
+    public List<Doctor> getAvailableDoctors(LocalDateTime dateTime) throws DAOException {
+        List<Doctor> workingDoctors = new ArrayList<>();
+        Set<Integer> doctorIds = new HashSet<>();
+        for (Doctor doctor : userDAO.getAllDoctors()) {
+            if (doctor.isActive() && doctor.getWorkSchedule().isWorking(dateTime)) {
+                workingDoctors.add(doctor);
+                doctorIds.add(doctor.getId());
+            }
+        }
+        if (workingDoctors.isEmpty()) {
+            return workingDoctors;
+        }
+
+        Set<Integer> busyDoctors = db.intervalIndex.findBusyDoctors(doctorIds, dateTime,
+                dateTime.plusMinutes(DoctorDAOImpl.DEFAULT_APPOINTMENT_DURATION));
+
+        List<Doctor> availableDoctors = new ArrayList<>();
+        for (Doctor doctor : workingDoctors) {
+            if (!busyDoctors.contains(doctor.getId())) {
+                availableDoctors.add(doctor);
+            }
+        }
+        return availableDoctors;
+    }
+
+    @Override
+    public List<String> getAvailableTimeSlots(int doctorId, LocalDate date) throws DAOException {
+        return getAvailableTimeSlots(doctorId, date, DoctorDAOImpl.SLOT_STEP_MINUTES);
+    }
+
+    @Override
+    public List<String> getAvailableTimeSlots(int doctorId, LocalDate date, int durationMinutes) throws DAOException {
+        Doctor doctor = getDoctorById(doctorId);
+        if (doctor == null) {
+            throw new DAOException("Médecin non trouvé avec l'ID: " + doctorId, DAOException.RETRIEVAL_ERROR);
+        }
+        return DoctorDAOImpl.computeAvailableTimeSlots(db.intervalIndex, doctor, date, durationMinutes);
+    }
+
+    @Override
+    public List<AvailableSlot> findFirstAvailableSlots(String specialty, LocalDate fromDate, int days,
+                                                       int durationMinutes, int limit) throws DAOException {
+        if (days <= 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Médecins actifs de la spécialité
+        List<Doctor> doctors = new ArrayList<>();
+        for (Doctor doctor : userDAO.getDoctorsBySpecialty(specialty)) {
+            if (doctor.isActive()) {
+                doctors.add(doctor);
+            }
+        }
+        if (doctors.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return DoctorDAOImpl.computeFirstAvailableSlots(db.intervalIndex, doctors, fromDate, days,
+                durationMinutes, limit);
+    }
+}
@@ -0,0 +1,397 @@
+package dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import config.AppConfig;
+import model.Patient;
+import model.PatientSummary;
+
+/**
+ * Implémentation en mémoire de l'interface PatientDAO (voir InMemoryDatabase).
+ * Les recherches utilisent le même index que PatientDAOImpl en mode "index" (classement
+ * par pertinence, AppConfig.MAX_SEARCH_RESULTS résultats) ; la liste et la pagination
+ * suivent l'ordre (nom, prenom, id_patient).
+ */
+final class InMemoryPatientDAO implements PatientDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(InMemoryPatientDAO.class.getName());
+
+    private final InMemoryDatabase db;
+
+    InMemoryPatientDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public int addPatient(Patient patient) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            return insert(patient);
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] addPatients(List<Patient> patients) throws DAOException {
+        int[] patientIds = new int[patients.size()];
+
+        db.lock.writeLock().lock();
+        try {
+            for (int i = 0; i < patientIds.length; i++) {
+                patientIds[i] = insert(patients.get(i));
+            }
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+
+        LOGGER.info(patientIds.length + " patients ajoutés par lots");
+        return patientIds;
+    }
+
+    /**
+     * Insère un patient (appelé sous verrou en écriture). La date de création est
+     * renseignée sur le patient si elle ne l'était pas.
+     */
+    private int insert(Patient patient) {
+        if (patient.getCreationDate() == null) {
+            patient.setCreationDate(InMemoryDatabase.now());
+        }
+        int patientId = ++db.lastPatientId;
+        patient.setId(patientId);
+        db.putPatient(InMemoryDatabase.copy(patient));
+        return patientId;
+    }
+
+    @Override
+    public void updatePatient(Patient patient) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            Patient previous = db.patients.get(patient.getId());
+            if (previous == null) {
+                throw new DAOException("La mise à jour du patient a échoué, aucune ligne affectée. Patient ID: "
+                        + patient.getId(), DAOException.UPDATE_ERROR);
+            }
+            // La date de création de la fiche n'est pas modifiable (SQL_UPDATE_PATIENT)
+            Patient row = InMemoryDatabase.copy(patient);
+            row.setCreationDate(previous.getCreationDate());
+            db.putPatient(row);
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deletePatient(int patientId) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            // Contrainte ON DELETE RESTRICT de rendez_vous.id_patient_fk
+            if (db.appointmentsByPatient.containsKey(patientId)) {
+                throw new DAOException("Impossible de supprimer ce patient car il possède des rendez-vous.",
+                        DAOException.CONSTRAINT_VIOLATION);
+            }
+            if (db.removePatient(patientId) == null) {
+                throw new DAOException("La suppression du patient a échoué, aucune ligne affectée. Patient ID: "
+                        + patientId, DAOException.DELETION_ERROR);
+            }
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Patient getPatientById(int patientId) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            Patient row = db.patients.get(patientId);
+            return row != null ? InMemoryDatabase.copy(row) : null;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Patient> getPatientsByIds(Collection<Integer> patientIds) throws DAOException {
+        Map<Integer, Patient> patients = new HashMap<>();
+        if (patientIds == null || patientIds.isEmpty()) {
+            return patients;
+        }
+
+        db.lock.readLock().lock();
+        try {
+            for (Integer patientId : patientIds) {
+                Patient row = db.patients.get(patientId);
+                if (row != null) {
+                    patients.put(patientId, InMemoryDatabase.copy(row));
+                }
+            }
+            return patients;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Patient> getAllPatients() throws DAOException {
+        return findPatients(patient -> true);
+    }
+
+    @Override
+    public List<Patient> searchPatientsByName(String lastName, String firstName) throws DAOException {
+        if (PatientSearchIndex.nameTerms(lastName).isEmpty() && PatientSearchIndex.nameTerms(firstName).isEmpty()) {
+            return getAllPatients();
+        }
+        return getPatientsInOrder(db.patientSearchIndex.searchByName(lastName, firstName,
+                AppConfig.MAX_SEARCH_RESULTS));
+    }
+
+    @Override
+    public List<Patient> searchPatientsByPhone(String phone) throws DAOException {
+        if (PatientSearchIndex.normalizePhone(phone).isEmpty()) {
+            return getAllPatients();
+        }
+        return getPatientsInOrder(db.patientSearchIndex.searchByPhone(phone, AppConfig.MAX_SEARCH_RESULTS));
+    }
+
+    @Override
+    public List<Patient> searchPatientsByEmail(String email) throws DAOException {
+        if (PatientSearchIndex.normalizeEmail(email).isEmpty()) {
+            return getAllPatients();
+        }
+        return getPatientsInOrder(db.patientSearchIndex.searchByEmail(email, AppConfig.MAX_SEARCH_RESULTS));
+    }
+
+    @Override
+    public List<PatientSummary> searchPatientSummariesByName(String lastName, String firstName) throws DAOException {
+        if (PatientSearchIndex.nameTerms(lastName).isEmpty() && PatientSearchIndex.nameTerms(firstName).isEmpty()) {
+            return getPatientsPage(null, AppConfig.MAX_SEARCH_RESULTS);
+        }
+        return getPatientSummariesInOrder(db.patientSearchIndex.searchByName(lastName, firstName,
+                AppConfig.MAX_SEARCH_RESULTS));
+    }
+
+    @Override
+    public List<PatientSummary> searchPatientSummariesByPhone(String phone) throws DAOException {
+        if (PatientSearchIndex.normalizePhone(phone).isEmpty()) {
+            return getPatientsPage(null, AppConfig.MAX_SEARCH_RESULTS);
+        }
+        return getPatientSummariesInOrder(db.patientSearchIndex.searchByPhone(phone, AppConfig.MAX_SEARCH_RESULTS));
+    }
+
+    @Override
+    public boolean isPatientExists(Patient patient) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            return findSamePatient(patient) != null;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Patient> findExistingPatients(Collection<Patient> candidates) throws DAOException {
+        List<Patient> existing = new ArrayList<>();
+        Set<Integer> found = new HashSet<>();
+
+        db.lock.readLock().lock();
+        try {
+            for (Patient candidate : candidates) {
+                Patient row = findSamePatient(candidate);
+                if (row != null && found.add(row.getId())) {
+                    existing.add(InMemoryDatabase.copy(row));
+                }
+            }
+            return existing;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche, dans l'index (nom, prenom), un patient de même nom, prénom et date de
+     * naissance ; un candidat sans date de naissance n'a jamais de doublon, comme en SQL
+     * (appelé sous verrou)
+     */
+    private Patient findSamePatient(Patient candidate) {
+        if (candidate.getBirthDate() == null) {
+            return null;
+        }
+        for (Patient row : sameName(candidate.getLastName(), candidate.getFirstName())) {
+            if (candidate.getBirthDate().equals(row.getBirthDate())) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    private NavigableSet<Patient> sameName(String lastName, String firstName) {
+        return db.patientsByName.subSet(nameKey(lastName, firstName, Integer.MIN_VALUE), true,
+                nameKey(lastName, firstName, Integer.MAX_VALUE), true);
+    }
+
+    /**
+     * Clé de recherche dans l'index (nom, prenom, id_patient)
+     */
+    private static Patient nameKey(String lastName, String firstName, int id) {
+        Patient key = new Patient();
+        key.setId(id);
+        key.setLastName(lastName);
+        key.setFirstName(firstName);
+        return key;
+    }
+
+    @Override
+    public int countPatients() throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            return db.patients.size();
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<PatientSummary> getPatientsPage(PatientSummary after, int limit) throws DAOException {
+        List<PatientSummary> page = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+
+        db.lock.readLock().lock();
+        try {
+            NavigableSet<Patient> rows = after == null ? db.patientsByName
+                    : db.patientsByName.tailSet(nameKey(after.getLastName(), after.getFirstName(), after.getId()), false);
+            for (Patient row : rows) {
+                if (page.size() >= limit) {
+                    break;
+                }
+                page.add(InMemoryDatabase.toSummary(row));
+            }
+            return page;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Patient> searchPatientsByCriteria(Map<String, Object> criteria) throws DAOException {
+        if (criteria == null || criteria.isEmpty()) {
+            return getAllPatients();
+        }
+
+        // Les critères textuels passent par l'index de recherche, sans limite de résultats
+        Predicate<Patient> filter = patient -> true;
+        for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+
+            if (value != null) {
+                switch (key) {
+                    case "lastName":
+                        filter = filter.and(idIn(db.patientSearchIndex.searchByName(value.toString(), "",
+                                Integer.MAX_VALUE), !PatientSearchIndex.nameTerms(value.toString()).isEmpty()));
+                        break;
+                    case "firstName":
+                        filter = filter.and(idIn(db.patientSearchIndex.searchByName("", value.toString(),
+                                Integer.MAX_VALUE), !PatientSearchIndex.nameTerms(value.toString()).isEmpty()));
+                        break;
+                    case "phone":
+                        filter = filter.and(idIn(db.patientSearchIndex.searchByPhone(value.toString(),
+                                Integer.MAX_VALUE), true));
+                        break;
+                    case "email":
+                        filter = filter.and(idIn(db.patientSearchIndex.searchByEmail(value.toString(),
+                                Integer.MAX_VALUE), true));
+                        break;
+                    case "birthDateMin":
+                        if (value instanceof LocalDate) {
+                            LocalDate min = (LocalDate) value;
+                            filter = filter.and(patient -> patient.getBirthDate() != null
+                                    && !patient.getBirthDate().isBefore(min));
+                        }
+                        break;
+                    case "birthDateMax":
+                        if (value instanceof LocalDate) {
+                            LocalDate max = (LocalDate) value;
+                            filter = filter.and(patient -> patient.getBirthDate() != null
+                                    && !patient.getBirthDate().isAfter(max));
+                        }
+                        break;
+                    default:
+                        LOGGER.warning("Critère de recherche inconnu ignoré: " + key);
+                        break;
+                }
+            }
+        }
+        return findPatients(filter);
+    }
+
+    /**
+     * @param ids Les IDs trouvés par l'index
+     * @param active false si la saisie ne contient aucun terme (critère sans effet)
+     */
+    private static Predicate<Patient> idIn(List<Integer> ids, boolean active) {
+        if (!active) {
+            return patient -> true;
+        }
+        Set<Integer> idSet = new HashSet<>(ids);
+        return patient -> idSet.contains(patient.getId());
+    }
+
+    /**
+     * @return Les patients acceptés par le filtre, triés par nom et prénom
+     */
+    private List<Patient> findPatients(Predicate<Patient> filter) {
+        db.lock.readLock().lock();
+        try {
+            List<Patient> patients = new ArrayList<>();
+            for (Patient row : db.patientsByName) {
+                if (filter.test(row)) {
+                    patients.add(InMemoryDatabase.copy(row));
+                }
+            }
+            return patients;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    private List<Patient> getPatientsInOrder(List<Integer> patientIds) {
+        db.lock.readLock().lock();
+        try {
+            List<Patient> ordered = new ArrayList<>(patientIds.size());
+            for (Integer patientId : patientIds) {
+                Patient row = db.patients.get(patientId);
+                if (row != null) {
+                    ordered.add(InMemoryDatabase.copy(row));
+                }
+            }
+            return ordered;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    private List<PatientSummary> getPatientSummariesInOrder(List<Integer> patientIds) {
+        db.lock.readLock().lock();
+        try {
+            List<PatientSummary> ordered = new ArrayList<>(patientIds.size());
+            for (Integer patientId : patientIds) {
+                Patient row = db.patients.get(patientId);
+                if (row != null) {
+                    ordered.add(InMemoryDatabase.toSummary(row));
+                }
+            }
+            return ordered;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import model.Doctor;
+import model.Secretary;
+import model.User;
+
+/**
+ * Implémentation en mémoire de l'interface UserDAO (voir InMemoryDatabase).
+ * Mêmes résultats et mêmes erreurs que UserDAOImpl : unicité du nom d'utilisateur,
+ * tris par nom complet, authentification limitée aux comptes actifs.
+ */
+final class InMemoryUserDAO implements UserDAO {
+
+    private final InMemoryDatabase db;
+
+    InMemoryUserDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public int addUser(User user) throws DAOException {
+        User row = InMemoryDatabase.copy(user);
+
+        db.lock.writeLock().lock();
+        try {
+            if (db.userIdsByUsername.containsKey(InMemoryDatabase.usernameKey(user.getUsername()))) {
+                throw new DAOException("Ce nom d'utilisateur existe déjà.", DAOException.DUPLICATE_ERROR);
+            }
+            int userId = ++db.lastUserId;
+            row.setId(userId);
+            if (row.getCreationDate() == null) {
+                row.setCreationDate(InMemoryDatabase.now());
+            }
+            db.putUser(row);
+            user.setId(userId);
+            return userId;
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateUser(User user) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            User previous = db.users.get(user.getId());
+            if (previous == null) {
+                throw new DAOException("La mise à jour de l'utilisateur a échoué, aucune ligne affectée.",
+                        DAOException.UPDATE_ERROR);
+            }
+            Integer owner = db.userIdsByUsername.get(InMemoryDatabase.usernameKey(user.getUsername()));
+            if (owner != null && owner != user.getId()) {
+                throw new DAOException("Ce nom d'utilisateur existe déjà.", DAOException.DUPLICATE_ERROR);
+            }
+
+            // Ni le mot de passe ni la date de création ne sont modifiés, comme SQL_UPDATE_USER
+            User row = InMemoryDatabase.copy(user);
+            row.setPasswordHash(previous.getPasswordHash());
+            row.setCreationDate(previous.getCreationDate());
+            db.putUser(row);
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void setUserActive(int userId, boolean active) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            User previous = db.users.get(userId);
+            if (previous == null) {
+                throw new DAOException("La mise à jour du statut de l'utilisateur a échoué, aucune ligne affectée.",
+                        DAOException.UPDATE_ERROR);
+            }
+            User row = InMemoryDatabase.copy(previous);
+            row.setActive(active);
+            db.putUser(row);
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void changePassword(int userId, String newPasswordHash) throws DAOException {
+        db.lock.writeLock().lock();
+        try {
+            User previous = db.users.get(userId);
+            if (previous == null) {
+                throw new DAOException("Le changement de mot de passe a échoué, aucune ligne affectée.",
+                        DAOException.UPDATE_ERROR);
+            }
+            User row = InMemoryDatabase.copy(previous);
+            row.setPasswordHash(newPasswordHash);
+            db.putUser(row);
+        } finally {
+            db.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public User getUserById(int userId) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            User row = db.users.get(userId);
+            return row != null ? InMemoryDatabase.copy(row) : null;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User getUserByUsername(String username) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            Integer userId = db.userIdsByUsername.get(InMemoryDatabase.usernameKey(username));
+            return userId != null ? InMemoryDatabase.copy(db.users.get(userId)) : null;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User authenticateUser(String username, String passwordHash) throws DAOException {
+        User user = getUserByUsername(username);
+        if (user == null || !user.isActive() || passwordHash == null || !passwordHash.equals(user.getPasswordHash())) {
+            return null;
+        }
+        return user;
+    }
+
+    @Override
+    public List<User> getAllUsers() throws DAOException {
+        return getUsers(null);
+    }
+
+    @Override
+    public List<User> getUsersByRole(String role) throws DAOException {
+        return getUsers(role);
+    }
+
+    /**
+     * @param role Le rôle recherché, ou null pour tous les utilisateurs
+     * @return Les utilisateurs triés par nom complet
+     */
+    private List<User> getUsers(String role) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            TreeSet<User> sorted = new TreeSet<>(InMemoryDatabase.USER_ORDER);
+            for (User row : db.users.values()) {
+                if (role == null || role.equals(row.getRole())) {
+                    sorted.add(row);
+                }
+            }
+            List<User> users = new ArrayList<>(sorted.size());
+            for (User row : sorted) {
+                users.add(InMemoryDatabase.copy(row));
+            }
+            return users;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int addSecretary(Secretary secretary) throws DAOException {
+        return addUser(secretary);
+    }
+
+    @Override
+    public void updateSecretary(Secretary secretary) throws DAOException {
+        updateUser(secretary);
+    }
+
+    @Override
+    public Secretary getSecretaryById(int id) throws DAOException {
+        User user = getUserById(id);
+        if (user == null || !user.hasRole(Secretary.ROLE)) {
+            return null;
+        }
+        return (Secretary) user;
+    }
+
+    @Override
+    public Map<Integer, Secretary> getSecretariesByIds(Collection<Integer> ids) throws DAOException {
+        Map<Integer, Secretary> secretaries = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return secretaries;
+        }
+
+        db.lock.readLock().lock();
+        try {
+            for (Integer id : ids) {
+                User row = db.users.get(id);
+                if (row instanceof Secretary) {
+                    secretaries.put(id, (Secretary) InMemoryDatabase.copy(row));
+                }
+            }
+            return secretaries;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Secretary> getAllSecretaries() throws DAOException {
+        List<Secretary> secretaries = new ArrayList<>();
+        for (User user : getUsersByRole(Secretary.ROLE)) {
+            if (user instanceof Secretary) {
+                secretaries.add((Secretary) user);
+            }
+        }
+        return secretaries;
+    }
+
+    @Override
+    public int addDoctor(Doctor doctor) throws DAOException {
+        return addUser(doctor);
+    }
+
+    @Override
+    public void updateDoctor(Doctor doctor) throws DAOException {
+        updateUser(doctor);
+    }
+
+    @Override
+    public Doctor getDoctorById(int id) throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            User row = db.users.get(id);
+            return row instanceof Doctor ? InMemoryDatabase.copy((Doctor) row) : null;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Doctor> getDoctorsByIds(Collection<Integer> ids) throws DAOException {
+        Map<Integer, Doctor> doctors = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return doctors;
+        }
+
+        db.lock.readLock().lock();
+        try {
+            for (Integer id : ids) {
+                User row = db.users.get(id);
+                if (row instanceof Doctor) {
+                    doctors.put(id, InMemoryDatabase.copy((Doctor) row));
+                }
+            }
+            return doctors;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Doctor> getAllDoctors() throws DAOException {
+        return getDoctors(null);
+    }
+
+    @Override
+    public List<Doctor> getDoctorsBySpecialty(String specialty) throws DAOException {
+        return getDoctors(specialty);
+    }
+
+    /**
+     * @param specialty La spécialité recherchée, ou null pour tous les médecins
+     * @return Les médecins triés par nom complet
+     */
+    private List<Doctor> getDoctors(String specialty) {
+        db.lock.readLock().lock();
+        try {
+            TreeSet<User> sorted = new TreeSet<>(InMemoryDatabase.USER_ORDER);
+            for (User row : db.users.values()) {
+                if (row instanceof Doctor
+                        && (specialty == null || InMemoryDatabase.NAME_ORDER.compare(specialty,
+                                ((Doctor) row).getSpecialty()) == 0)) {
+                    sorted.add(row);
+                }
+            }
+            List<Doctor> doctors = new ArrayList<>(sorted.size());
+            for (User row : sorted) {
+                doctors.add(InMemoryDatabase.copy((Doctor) row));
+            }
+            return doctors;
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> getAllSpecialties() throws DAOException {
+        db.lock.readLock().lock();
+        try {
+            TreeSet<String> specialties = new TreeSet<>(InMemoryDatabase.NAME_ORDER);
+            for (User row : db.users.values()) {
+                if (row instanceof Doctor) {
+                    specialties.add(((Doctor) row).getSpecialty());
+                }
+            }
+            return new ArrayList<>(specialties);
+        } finally {
+            db.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isUsernameExists(String username) throws DAOException {
+        return getUserByUsername(username) != null;
+    }
+}
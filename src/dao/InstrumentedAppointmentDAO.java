@@ -0,0 +1,534 @@
+package dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import model.Appointment;
+import model.AppointmentChanges;
+import model.AppointmentStatus;
+import model.AppointmentSummary;
+import model.BookingResult;
+import model.MonthLoad;
+
+/**
+ * Décorateur mesuré de AppointmentDAO (voir DaoMetrics) : chaque appel est chronométré puis
+ * enregistré dans les mesures de sa méthode, résolues à la construction. Aucune
+ * allocation hors des appels lents, dont les paramètres ne sont assemblés qu'une fois
+ * le seuil dépassé.
+ */
+final class InstrumentedAppointmentDAO implements AppointmentDAO {
+
+    private final AppointmentDAO dao;
+
+    private final DaoMetrics.MethodMetrics addAppointment;
+    private final DaoMetrics.MethodMetrics bookAppointment;
+    private final DaoMetrics.MethodMetrics addAppointments;
+    private final DaoMetrics.MethodMetrics updateAppointment;
+    private final DaoMetrics.MethodMetrics deleteAppointment;
+    private final DaoMetrics.MethodMetrics updateAppointmentStatus;
+    private final DaoMetrics.MethodMetrics updateAppointmentStatuses;
+    private final DaoMetrics.MethodMetrics cancelDoctorDay;
+    private final DaoMetrics.MethodMetrics getAppointmentById;
+    private final DaoMetrics.MethodMetrics getAppointmentsByPatient;
+    private final DaoMetrics.MethodMetrics getAppointmentsByDoctor;
+    private final DaoMetrics.MethodMetrics getAppointmentsByDoctorAndDate;
+    private final DaoMetrics.MethodMetrics getAppointmentsByDoctorAndDateRange;
+    private final DaoMetrics.MethodMetrics hasAppointmentConflict;
+    private final DaoMetrics.MethodMetrics getAppointmentsByDate;
+    private final DaoMetrics.MethodMetrics getAppointmentSummaries;
+    private final DaoMetrics.MethodMetrics getAppointmentSummariesForDoctors;
+    private final DaoMetrics.MethodMetrics getAppointmentsChangedSince;
+    private final DaoMetrics.MethodMetrics getAppointmentSummariesPage;
+    private final DaoMetrics.MethodMetrics getAppointmentSummariesByPatient;
+    private final DaoMetrics.MethodMetrics getAppointmentsByStatus;
+    private final DaoMetrics.MethodMetrics countAppointmentsByDoctorAndDate;
+    private final DaoMetrics.MethodMetrics getMonthLoad;
+    private final DaoMetrics.MethodMetrics getUpcomingAppointmentsByPatient;
+    private final DaoMetrics.MethodMetrics getUpcomingAppointmentsByDoctor;
+    private final DaoMetrics.MethodMetrics searchAppointmentsByCriteria;
+
+    InstrumentedAppointmentDAO(AppointmentDAO dao, DaoMetrics metrics) {
+        this.dao = dao;
+        this.addAppointment = metrics.method("AppointmentDAO.addAppointment");
+        this.bookAppointment = metrics.method("AppointmentDAO.bookAppointment");
+        this.addAppointments = metrics.method("AppointmentDAO.addAppointments");
+        this.updateAppointment = metrics.method("AppointmentDAO.updateAppointment");
+        this.deleteAppointment = metrics.method("AppointmentDAO.deleteAppointment");
+        this.updateAppointmentStatus = metrics.method("AppointmentDAO.updateAppointmentStatus");
+        this.updateAppointmentStatuses = metrics.method("AppointmentDAO.updateAppointmentStatuses");
+        this.cancelDoctorDay = metrics.method("AppointmentDAO.cancelDoctorDay");
+        this.getAppointmentById = metrics.method("AppointmentDAO.getAppointmentById");
+        this.getAppointmentsByPatient = metrics.method("AppointmentDAO.getAppointmentsByPatient");
+        this.getAppointmentsByDoctor = metrics.method("AppointmentDAO.getAppointmentsByDoctor");
+        this.getAppointmentsByDoctorAndDate = metrics.method("AppointmentDAO.getAppointmentsByDoctorAndDate");
+        this.getAppointmentsByDoctorAndDateRange = metrics.method("AppointmentDAO.getAppointmentsByDoctorAndDateRange");
+        this.hasAppointmentConflict = metrics.method("AppointmentDAO.hasAppointmentConflict");
+        this.getAppointmentsByDate = metrics.method("AppointmentDAO.getAppointmentsByDate");
+        this.getAppointmentSummaries = metrics.method("AppointmentDAO.getAppointmentSummaries");
+        this.getAppointmentSummariesForDoctors = metrics.method("AppointmentDAO.getAppointmentSummariesForDoctors");
+        this.getAppointmentsChangedSince = metrics.method("AppointmentDAO.getAppointmentsChangedSince");
+        this.getAppointmentSummariesPage = metrics.method("AppointmentDAO.getAppointmentSummariesPage");
+        this.getAppointmentSummariesByPatient = metrics.method("AppointmentDAO.getAppointmentSummariesByPatient");
+        this.getAppointmentsByStatus = metrics.method("AppointmentDAO.getAppointmentsByStatus");
+        this.countAppointmentsByDoctorAndDate = metrics.method("AppointmentDAO.countAppointmentsByDoctorAndDate");
+        this.getMonthLoad = metrics.method("AppointmentDAO.getMonthLoad");
+        this.getUpcomingAppointmentsByPatient = metrics.method("AppointmentDAO.getUpcomingAppointmentsByPatient");
+        this.getUpcomingAppointmentsByDoctor = metrics.method("AppointmentDAO.getUpcomingAppointmentsByDoctor");
+        this.searchAppointmentsByCriteria = metrics.method("AppointmentDAO.searchAppointmentsByCriteria");
+    }
+
+    @Override
+    public int addAppointment(Appointment appointment) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.addAppointment(appointment);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = addAppointment.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                addAppointment.logSlowCall(slowNanos, failed, 0, appointment);
+            }
+        }
+    }
+
+    @Override
+    public BookingResult bookAppointment(Appointment appointment) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        BookingResult result = null;
+        try {
+            result = dao.bookAppointment(appointment);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = bookAppointment.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                bookAppointment.logSlowCall(slowNanos, failed, rows, appointment);
+            }
+        }
+    }
+
+    @Override
+    public int[] addAppointments(List<Appointment> appointments) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        int[] result = null;
+        try {
+            result = dao.addAppointments(appointments);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = addAppointments.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                addAppointments.logSlowCall(slowNanos, failed, rows, appointments);
+            }
+        }
+    }
+
+    @Override
+    public void updateAppointment(Appointment appointment) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.updateAppointment(appointment);
+            failed = false;
+        } finally {
+            long slowNanos = updateAppointment.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updateAppointment.logSlowCall(slowNanos, failed, 0, appointment);
+            }
+        }
+    }
+
+    @Override
+    public void deleteAppointment(int appointmentId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.deleteAppointment(appointmentId);
+            failed = false;
+        } finally {
+            long slowNanos = deleteAppointment.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                deleteAppointment.logSlowCall(slowNanos, failed, 0, appointmentId);
+            }
+        }
+    }
+
+    @Override
+    public void updateAppointmentStatus(int appointmentId, AppointmentStatus status) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.updateAppointmentStatus(appointmentId, status);
+            failed = false;
+        } finally {
+            long slowNanos = updateAppointmentStatus.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updateAppointmentStatus.logSlowCall(slowNanos, failed, 0, appointmentId, status);
+            }
+        }
+    }
+
+    @Override
+    public int updateAppointmentStatuses(Map<Integer, AppointmentStatus> statuses) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.updateAppointmentStatuses(statuses);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = updateAppointmentStatuses.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updateAppointmentStatuses.logSlowCall(slowNanos, failed, 0, statuses);
+            }
+        }
+    }
+
+    @Override
+    public List<Integer> cancelDoctorDay(int doctorId, LocalDate date) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Integer> result = null;
+        try {
+            result = dao.cancelDoctorDay(doctorId, date);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = cancelDoctorDay.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                cancelDoctorDay.logSlowCall(slowNanos, failed, rows, doctorId, date);
+            }
+        }
+    }
+
+    @Override
+    public Appointment getAppointmentById(int appointmentId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Appointment result = null;
+        try {
+            result = dao.getAppointmentById(appointmentId);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentById.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentById.logSlowCall(slowNanos, failed, rows, appointmentId);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByPatient(int patientId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getAppointmentsByPatient(patientId);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentsByPatient.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentsByPatient.logSlowCall(slowNanos, failed, rows, patientId);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDoctor(int doctorId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getAppointmentsByDoctor(doctorId);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentsByDoctor.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentsByDoctor.logSlowCall(slowNanos, failed, rows, doctorId);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getAppointmentsByDoctorAndDate(doctorId, date);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentsByDoctorAndDate.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentsByDoctorAndDate.logSlowCall(slowNanos, failed, rows, doctorId, date);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDoctorAndDateRange(int doctorId, LocalDate startDate, LocalDate endDate) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getAppointmentsByDoctorAndDateRange(doctorId, startDate, endDate);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentsByDoctorAndDateRange.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentsByDoctorAndDateRange.logSlowCall(slowNanos, failed, rows, doctorId, startDate, endDate);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasAppointmentConflict(int doctorId, LocalDateTime startDateTime, LocalDateTime endDateTime, int excludeAppointmentId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean result = dao.hasAppointmentConflict(doctorId, startDateTime, endDateTime, excludeAppointmentId);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = hasAppointmentConflict.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                hasAppointmentConflict.logSlowCall(slowNanos, failed, 0, doctorId, startDateTime, endDateTime, excludeAppointmentId);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByDate(LocalDate date) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getAppointmentsByDate(date);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentsByDate.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentsByDate.logSlowCall(slowNanos, failed, rows, date);
+            }
+        }
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummaries(LocalDateTime from, LocalDateTime to, int doctorId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<AppointmentSummary> result = null;
+        try {
+            result = dao.getAppointmentSummaries(from, to, doctorId);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentSummaries.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentSummaries.logSlowCall(slowNanos, failed, rows, from, to, doctorId);
+            }
+        }
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummariesForDoctors(LocalDateTime from, LocalDateTime to, Collection<Integer> doctorIds) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<AppointmentSummary> result = null;
+        try {
+            result = dao.getAppointmentSummariesForDoctors(from, to, doctorIds);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentSummariesForDoctors.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentSummariesForDoctors.logSlowCall(slowNanos, failed, rows, from, to, doctorIds);
+            }
+        }
+    }
+
+    @Override
+    public AppointmentChanges getAppointmentsChangedSince(LocalDateTime watermark) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        AppointmentChanges result = null;
+        try {
+            result = dao.getAppointmentsChangedSince(watermark);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentsChangedSince.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentsChangedSince.logSlowCall(slowNanos, failed, rows, watermark);
+            }
+        }
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummariesPage(LocalDateTime from, LocalDateTime to, int doctorId, AppointmentSummary after, int limit) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<AppointmentSummary> result = null;
+        try {
+            result = dao.getAppointmentSummariesPage(from, to, doctorId, after, limit);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentSummariesPage.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentSummariesPage.logSlowCall(slowNanos, failed, rows, from, to, doctorId, after, limit);
+            }
+        }
+    }
+
+    @Override
+    public List<AppointmentSummary> getAppointmentSummariesByPatient(int patientId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<AppointmentSummary> result = null;
+        try {
+            result = dao.getAppointmentSummariesByPatient(patientId);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentSummariesByPatient.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentSummariesByPatient.logSlowCall(slowNanos, failed, rows, patientId);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getAppointmentsByStatus(AppointmentStatus status) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getAppointmentsByStatus(status);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAppointmentsByStatus.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAppointmentsByStatus.logSlowCall(slowNanos, failed, rows, status);
+            }
+        }
+    }
+
+    @Override
+    public int countAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.countAppointmentsByDoctorAndDate(doctorId, date);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = countAppointmentsByDoctorAndDate.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                countAppointmentsByDoctorAndDate.logSlowCall(slowNanos, failed, 0, doctorId, date);
+            }
+        }
+    }
+
+    @Override
+    public MonthLoad getMonthLoad(int doctorId, YearMonth month) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        MonthLoad result = null;
+        try {
+            result = dao.getMonthLoad(doctorId, month);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getMonthLoad.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getMonthLoad.logSlowCall(slowNanos, failed, rows, doctorId, month);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getUpcomingAppointmentsByPatient(int patientId, int limit) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getUpcomingAppointmentsByPatient(patientId, limit);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getUpcomingAppointmentsByPatient.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getUpcomingAppointmentsByPatient.logSlowCall(slowNanos, failed, rows, patientId, limit);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> getUpcomingAppointmentsByDoctor(int doctorId, int limit) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.getUpcomingAppointmentsByDoctor(doctorId, limit);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getUpcomingAppointmentsByDoctor.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getUpcomingAppointmentsByDoctor.logSlowCall(slowNanos, failed, rows, doctorId, limit);
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> searchAppointmentsByCriteria(Map<String, Object> criteria) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Appointment> result = null;
+        try {
+            result = dao.searchAppointmentsByCriteria(criteria);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = searchAppointmentsByCriteria.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                searchAppointmentsByCriteria.logSlowCall(slowNanos, failed, rows, criteria);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import model.AvailableSlot;
+import model.Doctor;
+
+/**
+ * Décorateur mesuré de DoctorDAO (voir DaoMetrics) : chaque appel est chronométré puis
+ * enregistré dans les mesures de sa méthode, résolues à la construction. Aucune
+ * allocation hors des appels lents, dont les paramètres ne sont assemblés qu'une fois
+ * le seuil dépassé.
+ */
+final class InstrumentedDoctorDAO implements DoctorDAO {
+
+    private final DoctorDAO dao;
+
+    private final DaoMetrics.MethodMetrics addDoctor;
+    private final DaoMetrics.MethodMetrics updateDoctor;
+    private final DaoMetrics.MethodMetrics getDoctorById;
+    private final DaoMetrics.MethodMetrics getAllDoctors;
+    private final DaoMetrics.MethodMetrics getDoctorsBySpecialty;
+    private final DaoMetrics.MethodMetrics setDoctorActive;
+    private final DaoMetrics.MethodMetrics getAllSpecialties;
+    private final DaoMetrics.MethodMetrics getAvailableDoctors;
+    private final DaoMetrics.MethodMetrics getAvailableTimeSlots;
+    private final DaoMetrics.MethodMetrics findFirstAvailableSlots;
+
+    InstrumentedDoctorDAO(DoctorDAO dao, DaoMetrics metrics) {
+        this.dao = dao;
+        this.addDoctor = metrics.method("DoctorDAO.addDoctor");
+        this.updateDoctor = metrics.method("DoctorDAO.updateDoctor");
+        this.getDoctorById = metrics.method("DoctorDAO.getDoctorById");
+        this.getAllDoctors = metrics.method("DoctorDAO.getAllDoctors");
+        this.getDoctorsBySpecialty = metrics.method("DoctorDAO.getDoctorsBySpecialty");
+        this.setDoctorActive = metrics.method("DoctorDAO.setDoctorActive");
+        this.getAllSpecialties = metrics.method("DoctorDAO.getAllSpecialties");
+        this.getAvailableDoctors = metrics.method("DoctorDAO.getAvailableDoctors");
+        this.getAvailableTimeSlots = metrics.method("DoctorDAO.getAvailableTimeSlots");
+        this.findFirstAvailableSlots = metrics.method("DoctorDAO.findFirstAvailableSlots");
+    }
+
+    @Override
+    public int addDoctor(Doctor doctor) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.addDoctor(doctor);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = addDoctor.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                addDoctor.logSlowCall(slowNanos, failed, 0, doctor);
+            }
+        }
+    }
+
+    @Override
+    public void updateDoctor(Doctor doctor) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.updateDoctor(doctor);
+            failed = false;
+        } finally {
+            long slowNanos = updateDoctor.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updateDoctor.logSlowCall(slowNanos, failed, 0, doctor);
+            }
+        }
+    }
+
+    @Override
+    public Doctor getDoctorById(int id) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Doctor result = null;
+        try {
+            result = dao.getDoctorById(id);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getDoctorById.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getDoctorById.logSlowCall(slowNanos, failed, rows, id);
+            }
+        }
+    }
+
+    @Override
+    public List<Doctor> getAllDoctors() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Doctor> result = null;
+        try {
+            result = dao.getAllDoctors();
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAllDoctors.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAllDoctors.logSlowCall(slowNanos, failed, rows);
+            }
+        }
+    }
+
+    @Override
+    public List<Doctor> getDoctorsBySpecialty(String specialty) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Doctor> result = null;
+        try {
+            result = dao.getDoctorsBySpecialty(specialty);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getDoctorsBySpecialty.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getDoctorsBySpecialty.logSlowCall(slowNanos, failed, rows, specialty);
+            }
+        }
+    }
+
+    @Override
+    public void setDoctorActive(int doctorId, boolean active) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.setDoctorActive(doctorId, active);
+            failed = false;
+        } finally {
+            long slowNanos = setDoctorActive.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                setDoctorActive.logSlowCall(slowNanos, failed, 0, doctorId, active);
+            }
+        }
+    }
+
+    @Override
+    public List<String> getAllSpecialties() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<String> result = null;
+        try {
+            result = dao.getAllSpecialties();
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAllSpecialties.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAllSpecialties.logSlowCall(slowNanos, failed, rows);
+            }
+        }
+    }
+
+    @Override
+    public List<Doctor> getAvailableDoctors(LocalDateTime dateTime) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Doctor> result = null;
+        try {
+            result = dao.getAvailableDoctors(dateTime);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAvailableDoctors.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAvailableDoctors.logSlowCall(slowNanos, failed, rows, dateTime);
+            }
+        }
+    }
+
+    @Override
+    public List<String> getAvailableTimeSlots(int doctorId, LocalDate date) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<String> result = null;
+        try {
+            result = dao.getAvailableTimeSlots(doctorId, date);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAvailableTimeSlots.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAvailableTimeSlots.logSlowCall(slowNanos, failed, rows, doctorId, date);
+            }
+        }
+    }
+
+    @Override
+    public List<String> getAvailableTimeSlots(int doctorId, LocalDate date, int durationMinutes) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<String> result = null;
+        try {
+            result = dao.getAvailableTimeSlots(doctorId, date, durationMinutes);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAvailableTimeSlots.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAvailableTimeSlots.logSlowCall(slowNanos, failed, rows, doctorId, date, durationMinutes);
+            }
+        }
+    }
+
+    @Override
+    public List<AvailableSlot> findFirstAvailableSlots(String specialty, LocalDate fromDate, int days, int durationMinutes, int limit) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<AvailableSlot> result = null;
+        try {
+            result = dao.findFirstAvailableSlots(specialty, fromDate, days, durationMinutes, limit);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = findFirstAvailableSlots.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                findFirstAvailableSlots.logSlowCall(slowNanos, failed, rows, specialty, fromDate, days, durationMinutes, limit);
+            }
+        }
+    }
+}
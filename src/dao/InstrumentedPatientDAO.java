@@ -0,0 +1,352 @@
+package dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import model.Patient;
+import model.PatientSummary;
+
+/**
+ * Décorateur mesuré de PatientDAO (voir DaoMetrics) : chaque appel est chronométré puis
+ * enregistré dans les mesures de sa méthode, résolues à la construction. Aucune
+ * allocation hors des appels lents, dont les paramètres ne sont assemblés qu'une fois
+ * le seuil dépassé.
+ */
+final class InstrumentedPatientDAO implements PatientDAO {
+
+    private final PatientDAO dao;
+
+    private final DaoMetrics.MethodMetrics addPatient;
+    private final DaoMetrics.MethodMetrics addPatients;
+    private final DaoMetrics.MethodMetrics updatePatient;
+    private final DaoMetrics.MethodMetrics deletePatient;
+    private final DaoMetrics.MethodMetrics getPatientById;
+    private final DaoMetrics.MethodMetrics getPatientsByIds;
+    private final DaoMetrics.MethodMetrics getAllPatients;
+    private final DaoMetrics.MethodMetrics searchPatientsByName;
+    private final DaoMetrics.MethodMetrics searchPatientsByPhone;
+    private final DaoMetrics.MethodMetrics searchPatientsByEmail;
+    private final DaoMetrics.MethodMetrics isPatientExists;
+    private final DaoMetrics.MethodMetrics findExistingPatients;
+    private final DaoMetrics.MethodMetrics countPatients;
+    private final DaoMetrics.MethodMetrics getPatientsPage;
+    private final DaoMetrics.MethodMetrics searchPatientSummariesByName;
+    private final DaoMetrics.MethodMetrics searchPatientSummariesByPhone;
+    private final DaoMetrics.MethodMetrics searchPatientsByCriteria;
+
+    InstrumentedPatientDAO(PatientDAO dao, DaoMetrics metrics) {
+        this.dao = dao;
+        this.addPatient = metrics.method("PatientDAO.addPatient");
+        this.addPatients = metrics.method("PatientDAO.addPatients");
+        this.updatePatient = metrics.method("PatientDAO.updatePatient");
+        this.deletePatient = metrics.method("PatientDAO.deletePatient");
+        this.getPatientById = metrics.method("PatientDAO.getPatientById");
+        this.getPatientsByIds = metrics.method("PatientDAO.getPatientsByIds");
+        this.getAllPatients = metrics.method("PatientDAO.getAllPatients");
+        this.searchPatientsByName = metrics.method("PatientDAO.searchPatientsByName");
+        this.searchPatientsByPhone = metrics.method("PatientDAO.searchPatientsByPhone");
+        this.searchPatientsByEmail = metrics.method("PatientDAO.searchPatientsByEmail");
+        this.isPatientExists = metrics.method("PatientDAO.isPatientExists");
+        this.findExistingPatients = metrics.method("PatientDAO.findExistingPatients");
+        this.countPatients = metrics.method("PatientDAO.countPatients");
+        this.getPatientsPage = metrics.method("PatientDAO.getPatientsPage");
+        this.searchPatientSummariesByName = metrics.method("PatientDAO.searchPatientSummariesByName");
+        this.searchPatientSummariesByPhone = metrics.method("PatientDAO.searchPatientSummariesByPhone");
+        this.searchPatientsByCriteria = metrics.method("PatientDAO.searchPatientsByCriteria");
+    }
+
+    @Override
+    public int addPatient(Patient patient) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.addPatient(patient);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = addPatient.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                addPatient.logSlowCall(slowNanos, failed, 0, patient);
+            }
+        }
+    }
+
+    @Override
+    public int[] addPatients(List<Patient> patients) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        int[] result = null;
+        try {
+            result = dao.addPatients(patients);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = addPatients.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                addPatients.logSlowCall(slowNanos, failed, rows, patients);
+            }
+        }
+    }
+
+    @Override
+    public void updatePatient(Patient patient) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.updatePatient(patient);
+            failed = false;
+        } finally {
+            long slowNanos = updatePatient.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updatePatient.logSlowCall(slowNanos, failed, 0, patient);
+            }
+        }
+    }
+
+    @Override
+    public void deletePatient(int patientId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.deletePatient(patientId);
+            failed = false;
+        } finally {
+            long slowNanos = deletePatient.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                deletePatient.logSlowCall(slowNanos, failed, 0, patientId);
+            }
+        }
+    }
+
+    @Override
+    public Patient getPatientById(int patientId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Patient result = null;
+        try {
+            result = dao.getPatientById(patientId);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getPatientById.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getPatientById.logSlowCall(slowNanos, failed, rows, patientId);
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Patient> getPatientsByIds(Collection<Integer> patientIds) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Map<Integer, Patient> result = null;
+        try {
+            result = dao.getPatientsByIds(patientIds);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getPatientsByIds.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getPatientsByIds.logSlowCall(slowNanos, failed, rows, patientIds);
+            }
+        }
+    }
+
+    @Override
+    public List<Patient> getAllPatients() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Patient> result = null;
+        try {
+            result = dao.getAllPatients();
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAllPatients.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAllPatients.logSlowCall(slowNanos, failed, rows);
+            }
+        }
+    }
+
+    @Override
+    public List<Patient> searchPatientsByName(String lastName, String firstName) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Patient> result = null;
+        try {
+            result = dao.searchPatientsByName(lastName, firstName);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = searchPatientsByName.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                searchPatientsByName.logSlowCall(slowNanos, failed, rows, lastName, firstName);
+            }
+        }
+    }
+
+    @Override
+    public List<Patient> searchPatientsByPhone(String phone) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Patient> result = null;
+        try {
+            result = dao.searchPatientsByPhone(phone);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = searchPatientsByPhone.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                searchPatientsByPhone.logSlowCall(slowNanos, failed, rows, phone);
+            }
+        }
+    }
+
+    @Override
+    public List<Patient> searchPatientsByEmail(String email) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Patient> result = null;
+        try {
+            result = dao.searchPatientsByEmail(email);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = searchPatientsByEmail.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                searchPatientsByEmail.logSlowCall(slowNanos, failed, rows, email);
+            }
+        }
+    }
+
+    @Override
+    public boolean isPatientExists(Patient patient) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean result = dao.isPatientExists(patient);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = isPatientExists.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                isPatientExists.logSlowCall(slowNanos, failed, 0, patient);
+            }
+        }
+    }
+
+    @Override
+    public List<Patient> findExistingPatients(Collection<Patient> candidates) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Patient> result = null;
+        try {
+            result = dao.findExistingPatients(candidates);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = findExistingPatients.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                findExistingPatients.logSlowCall(slowNanos, failed, rows, candidates);
+            }
+        }
+    }
+
+    @Override
+    public int countPatients() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.countPatients();
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = countPatients.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                countPatients.logSlowCall(slowNanos, failed, 0);
+            }
+        }
+    }
+
+    @Override
+    public List<PatientSummary> getPatientsPage(PatientSummary after, int limit) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<PatientSummary> result = null;
+        try {
+            result = dao.getPatientsPage(after, limit);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getPatientsPage.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getPatientsPage.logSlowCall(slowNanos, failed, rows, after, limit);
+            }
+        }
+    }
+
+    @Override
+    public List<PatientSummary> searchPatientSummariesByName(String lastName, String firstName) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<PatientSummary> result = null;
+        try {
+            result = dao.searchPatientSummariesByName(lastName, firstName);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = searchPatientSummariesByName.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                searchPatientSummariesByName.logSlowCall(slowNanos, failed, rows, lastName, firstName);
+            }
+        }
+    }
+
+    @Override
+    public List<PatientSummary> searchPatientSummariesByPhone(String phone) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<PatientSummary> result = null;
+        try {
+            result = dao.searchPatientSummariesByPhone(phone);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = searchPatientSummariesByPhone.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                searchPatientSummariesByPhone.logSlowCall(slowNanos, failed, rows, phone);
+            }
+        }
+    }
+
+    @Override
+    public List<Patient> searchPatientsByCriteria(Map<String, Object> criteria) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Patient> result = null;
+        try {
+            result = dao.searchPatientsByCriteria(criteria);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = searchPatientsByCriteria.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                searchPatientsByCriteria.logSlowCall(slowNanos, failed, rows, criteria);
+            }
+        }
+    }
+}
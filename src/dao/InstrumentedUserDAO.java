@@ -0,0 +1,442 @@
+package dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import model.Doctor;
+import model.Secretary;
+import model.User;
+
+/**
+ * Décorateur mesuré de UserDAO (voir DaoMetrics) : chaque appel est chronométré puis
+ * enregistré dans les mesures de sa méthode, résolues à la construction. Aucune
+ * allocation hors des appels lents, dont les paramètres ne sont assemblés qu'une fois
+ * le seuil dépassé.
+ */
+final class InstrumentedUserDAO implements UserDAO {
+
+    private final UserDAO dao;
+
+    private final DaoMetrics.MethodMetrics addUser;
+    private final DaoMetrics.MethodMetrics updateUser;
+    private final DaoMetrics.MethodMetrics setUserActive;
+    private final DaoMetrics.MethodMetrics getUserById;
+    private final DaoMetrics.MethodMetrics getUserByUsername;
+    private final DaoMetrics.MethodMetrics authenticateUser;
+    private final DaoMetrics.MethodMetrics getAllUsers;
+    private final DaoMetrics.MethodMetrics getUsersByRole;
+    private final DaoMetrics.MethodMetrics addSecretary;
+    private final DaoMetrics.MethodMetrics updateSecretary;
+    private final DaoMetrics.MethodMetrics getSecretaryById;
+    private final DaoMetrics.MethodMetrics getSecretariesByIds;
+    private final DaoMetrics.MethodMetrics getAllSecretaries;
+    private final DaoMetrics.MethodMetrics addDoctor;
+    private final DaoMetrics.MethodMetrics updateDoctor;
+    private final DaoMetrics.MethodMetrics getDoctorById;
+    private final DaoMetrics.MethodMetrics getDoctorsByIds;
+    private final DaoMetrics.MethodMetrics getAllDoctors;
+    private final DaoMetrics.MethodMetrics getDoctorsBySpecialty;
+    private final DaoMetrics.MethodMetrics getAllSpecialties;
+    private final DaoMetrics.MethodMetrics isUsernameExists;
+    private final DaoMetrics.MethodMetrics changePassword;
+
+    InstrumentedUserDAO(UserDAO dao, DaoMetrics metrics) {
+        this.dao = dao;
+        this.addUser = metrics.method("UserDAO.addUser");
+        this.updateUser = metrics.method("UserDAO.updateUser");
+        this.setUserActive = metrics.method("UserDAO.setUserActive");
+        this.getUserById = metrics.method("UserDAO.getUserById");
+        this.getUserByUsername = metrics.method("UserDAO.getUserByUsername");
+        this.authenticateUser = metrics.method("UserDAO.authenticateUser");
+        this.getAllUsers = metrics.method("UserDAO.getAllUsers");
+        this.getUsersByRole = metrics.method("UserDAO.getUsersByRole");
+        this.addSecretary = metrics.method("UserDAO.addSecretary");
+        this.updateSecretary = metrics.method("UserDAO.updateSecretary");
+        this.getSecretaryById = metrics.method("UserDAO.getSecretaryById");
+        this.getSecretariesByIds = metrics.method("UserDAO.getSecretariesByIds");
+        this.getAllSecretaries = metrics.method("UserDAO.getAllSecretaries");
+        this.addDoctor = metrics.method("UserDAO.addDoctor");
+        this.updateDoctor = metrics.method("UserDAO.updateDoctor");
+        this.getDoctorById = metrics.method("UserDAO.getDoctorById");
+        this.getDoctorsByIds = metrics.method("UserDAO.getDoctorsByIds");
+        this.getAllDoctors = metrics.method("UserDAO.getAllDoctors");
+        this.getDoctorsBySpecialty = metrics.method("UserDAO.getDoctorsBySpecialty");
+        this.getAllSpecialties = metrics.method("UserDAO.getAllSpecialties");
+        this.isUsernameExists = metrics.method("UserDAO.isUsernameExists");
+        this.changePassword = metrics.method("UserDAO.changePassword");
+    }
+
+    @Override
+    public int addUser(User user) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.addUser(user);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = addUser.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                addUser.logSlowCall(slowNanos, failed, 0, user);
+            }
+        }
+    }
+
+    @Override
+    public void updateUser(User user) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.updateUser(user);
+            failed = false;
+        } finally {
+            long slowNanos = updateUser.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updateUser.logSlowCall(slowNanos, failed, 0, user);
+            }
+        }
+    }
+
+    @Override
+    public void setUserActive(int userId, boolean active) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.setUserActive(userId, active);
+            failed = false;
+        } finally {
+            long slowNanos = setUserActive.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                setUserActive.logSlowCall(slowNanos, failed, 0, userId, active);
+            }
+        }
+    }
+
+    @Override
+    public User getUserById(int userId) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        User result = null;
+        try {
+            result = dao.getUserById(userId);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getUserById.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getUserById.logSlowCall(slowNanos, failed, rows, userId);
+            }
+        }
+    }
+
+    @Override
+    public User getUserByUsername(String username) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        User result = null;
+        try {
+            result = dao.getUserByUsername(username);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getUserByUsername.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getUserByUsername.logSlowCall(slowNanos, failed, rows, username);
+            }
+        }
+    }
+
+    @Override
+    public User authenticateUser(String username, String passwordHash) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        User result = null;
+        try {
+            result = dao.authenticateUser(username, passwordHash);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = authenticateUser.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                authenticateUser.logSlowCall(slowNanos, failed, rows, username, passwordHash);
+            }
+        }
+    }
+
+    @Override
+    public List<User> getAllUsers() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<User> result = null;
+        try {
+            result = dao.getAllUsers();
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAllUsers.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAllUsers.logSlowCall(slowNanos, failed, rows);
+            }
+        }
+    }
+
+    @Override
+    public List<User> getUsersByRole(String role) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<User> result = null;
+        try {
+            result = dao.getUsersByRole(role);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getUsersByRole.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getUsersByRole.logSlowCall(slowNanos, failed, rows, role);
+            }
+        }
+    }
+
+    @Override
+    public int addSecretary(Secretary secretary) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.addSecretary(secretary);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = addSecretary.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                addSecretary.logSlowCall(slowNanos, failed, 0, secretary);
+            }
+        }
+    }
+
+    @Override
+    public void updateSecretary(Secretary secretary) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.updateSecretary(secretary);
+            failed = false;
+        } finally {
+            long slowNanos = updateSecretary.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updateSecretary.logSlowCall(slowNanos, failed, 0, secretary);
+            }
+        }
+    }
+
+    @Override
+    public Secretary getSecretaryById(int id) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Secretary result = null;
+        try {
+            result = dao.getSecretaryById(id);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getSecretaryById.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getSecretaryById.logSlowCall(slowNanos, failed, rows, id);
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Secretary> getSecretariesByIds(Collection<Integer> ids) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Map<Integer, Secretary> result = null;
+        try {
+            result = dao.getSecretariesByIds(ids);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getSecretariesByIds.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getSecretariesByIds.logSlowCall(slowNanos, failed, rows, ids);
+            }
+        }
+    }
+
+    @Override
+    public List<Secretary> getAllSecretaries() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Secretary> result = null;
+        try {
+            result = dao.getAllSecretaries();
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAllSecretaries.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAllSecretaries.logSlowCall(slowNanos, failed, rows);
+            }
+        }
+    }
+
+    @Override
+    public int addDoctor(Doctor doctor) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = dao.addDoctor(doctor);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = addDoctor.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                addDoctor.logSlowCall(slowNanos, failed, 0, doctor);
+            }
+        }
+    }
+
+    @Override
+    public void updateDoctor(Doctor doctor) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.updateDoctor(doctor);
+            failed = false;
+        } finally {
+            long slowNanos = updateDoctor.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                updateDoctor.logSlowCall(slowNanos, failed, 0, doctor);
+            }
+        }
+    }
+
+    @Override
+    public Doctor getDoctorById(int id) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Doctor result = null;
+        try {
+            result = dao.getDoctorById(id);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getDoctorById.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getDoctorById.logSlowCall(slowNanos, failed, rows, id);
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Doctor> getDoctorsByIds(Collection<Integer> ids) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Map<Integer, Doctor> result = null;
+        try {
+            result = dao.getDoctorsByIds(ids);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getDoctorsByIds.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getDoctorsByIds.logSlowCall(slowNanos, failed, rows, ids);
+            }
+        }
+    }
+
+    @Override
+    public List<Doctor> getAllDoctors() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Doctor> result = null;
+        try {
+            result = dao.getAllDoctors();
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAllDoctors.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAllDoctors.logSlowCall(slowNanos, failed, rows);
+            }
+        }
+    }
+
+    @Override
+    public List<Doctor> getDoctorsBySpecialty(String specialty) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<Doctor> result = null;
+        try {
+            result = dao.getDoctorsBySpecialty(specialty);
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getDoctorsBySpecialty.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getDoctorsBySpecialty.logSlowCall(slowNanos, failed, rows, specialty);
+            }
+        }
+    }
+
+    @Override
+    public List<String> getAllSpecialties() throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        List<String> result = null;
+        try {
+            result = dao.getAllSpecialties();
+            failed = false;
+            return result;
+        } finally {
+            long rows = DaoMetrics.countRows(result);
+            long slowNanos = getAllSpecialties.record(start, failed, rows);
+            if (slowNanos >= 0) {
+                getAllSpecialties.logSlowCall(slowNanos, failed, rows);
+            }
+        }
+    }
+
+    @Override
+    public boolean isUsernameExists(String username) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean result = dao.isUsernameExists(username);
+            failed = false;
+            return result;
+        } finally {
+            long slowNanos = isUsernameExists.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                isUsernameExists.logSlowCall(slowNanos, failed, 0, username);
+            }
+        }
+    }
+
+    @Override
+    public void changePassword(int userId, String newPasswordHash) throws DAOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            dao.changePassword(userId, newPasswordHash);
+            failed = false;
+        } finally {
+            long slowNanos = changePassword.record(start, failed, 0);
+            if (slowNanos >= 0) {
+                changePassword.logSlowCall(slowNanos, failed, 0, userId, newPasswordHash);
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import model.Patient;
+import model.PatientSummary;
 
 /**
  * Interface DAO pour la gestion des patients.
@@ -18,6 +21,15 @@ public interface PatientDAO {
      */
     int addPatient(Patient patient) throws DAOException;
     
+    /**
+     * Ajoute plusieurs patients en une seule transaction, par lots JDBC
+     * 
+     * @param patients Les patients à ajouter (leur ID est renseigné après l'ajout)
+     * @return Les IDs générés, dans l'ordre de la liste
+     * @throws DAOException En cas d'erreur de persistance (aucun patient n'est alors ajouté)
+     */
+    int[] addPatients(List<Patient> patients) throws DAOException;
+    
     /**
      * Met à jour les informations d'un patient existant
      * 
@@ -43,6 +55,15 @@ public interface PatientDAO {
      */
     Patient getPatientById(int patientId) throws DAOException;
     
+    /**
+     * Récupère plusieurs patients par leurs IDs en une seule requête
+     * 
+     * @param patientIds Les IDs des patients à récupérer
+     * @return Map ID -> patient (les IDs introuvables sont absents)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    Map<Integer, Patient> getPatientsByIds(Collection<Integer> patientIds) throws DAOException;
+    
     /**
      * Récupère tous les patients de la base de données
      * 
@@ -56,7 +77,8 @@ public interface PatientDAO {
      * 
      * @param lastName Le nom de famille (peut être null)
      * @param firstName Le prénom (peut être null)
-     * @return Liste des patients correspondants au critère de recherche
+     * @return Liste des patients correspondants, par pertinence décroissante
+     *         (au plus AppConfig.MAX_SEARCH_RESULTS, tous les patients si aucun critère)
      * @throws DAOException En cas d'erreur de persistance
      */
     List<Patient> searchPatientsByName(String lastName, String firstName) throws DAOException;
@@ -88,6 +110,18 @@ public interface PatientDAO {
      */
     boolean isPatientExists(Patient patient) throws DAOException;
     
+    /**
+     * Recherche en une requête les patients déjà enregistrés avec le même nom, prénom
+     * et date de naissance que l'un des candidats (mêmes règles que isPatientExists,
+     * un candidat sans date de naissance n'a donc jamais de doublon)
+     * 
+     * @param candidates Les patients à vérifier (un lot d'import par exemple)
+     * @return Les patients existants correspondants (seuls le nom, le prénom et la date
+     *         de naissance sont garantis renseignés)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<Patient> findExistingPatients(Collection<Patient> candidates) throws DAOException;
+    
     /**
      * Compte le nombre total de patients
      * 
@@ -96,6 +130,37 @@ public interface PatientDAO {
      */
     int countPatients() throws DAOException;
     
+    /**
+     * Récupère une page de résumés de patients triés par nom, prénom puis ID
+     * (pagination par clé). Seules les colonnes affichées en liste sont lues.
+     * 
+     * @param after Le dernier patient de la page précédente (null pour la première page)
+     * @param limit Le nombre maximal de patients à retourner
+     * @return La page de patients, vide après le dernier patient
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<PatientSummary> getPatientsPage(PatientSummary after, int limit) throws DAOException;
+    
+    /**
+     * Recherche des résumés de patients par nom et/ou prénom (listes de résultats)
+     * 
+     * @param lastName Le nom de famille (peut être null)
+     * @param firstName Le prénom (peut être null)
+     * @return Les patients correspondants, par pertinence décroissante
+     *         (au plus AppConfig.MAX_SEARCH_RESULTS, la première page si aucun critère)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<PatientSummary> searchPatientSummariesByName(String lastName, String firstName) throws DAOException;
+    
+    /**
+     * Recherche des résumés de patients par numéro de téléphone (listes de résultats)
+     * 
+     * @param phone Le numéro de téléphone à rechercher
+     * @return Les patients correspondants (au plus AppConfig.MAX_SEARCH_RESULTS)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    List<PatientSummary> searchPatientSummariesByPhone(String phone) throws DAOException;
+    
     /**
      * Recherche avancée de patients selon plusieurs critères
      * 
@@ -10,14 +10,19 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import config.AppConfig;
 import config.DatabaseConnection;
 import model.Patient;
+import model.PatientSummary;
 
 /**
  * Implémentation MySQL de l'interface PatientDAO.
@@ -42,98 +47,136 @@ public class PatientDAOImpl implements PatientDAO {
     private static final String SQL_SELECT_PATIENT_BY_ID = 
             "SELECT * FROM patients WHERE id_patient = ?";
     
+    private static final String SQL_SELECT_PATIENTS_BY_IDS = 
+            "SELECT * FROM patients WHERE id_patient IN ({ids})";
+    
     private static final String SQL_SELECT_ALL_PATIENTS = 
             "SELECT * FROM patients ORDER BY nom, prenom";
     
-    private static final String SQL_SEARCH_PATIENTS_BY_NAME = 
-            "SELECT * FROM patients WHERE (nom LIKE ? OR ? IS NULL) AND (prenom LIKE ? OR ? IS NULL) " +
-            "ORDER BY nom, prenom";
+    // Recherches en mode FULLTEXT (index n-grammes de la migration V3), classées par pertinence ;
+    // seuls les IDs sont lus, les lignes sont ensuite chargées en entité ou en résumé
+    private static final String SQL_FULLTEXT_SEARCH_BY_NAME = 
+            "SELECT id_patient FROM patients WHERE MATCH(nom, prenom) AGAINST (? IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(nom, prenom) AGAINST (? IN BOOLEAN MODE) DESC, nom, prenom LIMIT ?";
     
-    private static final String SQL_SEARCH_PATIENTS_BY_PHONE = 
-            "SELECT * FROM patients WHERE telephone LIKE ? ORDER BY nom, prenom";
+    private static final String SQL_FULLTEXT_SEARCH_BY_EMAIL = 
+            "SELECT id_patient FROM patients WHERE MATCH(email) AGAINST (? IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(email) AGAINST (? IN BOOLEAN MODE) DESC, nom, prenom LIMIT ?";
     
-    private static final String SQL_SEARCH_PATIENTS_BY_EMAIL = 
-            "SELECT * FROM patients WHERE email LIKE ? ORDER BY nom, prenom";
+    // Recherche par préfixe du téléphone, servie par idx_patients_telephone
+    private static final String SQL_SEARCH_PATIENTS_BY_PHONE_PREFIX = 
+            "SELECT id_patient FROM patients WHERE telephone LIKE ? ORDER BY nom, prenom LIMIT ?";
     
     private static final String SQL_CHECK_PATIENT_EXISTS = 
             "SELECT COUNT(*) FROM patients WHERE nom = ? AND prenom = ? AND date_naissance = ?";
     
+    // Recherche de doublons par lot : un constructeur de ligne par candidat, servi par idx_patients_nom
+    private static final String SQL_SELECT_EXISTING_PATIENTS = 
+            "SELECT nom, prenom, date_naissance FROM patients WHERE (nom, prenom, date_naissance) IN ({rows})";
+    
     private static final String SQL_COUNT_PATIENTS = 
             "SELECT COUNT(*) FROM patients";
     
+    // Projection des listes : ni adresse ni notes administratives
+    private static final String SQL_SELECT_PATIENT_SUMMARY_COLUMNS = 
+            "SELECT id_patient, nom, prenom, date_naissance, telephone, email FROM patients ";
+    
+    private static final String SQL_SELECT_PATIENT_SUMMARIES_BY_IDS = SQL_SELECT_PATIENT_SUMMARY_COLUMNS +
+            "WHERE id_patient IN ({ids})";
+    
+    // Pagination par clé (nom, prenom, id_patient), servie par idx_patients_nom (qui contient la clé primaire)
+    private static final String SQL_SELECT_PATIENTS_FIRST_PAGE = SQL_SELECT_PATIENT_SUMMARY_COLUMNS +
+            "ORDER BY nom, prenom, id_patient LIMIT ?";
+    
+    private static final String SQL_SELECT_PATIENTS_PAGE_AFTER = SQL_SELECT_PATIENT_SUMMARY_COLUMNS +
+            "WHERE nom >= ? AND (nom > ? OR (nom = ? AND (prenom > ? OR (prenom = ? AND id_patient > ?)))) " +
+            "ORDER BY nom, prenom, id_patient LIMIT ?";
+    
+    // Mode de recherche : index FULLTEXT MySQL ou index mémoire (par défaut)
+    private static final boolean FULLTEXT_SEARCH = 
+            AppConfig.PATIENT_SEARCH_FULLTEXT.equals(AppConfig.PATIENT_SEARCH_MODE);
+    
     // Référence à la connexion à la base de données
     private final DatabaseConnection dbConnection;
     
+    // Index de recherche partagé, mis à jour à chaque écriture
+    private final PatientSearchIndex searchIndex;
+    
     /**
      * Constructeur par défaut.
      * Récupère l'instance singleton de la connexion à la base de données.
      */
     public PatientDAOImpl() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.searchIndex = PatientSearchIndex.getInstance();
     }
     
     /**
-     * Crée un objet Patient à partir d'un ResultSet
-     * 
-     * @param rs Le ResultSet contenant les données du patient
-     * @return Un objet Patient initialisé avec les données du ResultSet
-     * @throws SQLException En cas d'erreur d'accès aux données du ResultSet
+     * Mapping d'une ligne complète de la table patients
      */
-    private Patient createPatientFromResultSet(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id_patient");
-        String lastName = rs.getString("nom");
-        String firstName = rs.getString("prenom");
-        
-        // Convertir les dates SQL en LocalDate/LocalDateTime
-        Date birthDate = rs.getDate("date_naissance");
-        LocalDate localBirthDate = birthDate != null ? birthDate.toLocalDate() : null;
+    static final RowMapper.Factory<Patient> PATIENT_MAPPER = layout -> {
+        final int id = layout.required("id_patient");
+        final int lastName = layout.required("nom");
+        final int firstName = layout.required("prenom");
+        final int birthDate = layout.required("date_naissance");
+        final int phone = layout.required("telephone");
+        final int address = layout.required("adresse");
+        final int email = layout.required("email");
+        final int notes = layout.required("notes_administratives");
+        final int creation = layout.required("date_creation_fiche");
         
-        String phone = rs.getString("telephone");
-        String address = rs.getString("adresse");
-        String email = rs.getString("email");
-        String notes = rs.getString("notes_administratives");
+        return rs -> {
+            // Convertir les dates SQL en LocalDate/LocalDateTime
+            Date birth = rs.getDate(birthDate);
+            Timestamp creationTimestamp = rs.getTimestamp(creation);
+            
+            return new Patient(rs.getInt(id), rs.getString(lastName), rs.getString(firstName),
+                    birth != null ? birth.toLocalDate() : null, rs.getString(phone), rs.getString(address),
+                    rs.getString(email), rs.getString(notes),
+                    creationTimestamp != null ? creationTimestamp.toLocalDateTime() : LocalDateTime.now());
+        };
+    };
+    
+    /**
+     * Mapping d'une ligne de SQL_SELECT_PATIENT_SUMMARY_COLUMNS
+     */
+    static final RowMapper.Factory<PatientSummary> PATIENT_SUMMARY_MAPPER = layout -> {
+        final int id = layout.required("id_patient");
+        final int lastName = layout.required("nom");
+        final int firstName = layout.required("prenom");
+        final int birthDate = layout.required("date_naissance");
+        final int phone = layout.required("telephone");
+        final int email = layout.required("email");
         
-        Timestamp creationTimestamp = rs.getTimestamp("date_creation_fiche");
-        LocalDateTime creationDate = creationTimestamp != null 
-                ? creationTimestamp.toLocalDateTime() 
-                : LocalDateTime.now();
+        return rs -> {
+            Date birth = rs.getDate(birthDate);
+            return new PatientSummary(rs.getInt(id), rs.getString(lastName), rs.getString(firstName),
+                    birth != null ? birth.toLocalDate() : null, rs.getString(phone), rs.getString(email));
+        };
+    };
+    
+    /**
+     * Mapping des doublons d'import : seule l'identité (nom, prénom, date de naissance) est lue
+     */
+    private static final RowMapper.Factory<Patient> PATIENT_IDENTITY_MAPPER = layout -> {
+        final int lastName = layout.required("nom");
+        final int firstName = layout.required("prenom");
+        final int birthDate = layout.required("date_naissance");
         
-        return new Patient(id, lastName, firstName, localBirthDate, phone, address, email, notes, creationDate);
-    }
+        return rs -> {
+            Date birth = rs.getDate(birthDate);
+            return new Patient(rs.getString(lastName), rs.getString(firstName),
+                    birth != null ? birth.toLocalDate() : null, null);
+        };
+    };
     
     @Override
     public int addPatient(Patient patient) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet generatedKeys = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_INSERT_PATIENT, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, patient.getLastName());
-            stmt.setString(2, patient.getFirstName());
-            
-            // Convertir LocalDate en java.sql.Date
-            LocalDate birthDate = patient.getBirthDate();
-            if (birthDate != null) {
-                stmt.setDate(3, Date.valueOf(birthDate));
-            } else {
-                stmt.setNull(3, java.sql.Types.DATE);
-            }
+        int patientId;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_PATIENT, Statement.RETURN_GENERATED_KEYS)) {
             
-            stmt.setString(4, patient.getPhone());
-            stmt.setString(5, patient.getAddress());
-            stmt.setString(6, patient.getEmail());
-            stmt.setString(7, patient.getAdministrativeNotes());
-            
-            // Utiliser la date actuelle si non spécifiée
-            LocalDateTime creationDate = patient.getCreationDate();
-            if (creationDate == null) {
-                creationDate = LocalDateTime.now();
-                patient.setCreationDate(creationDate);
-            }
-            stmt.setTimestamp(8, Timestamp.valueOf(creationDate));
+            bindInsert(stmt, patient);
             
             int rowsAffected = stmt.executeUpdate();
             
@@ -143,14 +186,14 @@ public class PatientDAOImpl implements PatientDAO {
             }
             
             // Récupérer l'ID généré
-            generatedKeys = stmt.getGeneratedKeys();
-            if (generatedKeys.next()) {
-                int patientId = generatedKeys.getInt(1);
-                patient.setId(patientId);
-                return patientId;
-            } else {
-                throw new DAOException("L'ajout du patient a échoué, aucun ID généré.", 
-                                    DAOException.INSERTION_ERROR);
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    patientId = generatedKeys.getInt(1);
+                    patient.setId(patientId);
+                } else {
+                    throw new DAOException("L'ajout du patient a échoué, aucun ID généré.", 
+                                        DAOException.INSERTION_ERROR);
+                }
             }
             
         } catch (SQLException e) {
@@ -163,26 +206,120 @@ public class PatientDAOImpl implements PatientDAO {
             
             throw new DAOException("Erreur lors de l'ajout du patient: " + e.getMessage(), 
                                 e, DAOException.INSERTION_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (generatedKeys != null) generatedKeys.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
+        }
+        
+        searchIndex.recordPatient(patient);
+        return patientId;
+    }
+    
+    @Override
+    public int[] addPatients(List<Patient> patients) throws DAOException {
+        int[] patientIds = new int[patients.size()];
+        if (patients.isEmpty()) {
+            return patientIds;
+        }
+
+        try (Connection conn = dbConnection.getConnection()) {
+
+            // Une seule transaction : l'import est enregistré en entier ou pas du tout
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_PATIENT, Statement.RETURN_GENERATED_KEYS)) {
+                int offset = 0;
+                for (List<Patient> chunk : SqlUtils.chunk(patients, SqlUtils.MAX_BATCH_SIZE)) {
+                    for (Patient patient : chunk) {
+                        bindInsert(stmt, patient);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+
+                    int[] keys = SqlUtils.generatedKeys(stmt, chunk.size());
+                    System.arraycopy(keys, 0, patientIds, offset, keys.length);
+                    offset += keys.length;
+                }
+
+                // Valider la transaction
+                conn.commit();
+
             } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de l'ajout des patients", e);
+
+            if (e.getMessage().contains("Duplicate entry")) {
+                throw new DAOException("Un patient avec ces informations existe déjà.", e,
+                                    DAOException.DUPLICATE_ERROR);
             }
+
+            throw new DAOException("Erreur lors de l'ajout des patients: " + e.getMessage(),
+                                e, DAOException.INSERTION_ERROR);
+        }
+
+        for (int i = 0; i < patientIds.length; i++) {
+            Patient patient = patients.get(i);
+            patient.setId(patientIds[i]);
+            searchIndex.recordPatient(patient);
         }
+        LOGGER.info(patientIds.length + " patients ajoutés par lots");
+        return patientIds;
     }
-    
+
+    /**
+     * Lie les paramètres de SQL_INSERT_PATIENT. La date de création est renseignée
+     * sur le patient si elle ne l'était pas.
+     *
+     * @param stmt La requête d'insertion
+     * @param patient Le patient à insérer
+     * @throws SQLException En cas d'erreur de liaison
+     */
+    private void bindInsert(PreparedStatement stmt, Patient patient) throws SQLException {
+        stmt.setString(1, patient.getLastName());
+        stmt.setString(2, patient.getFirstName());
+
+        // Convertir LocalDate en java.sql.Date
+        LocalDate birthDate = patient.getBirthDate();
+        if (birthDate != null) {
+            stmt.setDate(3, Date.valueOf(birthDate));
+        } else {
+            stmt.setNull(3, java.sql.Types.DATE);
+        }
+
+        stmt.setString(4, patient.getPhone());
+        stmt.setString(5, patient.getAddress());
+        stmt.setString(6, patient.getEmail());
+        stmt.setString(7, patient.getAdministrativeNotes());
+
+        // Utiliser la date actuelle si non spécifiée
+        LocalDateTime creationDate = patient.getCreationDate();
+        if (creationDate == null) {
+            creationDate = LocalDateTime.now();
+            patient.setCreationDate(creationDate);
+        }
+        stmt.setTimestamp(8, Timestamp.valueOf(creationDate));
+    }
+
+    /**
+     * Annule la transaction en cours sans propager d'erreur
+     *
+     * @param conn La connexion dont la transaction doit être annulée
+     */
+    private void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.SEVERE, "Erreur lors du rollback", ex);
+        }
+    }
+
     @Override
     public void updatePatient(Patient patient) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_UPDATE_PATIENT);
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_PATIENT)) {
             
             stmt.setString(1, patient.getLastName());
             stmt.setString(2, patient.getFirstName());
@@ -218,29 +355,18 @@ public class PatientDAOImpl implements PatientDAO {
             
             throw new DAOException("Erreur lors de la mise à jour du patient: " + e.getMessage(), 
                                 e, DAOException.UPDATE_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+        
+        searchIndex.recordPatient(patient);
     }
     
     @Override
     public void deletePatient(int patientId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = dbConnection.getConnection();
+        // Vérifier d'abord s'il y a des rendez-vous associés à ce patient
+        // On pourrait plutôt compter sur les contraintes de clé étrangère pour cela
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_DELETE_PATIENT)) {
             
-            // Vérifier d'abord s'il y a des rendez-vous associés à ce patient
-            // On pourrait plutôt compter sur les contraintes de clé étrangère pour cela
-            
-            stmt = conn.prepareStatement(SQL_DELETE_PATIENT);
             stmt.setInt(1, patientId);
             
             int rowsAffected = stmt.executeUpdate();
@@ -260,225 +386,118 @@ public class PatientDAOImpl implements PatientDAO {
             
             throw new DAOException("Erreur lors de la suppression du patient: " + e.getMessage(), 
                                 e, DAOException.DELETION_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
+        
+        searchIndex.recordDeletion(patientId);
     }
     
     @Override
     public Patient getPatientById(int patientId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_PATIENT_BY_ID);
-            stmt.setInt(1, patientId);
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_PATIENT_BY_ID)) {
             
-            rs = stmt.executeQuery();
+            stmt.setInt(1, patientId);
             
-            if (rs.next()) {
-                return createPatientFromResultSet(rs);
-            } else {
-                return null; // Aucun patient trouvé
+            try (ResultSet rs = stmt.executeQuery()) {
+                // null si aucun patient trouvé
+                return RowMapper.mapFirst(rs, PATIENT_MAPPER);
             }
             
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération du patient par ID", e);
             throw new DAOException("Erreur lors de la récupération du patient: " + e.getMessage(), 
                                 e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
     
     @Override
-    public List<Patient> getAllPatients() throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    public Map<Integer, Patient> getPatientsByIds(Collection<Integer> patientIds) throws DAOException {
+        Map<Integer, Patient> patients = new HashMap<>();
+        if (patientIds == null || patientIds.isEmpty()) {
+            return patients;
+        }
         
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_ALL_PATIENTS);
-            
-            rs = stmt.executeQuery();
-            
-            List<Patient> patients = new ArrayList<>();
-            while (rs.next()) {
-                patients.add(createPatientFromResultSet(rs));
+        try (Connection conn = dbConnection.getConnection()) {
+            // Une requête par lot d'IDs distincts (un seul lot dans la pratique)
+            for (List<Integer> chunk : SqlUtils.chunk(new LinkedHashSet<>(patientIds))) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        SqlUtils.expandInClause(SQL_SELECT_PATIENTS_BY_IDS, chunk.size()))) {
+                    SqlUtils.bindIntegers(stmt, 1, chunk);
+                    
+                    for (Patient patient : executePatientQuery(stmt)) {
+                        patients.put(patient.getId(), patient);
+                    }
+                }
             }
             
             return patients;
             
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération de tous les patients", e);
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des patients par IDs", e);
             throw new DAOException("Erreur lors de la récupération des patients: " + e.getMessage(), 
                                 e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
     
     @Override
-    public List<Patient> searchPatientsByName(String lastName, String firstName) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SEARCH_PATIENTS_BY_NAME);
-            
-            // Traiter le cas où lastName est null
-            if (lastName != null && !lastName.isEmpty()) {
-                stmt.setString(1, "%" + lastName + "%");
-                stmt.setNull(2, java.sql.Types.VARCHAR);
-            } else {
-                stmt.setString(1, "%");
-                stmt.setString(2, "%");
-            }
-            
-            // Traiter le cas où firstName est null
-            if (firstName != null && !firstName.isEmpty()) {
-                stmt.setString(3, "%" + firstName + "%");
-                stmt.setNull(4, java.sql.Types.VARCHAR);
-            } else {
-                stmt.setString(3, "%");
-                stmt.setString(4, "%");
-            }
-            
-            rs = stmt.executeQuery();
-            
-            List<Patient> patients = new ArrayList<>();
-            while (rs.next()) {
-                patients.add(createPatientFromResultSet(rs));
-            }
+    public List<Patient> getAllPatients() throws DAOException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_ALL_PATIENTS);
+             ResultSet rs = stmt.executeQuery()) {
             
-            return patients;
+            return RowMapper.mapAll(rs, PATIENT_MAPPER);
             
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de patients par nom", e);
-            throw new DAOException("Erreur lors de la recherche de patients: " + e.getMessage(), 
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération de tous les patients", e);
+            throw new DAOException("Erreur lors de la récupération des patients: " + e.getMessage(), 
                                 e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
     
+    @Override
+    public List<Patient> searchPatientsByName(String lastName, String firstName) throws DAOException {
+        List<Integer> ids = findPatientIdsByName(lastName, firstName);
+        // Aucun critère : tous les patients
+        return ids == null ? getAllPatients() : getPatientsInOrder(ids);
+    }
+    
     @Override
     public List<Patient> searchPatientsByPhone(String phone) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SEARCH_PATIENTS_BY_PHONE);
-            
-            // Recherche approximative (LIKE)
-            stmt.setString(1, "%" + phone + "%");
-            
-            rs = stmt.executeQuery();
-            
-            List<Patient> patients = new ArrayList<>();
-            while (rs.next()) {
-                patients.add(createPatientFromResultSet(rs));
-            }
-            
-            return patients;
-            
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de patients par téléphone", e);
-            throw new DAOException("Erreur lors de la recherche de patients: " + e.getMessage(), 
-                                e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
-        }
+        List<Integer> ids = findPatientIdsByPhone(phone);
+        return ids == null ? getAllPatients() : getPatientsInOrder(ids);
     }
     
     @Override
     public List<Patient> searchPatientsByEmail(String email) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        String folded = PatientSearchIndex.normalizeEmail(email);
+        if (folded.isEmpty()) {
+            return getAllPatients();
+        }
         
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SEARCH_PATIENTS_BY_EMAIL);
-            
-            // Recherche approximative (LIKE)
-            stmt.setString(1, "%" + email + "%");
-            
-            rs = stmt.executeQuery();
-            
-            List<Patient> patients = new ArrayList<>();
-            while (rs.next()) {
-                patients.add(createPatientFromResultSet(rs));
-            }
-            
-            return patients;
-            
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de patients par email", e);
-            throw new DAOException("Erreur lors de la recherche de patients: " + e.getMessage(), 
-                                e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
+        if (FULLTEXT_SEARCH) {
+            return getPatientsInOrder(
+                    executeFullTextSearch(SQL_FULLTEXT_SEARCH_BY_EMAIL, booleanQuery(List.of(folded)), "email"));
         }
+        return getPatientsInOrder(searchIndex.searchByEmail(email, AppConfig.MAX_SEARCH_RESULTS));
+    }
+    
+    @Override
+    public List<PatientSummary> searchPatientSummariesByName(String lastName, String firstName) throws DAOException {
+        List<Integer> ids = findPatientIdsByName(lastName, firstName);
+        // Aucun critère : la première page de la liste
+        return ids == null ? getPatientsPage(null, AppConfig.MAX_SEARCH_RESULTS) : getPatientSummariesInOrder(ids);
+    }
+    
+    @Override
+    public List<PatientSummary> searchPatientSummariesByPhone(String phone) throws DAOException {
+        List<Integer> ids = findPatientIdsByPhone(phone);
+        return ids == null ? getPatientsPage(null, AppConfig.MAX_SEARCH_RESULTS) : getPatientSummariesInOrder(ids);
     }
     
     @Override
     public boolean isPatientExists(Patient patient) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_CHECK_PATIENT_EXISTS);
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CHECK_PATIENT_EXISTS)) {
             
             stmt.setString(1, patient.getLastName());
             stmt.setString(2, patient.getFirstName());
@@ -491,41 +510,71 @@ public class PatientDAOImpl implements PatientDAO {
                 stmt.setNull(3, java.sql.Types.DATE);
             }
             
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
+                return false;
             }
             
-            return false;
-            
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la vérification d'existence du patient", e);
             throw new DAOException("Erreur lors de la vérification d'existence du patient: " + e.getMessage(), 
                                 e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
     
     @Override
-    public int countPatients() throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+    public List<Patient> findExistingPatients(Collection<Patient> candidates) throws DAOException {
+        List<Patient> existing = new ArrayList<>();
         
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_COUNT_PATIENTS);
+        // date_naissance = NULL n'est jamais vrai : ces candidats sont écartés, comme dans isPatientExists
+        List<Patient> dated = new ArrayList<>(candidates.size());
+        for (Patient candidate : candidates) {
+            if (candidate.getBirthDate() != null) {
+                dated.add(candidate);
+            }
+        }
+        if (dated.isEmpty()) {
+            return existing;
+        }
+        
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Patient> chunk : SqlUtils.chunk(dated, SqlUtils.MAX_IN_CLAUSE_SIZE)) {
+                StringBuilder rows = new StringBuilder(chunk.size() * 12);
+                for (int i = 0; i < chunk.size(); i++) {
+                    rows.append(i > 0 ? ", (?, ?, ?)" : "(?, ?, ?)");
+                }
+                
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        SQL_SELECT_EXISTING_PATIENTS.replace("{rows}", rows))) {
+                    int index = 1;
+                    for (Patient candidate : chunk) {
+                        stmt.setString(index++, candidate.getLastName());
+                        stmt.setString(index++, candidate.getFirstName());
+                        stmt.setDate(index++, Date.valueOf(candidate.getBirthDate()));
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        existing.addAll(RowMapper.mapAll(rs, PATIENT_IDENTITY_MAPPER));
+                    }
+                }
+            }
             
-            rs = stmt.executeQuery();
+            return existing;
+            
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche des patients existants", e);
+            throw new DAOException("Erreur lors de la vérification d'existence des patients: " + e.getMessage(), 
+                                e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
+    
+    @Override
+    public int countPatients() throws DAOException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_COUNT_PATIENTS);
+             ResultSet rs = stmt.executeQuery()) {
             
             if (rs.next()) {
                 return rs.getInt(1);
@@ -537,15 +586,34 @@ public class PatientDAOImpl implements PatientDAO {
             LOGGER.log(Level.SEVERE, "Erreur lors du comptage des patients", e);
             throw new DAOException("Erreur lors du comptage des patients: " + e.getMessage(), 
                                 e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+        }
+    }
+    
+    @Override
+    public List<PatientSummary> getPatientsPage(PatientSummary after, int limit) throws DAOException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     after == null ? SQL_SELECT_PATIENTS_FIRST_PAGE : SQL_SELECT_PATIENTS_PAGE_AFTER)) {
+            
+            int index = 1;
+            if (after != null) {
+                stmt.setString(index++, after.getLastName());
+                stmt.setString(index++, after.getLastName());
+                stmt.setString(index++, after.getLastName());
+                stmt.setString(index++, after.getFirstName());
+                stmt.setString(index++, after.getFirstName());
+                stmt.setInt(index++, after.getId());
             }
+            stmt.setInt(index, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapAll(rs, PATIENT_SUMMARY_MAPPER);
+            }
+            
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération d'une page de patients", e);
+            throw new DAOException("Erreur lors de la récupération des patients: " + e.getMessage(), 
+                                e, DAOException.RETRIEVAL_ERROR);
         }
     }
     
@@ -567,20 +635,24 @@ public class PatientDAOImpl implements PatientDAO {
             if (value != null) {
                 switch (key) {
                     case "lastName":
-                        sqlBuilder.append(" AND nom LIKE ?");
-                        parameters.add("%" + value + "%");
+                        appendNameFilter(sqlBuilder, parameters, "", value.toString(), "");
                         break;
                     case "firstName":
-                        sqlBuilder.append(" AND prenom LIKE ?");
-                        parameters.add("%" + value + "%");
+                        appendNameFilter(sqlBuilder, parameters, "", "", value.toString());
                         break;
                     case "phone":
-                        sqlBuilder.append(" AND telephone LIKE ?");
-                        parameters.add("%" + value + "%");
+                        if (FULLTEXT_SEARCH || !appendIdFilter(sqlBuilder, parameters, "id_patient",
+                                searchIndex.searchByPhone(value.toString(), SqlUtils.MAX_IN_CLAUSE_SIZE + 1))) {
+                            sqlBuilder.append(" AND telephone LIKE ?");
+                            parameters.add("%" + value + "%");
+                        }
                         break;
                     case "email":
-                        sqlBuilder.append(" AND email LIKE ?");
-                        parameters.add("%" + value + "%");
+                        if (FULLTEXT_SEARCH || !appendIdFilter(sqlBuilder, parameters, "id_patient",
+                                searchIndex.searchByEmail(value.toString(), SqlUtils.MAX_IN_CLAUSE_SIZE + 1))) {
+                            sqlBuilder.append(" AND email LIKE ?");
+                            parameters.add("%" + value + "%");
+                        }
                         break;
                     case "birthDateMin":
                         if (value instanceof LocalDate) {
@@ -603,13 +675,8 @@ public class PatientDAOImpl implements PatientDAO {
         
         sqlBuilder.append(" ORDER BY nom, prenom");
         
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(sqlBuilder.toString());
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sqlBuilder.toString())) {
             
             // Définir les paramètres
             for (int i = 0; i < parameters.size(); i++) {
@@ -627,28 +694,260 @@ public class PatientDAOImpl implements PatientDAO {
                 }
             }
             
-            rs = stmt.executeQuery();
+            return executePatientQuery(stmt);
             
-            List<Patient> patients = new ArrayList<>();
-            while (rs.next()) {
-                patients.add(createPatientFromResultSet(rs));
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de patients par critères", e);
+            throw new DAOException("Erreur lors de la recherche de patients: " + e.getMessage(), 
+                                e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
+    
+    /**
+     * Ajoute à une requête un filtre sur le nom et/ou le prénom des patients :
+     * MATCH sur l'index FULLTEXT, ou restriction aux IDs trouvés par l'index mémoire.
+     * Lorsque l'index trouve trop de candidats pour une clause IN, le filtre LIKE est utilisé.
+     * 
+     * @param sqlBuilder La requête en construction
+     * @param parameters Les paramètres de la requête
+     * @param alias Le préfixe des colonnes de la table patients (par exemple "p."), vide si aucun
+     * @param lastName Le nom recherché, peut être vide
+     * @param firstName Le prénom recherché, peut être vide
+     * @throws DAOException En cas d'erreur lors du chargement de l'index
+     */
+    static void appendNameFilter(StringBuilder sqlBuilder, List<Object> parameters, String alias,
+                                 String lastName, String firstName) throws DAOException {
+        List<String> terms = new ArrayList<>(PatientSearchIndex.nameTerms(lastName));
+        terms.addAll(PatientSearchIndex.nameTerms(firstName));
+        if (terms.isEmpty()) {
+            return;
+        }
+        
+        if (FULLTEXT_SEARCH) {
+            sqlBuilder.append(" AND MATCH(").append(alias).append("nom, ").append(alias)
+                      .append("prenom) AGAINST (? IN BOOLEAN MODE)");
+            parameters.add(booleanQuery(terms));
+            return;
+        }
+        
+        List<Integer> ids = PatientSearchIndex.getInstance()
+                .searchByName(lastName, firstName, SqlUtils.MAX_IN_CLAUSE_SIZE + 1);
+        if (appendIdFilter(sqlBuilder, parameters, alias + "id_patient", ids)) {
+            return;
+        }
+        
+        for (String term : terms) {
+            sqlBuilder.append(" AND (").append(alias).append("nom LIKE ? OR ")
+                      .append(alias).append("prenom LIKE ?)");
+            parameters.add("%" + term + "%");
+            parameters.add("%" + term + "%");
+        }
+    }
+    
+    /**
+     * Restreint une requête aux patients trouvés par l'index de recherche
+     * 
+     * @param sqlBuilder La requête en construction
+     * @param parameters Les paramètres de la requête
+     * @param idColumn La colonne portant l'ID du patient
+     * @param ids Les IDs trouvés (au plus MAX_IN_CLAUSE_SIZE + 1)
+     * @return false si les candidats sont trop nombreux pour une clause IN (aucun filtre ajouté)
+     */
+    private static boolean appendIdFilter(StringBuilder sqlBuilder, List<Object> parameters,
+                                          String idColumn, List<Integer> ids) {
+        if (ids.size() > SqlUtils.MAX_IN_CLAUSE_SIZE) {
+            return false;
+        }
+        if (ids.isEmpty()) {
+            sqlBuilder.append(" AND 1 = 0");
+        } else {
+            sqlBuilder.append(" AND ").append(idColumn).append(" IN (")
+                      .append(SqlUtils.placeholders(ids.size())).append(")");
+            parameters.addAll(ids);
+        }
+        return true;
+    }
+    
+    /**
+     * Construit une requête booléenne FULLTEXT : chaque terme est une phrase obligatoire,
+     * découpée en n-grammes par le parseur de l'index
+     */
+    private static String booleanQuery(List<String> terms) {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (query.length() > 0) {
+                query.append(' ');
             }
+            query.append("+\"").append(term.replace("\"", "")).append('"');
+        }
+        return query.toString();
+    }
+    
+    /**
+     * Trouve les IDs des patients correspondant à un nom et/ou prénom
+     * 
+     * @param lastName Le nom de famille (peut être null)
+     * @param firstName Le prénom (peut être null)
+     * @return Les IDs par pertinence décroissante, ou null si aucun critère
+     * @throws DAOException En cas d'erreur d'accès aux données
+     */
+    private List<Integer> findPatientIdsByName(String lastName, String firstName) throws DAOException {
+        List<String> terms = new ArrayList<>(PatientSearchIndex.nameTerms(lastName));
+        terms.addAll(PatientSearchIndex.nameTerms(firstName));
+        if (terms.isEmpty()) {
+            return null;
+        }
+        
+        if (FULLTEXT_SEARCH) {
+            return executeFullTextSearch(SQL_FULLTEXT_SEARCH_BY_NAME, booleanQuery(terms), "nom");
+        }
+        return searchIndex.searchByName(lastName, firstName, AppConfig.MAX_SEARCH_RESULTS);
+    }
+    
+    /**
+     * Trouve les IDs des patients correspondant à un numéro de téléphone
+     * 
+     * @param phone Le numéro (ou début de numéro) recherché
+     * @return Les IDs des patients trouvés, ou null si aucun critère
+     * @throws DAOException En cas d'erreur d'accès aux données
+     */
+    private List<Integer> findPatientIdsByPhone(String phone) throws DAOException {
+        String digits = PatientSearchIndex.normalizePhone(phone);
+        if (digits.isEmpty()) {
+            return null;
+        }
+        
+        if (!FULLTEXT_SEARCH) {
+            return searchIndex.searchByPhone(phone, AppConfig.MAX_SEARCH_RESULTS);
+        }
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SEARCH_PATIENTS_BY_PHONE_PREFIX)) {
             
-            return patients;
+            // Recherche par préfixe : contrairement à LIKE '%x%', elle exploite l'index
+            stmt.setString(1, phone.trim() + "%");
+            stmt.setInt(2, AppConfig.MAX_SEARCH_RESULTS);
+            
+            return executeIdQuery(stmt);
             
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de patients par critères", e);
+            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de patients par téléphone", e);
             throw new DAOException("Erreur lors de la recherche de patients: " + e.getMessage(), 
                                 e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
+        }
+    }
+    
+    /**
+     * Exécute une recherche FULLTEXT classée par pertinence
+     * 
+     * @param sql La requête (requête booléenne liée deux fois, puis la limite)
+     * @param query La requête booléenne
+     * @param field Le champ recherché (journalisation)
+     * @return Les IDs des patients trouvés, par pertinence décroissante
+     * @throws DAOException En cas d'erreur d'accès aux données
+     */
+    private List<Integer> executeFullTextSearch(String sql, String query, String field) throws DAOException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, query);
+            stmt.setString(2, query);
+            stmt.setInt(3, AppConfig.MAX_SEARCH_RESULTS);
+            
+            return executeIdQuery(stmt);
+            
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la recherche de patients par " + field, e);
+            throw new DAOException("Erreur lors de la recherche de patients: " + e.getMessage(), 
+                                e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
+    
+    /**
+     * Charge des patients par IDs en conservant l'ordre donné (classement de l'index)
+     * 
+     * @param patientIds Les IDs, par pertinence décroissante
+     * @return Les patients dans le même ordre (les patients supprimés entre-temps sont omis)
+     * @throws DAOException En cas d'erreur d'accès aux données
+     */
+    private List<Patient> getPatientsInOrder(List<Integer> patientIds) throws DAOException {
+        Map<Integer, Patient> patients = getPatientsByIds(patientIds);
+        List<Patient> ordered = new ArrayList<>(patientIds.size());
+        for (Integer patientId : patientIds) {
+            Patient patient = patients.get(patientId);
+            if (patient != null) {
+                ordered.add(patient);
+            }
+        }
+        return ordered;
+    }
+    
+    /**
+     * Charge des résumés de patients par IDs en conservant l'ordre donné
+     * 
+     * @param patientIds Les IDs, par pertinence décroissante
+     * @return Les résumés dans le même ordre (les patients supprimés entre-temps sont omis)
+     * @throws DAOException En cas d'erreur d'accès aux données
+     */
+    private List<PatientSummary> getPatientSummariesInOrder(List<Integer> patientIds) throws DAOException {
+        Map<Integer, PatientSummary> summaries = new HashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : SqlUtils.chunk(new LinkedHashSet<>(patientIds))) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        SqlUtils.expandInClause(SQL_SELECT_PATIENT_SUMMARIES_BY_IDS, chunk.size()))) {
+                    SqlUtils.bindIntegers(stmt, 1, chunk);
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        for (PatientSummary summary : RowMapper.mapAll(rs, PATIENT_SUMMARY_MAPPER)) {
+                            summaries.put(summary.getId(), summary);
+                        }
+                    }
+                }
             }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des résumés de patients par IDs", e);
+            throw new DAOException("Erreur lors de la récupération des patients: " + e.getMessage(), 
+                                e, DAOException.RETRIEVAL_ERROR);
+        }
+        
+        List<PatientSummary> ordered = new ArrayList<>(patientIds.size());
+        for (Integer patientId : patientIds) {
+            PatientSummary summary = summaries.get(patientId);
+            if (summary != null) {
+                ordered.add(summary);
+            }
+        }
+        return ordered;
+    }
+    
+    /**
+     * Exécute une requête préparée ne lisant que la colonne id_patient
+     * 
+     * @param stmt La requête préparée, paramètres déjà définis
+     * @return Les IDs dans l'ordre de la requête
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private List<Integer> executeIdQuery(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            List<Integer> ids = new ArrayList<>();
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+            return ids;
+        }
+    }
+    
+    /**
+     * Exécute une requête préparée et convertit chaque ligne en Patient
+     * 
+     * @param stmt La requête préparée, paramètres déjà définis
+     * @return La liste des patients
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    private List<Patient> executePatientQuery(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            return RowMapper.mapAll(rs, PATIENT_MAPPER);
         }
     }
-}
\ No newline at end of file
+}
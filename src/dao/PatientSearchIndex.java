@@ -0,0 +1,840 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import config.DatabaseConnection;
+import model.Patient;
+
+/**
+ * Index mémoire de recherche des patients par sous-chaîne.
+ * Les noms, les chiffres du téléphone et l'email sont normalisés (minuscules,
+ * accents retirés) puis découpés en termes. Pour chaque champ, un dictionnaire
+ * des termes distincts est indexé par trigrammes : une recherche intersecte les
+ * listes des trigrammes de la saisie puis vérifie les termes candidats, au lieu
+ * de parcourir toute la table avec LIKE '%x%'. Les saisies de moins de trois
+ * caractères sont servies par recherche dichotomique de préfixe.
+ *
+ * Les résultats sont classés : terme exact, puis préfixe, puis sous-chaîne ;
+ * à score égal, par ordre alphabétique nom puis prénom.
+ *
+ * L'index est chargé en une requête à la première recherche, puis reconstruit après
+ * EXPIRATION_MILLIS afin de prendre en compte les écritures des autres postes.
+ * Les écritures de ce poste sont répercutées immédiatement par PatientDAOImpl.
+ *
+ * La reconstruction (requête et construction du nouvel index) se fait sans verrou,
+ * par un seul thread : les recherches continuent pendant ce temps sur l'index
+ * précédent, qui est ensuite remplacé d'un bloc. Les écritures de ce poste
+ * survenues entre-temps sont rejouées sur le nouvel index avant le remplacement.
+ * En cas d'échec, l'index précédent reste servi et la reconstruction n'est retentée
+ * qu'après RETRY_DELAY_MILLIS ; seul le tout premier chargement remonte l'erreur.
+ */
+final class PatientSearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(PatientSearchIndex.class.getName());
+
+    // Durée de validité de l'index chargé
+    private static final long EXPIRATION_MILLIS = 15 * 60_000;
+
+    // Délai avant une nouvelle tentative après l'échec d'une reconstruction
+    private static final long RETRY_DELAY_MILLIS = 60_000;
+
+    // Scores de correspondance d'un terme
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_INFIX = 1;
+
+    private static final String SQL_SELECT_SEARCH_FIELDS =
+            "SELECT id_patient, nom, prenom, telephone, email FROM patients";
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern EMAIL_FORBIDDEN = Pattern.compile("[^a-z0-9@._+-]+");
+
+    /**
+     * Champs indexés
+     */
+    enum Field {
+        NAME, PHONE, EMAIL
+    }
+
+    // Instance unique partagée par les DAO
+    private static PatientSearchIndex instance;
+
+    private final DatabaseConnection dbConnection;
+
+    // Les écritures et le remplacement de l'index prennent le verrou en écriture, les recherches en lecture
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Un seul thread reconstruit l'index à la fois
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private Contents contents = new Contents();
+
+    // Date du dernier chargement complet (0 si jamais chargé)
+    private long loadedAt;
+
+    // Date avant laquelle une reconstruction ayant échoué n'est pas retentée
+    private long retryAt;
+
+    // Écritures de ce poste pendant une reconstruction, par ID de patient (null : suppression)
+    private Map<Integer, Document> pendingWrites;
+
+    // Incrémenté par invalidate : une reconstruction commencée avant est écartée
+    private long invalidations;
+
+    /**
+     * Constructeur. Sans connexion, l'index est autonome : il n'est alimenté que par
+     * recordPatient et n'est jamais rechargé (DAO en mémoire).
+     *
+     * @param dbConnection La connexion à la base de données, ou null
+     */
+    PatientSearchIndex(DatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /**
+     * Obtient l'index partagé
+     *
+     * @return L'instance unique de l'index
+     */
+    static synchronized PatientSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new PatientSearchIndex(DatabaseConnection.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Recherche les patients par nom et/ou prénom.
+     * Tous les termes saisis doivent correspondre à un terme du nom complet ;
+     * les patients dont le nom commence par le nom saisi sont classés en premier.
+     *
+     * @param lastName Le nom (ou une partie), peut être vide
+     * @param firstName Le prénom (ou une partie), peut être vide
+     * @param limit Le nombre maximal d'IDs retournés
+     * @return Les IDs des patients, par pertinence décroissante
+     * @throws DAOException En cas d'erreur lors du chargement de l'index
+     */
+    List<Integer> searchByName(String lastName, String firstName, int limit) throws DAOException {
+        List<String> terms = new ArrayList<>(nameTerms(lastName));
+        terms.addAll(nameTerms(firstName));
+        String lastNamePrefix = String.join(" ", nameTerms(lastName));
+        return search(Field.NAME, terms, lastNamePrefix, limit);
+    }
+
+    /**
+     * Recherche les patients dont le téléphone contient les chiffres saisis
+     *
+     * @param phone Le numéro (ou une partie), formaté librement
+     * @param limit Le nombre maximal d'IDs retournés
+     * @return Les IDs des patients, par pertinence décroissante
+     * @throws DAOException En cas d'erreur lors du chargement de l'index
+     */
+    List<Integer> searchByPhone(String phone, int limit) throws DAOException {
+        String digits = normalizePhone(phone);
+        return search(Field.PHONE, digits.isEmpty() ? List.of() : List.of(digits), "", limit);
+    }
+
+    /**
+     * Recherche les patients dont l'email contient la saisie
+     *
+     * @param email L'email (ou une partie)
+     * @param limit Le nombre maximal d'IDs retournés
+     * @return Les IDs des patients, par pertinence décroissante
+     * @throws DAOException En cas d'erreur lors du chargement de l'index
+     */
+    List<Integer> searchByEmail(String email, int limit) throws DAOException {
+        String folded = normalizeEmail(email);
+        return search(Field.EMAIL, folded.isEmpty() ? List.of() : List.of(folded), "", limit);
+    }
+
+    /**
+     * Répercute la création ou la modification d'un patient
+     *
+     * @param patient Le patient enregistré en base
+     */
+    void recordPatient(Patient patient) {
+        Document document = new Document(patient.getId(), patient.getLastName(), patient.getFirstName(),
+                patient.getPhone(), patient.getEmail());
+
+        lock.writeLock().lock();
+        try {
+            if (pendingWrites != null) {
+                pendingWrites.put(patient.getId(), document);
+            }
+            if (loadedAt == 0 && dbConnection != null) {
+                // Index pas encore chargé : le patient sera lu au premier chargement
+                return;
+            }
+            contents.removeDocument(patient.getId());
+            contents.addDocument(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Répercute la suppression d'un patient
+     *
+     * @param patientId L'ID du patient supprimé
+     */
+    void recordDeletion(int patientId) {
+        lock.writeLock().lock();
+        try {
+            if (pendingWrites != null) {
+                pendingWrites.put(patientId, null);
+            }
+            contents.removeDocument(patientId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index ; il sera rechargé à la prochaine recherche
+     */
+    void invalidate() {
+        lock.writeLock().lock();
+        try {
+            invalidations++;
+            contents = new Contents();
+            loadedAt = 0;
+            retryAt = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Normalise un texte : minuscules, sans accents
+     *
+     * @param text Le texte saisi
+     * @return Le texte normalisé (vide si null)
+     */
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Découpe un nom en termes normalisés ("Le Goff-Hélary" : le, goff, helary)
+     */
+    static List<String> nameTerms(String name) {
+        String folded = fold(name);
+        List<String> terms = new ArrayList<>();
+        for (String term : NAME_SEPARATORS.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Réduit un numéro de téléphone à ses chiffres, l'indicatif +33 étant ramené au 0 national
+     */
+    static String normalizePhone(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        String trimmed = phone.trim();
+        String digits = trimmed.replaceAll("[^0-9]", "");
+        if (trimmed.startsWith("+33")) {
+            return "0" + digits.substring(2);
+        }
+        if (digits.startsWith("0033")) {
+            return "0" + digits.substring(4);
+        }
+        return digits;
+    }
+
+    static String normalizeEmail(String email) {
+        return EMAIL_FORBIDDEN.matcher(fold(email)).replaceAll("");
+    }
+
+    /**
+     * Recherche sur un champ : chaque terme doit correspondre, les scores s'additionnent.
+     * Les correspondances sont manipulées en tableaux triés de (ID << 8 | score), et seuls
+     * les {@code limit} meilleurs résultats sont ordonnés (tas borné).
+     */
+    private List<Integer> search(Field field, List<String> terms, String lastNamePrefix, int limit)
+            throws DAOException {
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            TermIndex index = contents.fields.get(field);
+            List<long[]> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                long[] termMatches = index.match(term);
+                if (termMatches.length == 0) {
+                    return new ArrayList<>();
+                }
+                matches.add(termMatches);
+            }
+
+            // Intersection en commençant par le terme le plus sélectif
+            matches.sort(Comparator.comparingInt(m -> m.length));
+            long[] candidates = matches.get(0);
+            for (int i = 1; i < matches.size() && candidates.length > 0; i++) {
+                candidates = intersect(candidates, matches.get(i));
+            }
+            return topRanked(contents.documents, candidates, lastNamePrefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sélectionne les meilleurs candidats : score décroissant, puis nom, prénom et ID
+     */
+    private static List<Integer> topRanked(Map<Integer, Document> documents, long[] candidates,
+                                           String lastNamePrefix, int limit) {
+        int count = candidates.length;
+        Document[] docs = new Document[count];
+        int[] scores = new int[count];
+        for (int i = 0; i < count; i++) {
+            docs[i] = documents.get((int) (candidates[i] >>> 8));
+            scores[i] = (int) (candidates[i] & 0xFF);
+            if (!lastNamePrefix.isEmpty() && docs[i].sortKey.startsWith(lastNamePrefix)) {
+                scores[i] += SCORE_EXACT;
+            }
+        }
+
+        // Tas des candidats retenus, le moins bon à la racine
+        int[] heap = new int[Math.min(limit, count)];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size++, docs, scores);
+            } else if (compare(i, heap[0], docs, scores) < 0) {
+                heap[0] = i;
+                siftDown(heap, size, docs, scores);
+            }
+        }
+
+        Integer[] selected = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            selected[i] = heap[i];
+        }
+        Arrays.sort(selected, (x, y) -> compare(x, y, docs, scores));
+
+        List<Integer> ids = new ArrayList<>(size);
+        for (Integer candidate : selected) {
+            ids.add(docs[candidate].id);
+        }
+        return ids;
+    }
+
+    /**
+     * Ordre de classement : négatif si le candidat x est meilleur que y
+     */
+    private static int compare(int x, int y, Document[] docs, int[] scores) {
+        int cmp = Integer.compare(scores[y], scores[x]);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compare(docs[x].sortPrefix, docs[y].sortPrefix);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = docs[x].sortKey.compareTo(docs[y].sortKey);
+        return cmp != 0 ? cmp : Integer.compare(docs[x].id, docs[y].id);
+    }
+
+    private static void siftUp(int[] heap, int index, Document[] docs, int[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (compare(heap[index], heap[parent], docs, scores) <= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Document[] docs, int[] scores) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && compare(heap[left], heap[worst], docs, scores) > 0) {
+                worst = left;
+            }
+            if (right < size && compare(heap[right], heap[worst], docs, scores) > 0) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    /**
+     * Intersection de deux tableaux triés de (ID << 8 | score), les scores étant additionnés
+     */
+    private static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            long idFirst = first[i] >>> 8;
+            long idSecond = second[j] >>> 8;
+            if (idFirst < idSecond) {
+                i++;
+            } else if (idFirst > idSecond) {
+                j++;
+            } else {
+                long score = Math.min(0xFF, (first[i] & 0xFF) + (second[j] & 0xFF));
+                result[size++] = (idFirst << 8) | score;
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Charge l'index s'il n'a jamais été chargé, ou le reconstruit s'il a expiré.
+     * Pendant une reconstruction, les autres recherches n'attendent pas et servent
+     * l'index précédent ; seul le premier chargement est attendu.
+     */
+    private void ensureLoaded() throws DAOException {
+        if (dbConnection == null) {
+            return;
+        }
+        boolean loaded;
+
+        lock.readLock().lock();
+        try {
+            if (!needsLoad(System.currentTimeMillis())) {
+                return;
+            }
+            loaded = loadedAt != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (loaded) {
+            if (!loadLock.tryLock()) {
+                return;
+            }
+        } else {
+            loadLock.lock();
+        }
+        try {
+            rebuild();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * @return true si l'index n'est pas chargé, ou s'il a expiré et qu'aucun échec récent
+     *         ne retarde sa reconstruction (appelé sous verrou)
+     */
+    private boolean needsLoad(long now) {
+        return loadedAt == 0 || (now - loadedAt >= EXPIRATION_MILLIS && now >= retryAt);
+    }
+
+    /**
+     * Reconstruit l'index sans verrou puis le remplace (appelé par un seul thread, sous loadLock)
+     *
+     * @throws DAOException Si le chargement échoue alors qu'aucun index n'est disponible
+     */
+    private void rebuild() throws DAOException {
+        long now = System.currentTimeMillis();
+        long invalidationsBefore;
+
+        lock.writeLock().lock();
+        try {
+            if (!needsLoad(now)) {
+                // Chargé par un autre thread entre-temps
+                return;
+            }
+            invalidationsBefore = invalidations;
+            pendingWrites = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Contents rebuilt;
+        try {
+            rebuilt = queryAll();
+        } catch (SQLException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+                if (loadedAt != 0) {
+                    retryAt = now + RETRY_DELAY_MILLIS;
+                    LOGGER.log(Level.WARNING, "Échec de la reconstruction de l'index de recherche des patients, "
+                            + "index précédent conservé", e);
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.log(Level.SEVERE, "Erreur lors du chargement de l'index de recherche des patients", e);
+            throw new DAOException("Erreur lors du chargement de l'index de recherche des patients: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (invalidations == invalidationsBefore) {
+                for (Map.Entry<Integer, Document> write : pendingWrites.entrySet()) {
+                    rebuilt.removeDocument(write.getKey());
+                    if (write.getValue() != null) {
+                        rebuilt.addDocument(write.getValue());
+                    }
+                }
+                contents = rebuilt;
+                loadedAt = now;
+                retryAt = 0;
+                LOGGER.log(Level.FINE, "Index de recherche des patients chargé ({0} patients, {1} termes de nom)",
+                        new Object[] { rebuilt.documents.size(), rebuilt.fields.get(Field.NAME).termCount() });
+            }
+            pendingWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Construit un nouvel index à partir de la table des patients (appelé sans verrou)
+     */
+    private Contents queryAll() throws SQLException {
+        Contents loaded = new Contents();
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_SEARCH_FIELDS)) {
+            // Lecture en flux : évite de matérialiser toute la table côté pilote
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loaded.addDocument(new Document(rs.getInt("id_patient"), rs.getString("nom"),
+                            rs.getString("prenom"), rs.getString("telephone"), rs.getString("email")));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Contenu de l'index : patients et index des champs, remplacé d'un bloc à chaque reconstruction
+     */
+    private static final class Contents {
+        final Map<Integer, Document> documents = new HashMap<>();
+        final EnumMap<Field, TermIndex> fields = new EnumMap<>(Field.class);
+
+        Contents() {
+            for (Field field : Field.values()) {
+                fields.put(field, new TermIndex());
+            }
+        }
+
+        void addDocument(Document document) {
+            documents.put(document.id, document);
+            for (String term : document.nameTerms) {
+                fields.get(Field.NAME).add(term, document.id);
+            }
+            if (!document.phone.isEmpty()) {
+                fields.get(Field.PHONE).add(document.phone, document.id);
+            }
+            if (!document.email.isEmpty()) {
+                fields.get(Field.EMAIL).add(document.email, document.id);
+            }
+        }
+
+        void removeDocument(int patientId) {
+            Document document = documents.remove(patientId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.nameTerms) {
+                fields.get(Field.NAME).remove(term, patientId);
+            }
+            fields.get(Field.PHONE).remove(document.phone, patientId);
+            fields.get(Field.EMAIL).remove(document.email, patientId);
+        }
+    }
+
+    /**
+     * Champs normalisés d'un patient
+     */
+    private static final class Document {
+        final int id;
+        final String[] nameTerms;
+        final String phone;
+        final String email;
+        // Clé de tri et de classement : "nom prenom" normalisé
+        final String sortKey;
+        // Dix premiers caractères de la clé de tri, comparables comme un entier
+        final long sortPrefix;
+
+        Document(int id, String lastName, String firstName, String phone, String email) {
+            this.id = id;
+            List<String> lastTerms = nameTerms(lastName);
+            List<String> allTerms = new ArrayList<>(lastTerms);
+            allTerms.addAll(nameTerms(firstName));
+            this.nameTerms = allTerms.stream().distinct().toArray(String[]::new);
+            this.phone = normalizePhone(phone);
+            this.email = normalizeEmail(email);
+            this.sortKey = String.join(" ", lastTerms) + " " + String.join(" ", nameTerms(firstName));
+            this.sortPrefix = packPrefix(sortKey);
+        }
+
+        /**
+         * Code les premiers caractères sur 6 bits chacun en respectant l'ordre des chaînes
+         * (espace, puis chiffres, puis lettres)
+         */
+        private static long packPrefix(String key) {
+            long packed = 0;
+            for (int i = 0; i < 10; i++) {
+                int code = 0;
+                if (i < key.length()) {
+                    char c = key.charAt(i);
+                    code = c == ' ' ? 1 : c <= '9' ? 2 + c - '0' : 12 + c - 'a';
+                }
+                packed = (packed << 6) | code;
+            }
+            return packed;
+        }
+    }
+
+    /**
+     * Index d'un champ : dictionnaire des termes distincts, listes de patients par terme,
+     * et trigrammes vers les termes qui les contiennent
+     */
+    private static final class TermIndex {
+
+        // Terme -> numéro d'ordre dans le dictionnaire (les termes ne sont jamais retirés)
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<IntList> postings = new ArrayList<>();
+
+        // Trigramme -> numéros des termes le contenant (croissants)
+        private final Map<Long, IntList> trigrams = new HashMap<>();
+
+        // Termes triés pour la recherche de préfixe, reconstruits à la demande (sous verrou en lecture)
+        private String[] sortedTerms = new String[0];
+        private volatile boolean sortedDirty;
+
+        int termCount() {
+            return terms.size();
+        }
+
+        void add(String term, int patientId) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                termId = terms.size();
+                termIds.put(term, termId);
+                terms.add(term);
+                postings.add(new IntList());
+                for (int i = 0; i + 3 <= term.length(); i++) {
+                    IntList list = trigrams.computeIfAbsent(trigram(term, i), k -> new IntList());
+                    list.append(termId);
+                }
+                sortedDirty = true;
+            }
+            postings.get(termId).insertSorted(patientId);
+        }
+
+        void remove(String term, int patientId) {
+            Integer termId = termIds.get(term);
+            if (termId != null) {
+                postings.get(termId).removeSorted(patientId);
+            }
+        }
+
+        /**
+         * Patients dont un terme contient la saisie, avec le meilleur score de correspondance
+         *
+         * @param query Le terme saisi, normalisé
+         * @return Tableau trié de (ID << 8 | score), un élément par patient
+         */
+        long[] match(String query) {
+            List<Integer> matched = new ArrayList<>();
+            if (query.length() < 3) {
+                matched.addAll(prefixMatches(query));
+            } else {
+                for (int termId : trigramMatches(query)) {
+                    if (terms.get(termId).contains(query)) {
+                        matched.add(termId);
+                    }
+                }
+            }
+
+            int total = 0;
+            for (int termId : matched) {
+                total += postings.get(termId).size;
+            }
+            long[] packed = new long[total];
+            int size = 0;
+            for (int termId : matched) {
+                String term = terms.get(termId);
+                long score = term.equals(query) ? SCORE_EXACT : term.startsWith(query) ? SCORE_PREFIX : SCORE_INFIX;
+                IntList list = postings.get(termId);
+                for (int i = 0; i < list.size; i++) {
+                    packed[size++] = ((long) list.values[i] << 8) | score;
+                }
+            }
+            if (matched.size() <= 1) {
+                // Une seule liste : déjà triée et sans doublon
+                return packed;
+            }
+
+            // Plusieurs termes du même patient : conserver le meilleur score (le dernier après tri)
+            Arrays.sort(packed);
+            int distinct = 0;
+            for (int i = 0; i < packed.length; i++) {
+                if (i + 1 < packed.length && packed[i + 1] >>> 8 == packed[i] >>> 8) {
+                    continue;
+                }
+                packed[distinct++] = packed[i];
+            }
+            return Arrays.copyOf(packed, distinct);
+        }
+
+        /**
+         * Termes commençant par la saisie (recherche dichotomique sur les termes triés)
+         */
+        private List<Integer> prefixMatches(String prefix) {
+            String[] sortedTerms = sortedTerms();
+            List<Integer> matches = new ArrayList<>();
+            int from = Arrays.binarySearch(sortedTerms, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            for (int i = from; i < sortedTerms.length && sortedTerms[i].startsWith(prefix); i++) {
+                matches.add(termIds.get(sortedTerms[i]));
+            }
+            return matches;
+        }
+
+        /**
+         * Termes triés ; plusieurs recherches concurrentes peuvent demander la reconstruction
+         */
+        private synchronized String[] sortedTerms() {
+            if (sortedDirty) {
+                String[] sorted = terms.toArray(new String[0]);
+                Arrays.sort(sorted);
+                sortedTerms = sorted;
+                sortedDirty = false;
+            }
+            return sortedTerms;
+        }
+
+        /**
+         * Termes contenant tous les trigrammes de la saisie (intersection des listes triées)
+         */
+        private List<Integer> trigramMatches(String query) {
+            List<IntList> lists = new ArrayList<>();
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                IntList list = trigrams.get(trigram(query, i));
+                if (list == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            List<Integer> matches = new ArrayList<>();
+            IntList smallest = lists.get(0);
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int termId = smallest.values[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).containsSorted(termId)) {
+                        continue candidates;
+                    }
+                }
+                matches.add(termId);
+            }
+            return matches;
+        }
+
+        private static long trigram(String text, int offset) {
+            return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+        }
+    }
+
+    /**
+     * Liste d'entiers triée, sans boxing
+     */
+    private static final class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void append(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            ensureCapacity();
+            values[size++] = value;
+        }
+
+        void insertSorted(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+        }
+
+        void removeSorted(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        boolean containsSorted(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dao;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.Appointment;
+import model.Doctor;
+import model.Patient;
+import model.Secretary;
+
+/**
+ * Chargeur groupé des objets liés (patient, médecin, secrétaire) d'une liste de rendez-vous.
+ * Les IDs distincts sont collectés puis chargés avec une requête IN (...) par type d'entité,
+ * ce qui rend le coût d'un appel de liste constant quel que soit le nombre de lignes.
+ * Une table d'identité garantit qu'une même entité n'est matérialisée qu'une fois
+ * pendant la durée de vie du chargeur (un appel DAO).
+ */
+final class RelatedObjectLoader {
+
+    private final PatientDAO patientDAO;
+    private final UserDAO userDAO;
+
+    // Tables d'identité (une valeur null mémorise un ID introuvable)
+    private final Map<Integer, Patient> patients = new HashMap<>();
+    private final Map<Integer, Doctor> doctors = new HashMap<>();
+    private final Map<Integer, Secretary> secretaries = new HashMap<>();
+
+    RelatedObjectLoader(PatientDAO patientDAO, UserDAO userDAO) {
+        this.patientDAO = patientDAO;
+        this.userDAO = userDAO;
+    }
+
+    /**
+     * Charge et affecte les objets liés de tous les rendez-vous de la liste
+     *
+     * @param appointments Les rendez-vous à compléter
+     * @throws DAOException En cas d'erreur lors du chargement des objets liés
+     */
+    void load(List<Appointment> appointments) throws DAOException {
+        if (appointments.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> missingPatients = new LinkedHashSet<>();
+        Set<Integer> missingDoctors = new LinkedHashSet<>();
+        Set<Integer> missingSecretaries = new LinkedHashSet<>();
+
+        // Enregistrer les objets partiels issus des jointures et collecter les IDs manquants
+        for (Appointment appointment : appointments) {
+            Patient patient = appointment.getPatient();
+            if (patient != null && patient.getLastName() != null) {
+                patients.putIfAbsent(appointment.getPatientId(), patient);
+            } else if (!patients.containsKey(appointment.getPatientId())) {
+                missingPatients.add(appointment.getPatientId());
+            }
+
+            Doctor doctor = appointment.getDoctor();
+            if (doctor != null && doctor.getFullName() != null) {
+                doctors.putIfAbsent(appointment.getDoctorId(), doctor);
+            } else if (!doctors.containsKey(appointment.getDoctorId())) {
+                missingDoctors.add(appointment.getDoctorId());
+            }
+
+            Secretary secretary = appointment.getSecretary();
+            if (secretary != null) {
+                secretaries.putIfAbsent(appointment.getSecretaryId(), secretary);
+            } else if (!secretaries.containsKey(appointment.getSecretaryId())) {
+                missingSecretaries.add(appointment.getSecretaryId());
+            }
+        }
+
+        // Une requête par type d'entité
+        if (!missingPatients.isEmpty()) {
+            remember(patients, missingPatients, patientDAO.getPatientsByIds(missingPatients));
+        }
+        if (!missingDoctors.isEmpty()) {
+            remember(doctors, missingDoctors, userDAO.getDoctorsByIds(missingDoctors));
+        }
+        if (!missingSecretaries.isEmpty()) {
+            remember(secretaries, missingSecretaries, userDAO.getSecretariesByIds(missingSecretaries));
+        }
+
+        // Affecter les instances partagées
+        for (Appointment appointment : appointments) {
+            appointment.setPatient(patients.get(appointment.getPatientId()));
+            appointment.setDoctor(doctors.get(appointment.getDoctorId()));
+            appointment.setSecretary(secretaries.get(appointment.getSecretaryId()));
+        }
+    }
+
+    private static <T> void remember(Map<Integer, T> identityMap, Collection<Integer> requested,
+                                     Map<Integer, T> loaded) {
+        for (Integer id : requested) {
+            identityMap.put(id, loaded.get(id));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversion d'une ligne de ResultSet en objet, par lecture des colonnes par index.
+ * Un mapper est obtenu d'une {@link Factory} une fois par ResultSet : les positions
+ * des colonnes (y compris les colonnes facultatives des jointures) sont résolues à
+ * ce moment-là, pas à chaque ligne.
+ *
+ * @param <T> Le type d'objet produit
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+
+    /**
+     * Convertit la ligne courante
+     *
+     * @param rs Le ResultSet positionné sur la ligne
+     * @return L'objet correspondant
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+
+    /**
+     * Définition d'un mapping : résout les positions des colonnes et retourne
+     * le mapper lié à cette disposition
+     *
+     * @param <T> Le type d'objet produit
+     */
+    @FunctionalInterface
+    interface Factory<T> {
+        RowMapper<T> bind(ColumnLayout layout) throws SQLException;
+    }
+
+    /**
+     * Convertit toutes les lignes d'un ResultSet
+     *
+     * @param rs Le ResultSet, avant la première ligne
+     * @param factory La définition du mapping
+     * @return Les objets dans l'ordre du résultat
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    static <T> List<T> mapAll(ResultSet rs, Factory<T> factory) throws SQLException {
+        RowMapper<T> mapper = factory.bind(ColumnLayout.of(rs));
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(mapper.mapRow(rs));
+        }
+        return rows;
+    }
+
+    /**
+     * Convertit la première ligne d'un ResultSet
+     *
+     * @param rs Le ResultSet, avant la première ligne
+     * @param factory La définition du mapping
+     * @return L'objet correspondant, ou null si le résultat est vide
+     * @throws SQLException En cas d'erreur d'accès aux données
+     */
+    static <T> T mapFirst(ResultSet rs, Factory<T> factory) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        return factory.bind(ColumnLayout.of(rs)).mapRow(rs);
+    }
+}
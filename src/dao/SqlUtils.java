@@ -0,0 +1,145 @@
+package dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utilitaires SQL partagés par les implémentations MySQL des DAO.
+ */
+final class SqlUtils {
+
+    // Nombre maximal d'identifiants par clause IN (...)
+    static final int MAX_IN_CLAUSE_SIZE = 500;
+
+    // Nombre maximal de lignes par executeBatch() ; avec rewriteBatchedStatements,
+    // chaque lot part en une seule requête multi-valeurs
+    static final int MAX_BATCH_SIZE = 500;
+
+    private SqlUtils() {
+        throw new AssertionError("Classe utilitaire non instanciable");
+    }
+
+    /**
+     * Construit la liste de marqueurs d'une clause IN, par exemple "?, ?, ?"
+     *
+     * @param count Le nombre de marqueurs
+     * @return La liste de marqueurs séparés par des virgules
+     */
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Remplace le marqueur {@code {ids}} d'une requête par une liste de marqueurs
+     *
+     * @param sqlTemplate La requête contenant {@code {ids}}
+     * @param count Le nombre d'identifiants
+     * @return La requête prête à être préparée
+     */
+    static String expandInClause(String sqlTemplate, int count) {
+        return sqlTemplate.replace("{ids}", placeholders(count));
+    }
+
+    /**
+     * Lie une liste d'entiers à partir d'un index de paramètre donné
+     *
+     * @param stmt La requête préparée
+     * @param firstIndex L'index du premier paramètre (à partir de 1)
+     * @param values Les valeurs à lier
+     * @return L'index du paramètre suivant
+     * @throws SQLException En cas d'erreur de liaison
+     */
+    static int bindIntegers(PreparedStatement stmt, int firstIndex, List<Integer> values) throws SQLException {
+        int index = firstIndex;
+        for (Integer value : values) {
+            stmt.setInt(index++, value);
+        }
+        return index;
+    }
+
+    /**
+     * Découpe une collection d'identifiants en lots pour les clauses IN
+     *
+     * @param ids Les identifiants (distincts de préférence)
+     * @return Les lots d'au plus MAX_IN_CLAUSE_SIZE identifiants
+     */
+    static List<List<Integer>> chunk(Collection<Integer> ids) {
+        return chunk(ids, MAX_IN_CLAUSE_SIZE);
+    }
+
+    /**
+     * Découpe une collection d'éléments en lots de taille bornée
+     *
+     * @param items Les éléments à découper
+     * @param size La taille maximale d'un lot
+     * @return Les lots
+     */
+    static <T> List<List<T>> chunk(Collection<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(size, items.size()));
+        for (T item : items) {
+            current.add(item);
+            if (current.size() == size) {
+                chunks.add(current);
+                current = new ArrayList<>(size);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    /**
+     * Lit les clés générées par un executeBatch() d'insertions
+     *
+     * @param stmt La requête préparée avec Statement.RETURN_GENERATED_KEYS
+     * @param expected Le nombre de lignes insérées par le lot
+     * @return Les clés, dans l'ordre des lignes du lot
+     * @throws SQLException Si le pilote retourne moins de clés que de lignes
+     */
+    static int[] generatedKeys(PreparedStatement stmt, int expected) throws SQLException {
+        int[] keys = new int[expected];
+        int count = 0;
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            while (count < expected && rs.next()) {
+                keys[count++] = rs.getInt(1);
+            }
+        }
+        if (count < expected) {
+            throw new SQLException("Clés générées manquantes: " + count + " sur " + expected);
+        }
+        return keys;
+    }
+
+    /**
+     * Additionne les lignes affectées d'un executeBatch(). Une requête réécrite par le
+     * pilote peut retourner SUCCESS_NO_INFO : elle est alors comptée pour une ligne.
+     *
+     * @param counts Le retour de executeBatch()
+     * @return Le nombre de lignes affectées
+     */
+    static int affectedRows(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count == Statement.SUCCESS_NO_INFO) {
+                total++;
+            } else if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
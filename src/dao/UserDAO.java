@@ -1,6 +1,8 @@
 package dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import model.User;
 import model.Secretary;
 import model.Doctor;
@@ -108,6 +110,15 @@ public interface UserDAO {
      */
     Secretary getSecretaryById(int id) throws DAOException;
     
+    /**
+     * Récupère plusieurs secrétaires par leurs IDs en une seule requête
+     * 
+     * @param ids Les IDs des secrétaires à récupérer
+     * @return Map ID -> secrétaire (les IDs introuvables ou d'un autre rôle sont absents)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    Map<Integer, Secretary> getSecretariesByIds(Collection<Integer> ids) throws DAOException;
+    
     /**
      * Récupère toutes les secrétaires
      * 
@@ -142,6 +153,15 @@ public interface UserDAO {
      */
     Doctor getDoctorById(int id) throws DAOException;
     
+    /**
+     * Récupère plusieurs médecins par leurs IDs en une seule requête
+     * 
+     * @param ids Les IDs des médecins à récupérer
+     * @return Map ID -> médecin (les IDs introuvables sont absents)
+     * @throws DAOException En cas d'erreur de persistance
+     */
+    Map<Integer, Doctor> getDoctorsByIds(Collection<Integer> ids) throws DAOException;
+    
     /**
      * Récupère tous les médecins
      * 
@@ -8,7 +8,11 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,6 +43,8 @@ public class UserDAOImpl implements UserDAO {
 
     private static final String SQL_SELECT_USER_BY_ID = "SELECT * FROM utilisateurs WHERE id_utilisateur = ?";
 
+    private static final String SQL_SELECT_USERS_BY_IDS = "SELECT * FROM utilisateurs WHERE id_utilisateur IN ({ids})";
+
     private static final String SQL_SELECT_USER_BY_USERNAME = "SELECT * FROM utilisateurs WHERE nom_utilisateur = ?";
 
     private static final String SQL_SELECT_ALL_USERS = "SELECT * FROM utilisateurs ORDER BY nom_complet";
@@ -63,6 +69,11 @@ public class UserDAOImpl implements UserDAO {
             "FROM utilisateurs u JOIN medecins m ON u.id_utilisateur = m.id_medecin " +
             "WHERE u.id_utilisateur = ?";
 
+    private static final String SQL_SELECT_DOCTORS_BY_IDS = "SELECT u.*, m.specialite, m.horaires_disponibilite, m.telephone_professionnel "
+            +
+            "FROM utilisateurs u JOIN medecins m ON u.id_utilisateur = m.id_medecin " +
+            "WHERE u.id_utilisateur IN ({ids})";
+
     private static final String SQL_SELECT_ALL_DOCTORS = "SELECT u.*, m.specialite, m.horaires_disponibilite, m.telephone_professionnel "
             +
             "FROM utilisateurs u JOIN medecins m ON u.id_utilisateur = m.id_medecin " +
@@ -87,104 +98,99 @@ public class UserDAOImpl implements UserDAO {
     }
 
     /**
-     * Crée et retourne une instance d'User appropriée selon le rôle
-     * (Factory Method pattern)
-     * 
-     * @param rs Le ResultSet contenant les données de l'utilisateur
-     * @return Une instance d'User, Secretary ou Doctor selon le rôle
-     * @throws SQLException En cas d'erreur d'accès aux données du ResultSet
+     * Mapping d'une ligne de la table utilisateurs : crée une instance d'User
+     * appropriée selon le rôle (Factory Method pattern)
      */
-    private User createUserFromResultSet(ResultSet rs) throws SQLException {
-        String role = rs.getString("role");
-
-        int id = rs.getInt("id_utilisateur");
-        String username = rs.getString("nom_utilisateur");
-        String passwordHash = rs.getString("mot_de_passe_hash");
-        String fullName = rs.getString("nom_complet");
-        boolean active = rs.getBoolean("actif");
-
-        // Convertir Timestamp en LocalDateTime
-        Timestamp creationTimestamp = rs.getTimestamp("date_creation_compte");
-        LocalDateTime creationDate = creationTimestamp != null
-                ? creationTimestamp.toLocalDateTime()
-                : LocalDateTime.now();
-
-        // Créer une instance selon le rôle
-        if ("SECRETAIRE".equals(role)) {
-            return new Secretary(id, username, passwordHash, fullName, active, creationDate);
-        } else if ("MEDECIN".equals(role)) {
-            // Pour un médecin, il faudrait idéalement récupérer les données spécifiques
-            // Mais ici on retourne une instance basique qui sera enrichie si nécessaire
-            Doctor doctor = new Doctor(id, username, passwordHash, fullName, active, creationDate, null, null, null);
-            doctor.setRole(role);
-            return doctor;
-        } else {
-            // Cas générique pour un autre rôle potentiel
-            throw new SQLException("Rôle non supporté: " + role);
-        }
-    }
+    static final RowMapper.Factory<User> USER_MAPPER = layout -> {
+        final int role = layout.required("role");
+        final int id = layout.required("id_utilisateur");
+        final int username = layout.required("nom_utilisateur");
+        final int passwordHash = layout.required("mot_de_passe_hash");
+        final int fullName = layout.required("nom_complet");
+        final int active = layout.required("actif");
+        final int creation = layout.required("date_creation_compte");
+
+        return rs -> {
+            String userRole = rs.getString(role);
+            LocalDateTime creationDate = toLocalDateTime(rs.getTimestamp(creation));
+
+            // Créer une instance selon le rôle
+            if ("SECRETAIRE".equals(userRole)) {
+                return new Secretary(rs.getInt(id), rs.getString(username), rs.getString(passwordHash),
+                        rs.getString(fullName), rs.getBoolean(active), creationDate);
+            } else if ("MEDECIN".equals(userRole)) {
+                // Pour un médecin, il faudrait idéalement récupérer les données spécifiques
+                // Mais ici on retourne une instance basique qui sera enrichie si nécessaire
+                Doctor doctor = new Doctor(rs.getInt(id), rs.getString(username), rs.getString(passwordHash),
+                        rs.getString(fullName), rs.getBoolean(active), creationDate, null, null, null);
+                doctor.setRole(userRole);
+                return doctor;
+            } else {
+                // Cas générique pour un autre rôle potentiel
+                throw new SQLException("Rôle non supporté: " + userRole);
+            }
+        };
+    };
 
     /**
-     * Crée et retourne une instance de Doctor avec toutes les données spécifiques
-     * 
-     * @param rs Le ResultSet contenant les données du médecin
-     * @return Une instance de Doctor complète
-     * @throws SQLException En cas d'erreur d'accès aux données du ResultSet
+     * Mapping d'une ligne utilisateurs jointe à medecins : instance de Doctor
+     * avec toutes les données spécifiques (partagé avec DoctorDAOImpl)
+     */
+    static final RowMapper.Factory<Doctor> DOCTOR_MAPPER = layout -> {
+        final int id = layout.required("id_utilisateur");
+        final int username = layout.required("nom_utilisateur");
+        final int passwordHash = layout.required("mot_de_passe_hash");
+        final int fullName = layout.required("nom_complet");
+        final int active = layout.required("actif");
+        final int creation = layout.required("date_creation_compte");
+        final int specialty = layout.required("specialite");
+        final int workHours = layout.required("horaires_disponibilite");
+        final int professionalPhone = layout.required("telephone_professionnel");
+
+        return rs -> new Doctor(rs.getInt(id), rs.getString(username), rs.getString(passwordHash),
+                rs.getString(fullName), rs.getBoolean(active), toLocalDateTime(rs.getTimestamp(creation)),
+                rs.getString(specialty), rs.getString(workHours), rs.getString(professionalPhone));
+    };
+
+    /**
+     * Convertit la date de création d'un compte (date courante si absente)
      */
-    private Doctor createDoctorFromResultSet(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id_utilisateur");
-        String username = rs.getString("nom_utilisateur");
-        String passwordHash = rs.getString("mot_de_passe_hash");
-        String fullName = rs.getString("nom_complet");
-        boolean active = rs.getBoolean("actif");
-
-        // Convertir Timestamp en LocalDateTime
-        Timestamp creationTimestamp = rs.getTimestamp("date_creation_compte");
-        LocalDateTime creationDate = creationTimestamp != null
-                ? creationTimestamp.toLocalDateTime()
-                : LocalDateTime.now();
-
-        // Données spécifiques au médecin
-        String specialty = rs.getString("specialite");
-        String workHours = rs.getString("horaires_disponibilite");
-        String professionalPhone = rs.getString("telephone_professionnel");
-
-        return new Doctor(id, username, passwordHash, fullName, active, creationDate,
-                specialty, workHours, professionalPhone);
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : LocalDateTime.now();
     }
 
     @Override
     public int addUser(User user) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet generatedKeys = null;
-
-        try {
-            conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection()) {
 
             // Désactiver l'auto-commit pour la transaction
             conn.setAutoCommit(false);
 
-            // Insérer l'utilisateur de base
-            stmt = conn.prepareStatement(SQL_INSERT_USER, Statement.RETURN_GENERATED_KEYS);
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPasswordHash());
-            stmt.setString(3, user.getRole());
-            stmt.setString(4, user.getFullName());
-            stmt.setBoolean(5, user.isActive());
-            stmt.setTimestamp(6, Timestamp.valueOf(user.getCreationDate()));
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_USER, Statement.RETURN_GENERATED_KEYS)) {
+                // Insérer l'utilisateur de base
+                stmt.setString(1, user.getUsername());
+                stmt.setString(2, user.getPasswordHash());
+                stmt.setString(3, user.getRole());
+                stmt.setString(4, user.getFullName());
+                stmt.setBoolean(5, user.isActive());
+                stmt.setTimestamp(6, Timestamp.valueOf(user.getCreationDate()));
 
-            int rowsAffected = stmt.executeUpdate();
+                int rowsAffected = stmt.executeUpdate();
 
-            if (rowsAffected == 0) {
-                throw new DAOException("L'insertion de l'utilisateur a échoué, aucune ligne affectée.",
-                        DAOException.INSERTION_ERROR);
-            }
+                if (rowsAffected == 0) {
+                    throw new DAOException("L'insertion de l'utilisateur a échoué, aucune ligne affectée.",
+                            DAOException.INSERTION_ERROR);
+                }
 
-            // Récupérer l'ID généré
-            generatedKeys = stmt.getGeneratedKeys();
-            if (generatedKeys.next()) {
-                int userId = generatedKeys.getInt(1);
+                // Récupérer l'ID généré
+                int userId;
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new DAOException("L'insertion de l'utilisateur a échoué, aucun ID généré.",
+                                DAOException.INSERTION_ERROR);
+                    }
+                    userId = generatedKeys.getInt(1);
+                }
                 user.setId(userId);
 
                 // Si c'est un médecin, insérer les données spécifiques
@@ -197,21 +203,15 @@ public class UserDAOImpl implements UserDAO {
                 conn.commit();
 
                 return userId;
-            } else {
-                conn.rollback();
-                throw new DAOException("L'insertion de l'utilisateur a échoué, aucun ID généré.",
-                        DAOException.INSERTION_ERROR);
-            }
 
-        } catch (SQLException e) {
-            try {
-                if (conn != null) {
-                    conn.rollback();
-                }
-            } catch (SQLException ex) {
-                LOGGER.log(Level.SEVERE, "Erreur lors du rollback", ex);
+            } catch (SQLException | DAOException e) {
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
 
+        } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de l'ajout de l'utilisateur", e);
 
             if (e.getMessage().contains("Duplicate entry") && e.getMessage().contains("nom_utilisateur")) {
@@ -220,20 +220,19 @@ public class UserDAOImpl implements UserDAO {
 
             throw new DAOException("Erreur lors de l'ajout de l'utilisateur: " + e.getMessage(),
                     e, DAOException.INSERTION_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (generatedKeys != null)
-                    generatedKeys.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null) {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
+        }
+    }
+
+    /**
+     * Annule la transaction en cours sans propager d'erreur
+     * 
+     * @param conn La connexion dont la transaction doit être annulée
+     */
+    private void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.SEVERE, "Erreur lors du rollback", ex);
         }
     }
 
@@ -245,10 +244,7 @@ public class UserDAOImpl implements UserDAO {
      * @throws SQLException En cas d'erreur SQL
      */
     private void addDoctorSpecificData(Connection conn, Doctor doctor) throws SQLException {
-        PreparedStatement stmt = null;
-
-        try {
-            stmt = conn.prepareStatement(SQL_INSERT_DOCTOR);
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_DOCTOR)) {
             stmt.setInt(1, doctor.getId());
             stmt.setString(2, doctor.getSpecialty());
             stmt.setString(3, doctor.getWorkHours());
@@ -259,56 +255,48 @@ public class UserDAOImpl implements UserDAO {
             if (rowsAffected == 0) {
                 throw new SQLException("L'insertion des données spécifiques du médecin a échoué.");
             }
-        } finally {
-            if (stmt != null)
-                stmt.close();
         }
     }
 
     @Override
     public void updateUser(User user) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-
-        try {
-            conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getConnection()) {
 
             // Désactiver l'auto-commit pour la transaction
             conn.setAutoCommit(false);
 
-            // Mettre à jour les données de base de l'utilisateur
-            stmt = conn.prepareStatement(SQL_UPDATE_USER);
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getRole());
-            stmt.setString(3, user.getFullName());
-            stmt.setBoolean(4, user.isActive());
-            stmt.setInt(5, user.getId());
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_USER)) {
+                // Mettre à jour les données de base de l'utilisateur
+                stmt.setString(1, user.getUsername());
+                stmt.setString(2, user.getRole());
+                stmt.setString(3, user.getFullName());
+                stmt.setBoolean(4, user.isActive());
+                stmt.setInt(5, user.getId());
 
-            int rowsAffected = stmt.executeUpdate();
+                int rowsAffected = stmt.executeUpdate();
 
-            if (rowsAffected == 0) {
-                throw new DAOException("La mise à jour de l'utilisateur a échoué, aucune ligne affectée.",
-                        DAOException.UPDATE_ERROR);
-            }
+                if (rowsAffected == 0) {
+                    throw new DAOException("La mise à jour de l'utilisateur a échoué, aucune ligne affectée.",
+                            DAOException.UPDATE_ERROR);
+                }
 
-            // Si c'est un médecin, mettre à jour les données spécifiques
-            if (user instanceof Doctor) {
-                Doctor doctor = (Doctor) user;
-                updateDoctorSpecificData(conn, doctor);
-            }
+                // Si c'est un médecin, mettre à jour les données spécifiques
+                if (user instanceof Doctor) {
+                    Doctor doctor = (Doctor) user;
+                    updateDoctorSpecificData(conn, doctor);
+                }
 
-            // Valider la transaction
-            conn.commit();
+                // Valider la transaction
+                conn.commit();
 
-        } catch (SQLException e) {
-            try {
-                if (conn != null) {
-                    conn.rollback();
-                }
-            } catch (SQLException ex) {
-                LOGGER.log(Level.SEVERE, "Erreur lors du rollback", ex);
+            } catch (SQLException | DAOException e) {
+                rollbackQuietly(conn);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
 
+        } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la mise à jour de l'utilisateur", e);
 
             if (e.getMessage().contains("Duplicate entry") && e.getMessage().contains("nom_utilisateur")) {
@@ -317,18 +305,6 @@ public class UserDAOImpl implements UserDAO {
 
             throw new DAOException("Erreur lors de la mise à jour de l'utilisateur: " + e.getMessage(),
                     e, DAOException.UPDATE_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null) {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
@@ -341,10 +317,7 @@ public class UserDAOImpl implements UserDAO {
      * @throws SQLException En cas d'erreur SQL
      */
     private void updateDoctorSpecificData(Connection conn, Doctor doctor) throws SQLException {
-        PreparedStatement stmt = null;
-
-        try {
-            stmt = conn.prepareStatement(SQL_UPDATE_DOCTOR);
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE_DOCTOR)) {
             stmt.setString(1, doctor.getSpecialty());
             stmt.setString(2, doctor.getWorkHours());
             stmt.setString(3, doctor.getProfessionalPhone());
@@ -355,20 +328,14 @@ public class UserDAOImpl implements UserDAO {
             if (rowsAffected == 0) {
                 throw new SQLException("La mise à jour des données spécifiques du médecin a échoué.");
             }
-        } finally {
-            if (stmt != null)
-                stmt.close();
         }
     }
 
     @Override
     public void setUserActive(int userId, boolean active) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SET_USER_ACTIVE)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SET_USER_ACTIVE);
             stmt.setBoolean(1, active);
             stmt.setInt(2, userId);
 
@@ -383,208 +350,97 @@ public class UserDAOImpl implements UserDAO {
             LOGGER.log(Level.SEVERE, "Erreur lors de la mise à jour du statut de l'utilisateur", e);
             throw new DAOException("Erreur lors de la mise à jour du statut de l'utilisateur: " + e.getMessage(),
                     e, DAOException.UPDATE_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
     public User getUserById(int userId) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_USER_BY_ID)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_USER_BY_ID);
             stmt.setInt(1, userId);
 
-            rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return createUserFromResultSet(rs);
-            } else {
-                return null; // Aucun utilisateur trouvé
+            try (ResultSet rs = stmt.executeQuery()) {
+                // null si aucun utilisateur trouvé
+                return RowMapper.mapFirst(rs, USER_MAPPER);
             }
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération de l'utilisateur par ID", e);
             throw new DAOException("Erreur lors de la récupération de l'utilisateur: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
     public User getUserByUsername(String username) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_USER_BY_USERNAME)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_USER_BY_USERNAME);
             stmt.setString(1, username);
 
-            rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return createUserFromResultSet(rs);
-            } else {
-                return null; // Aucun utilisateur trouvé
+            try (ResultSet rs = stmt.executeQuery()) {
+                // null si aucun utilisateur trouvé
+                return RowMapper.mapFirst(rs, USER_MAPPER);
             }
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération de l'utilisateur par nom d'utilisateur", e);
             throw new DAOException("Erreur lors de la récupération de l'utilisateur: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
     public User authenticateUser(String username, String passwordHash) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_AUTHENTICATE_USER)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_AUTHENTICATE_USER);
             stmt.setString(1, username);
             stmt.setString(2, passwordHash);
 
-            rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return createUserFromResultSet(rs);
-            } else {
-                return null; // Authentification échouée
+            try (ResultSet rs = stmt.executeQuery()) {
+                // null si authentification échouée
+                return RowMapper.mapFirst(rs, USER_MAPPER);
             }
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de l'authentification de l'utilisateur", e);
             throw new DAOException("Erreur lors de l'authentification: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
     public List<User> getAllUsers() throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_ALL_USERS);
-
-            rs = stmt.executeQuery();
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_ALL_USERS);
+             ResultSet rs = stmt.executeQuery()) {
 
-            List<User> users = new ArrayList<>();
-            while (rs.next()) {
-                users.add(createUserFromResultSet(rs));
-            }
-
-            return users;
+            return RowMapper.mapAll(rs, USER_MAPPER);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération de tous les utilisateurs", e);
             throw new DAOException("Erreur lors de la récupération des utilisateurs: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
     public List<User> getUsersByRole(String role) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_USERS_BY_ROLE)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_USERS_BY_ROLE);
             stmt.setString(1, role);
 
-            rs = stmt.executeQuery();
-
-            List<User> users = new ArrayList<>();
-            while (rs.next()) {
-                users.add(createUserFromResultSet(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapAll(rs, USER_MAPPER);
             }
 
-            return users;
-
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des utilisateurs par rôle", e);
             throw new DAOException("Erreur lors de la récupération des utilisateurs: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
@@ -611,6 +467,38 @@ public class UserDAOImpl implements UserDAO {
         return (Secretary) user;
     }
 
+    @Override
+    public Map<Integer, Secretary> getSecretariesByIds(Collection<Integer> ids) throws DAOException {
+        Map<Integer, Secretary> secretaries = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return secretaries;
+        }
+
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : SqlUtils.chunk(new LinkedHashSet<>(ids))) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        SqlUtils.expandInClause(SQL_SELECT_USERS_BY_IDS, chunk.size()))) {
+                    SqlUtils.bindIntegers(stmt, 1, chunk);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        for (User user : RowMapper.mapAll(rs, USER_MAPPER)) {
+                            if (user instanceof Secretary) {
+                                secretaries.put(user.getId(), (Secretary) user);
+                            }
+                        }
+                    }
+                }
+            }
+
+            return secretaries;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des secrétaires par IDs", e);
+            throw new DAOException("Erreur lors de la récupération des secrétaires: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
+
     @Override
     public List<Secretary> getAllSecretaries() throws DAOException {
         List<User> users = getUsersByRole("SECRETAIRE");
@@ -637,130 +525,91 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public Doctor getDoctorById(int id) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_DOCTOR_BY_ID)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_DOCTOR_BY_ID);
             stmt.setInt(1, id);
 
-            rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return createDoctorFromResultSet(rs);
-            } else {
-                return null; // Aucun médecin trouvé
+            try (ResultSet rs = stmt.executeQuery()) {
+                // null si aucun médecin trouvé
+                return RowMapper.mapFirst(rs, DOCTOR_MAPPER);
             }
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération du médecin par ID", e);
             throw new DAOException("Erreur lors de la récupération du médecin: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
-    public List<Doctor> getAllDoctors() throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_ALL_DOCTORS);
-
-            rs = stmt.executeQuery();
+    public Map<Integer, Doctor> getDoctorsByIds(Collection<Integer> ids) throws DAOException {
+        Map<Integer, Doctor> doctors = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return doctors;
+        }
 
-            List<Doctor> doctors = new ArrayList<>();
-            while (rs.next()) {
-                doctors.add(createDoctorFromResultSet(rs));
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : SqlUtils.chunk(new LinkedHashSet<>(ids))) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        SqlUtils.expandInClause(SQL_SELECT_DOCTORS_BY_IDS, chunk.size()))) {
+                    SqlUtils.bindIntegers(stmt, 1, chunk);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        for (Doctor doctor : RowMapper.mapAll(rs, DOCTOR_MAPPER)) {
+                            doctors.put(doctor.getId(), doctor);
+                        }
+                    }
+                }
             }
 
             return doctors;
 
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des médecins par IDs", e);
+            throw new DAOException("Erreur lors de la récupération des médecins: " + e.getMessage(),
+                    e, DAOException.RETRIEVAL_ERROR);
+        }
+    }
+
+    @Override
+    public List<Doctor> getAllDoctors() throws DAOException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_ALL_DOCTORS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return RowMapper.mapAll(rs, DOCTOR_MAPPER);
+
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération de tous les médecins", e);
             throw new DAOException("Erreur lors de la récupération des médecins: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
     public List<Doctor> getDoctorsBySpecialty(String specialty) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_DOCTORS_BY_SPECIALTY)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_DOCTORS_BY_SPECIALTY);
             stmt.setString(1, specialty);
 
-            rs = stmt.executeQuery();
-
-            List<Doctor> doctors = new ArrayList<>();
-            while (rs.next()) {
-                doctors.add(createDoctorFromResultSet(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapAll(rs, DOCTOR_MAPPER);
             }
 
-            return doctors;
-
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des médecins par spécialité", e);
             throw new DAOException("Erreur lors de la récupération des médecins: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
     @Override
     public List<String> getAllSpecialties() throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_SELECT_ALL_SPECIALTIES);
-
-            rs = stmt.executeQuery();
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_ALL_SPECIALTIES);
+             ResultSet rs = stmt.executeQuery()) {
 
             List<String> specialties = new ArrayList<>();
             while (rs.next()) {
@@ -773,18 +622,6 @@ public class UserDAOImpl implements UserDAO {
             LOGGER.log(Level.SEVERE, "Erreur lors de la récupération des spécialités", e);
             throw new DAOException("Erreur lors de la récupération des spécialités: " + e.getMessage(),
                     e, DAOException.RETRIEVAL_ERROR);
-        } finally {
-            // Fermer les ressources
-            try {
-                if (rs != null)
-                    rs.close();
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
 
@@ -796,12 +633,9 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public void changePassword(int userId, String newPasswordHash) throws DAOException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CHANGE_PASSWORD)) {
 
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(SQL_CHANGE_PASSWORD);
             stmt.setString(1, newPasswordHash);
             stmt.setInt(2, userId);
 
@@ -816,17 +650,6 @@ public class UserDAOImpl implements UserDAO {
             LOGGER.log(Level.SEVERE, "Erreur lors du changement de mot de passe", e);
             throw new DAOException("Erreur lors du changement de mot de passe: " + e.getMessage(),
                     e, DAOException.UPDATE_ERROR);
-        } finally {
-            // Fermer les ressources
-            // Fermer les ressources
-            try {
-                if (stmt != null)
-                    stmt.close();
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Erreur lors de la fermeture des ressources", e);
-            }
         }
     }
-}
\ No newline at end of file
+}
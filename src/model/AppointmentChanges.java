@@ -0,0 +1,236 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Modifications de rendez-vous depuis un filigrane (flux des changements) : rendez-vous
+ * créés ou modifiés, et rendez-vous supprimés. Une vue fusionne ces changements dans
+ * les données qu'elle affiche au lieu de tout recharger, puis conserve le nouveau
+ * filigrane pour l'interrogation suivante.
+ *
+ * Un même changement peut être livré plusieurs fois (fenêtre de recouvrement) : la
+ * fusion remplace les rendez-vous par ID, et without() écarte ce qui a déjà été livré.
+ * Instance immuable.
+ */
+public final class AppointmentChanges {
+
+    /**
+     * Rendez-vous supprimé (trace conservée dans rendez_vous_suppressions)
+     */
+    public static final class Deletion {
+        private final int appointmentId;
+        private final int doctorId;
+        private final LocalDateTime startDateTime;
+
+        public Deletion(int appointmentId, int doctorId, LocalDateTime startDateTime) {
+            this.appointmentId = appointmentId;
+            this.doctorId = doctorId;
+            this.startDateTime = startDateTime;
+        }
+
+        public int getAppointmentId() {
+            return appointmentId;
+        }
+
+        public int getDoctorId() {
+            return doctorId;
+        }
+
+        public LocalDateTime getStartDateTime() {
+            return startDateTime;
+        }
+    }
+
+    private static final Comparator<AppointmentSummary> BY_START =
+            Comparator.comparing(AppointmentSummary::getStartDateTime).thenComparingInt(AppointmentSummary::getId);
+
+    private final LocalDateTime watermark;
+    private final List<AppointmentSummary> updated;
+    private final List<Deletion> deletions;
+    private final boolean fullReloadRequired;
+
+    /**
+     * Constructeur
+     *
+     * @param watermark Le filigrane à passer à la prochaine interrogation
+     * @param updated Les rendez-vous créés ou modifiés, dans leur état actuel
+     * @param deletions Les rendez-vous supprimés
+     * @param fullReloadRequired true si les changements ne peuvent pas être fournis
+     *                           (filigrane trop ancien, trop de changements) : la vue doit tout recharger
+     */
+    public AppointmentChanges(LocalDateTime watermark, List<AppointmentSummary> updated, List<Deletion> deletions,
+                              boolean fullReloadRequired) {
+        this.watermark = watermark;
+        this.updated = Collections.unmodifiableList(new ArrayList<>(updated));
+        this.deletions = Collections.unmodifiableList(new ArrayList<>(deletions));
+        this.fullReloadRequired = fullReloadRequired;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public List<AppointmentSummary> getUpdated() {
+        return updated;
+    }
+
+    public List<Deletion> getDeletions() {
+        return deletions;
+    }
+
+    public boolean isFullReloadRequired() {
+        return fullReloadRequired;
+    }
+
+    /**
+     * @return true s'il n'y a aucun changement à fusionner
+     */
+    public boolean isEmpty() {
+        return !fullReloadRequired && updated.isEmpty() && deletions.isEmpty();
+    }
+
+    /**
+     * @param target L'ensemble recevant les IDs des rendez-vous modifiés ou supprimés
+     * @return L'ensemble passé en paramètre
+     */
+    public Set<Integer> collectChangedIds(Set<Integer> target) {
+        for (AppointmentSummary appointment : updated) {
+            target.add(appointment.getId());
+        }
+        for (Deletion deletion : deletions) {
+            target.add(deletion.getAppointmentId());
+        }
+        return target;
+    }
+
+    /**
+     * Indique si les changements concernent un affichage : un rendez-vous affiché a
+     * changé, ou un rendez-vous modifié ou supprimé se trouve dans la période affichée
+     *
+     * @param doctorId L'ID du médecin affiché, ou 0 pour tous les médecins
+     * @param from Le premier jour affiché
+     * @param to Le lendemain du dernier jour affiché (exclu)
+     * @param shownIds Les IDs des rendez-vous affichés
+     * @return true si l'affichage doit être mis à jour
+     */
+    public boolean affects(int doctorId, LocalDate from, LocalDate to, Collection<Integer> shownIds) {
+        if (fullReloadRequired) {
+            return true;
+        }
+        for (AppointmentSummary appointment : updated) {
+            if (shownIds.contains(appointment.getId())
+                    || matches(doctorId, from, to, appointment.getDoctorId(), appointment.getStartDateTime())) {
+                return true;
+            }
+        }
+        for (Deletion deletion : deletions) {
+            if (shownIds.contains(deletion.getAppointmentId())
+                    || matches(doctorId, from, to, deletion.getDoctorId(), deletion.getStartDateTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fusionne les changements dans une liste affichée : les rendez-vous modifiés ou
+     * supprimés sont retirés, puis les rendez-vous modifiés appartenant à l'affichage
+     * sont ajoutés dans leur état actuel
+     *
+     * @param shown Les rendez-vous affichés (non modifiée)
+     * @param doctorId L'ID du médecin affiché, ou 0 pour tous les médecins
+     * @param from Le premier jour affiché
+     * @param to Le lendemain du dernier jour affiché (exclu)
+     * @return La nouvelle liste, triée par heure de début puis ID
+     */
+    public List<AppointmentSummary> applyTo(List<AppointmentSummary> shown, int doctorId, LocalDate from,
+                                            LocalDate to) {
+        Set<Integer> changedIds = collectChangedIds(new HashSet<>());
+        List<AppointmentSummary> merged = new ArrayList<>(shown.size() + updated.size());
+        for (AppointmentSummary appointment : shown) {
+            if (!changedIds.contains(appointment.getId())) {
+                merged.add(appointment);
+            }
+        }
+        for (AppointmentSummary appointment : updated) {
+            if (matches(doctorId, from, to, appointment.getDoctorId(), appointment.getStartDateTime())) {
+                merged.add(appointment);
+            }
+        }
+        merged.sort(BY_START);
+        return merged;
+    }
+
+    /**
+     * Retire les changements déjà livrés par une interrogation précédente (relivrés par
+     * la fenêtre de recouvrement) : rendez-vous inchangés depuis et suppressions connues
+     *
+     * @param previous Le résultat de l'interrogation précédente (peut être null)
+     * @return Les changements nouveaux, avec le filigrane de cette interrogation
+     */
+    public AppointmentChanges without(AppointmentChanges previous) {
+        if (previous == null || fullReloadRequired || previous.fullReloadRequired) {
+            return this;
+        }
+        Map<Integer, AppointmentSummary> delivered = new HashMap<>();
+        for (AppointmentSummary appointment : previous.updated) {
+            delivered.put(appointment.getId(), appointment);
+        }
+        Set<Integer> deletedIds = new HashSet<>();
+        for (Deletion deletion : previous.deletions) {
+            deletedIds.add(deletion.getAppointmentId());
+        }
+
+        List<AppointmentSummary> newUpdates = new ArrayList<>();
+        for (AppointmentSummary appointment : updated) {
+            if (!sameContent(appointment, delivered.get(appointment.getId()))) {
+                newUpdates.add(appointment);
+            }
+        }
+        List<Deletion> newDeletions = new ArrayList<>();
+        for (Deletion deletion : deletions) {
+            if (!deletedIds.contains(deletion.getAppointmentId())) {
+                newDeletions.add(deletion);
+            }
+        }
+        return new AppointmentChanges(watermark, newUpdates, newDeletions, false);
+    }
+
+    private static boolean sameContent(AppointmentSummary a, AppointmentSummary b) {
+        return b != null
+                && a.getPatientId() == b.getPatientId()
+                && a.getDoctorId() == b.getDoctorId()
+                && a.getStartDateTime().equals(b.getStartDateTime())
+                && a.getDurationMinutes() == b.getDurationMinutes()
+                && a.getStatus() == b.getStatus()
+                && Objects.equals(a.getAppointmentType(), b.getAppointmentType())
+                && a.getPatientName().equals(b.getPatientName())
+                && a.getDoctorName().equals(b.getDoctorName());
+    }
+
+    private static boolean matches(int doctorId, LocalDate from, LocalDate to, int appointmentDoctorId,
+                                   LocalDateTime start) {
+        if (doctorId > 0 && doctorId != appointmentDoctorId) {
+            return false;
+        }
+        LocalDate date = start.toLocalDate();
+        return !date.isBefore(from) && date.isBefore(to);
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentChanges{" + updated.size() + " modifiés, " + deletions.size() + " supprimés"
+                + (fullReloadRequired ? ", rechargement complet" : "") + ", filigrane " + watermark + "}";
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Événement publié par AppointmentController après une écriture réussie de ce poste.
+ * Il porte les IDs des rendez-vous modifiés, leurs patients et les journées de médecin
+ * concernées, pour que les abonnés ne mettent à jour que ces lignes ou ces journées.
+ *
+ * Un ensemble vide de patients ou de journées signifie qu'ils ne sont pas connus
+ * (rendez-vous absent du cache) : les abonnés doivent alors se considérer concernés.
+ * Après une modification, l'ancienne journée d'un rendez-vous n'est pas toujours
+ * connue : un abonné qui l'affiche le retrouve par son ID. Instance immuable.
+ */
+public final class AppointmentEvent {
+
+    private final ChangeType type;
+    private final Set<Integer> appointmentIds;
+    private final Set<Integer> patientIds;
+    private final Set<DoctorDay> days;
+
+    /**
+     * Constructeur
+     *
+     * @param type La nature de la modification
+     * @param appointmentIds Les IDs des rendez-vous modifiés
+     * @param patientIds Les IDs de leurs patients (vide si inconnus)
+     * @param days Les journées de médecin concernées (vide si inconnues)
+     */
+    public AppointmentEvent(ChangeType type, Collection<Integer> appointmentIds, Collection<Integer> patientIds,
+                            Collection<DoctorDay> days) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.appointmentIds = Collections.unmodifiableSet(new LinkedHashSet<>(appointmentIds));
+        this.patientIds = Collections.unmodifiableSet(new LinkedHashSet<>(patientIds));
+        this.days = Collections.unmodifiableSet(new LinkedHashSet<>(days));
+    }
+
+    /**
+     * Événement d'un rendez-vous dont l'état actuel est connu
+     *
+     * @param type La nature de la modification
+     * @param appointment Le rendez-vous, dans son nouvel état
+     * @return L'événement
+     */
+    public static AppointmentEvent of(ChangeType type, Appointment appointment) {
+        return new AppointmentEvent(type, Collections.singleton(appointment.getId()),
+                Collections.singleton(appointment.getPatientId()),
+                Collections.singleton(DoctorDay.of(appointment.getDoctorId(), appointment.getStartDateTime())));
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Set<Integer> getAppointmentIds() {
+        return appointmentIds;
+    }
+
+    public Set<Integer> getPatientIds() {
+        return patientIds;
+    }
+
+    public Set<DoctorDay> getDays() {
+        return days;
+    }
+
+    /**
+     * Indique si l'événement concerne un affichage : un rendez-vous affiché a changé,
+     * ou une journée concernée se trouve dans la période affichée
+     *
+     * @param doctorId L'ID du médecin affiché, ou 0 pour tous les médecins
+     * @param from Le premier jour affiché
+     * @param to Le lendemain du dernier jour affiché (exclu)
+     * @param shownIds Les IDs des rendez-vous affichés
+     * @return true si l'affichage doit être mis à jour
+     */
+    public boolean affects(int doctorId, LocalDate from, LocalDate to, Collection<Integer> shownIds) {
+        if (days.isEmpty()) {
+            return true;
+        }
+        for (DoctorDay day : days) {
+            if (day.isIn(doctorId, from, to)) {
+                return true;
+            }
+        }
+        for (Integer appointmentId : appointmentIds) {
+            if (shownIds.contains(appointmentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param patientId L'ID d'un patient
+     * @return true si l'événement peut concerner les rendez-vous de ce patient
+     */
+    public boolean concernsPatient(int patientId) {
+        return patientIds.isEmpty() || patientIds.contains(patientId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AppointmentEvent)) {
+            return false;
+        }
+        AppointmentEvent other = (AppointmentEvent) o;
+        return type == other.type && appointmentIds.equals(other.appointmentIds)
+                && patientIds.equals(other.patientIds) && days.equals(other.days);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, appointmentIds, patientIds, days);
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentEvent{" + type + ", rendez-vous " + appointmentIds + ", journées " + days + "}";
+    }
+}
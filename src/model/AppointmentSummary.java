@@ -0,0 +1,132 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+import config.AppConfig;
+
+/**
+ * Projection en lecture seule d'un rendez-vous pour les écrans de liste
+ * (planning, historique, tableaux). Elle ne contient que les colonnes affichées
+ * et les noms du patient et du médecin ; le rendez-vous complet est chargé
+ * par son ID lorsqu'une ligne est ouverte.
+ */
+public final class AppointmentSummary {
+
+    private final int id;
+    private final int patientId;
+    private final int doctorId;
+    private final LocalDateTime startDateTime;
+    private final int durationMinutes;
+    private final AppointmentStatus status;
+    private final String appointmentType;
+    private final String patientName;
+    private final String doctorName;
+
+    /**
+     * Constructeur
+     *
+     * @param id Identifiant du rendez-vous
+     * @param patientId ID du patient
+     * @param doctorId ID du médecin
+     * @param startDateTime Date et heure de début
+     * @param durationMinutes Durée en minutes
+     * @param status Statut du rendez-vous
+     * @param appointmentType Type de consultation
+     * @param patientName Nom complet du patient
+     * @param doctorName Nom complet du médecin
+     */
+    public AppointmentSummary(int id, int patientId, int doctorId, LocalDateTime startDateTime,
+                              int durationMinutes, AppointmentStatus status, String appointmentType,
+                              String patientName, String doctorName) {
+        this.id = id;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.startDateTime = startDateTime;
+        this.durationMinutes = durationMinutes;
+        this.status = status;
+        this.appointmentType = appointmentType;
+        this.patientName = patientName;
+        this.doctorName = doctorName;
+    }
+
+    // Getters
+
+    public int getId() {
+        return id;
+    }
+
+    public int getPatientId() {
+        return patientId;
+    }
+
+    public int getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public AppointmentStatus getStatus() {
+        return status;
+    }
+
+    public String getAppointmentType() {
+        return appointmentType;
+    }
+
+    /**
+     * Renvoie le nom complet du patient
+     *
+     * @return Le nom du patient, ou "Patient #id" s'il est inconnu
+     */
+    public String getPatientName() {
+        return patientName != null ? patientName : "Patient #" + patientId;
+    }
+
+    /**
+     * Renvoie le nom complet du médecin
+     *
+     * @return Le nom du médecin, ou "Médecin #id" s'il est inconnu
+     */
+    public String getDoctorName() {
+        return doctorName != null ? doctorName : "Médecin #" + doctorId;
+    }
+
+    /**
+     * Calcule la date et l'heure de fin du rendez-vous
+     *
+     * @return Date et heure de fin
+     */
+    public LocalDateTime getEndDateTime() {
+        return startDateTime.plusMinutes(durationMinutes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AppointmentSummary that = (AppointmentSummary) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT);
+        return "RDV le " + startDateTime.format(formatter) +
+               " (" + durationMinutes + " min) - " +
+               getPatientName() + " avec " + getDoctorName() +
+               " - Statut: " + status.getLabel();
+    }
+}
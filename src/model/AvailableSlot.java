@@ -0,0 +1,57 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import config.AppConfig;
+
+/**
+ * Classe représentant un créneau libre dans le planning d'un médecin.
+ * Instance immuable produite par la recherche de disponibilités.
+ */
+public class AvailableSlot {
+
+    private final Doctor doctor;
+    private final LocalDateTime startDateTime;
+    private final int durationMinutes;
+
+    /**
+     * Constructeur
+     *
+     * @param doctor Le médecin disponible
+     * @param startDateTime Date et heure de début du créneau
+     * @param durationMinutes Durée du créneau en minutes
+     */
+    public AvailableSlot(Doctor doctor, LocalDateTime startDateTime, int durationMinutes) {
+        this.doctor = doctor;
+        this.startDateTime = startDateTime;
+        this.durationMinutes = durationMinutes;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    /**
+     * Calcule l'heure de fin du créneau
+     *
+     * @return Date et heure de fin
+     */
+    public LocalDateTime getEndDateTime() {
+        return startDateTime.plusMinutes(durationMinutes);
+    }
+
+    @Override
+    public String toString() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT);
+        return startDateTime.format(formatter) + " (" + durationMinutes + " min) - Dr. " + doctor.getFullName();
+    }
+}
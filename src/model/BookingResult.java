@@ -0,0 +1,120 @@
+package model;
+
+/**
+ * Résultat d'une réservation de créneau.
+ * Un conflit n'est pas une erreur : il est retourné comme un résultat typé,
+ * que l'interface présente à l'utilisateur sans passer par une exception.
+ * Instance immuable.
+ */
+public final class BookingResult {
+
+    /**
+     * Issue d'une réservation (valeurs retournées par la procédure reserver_rendez_vous)
+     */
+    public enum Outcome {
+        RESERVE("Rendez-vous réservé"),
+        CONFLIT("Ce créneau n'est pas disponible pour le médecin sélectionné."),
+        MEDECIN_INCONNU("Le médecin sélectionné n'existe pas.");
+
+        private final String message;
+
+        Outcome(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final Outcome outcome;
+    private final int appointmentId;
+    private final int conflictingAppointmentId;
+
+    private BookingResult(Outcome outcome, int appointmentId, int conflictingAppointmentId) {
+        this.outcome = outcome;
+        this.appointmentId = appointmentId;
+        this.conflictingAppointmentId = conflictingAppointmentId;
+    }
+
+    /**
+     * Réservation effectuée
+     *
+     * @param appointmentId L'ID du rendez-vous créé
+     * @return Le résultat
+     */
+    public static BookingResult booked(int appointmentId) {
+        return new BookingResult(Outcome.RESERVE, appointmentId, 0);
+    }
+
+    /**
+     * Créneau déjà occupé
+     *
+     * @param conflictingAppointmentId L'ID du rendez-vous en conflit (0 s'il n'est pas connu)
+     * @return Le résultat
+     */
+    public static BookingResult conflict(int conflictingAppointmentId) {
+        return new BookingResult(Outcome.CONFLIT, 0, conflictingAppointmentId);
+    }
+
+    /**
+     * Médecin introuvable
+     *
+     * @return Le résultat
+     */
+    public static BookingResult unknownDoctor() {
+        return new BookingResult(Outcome.MEDECIN_INCONNU, 0, 0);
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Indique si le rendez-vous a été enregistré
+     *
+     * @return true si la réservation a abouti
+     */
+    public boolean isBooked() {
+        return outcome == Outcome.RESERVE;
+    }
+
+    /**
+     * ID du rendez-vous créé
+     *
+     * @return L'ID, ou 0 si la réservation n'a pas abouti
+     */
+    public int getAppointmentId() {
+        return appointmentId;
+    }
+
+    /**
+     * ID du rendez-vous occupant déjà le créneau
+     *
+     * @return L'ID, ou 0 s'il n'y a pas de conflit ou s'il n'est pas connu
+     */
+    public int getConflictingAppointmentId() {
+        return conflictingAppointmentId;
+    }
+
+    /**
+     * Message destiné à l'utilisateur
+     *
+     * @return Le message correspondant à l'issue
+     */
+    public String getMessage() {
+        return outcome.getMessage();
+    }
+
+    @Override
+    public String toString() {
+        switch (outcome) {
+            case RESERVE:
+                return "Réservation effectuée, ID: " + appointmentId;
+            case CONFLIT:
+                return "Conflit" + (conflictingAppointmentId > 0 ? " avec le rendez-vous #" + conflictingAppointmentId : "");
+            default:
+                return outcome.getMessage();
+        }
+    }
+}
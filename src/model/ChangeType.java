@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Nature d'une modification publiée sur le bus d'événements
+ */
+public enum ChangeType {
+    CREATED("Création"),
+    UPDATED("Modification"),
+    STATUS_CHANGED("Changement de statut"),
+    DELETED("Suppression");
+
+    private final String label;
+
+    ChangeType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -1,9 +1,11 @@
 package model;
 
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.format.TextStyle;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -18,6 +20,7 @@ public class Doctor extends User {
     // Attributs spécifiques au médecin
     private String specialty;
     private String workHours; // Format JSON ou texte structuré pour la flexibilité
+    private WorkSchedule workSchedule = WorkSchedule.EMPTY; // Horaires compilés, recalculés à chaque modification
     private String professionalPhone;
     
     /**
@@ -60,6 +63,7 @@ public class Doctor extends User {
         super(id, username, passwordHash, ROLE, fullName, active, creationDate);
         this.specialty = specialty;
         this.workHours = workHours;
+        this.workSchedule = WorkSchedule.parse(workHours);
         this.professionalPhone = professionalPhone;
     }
 
@@ -79,6 +83,16 @@ public class Doctor extends User {
 
     public void setWorkHours(String workHours) {
         this.workHours = workHours;
+        this.workSchedule = WorkSchedule.parse(workHours);
+    }
+
+    /**
+     * Récupère les horaires de travail compilés (mis en cache à chaque modification)
+     * 
+     * @return Les horaires compilés, jamais null
+     */
+    public WorkSchedule getWorkSchedule() {
+        return workSchedule;
     }
 
     public String getProfessionalPhone() {
@@ -102,31 +116,15 @@ public class Doctor extends User {
     /**
      * Construit une représentation structurée des horaires de travail à partir des données brutes
      * 
-     * @return Une map jours-créneaux horaires
+     * @return Une map jours-créneaux horaires (jours en français, créneaux au format HH:mm-HH:mm)
      */
     public Map<String, List<String>> getStructuredWorkHours() {
-        Map<String, List<String>> structured = new HashMap<>();
-        
-        // Si pas d'horaires définis, retourner une map vide
-        if (workHours == null || workHours.isEmpty()) {
-            return structured;
-        }
+        Map<String, List<String>> structured = new LinkedHashMap<>();
         
-        // Format simplifié pour ce prototype
         // Exemple: "lundi:09:00-12:30,14:00-18:00;mardi:09:00-12:30,14:00-18:00"
-        String[] dayEntries = workHours.split(";");
-        for (String dayEntry : dayEntries) {
-            String[] parts = dayEntry.split(":");
-            if (parts.length == 2) {
-                String day = parts[0].trim();
-                String[] timeSlots = parts[1].split(",");
-                
-                List<String> slots = new ArrayList<>();
-                for (String slot : timeSlots) {
-                    slots.add(slot.trim());
-                }
-                
-                structured.put(day, slots);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (workSchedule.isWorkingDay(day)) {
+                structured.put(day.getDisplayName(TextStyle.FULL, Locale.FRENCH), workSchedule.formattedRanges(day));
             }
         }
         
@@ -160,7 +158,7 @@ public class Doctor extends User {
             firstDay = false;
         }
         
-        this.workHours = builder.toString();
+        setWorkHours(builder.toString());
     }
     
     /**
@@ -0,0 +1,69 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Journée d'un médecin : clé des plannings, des caches et des événements de rendez-vous.
+ * Instance immuable.
+ */
+public final class DoctorDay {
+
+    private final int doctorId;
+    private final LocalDate date;
+
+    public DoctorDay(int doctorId, LocalDate date) {
+        this.doctorId = doctorId;
+        this.date = Objects.requireNonNull(date, "date");
+    }
+
+    /**
+     * @param doctorId L'ID du médecin
+     * @param start Le début d'un rendez-vous
+     * @return La journée du rendez-vous
+     */
+    public static DoctorDay of(int doctorId, LocalDateTime start) {
+        return new DoctorDay(doctorId, start.toLocalDate());
+    }
+
+    public int getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * @param doctorId L'ID d'un médecin, ou 0 pour tous les médecins
+     * @param from Le premier jour d'une période
+     * @param to Le lendemain du dernier jour de la période (exclu)
+     * @return true si cette journée appartient au médecin et à la période
+     */
+    public boolean isIn(int doctorId, LocalDate from, LocalDate to) {
+        return (doctorId <= 0 || doctorId == this.doctorId) && !date.isBefore(from) && date.isBefore(to);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DoctorDay)) {
+            return false;
+        }
+        DoctorDay other = (DoctorDay) o;
+        return doctorId == other.doctorId && date.equals(other.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * doctorId + date.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "médecin " + doctorId + " le " + date;
+    }
+}
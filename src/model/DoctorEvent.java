@@ -0,0 +1,54 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Événement publié par DoctorController après une écriture réussie de ce poste
+ * (création, modification, activation ou désactivation d'un médecin). Instance immuable.
+ */
+public final class DoctorEvent {
+
+    private final ChangeType type;
+    private final int doctorId;
+
+    /**
+     * Constructeur
+     *
+     * @param type La nature de la modification
+     * @param doctorId L'ID du médecin modifié
+     */
+    public DoctorEvent(ChangeType type, int doctorId) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.doctorId = doctorId;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public int getDoctorId() {
+        return doctorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DoctorEvent)) {
+            return false;
+        }
+        DoctorEvent other = (DoctorEvent) o;
+        return type == other.type && doctorId == other.doctorId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + doctorId;
+    }
+
+    @Override
+    public String toString() {
+        return "DoctorEvent{" + type + ", médecin " + doctorId + "}";
+    }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Charge d'un mois de planning, jour par jour : nombre de rendez-vous actifs
+ * (hors annulations) et minutes réservées, pour un médecin ou pour tous les médecins.
+ * Instance immuable.
+ */
+public final class MonthLoad {
+
+    private final int doctorId;
+    private final YearMonth month;
+    private final int[] appointmentCounts;
+    private final int[] bookedMinutes;
+
+    /**
+     * Constructeur
+     *
+     * @param doctorId L'ID du médecin, ou 0 pour tous les médecins
+     * @param month Le mois
+     * @param appointmentCounts Le nombre de rendez-vous par jour (index 0 = premier jour du mois)
+     * @param bookedMinutes Les minutes réservées par jour (index 0 = premier jour du mois)
+     */
+    public MonthLoad(int doctorId, YearMonth month, int[] appointmentCounts, int[] bookedMinutes) {
+        if (appointmentCounts.length != month.lengthOfMonth() || bookedMinutes.length != month.lengthOfMonth()) {
+            throw new IllegalArgumentException("Un compteur par jour du mois est attendu.");
+        }
+        this.doctorId = doctorId;
+        this.month = month;
+        this.appointmentCounts = appointmentCounts.clone();
+        this.bookedMinutes = bookedMinutes.clone();
+    }
+
+    public int getDoctorId() {
+        return doctorId;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * Nombre de rendez-vous actifs d'un jour du mois
+     *
+     * @param date Le jour (doit appartenir au mois)
+     * @return Le nombre de rendez-vous
+     */
+    public int getAppointmentCount(LocalDate date) {
+        return appointmentCounts[dayIndex(date)];
+    }
+
+    /**
+     * Minutes réservées d'un jour du mois
+     *
+     * @param date Le jour (doit appartenir au mois)
+     * @return La somme des durées des rendez-vous actifs
+     */
+    public int getBookedMinutes(LocalDate date) {
+        return bookedMinutes[dayIndex(date)];
+    }
+
+    /**
+     * @return Le plus grand nombre de rendez-vous d'un jour du mois (échelle de la carte de charge)
+     */
+    public int getMaxAppointmentCount() {
+        int max = 0;
+        for (int count : appointmentCounts) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * @return Le total des rendez-vous actifs du mois
+     */
+    public int getTotalAppointmentCount() {
+        int total = 0;
+        for (int count : appointmentCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return Les jours du mois (1 à 31) ayant au moins un rendez-vous actif
+     */
+    public List<Integer> getDaysWithAppointments() {
+        List<Integer> days = new ArrayList<>();
+        for (int i = 0; i < appointmentCounts.length; i++) {
+            if (appointmentCounts[i] > 0) {
+                days.add(i + 1);
+            }
+        }
+        return days;
+    }
+
+    private int dayIndex(LocalDate date) {
+        if (date.getYear() != month.getYear() || date.getMonthValue() != month.getMonthValue()) {
+            throw new IllegalArgumentException("La date " + date + " n'appartient pas au mois " + month);
+        }
+        return date.getDayOfMonth() - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "MonthLoad{" + month + ", médecin " + doctorId + ", " + getTotalAppointmentCount() + " rendez-vous}";
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Événement publié par PatientController après une écriture réussie de ce poste.
+ * Un ensemble vide d'IDs signifie que les patients ne sont pas connus individuellement
+ * (import d'un fichier) : les abonnés rechargent alors leurs listes. Instance immuable.
+ */
+public final class PatientEvent {
+
+    private final ChangeType type;
+    private final Set<Integer> patientIds;
+
+    /**
+     * Constructeur
+     *
+     * @param type La nature de la modification
+     * @param patientIds Les IDs des patients modifiés (vide si inconnus)
+     */
+    public PatientEvent(ChangeType type, Collection<Integer> patientIds) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.patientIds = Collections.unmodifiableSet(new LinkedHashSet<>(patientIds));
+    }
+
+    /**
+     * @param type La nature de la modification
+     * @param patientId L'ID du patient modifié
+     * @return L'événement
+     */
+    public static PatientEvent of(ChangeType type, int patientId) {
+        return new PatientEvent(type, Collections.singleton(patientId));
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Set<Integer> getPatientIds() {
+        return patientIds;
+    }
+
+    /**
+     * @param patientId L'ID d'un patient
+     * @return true si l'événement peut concerner ce patient
+     */
+    public boolean concerns(int patientId) {
+        return patientIds.isEmpty() || patientIds.contains(patientId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PatientEvent)) {
+            return false;
+        }
+        PatientEvent other = (PatientEvent) o;
+        return type == other.type && patientIds.equals(other.patientIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + patientIds.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PatientEvent{" + type + ", patients " + patientIds + "}";
+    }
+}
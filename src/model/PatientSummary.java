@@ -0,0 +1,92 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Projection en lecture seule d'un patient pour les listes et résultats de recherche.
+ * L'adresse et les notes médicales ne sont pas chargées ; le patient complet est
+ * lu par son ID lorsqu'une ligne est ouverte.
+ */
+public final class PatientSummary {
+
+    private final int id;
+    private final String lastName;
+    private final String firstName;
+    private final LocalDate birthDate;
+    private final String phoneNumber;
+    private final String email;
+
+    /**
+     * Constructeur
+     *
+     * @param id Identifiant du patient
+     * @param lastName Nom de famille
+     * @param firstName Prénom
+     * @param birthDate Date de naissance
+     * @param phoneNumber Numéro de téléphone
+     * @param email Adresse email
+     */
+    public PatientSummary(int id, String lastName, String firstName, LocalDate birthDate,
+                          String phoneNumber, String email) {
+        this.id = id;
+        this.lastName = lastName;
+        this.firstName = firstName;
+        this.birthDate = birthDate;
+        this.phoneNumber = phoneNumber;
+        this.email = email;
+    }
+
+    // Getters
+
+    public int getId() {
+        return id;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public LocalDate getBirthDate() {
+        return birthDate;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Renvoie le nom complet du patient
+     *
+     * @return Prénom et nom
+     */
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PatientSummary that = (PatientSummary) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return lastName.toUpperCase() + " " + firstName;
+    }
+}
@@ -0,0 +1,291 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Planning de plusieurs médecins sur une fenêtre de jours consécutifs, regroupé
+ * par médecin puis par jour, chaque journée étant triée par heure de début.
+ *
+ * Instance immuable : déplacer la fenêtre (moveTo) produit une nouvelle grille qui
+ * partage les journées déjà chargées avec l'ancienne, de sorte que seuls les jours
+ * nouvellement visibles sont lus en base. Une grille peut donc être construite sur
+ * un thread de chargement puis affichée sur l'EDT sans synchronisation.
+ */
+public final class PlanningGrid {
+
+    private static final Comparator<AppointmentSummary> BY_START =
+            Comparator.comparing(AppointmentSummary::getStartDateTime).thenComparingInt(AppointmentSummary::getId);
+
+    private final List<Integer> doctorIds;
+    private final LocalDate startDate;
+    private final int dayCount;
+    // médecin -> jour -> rendez-vous triés (listes non modifiables, jours vides absents)
+    private final Map<Integer, Map<LocalDate, List<AppointmentSummary>>> cells;
+
+    private PlanningGrid(List<Integer> doctorIds, LocalDate startDate, int dayCount,
+                         Map<Integer, Map<LocalDate, List<AppointmentSummary>>> cells) {
+        this.doctorIds = doctorIds;
+        this.startDate = startDate;
+        this.dayCount = dayCount;
+        this.cells = cells;
+    }
+
+    /**
+     * Construit une grille à partir des rendez-vous de toute la fenêtre
+     *
+     * @param doctorIds Les médecins affichés, dans l'ordre des lignes
+     * @param startDate Le premier jour de la fenêtre
+     * @param dayCount Le nombre de jours de la fenêtre
+     * @param appointments Les rendez-vous de la fenêtre (dans un ordre quelconque)
+     * @return La grille
+     */
+    public static PlanningGrid of(List<Integer> doctorIds, LocalDate startDate, int dayCount,
+                                  Collection<AppointmentSummary> appointments) {
+        if (dayCount <= 0) {
+            throw new IllegalArgumentException("La fenêtre doit contenir au moins un jour.");
+        }
+        PlanningGrid empty = new PlanningGrid(Collections.unmodifiableList(new ArrayList<>(doctorIds)),
+                startDate, dayCount, Collections.emptyMap());
+        return empty.merge(startDate, dayCount, startDate, startDate.plusDays(dayCount), appointments);
+    }
+
+    public List<Integer> getDoctorIds() {
+        return doctorIds;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * @return Le lendemain du dernier jour de la fenêtre (borne exclue)
+     */
+    public LocalDate getEndDate() {
+        return startDate.plusDays(dayCount);
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    /**
+     * @param index L'index du jour dans la fenêtre (0 = premier jour)
+     * @return Le jour correspondant
+     */
+    public LocalDate getDate(int index) {
+        return startDate.plusDays(index);
+    }
+
+    /**
+     * @param date Un jour
+     * @return true si le jour appartient à la fenêtre
+     */
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(startDate) && date.isBefore(getEndDate());
+    }
+
+    /**
+     * Rendez-vous d'un médecin pour un jour de la fenêtre
+     *
+     * @param doctorId L'ID du médecin
+     * @param date Le jour
+     * @return Les rendez-vous triés par heure de début (liste vide si aucun)
+     */
+    public List<AppointmentSummary> getAppointments(int doctorId, LocalDate date) {
+        Map<LocalDate, List<AppointmentSummary>> days = cells.get(doctorId);
+        if (days == null) {
+            return Collections.emptyList();
+        }
+        return days.getOrDefault(date, Collections.emptyList());
+    }
+
+    /**
+     * @param doctorId L'ID du médecin
+     * @return Le nombre de rendez-vous du médecin sur la fenêtre
+     */
+    public int getAppointmentCount(int doctorId) {
+        Map<LocalDate, List<AppointmentSummary>> days = cells.get(doctorId);
+        if (days == null) {
+            return 0;
+        }
+        int count = 0;
+        for (List<AppointmentSummary> appointments : days.values()) {
+            count += appointments.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return Les IDs de tous les rendez-vous de la grille
+     */
+    public Set<Integer> getAppointmentIds() {
+        Set<Integer> ids = new HashSet<>();
+        for (Map<LocalDate, List<AppointmentSummary>> days : cells.values()) {
+            for (List<AppointmentSummary> appointments : days.values()) {
+                for (AppointmentSummary appointment : appointments) {
+                    ids.add(appointment.getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Jours d'une nouvelle fenêtre qui ne sont pas couverts par celle-ci. Pour un
+     * décalage d'un jour ou d'une semaine, ils forment une seule plage contiguë.
+     *
+     * @param newStartDate Le premier jour de la nouvelle fenêtre
+     * @param newDayCount Le nombre de jours de la nouvelle fenêtre
+     * @return Les jours à charger, dans l'ordre chronologique
+     */
+    public List<LocalDate> getMissingDays(LocalDate newStartDate, int newDayCount) {
+        List<LocalDate> missing = new ArrayList<>();
+        for (int i = 0; i < newDayCount; i++) {
+            LocalDate date = newStartDate.plusDays(i);
+            if (!contains(date)) {
+                missing.add(date);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Déplace la fenêtre en conservant les jours déjà chargés qui restent visibles
+     *
+     * @param newStartDate Le premier jour de la nouvelle fenêtre
+     * @param newDayCount Le nombre de jours de la nouvelle fenêtre
+     * @param loadedFrom Premier jour de la plage rechargée
+     * @param loadedTo Lendemain du dernier jour de la plage rechargée (exclu)
+     * @param loaded Les rendez-vous de la plage rechargée, pour les médecins de la grille
+     * @return La nouvelle grille ; les jours de la plage rechargée remplacent ceux de cette grille
+     */
+    public PlanningGrid moveTo(LocalDate newStartDate, int newDayCount, LocalDate loadedFrom, LocalDate loadedTo,
+                               Collection<AppointmentSummary> loaded) {
+        if (newDayCount <= 0) {
+            throw new IllegalArgumentException("La fenêtre doit contenir au moins un jour.");
+        }
+        return merge(newStartDate, newDayCount, loadedFrom, loadedTo, loaded);
+    }
+
+    /**
+     * Fusionne le flux des modifications dans la grille : seules les journées contenant
+     * un rendez-vous modifié ou supprimé, ou recevant un rendez-vous modifié, sont recopiées
+     *
+     * @param changes Les changements (sans demande de rechargement complet)
+     * @return La nouvelle grille, ou cette grille si aucune journée n'est concernée
+     */
+    public PlanningGrid applyChanges(AppointmentChanges changes) {
+        Set<Integer> changedIds = changes.collectChangedIds(new HashSet<>());
+        Map<Integer, Map<LocalDate, List<AppointmentSummary>>> added = new HashMap<>();
+        for (AppointmentSummary appointment : changes.getUpdated()) {
+            LocalDate date = appointment.getStartDateTime().toLocalDate();
+            if (contains(date) && doctorIds.contains(appointment.getDoctorId())) {
+                added.computeIfAbsent(appointment.getDoctorId(), id -> new HashMap<>())
+                        .computeIfAbsent(date, d -> new ArrayList<>())
+                        .add(appointment);
+            }
+        }
+
+        boolean modified = !added.isEmpty();
+        Map<Integer, Map<LocalDate, List<AppointmentSummary>>> newCells = new HashMap<>();
+        for (Integer doctorId : doctorIds) {
+            Map<LocalDate, List<AppointmentSummary>> previous = cells.getOrDefault(doctorId, Collections.emptyMap());
+            Map<LocalDate, List<AppointmentSummary>> additions = added.getOrDefault(doctorId, Collections.emptyMap());
+            Map<LocalDate, List<AppointmentSummary>> days = new HashMap<>(previous);
+
+            for (Map.Entry<LocalDate, List<AppointmentSummary>> day : previous.entrySet()) {
+                List<AppointmentSummary> kept = new ArrayList<>(day.getValue().size());
+                for (AppointmentSummary appointment : day.getValue()) {
+                    if (!changedIds.contains(appointment.getId())) {
+                        kept.add(appointment);
+                    }
+                }
+                if (kept.size() != day.getValue().size()) {
+                    modified = true;
+                    days.put(day.getKey(), Collections.unmodifiableList(kept));
+                }
+            }
+            for (Map.Entry<LocalDate, List<AppointmentSummary>> day : additions.entrySet()) {
+                List<AppointmentSummary> appointments = new ArrayList<>(
+                        days.getOrDefault(day.getKey(), Collections.emptyList()));
+                appointments.addAll(day.getValue());
+                appointments.sort(BY_START);
+                days.put(day.getKey(), Collections.unmodifiableList(appointments));
+            }
+            days.values().removeIf(List::isEmpty);
+
+            if (!days.isEmpty()) {
+                newCells.put(doctorId, Collections.unmodifiableMap(days));
+            }
+        }
+        if (!modified) {
+            return this;
+        }
+        return new PlanningGrid(doctorIds, startDate, dayCount, Collections.unmodifiableMap(newCells));
+    }
+
+    private PlanningGrid merge(LocalDate newStartDate, int newDayCount, LocalDate loadedFrom, LocalDate loadedTo,
+                               Collection<AppointmentSummary> loaded) {
+        LocalDate newEndDate = newStartDate.plusDays(newDayCount);
+
+        // Regrouper la plage rechargée par médecin puis par jour
+        Map<Integer, Map<LocalDate, List<AppointmentSummary>>> fresh = new HashMap<>();
+        for (AppointmentSummary appointment : loaded) {
+            LocalDate date = appointment.getStartDateTime().toLocalDate();
+            if (date.isBefore(loadedFrom) || !date.isBefore(loadedTo)
+                    || date.isBefore(newStartDate) || !date.isBefore(newEndDate)) {
+                continue;
+            }
+            fresh.computeIfAbsent(appointment.getDoctorId(), id -> new HashMap<>())
+                    .computeIfAbsent(date, d -> new ArrayList<>())
+                    .add(appointment);
+        }
+
+        Map<Integer, Map<LocalDate, List<AppointmentSummary>>> newCells = new HashMap<>();
+        for (Integer doctorId : doctorIds) {
+            Map<LocalDate, List<AppointmentSummary>> days = new HashMap<>();
+
+            // Jours déjà chargés, encore visibles et hors de la plage rechargée : partagés tels quels
+            Map<LocalDate, List<AppointmentSummary>> previous = cells.get(doctorId);
+            if (previous != null) {
+                for (Map.Entry<LocalDate, List<AppointmentSummary>> day : previous.entrySet()) {
+                    LocalDate date = day.getKey();
+                    boolean visible = !date.isBefore(newStartDate) && date.isBefore(newEndDate);
+                    boolean reloaded = !date.isBefore(loadedFrom) && date.isBefore(loadedTo);
+                    if (visible && !reloaded) {
+                        days.put(date, day.getValue());
+                    }
+                }
+            }
+
+            Map<LocalDate, List<AppointmentSummary>> freshDays = fresh.get(doctorId);
+            if (freshDays != null) {
+                for (Map.Entry<LocalDate, List<AppointmentSummary>> day : freshDays.entrySet()) {
+                    List<AppointmentSummary> appointments = day.getValue();
+                    appointments.sort(BY_START);
+                    days.put(day.getKey(), Collections.unmodifiableList(appointments));
+                }
+            }
+
+            if (!days.isEmpty()) {
+                newCells.put(doctorId, Collections.unmodifiableMap(days));
+            }
+        }
+        return new PlanningGrid(doctorIds, newStartDate, newDayCount, Collections.unmodifiableMap(newCells));
+    }
+
+    @Override
+    public String toString() {
+        return "PlanningGrid{" + doctorIds.size() + " médecins, du " + startDate + " au "
+                + getEndDate().minusDays(1) + " (" + dayCount + " jours)}";
+    }
+}
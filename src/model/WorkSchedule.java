@@ -0,0 +1,304 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Représentation compilée et immuable des horaires de travail d'un médecin.
+ * Chaque jour est associé à un tableau trié de bornes en minutes depuis minuit
+ * ({début1, fin1, début2, fin2, ...}, fins exclues), ce qui rend les vérifications
+ * de disponibilité sans allocation.
+ *
+ * Format accepté : "lundi:09:00-12:00,14:00-18:00;mardi:09:00-12:00"
+ * (noms de jours en français ou en anglais, insensibles à la casse).
+ */
+public final class WorkSchedule {
+
+    // Horaires vides (médecin sans horaires renseignés)
+    public static final WorkSchedule EMPTY = new WorkSchedule(new EnumMap<>(DayOfWeek.class));
+
+    private static final int[] NO_RANGES = new int[0];
+
+    // Noms de jours reconnus par le parseur
+    private static final Map<String, DayOfWeek> DAY_NAMES = new HashMap<>();
+
+    static {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            DAY_NAMES.put(day.getDisplayName(TextStyle.FULL, Locale.FRENCH).toLowerCase(Locale.ROOT), day);
+            DAY_NAMES.put(day.name().toLowerCase(Locale.ROOT), day);
+        }
+    }
+
+    private final EnumMap<DayOfWeek, int[]> ranges;
+    private final int weeklyMinutes;
+
+    private WorkSchedule(EnumMap<DayOfWeek, int[]> ranges) {
+        this.ranges = ranges;
+        int total = 0;
+        for (int[] bounds : ranges.values()) {
+            for (int i = 0; i < bounds.length; i += 2) {
+                total += bounds[i + 1] - bounds[i];
+            }
+        }
+        this.weeklyMinutes = total;
+    }
+
+    /**
+     * Compile une chaîne d'horaires. Les entrées mal formées sont ignorées.
+     *
+     * @param workHours Les horaires au format "jour:HH:mm-HH:mm,...;jour:..."
+     * @return Les horaires compilés (EMPTY si la chaîne est vide)
+     */
+    public static WorkSchedule parse(String workHours) {
+        if (workHours == null || workHours.trim().isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<DayOfWeek, int[]> parsed = new EnumMap<>(DayOfWeek.class);
+        for (String dayEntry : workHours.split(";")) {
+            // Le jour est séparé des plages par le premier ':' (les heures en contiennent aussi)
+            int separator = dayEntry.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            DayOfWeek day = DAY_NAMES.get(dayEntry.substring(0, separator).trim().toLowerCase(Locale.ROOT));
+            if (day == null) {
+                continue;
+            }
+
+            String[] slots = dayEntry.substring(separator + 1).split(",");
+            int[] bounds = new int[slots.length * 2];
+            int count = 0;
+            for (String slot : slots) {
+                String[] parts = slot.split("-");
+                if (parts.length != 2) {
+                    continue;
+                }
+                int start = parseMinutes(parts[0]);
+                int end = parseMinutes(parts[1]);
+                if (start >= 0 && end > start) {
+                    bounds[count++] = start;
+                    bounds[count++] = end;
+                }
+            }
+            if (count > 0) {
+                int[] previous = parsed.get(day);
+                parsed.put(day, previous == null ? Arrays.copyOf(bounds, count) : concat(previous, bounds, count));
+            }
+        }
+
+        if (parsed.isEmpty()) {
+            return EMPTY;
+        }
+        EnumMap<DayOfWeek, int[]> normalized = new EnumMap<>(DayOfWeek.class);
+        for (Map.Entry<DayOfWeek, int[]> entry : parsed.entrySet()) {
+            normalized.put(entry.getKey(), normalize(entry.getValue()));
+        }
+        return new WorkSchedule(normalized);
+    }
+
+    /**
+     * Indique si le médecin travaille à un instant donné (sans allocation)
+     *
+     * @param dateTime La date et l'heure à vérifier
+     * @return true si l'instant tombe dans une plage de travail
+     */
+    public boolean isWorking(LocalDateTime dateTime) {
+        int[] bounds = ranges.get(dateTime.getDayOfWeek());
+        if (bounds == null) {
+            return false;
+        }
+        int minute = dateTime.getHour() * 60 + dateTime.getMinute();
+        for (int i = 0; i < bounds.length; i += 2) {
+            if (minute < bounds[i]) {
+                return false;
+            }
+            if (minute < bounds[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si une plage [startMinute, endMinute) d'un jour est entièrement couverte
+     * par une plage de travail
+     *
+     * @param day Le jour de la semaine
+     * @param startMinute Début en minutes depuis minuit
+     * @param endMinute Fin (exclue) en minutes depuis minuit
+     * @return true si la plage est entièrement travaillée
+     */
+    public boolean covers(DayOfWeek day, int startMinute, int endMinute) {
+        int[] bounds = ranges.get(day);
+        if (bounds == null) {
+            return false;
+        }
+        for (int i = 0; i < bounds.length; i += 2) {
+            if (startMinute >= bounds[i] && endMinute <= bounds[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plages de travail d'un jour
+     *
+     * @param day Le jour de la semaine
+     * @return Copie des bornes {début1, fin1, ...} en minutes depuis minuit (vide si jour non travaillé)
+     */
+    public int[] ranges(DayOfWeek day) {
+        int[] bounds = ranges.get(day);
+        return bounds == null ? NO_RANGES : bounds.clone();
+    }
+
+    /**
+     * Plages de travail d'un jour sous forme lisible
+     *
+     * @param day Le jour de la semaine
+     * @return Les plages au format "HH:mm-HH:mm"
+     */
+    public List<String> formattedRanges(DayOfWeek day) {
+        int[] bounds = ranges.get(day);
+        List<String> formatted = new ArrayList<>();
+        if (bounds != null) {
+            for (int i = 0; i < bounds.length; i += 2) {
+                formatted.add(formatMinutes(bounds[i]) + "-" + formatMinutes(bounds[i + 1]));
+            }
+        }
+        return formatted;
+    }
+
+    /**
+     * Indique si le médecin travaille ce jour-là
+     *
+     * @param day Le jour de la semaine
+     * @return true si au moins une plage est définie
+     */
+    public boolean isWorkingDay(DayOfWeek day) {
+        return ranges.containsKey(day);
+    }
+
+    /**
+     * Durée de travail d'un jour
+     *
+     * @param day Le jour de la semaine
+     * @return Le nombre de minutes travaillées
+     */
+    public int dailyCapacityMinutes(DayOfWeek day) {
+        int[] bounds = ranges.get(day);
+        int total = 0;
+        if (bounds != null) {
+            for (int i = 0; i < bounds.length; i += 2) {
+                total += bounds[i + 1] - bounds[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Durée de travail hebdomadaire
+     *
+     * @return Le nombre de minutes travaillées sur une semaine
+     */
+    public int weeklyCapacityMinutes() {
+        return weeklyMinutes;
+    }
+
+    /**
+     * Indique si aucun horaire n'est défini
+     *
+     * @return true si le médecin n'a aucune plage de travail
+     */
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    /**
+     * Sérialise les horaires au format stocké en base
+     *
+     * @return La chaîne "lundi:09:00-12:00,14:00-18:00;..."
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<DayOfWeek, int[]> entry : ranges.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(';');
+            }
+            builder.append(entry.getKey().getDisplayName(TextStyle.FULL, Locale.FRENCH)).append(':');
+            builder.append(String.join(",", formattedRanges(entry.getKey())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Convertit une heure "HH:mm" en minutes depuis minuit
+     *
+     * @return Le nombre de minutes, ou -1 si le format est invalide
+     */
+    private static int parseMinutes(String time) {
+        String value = time.trim();
+        int colon = value.indexOf(':');
+        if (colon <= 0) {
+            return -1;
+        }
+        try {
+            int hours = Integer.parseInt(value.substring(0, colon));
+            int minutes = Integer.parseInt(value.substring(colon + 1));
+            if (hours < 0 || hours > 24 || minutes < 0 || minutes > 59 || hours * 60 + minutes > 24 * 60) {
+                return -1;
+            }
+            return hours * 60 + minutes;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String formatMinutes(int minutes) {
+        int hours = minutes / 60;
+        int rest = minutes % 60;
+        return (hours < 10 ? "0" : "") + hours + ":" + (rest < 10 ? "0" : "") + rest;
+    }
+
+    private static int[] concat(int[] first, int[] second, int secondLength) {
+        int[] result = Arrays.copyOf(first, first.length + secondLength);
+        System.arraycopy(second, 0, result, first.length, secondLength);
+        return result;
+    }
+
+    /**
+     * Trie les plages par début et fusionne celles qui se chevauchent ou se touchent
+     */
+    private static int[] normalize(int[] bounds) {
+        int count = bounds.length / 2;
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = ((long) bounds[2 * i] << 32) | bounds[2 * i + 1];
+        }
+        Arrays.sort(packed);
+
+        int[] merged = new int[bounds.length];
+        int size = 0;
+        for (long range : packed) {
+            int start = (int) (range >>> 32);
+            int end = (int) range;
+            if (size > 0 && start <= merged[size - 1]) {
+                merged[size - 1] = Math.max(merged[size - 1], end);
+            } else {
+                merged[size++] = start;
+                merged[size++] = end;
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+}
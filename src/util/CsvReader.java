@@ -0,0 +1,195 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecteur CSV en flux : les enregistrements sont lus un par un, sans charger le fichier.
+ * Gère les champs entre guillemets (guillemets doublés, séparateurs et retours à la
+ * ligne à l'intérieur d'un champ) ainsi que les fins de ligne \n et \r\n.
+ * Le séparateur (';' ou ',') est déduit de la première ligne si aucun n'est imposé.
+ * Non thread-safe.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private char separator;
+    private boolean separatorKnown;
+
+    // Numéro (à partir de 1) de la ligne physique où commence le dernier enregistrement lu
+    private long recordLine;
+    private long currentLine = 1;
+
+    private final StringBuilder field = new StringBuilder(64);
+
+    /**
+     * Crée un lecteur dont le séparateur est déduit de la première ligne
+     *
+     * @param reader La source (mise en tampon par le lecteur lui-même)
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Crée un lecteur avec un séparateur imposé
+     *
+     * @param reader La source (mise en tampon par le lecteur lui-même)
+     * @param separator Le séparateur de champs
+     */
+    public CsvReader(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+        this.separatorKnown = true;
+    }
+
+    /**
+     * Lit l'enregistrement suivant. Les lignes vides sont ignorées.
+     *
+     * @return Les champs de l'enregistrement, ou null en fin de fichier
+     * @throws IOException En cas d'erreur de lecture ou de guillemet non fermé
+     */
+    public String[] next() throws IOException {
+        int c;
+        // Ignorer les lignes vides
+        do {
+            c = read();
+            if (c == '\r') {
+                c = read();
+            }
+            if (c == '\n') {
+                currentLine++;
+            }
+        } while (c == '\n');
+        if (c < 0) {
+            return null;
+        }
+        if (!separatorKnown) {
+            detectSeparator(c);
+        }
+
+        recordLine = currentLine;
+        List<String> fields = new ArrayList<>();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        field.setLength(0);
+
+        while (true) {
+            if (inQuotes) {
+                if (c < 0) {
+                    throw new IOException("Guillemet non fermé (enregistrement commençant ligne " + recordLine + ")");
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        currentLine++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int following = read();
+                    if (following >= 0 && following != '\n') {
+                        unread();
+                    }
+                }
+                if (c >= 0) {
+                    currentLine++;
+                }
+                fields.add(quoted ? field.toString() : field.toString().trim());
+                return fields.toArray(new String[0]);
+            } else if (c == separator) {
+                fields.add(quoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '"' && field.toString().trim().isEmpty()) {
+                field.setLength(0);
+                quoted = true;
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Numéro de la ligne du fichier où commence le dernier enregistrement lu
+     *
+     * @return Le numéro de ligne (à partir de 1)
+     */
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    /**
+     * Séparateur utilisé (connu après la lecture du premier enregistrement)
+     *
+     * @return Le séparateur
+     */
+    public char getSeparator() {
+        return separator;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Déduit le séparateur de la première ligne, déjà présente dans le tampon
+     * dans la quasi-totalité des cas : ';' (export Excel français) l'emporte sur ','
+     */
+    private void detectSeparator(int first) {
+        // Le premier caractère vient d'être consommé : il est encore à position - 1
+        int semicolons = first == ';' ? 1 : 0;
+        int commas = first == ',' ? 1 : 0;
+        for (int i = position; i < limit && buffer[i] != '\n'; i++) {
+            if (buffer[i] == ';') {
+                semicolons++;
+            } else if (buffer[i] == ',') {
+                commas++;
+            }
+        }
+        separator = semicolons >= commas && semicolons > 0 ? ';' : ',';
+        separatorKnown = true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            // Conserver le dernier caractère pour permettre unread()
+            if (limit > 0) {
+                buffer[0] = buffer[limit - 1];
+            }
+            int count = reader.read(buffer, 1, buffer.length - 1);
+            if (count <= 0) {
+                position = limit = limit > 0 ? 1 : 0;
+                return -1;
+            }
+            position = 1;
+            limit = count + 1;
+        }
+        return buffer[position++];
+    }
+
+    private void unread() {
+        position--;
+    }
+}
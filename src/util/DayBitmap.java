@@ -0,0 +1,183 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carte de disponibilité d'une journée sous forme de bitset de largeur fixe.
+ * Chaque bit représente une unité de UNIT_MINUTES minutes (288 unités par jour) :
+ * un bit à 1 signifie « libre ». Les horaires de travail sont posés avec
+ * {@link #markFree(int, int)} puis les rendez-vous retirés avec {@link #markBusy(int, int)}
+ * (OU puis ET-NON sur les masques) ; les créneaux libres d'une durée quelconque
+ * sont ensuite trouvés par balayage des bits.
+ */
+public final class DayBitmap {
+
+    // Granularité d'une unité en minutes
+    public static final int UNIT_MINUTES = 5;
+
+    // Nombre d'unités dans une journée
+    public static final int UNITS_PER_DAY = 24 * 60 / UNIT_MINUTES;
+
+    private static final int WORDS = (UNITS_PER_DAY + 63) / 64;
+
+    private final long[] words = new long[WORDS];
+
+    /**
+     * Marque comme libres les unités entièrement comprises dans [startMinute, endMinute)
+     *
+     * @param startMinute Début de la plage en minutes depuis minuit
+     * @param endMinute Fin de la plage (exclue) en minutes depuis minuit
+     */
+    public void markFree(int startMinute, int endMinute) {
+        int from = (clampMinute(startMinute) + UNIT_MINUTES - 1) / UNIT_MINUTES;
+        int to = clampMinute(endMinute) / UNIT_MINUTES;
+        setUnits(from, to, true);
+    }
+
+    /**
+     * Marque comme occupées toutes les unités touchées par [startMinute, endMinute)
+     *
+     * @param startMinute Début de la plage en minutes depuis minuit
+     * @param endMinute Fin de la plage (exclue) en minutes depuis minuit
+     */
+    public void markBusy(int startMinute, int endMinute) {
+        int from = clampMinute(startMinute) / UNIT_MINUTES;
+        int to = (clampMinute(endMinute) + UNIT_MINUTES - 1) / UNIT_MINUTES;
+        setUnits(from, to, false);
+    }
+
+    /**
+     * Indique si la plage [startMinute, startMinute + durationMinutes) est entièrement libre
+     *
+     * @param startMinute Début en minutes depuis minuit
+     * @param durationMinutes Durée en minutes
+     * @return true si toutes les unités concernées sont libres
+     */
+    public boolean isFree(int startMinute, int durationMinutes) {
+        if (startMinute < 0 || durationMinutes <= 0) {
+            return false;
+        }
+        int from = startMinute / UNIT_MINUTES;
+        int to = (startMinute + durationMinutes + UNIT_MINUTES - 1) / UNIT_MINUTES;
+        return to <= UNITS_PER_DAY && nextClearBit(from) >= to;
+    }
+
+    /**
+     * Recherche les débuts de créneaux libres d'une durée donnée.
+     * Les débuts proposés suivent la grille de chaque plage de travail : début de la
+     * plage, puis tous les stepMinutes (09:00, 09:15… même si un rendez-vous se
+     * termine à 09:20), comme les créneaux affichés aux secrétaires.
+     *
+     * @param gridRanges Les plages de travail {début1, fin1, ...} en minutes depuis minuit, triées
+     * @param durationMinutes Durée du créneau recherché
+     * @param stepMinutes Pas de la grille
+     * @param notBeforeMinute Premier début acceptable en minutes depuis minuit
+     * @param maxCount Nombre maximal de résultats
+     * @return Les débuts de créneaux, en minutes depuis minuit, par ordre croissant
+     */
+    public List<Integer> findFreeStarts(int[] gridRanges, int durationMinutes, int stepMinutes,
+                                        int notBeforeMinute, int maxCount) {
+        List<Integer> starts = new ArrayList<>();
+        int duration = Math.max(1, durationMinutes);
+        int step = Math.max(1, stepMinutes);
+        int lastStart = -1;
+
+        for (int i = 0; i + 1 < gridRanges.length && starts.size() < maxCount; i += 2) {
+            int rangeStart = gridRanges[i];
+            int rangeEnd = Math.min(gridRanges[i + 1], 24 * 60);
+            int minute = alignToGrid(rangeStart, Math.max(rangeStart, Math.max(notBeforeMinute, lastStart + 1)), step);
+
+            while (minute < rangeEnd && starts.size() < maxCount) {
+                int busyUnit = nextClearBit(minute / UNIT_MINUTES);
+                if (busyUnit * UNIT_MINUTES >= minute + duration) {
+                    starts.add(minute);
+                    lastStart = minute;
+                    minute += step;
+                    continue;
+                }
+                // Occupé avant la fin du créneau : reprendre au point de grille suivant la plage occupée
+                int freeUnit = nextSetBit(busyUnit);
+                if (freeUnit < 0) {
+                    return starts;
+                }
+                minute = alignToGrid(rangeStart, Math.max(minute + 1, freeUnit * UNIT_MINUTES), step);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Premier point de la grille (origin + k * step) supérieur ou égal à minute
+     */
+    private static int alignToGrid(int origin, int minute, int step) {
+        int offset = minute - origin;
+        return origin + (offset + step - 1) / step * step;
+    }
+
+    /**
+     * Nombre de minutes libres dans la journée
+     *
+     * @return Le total des unités libres converti en minutes
+     */
+    public int freeMinutes() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count * UNIT_MINUTES;
+    }
+
+    private void setUnits(int from, int to, boolean value) {
+        while (from < to) {
+            int word = from >>> 6;
+            int bit = from & 63;
+            int count = Math.min(64 - bit, to - from);
+            long mask = (count == 64 ? -1L : (1L << count) - 1) << bit;
+            if (value) {
+                words[word] |= mask;
+            } else {
+                words[word] &= ~mask;
+            }
+            from += count;
+        }
+    }
+
+    private int nextSetBit(int from) {
+        if (from >= UNITS_PER_DAY) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word = words[index] & (-1L << (from & 63));
+        while (true) {
+            if (word != 0) {
+                return index * 64 + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == WORDS) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    private int nextClearBit(int from) {
+        if (from >= UNITS_PER_DAY) {
+            return UNITS_PER_DAY;
+        }
+        int index = from >>> 6;
+        long word = ~words[index] & (-1L << (from & 63));
+        while (true) {
+            if (word != 0) {
+                return Math.min(UNITS_PER_DAY, index * 64 + Long.numberOfTrailingZeros(word));
+            }
+            if (++index == WORDS) {
+                return UNITS_PER_DAY;
+            }
+            word = ~words[index];
+        }
+    }
+
+    private static int clampMinute(int minute) {
+        return Math.max(0, Math.min(24 * 60, minute));
+    }
+}
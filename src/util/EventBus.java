@@ -0,0 +1,196 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+import config.AppConfig;
+
+/**
+ * Bus d'événements interne à l'application : les contrôleurs publient des événements
+ * typés après leurs écritures, les caches et les vues s'y abonnent pour ne mettre à
+ * jour que ce qui est concerné.
+ *
+ * La publication ne bloque pas : un thread de distribution attend EVENT_COALESCE_MILLIS
+ * après le premier événement d'une rafale, écarte les doublons, puis remet à chaque
+ * abonné un seul lot des événements de son type, sur l'exécuteur choisi à l'abonnement
+ * (EDT pour les vues). Si un abonné n'a pas encore traité le lot précédent, les
+ * nouveaux événements y sont ajoutés au lieu de planifier un second appel.
+ * Implémente le pattern Singleton pour assurer une seule instance.
+ */
+public final class EventBus {
+
+    private static final Logger LOGGER = Logger.getLogger(EventBus.class.getName());
+
+    /**
+     * Remise sur l'Event Dispatch Thread (abonnés de l'interface)
+     */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    /**
+     * Remise sur le thread de distribution (abonnés rapides et thread-safe : caches)
+     */
+    public static final Executor DIRECT = Runnable::run;
+
+    // Instance unique (Singleton)
+    private static EventBus instance;
+
+    private final long coalesceMillis;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Abonnement à un type d'événements
+     *
+     * @param <E> Le type des événements
+     */
+    public static final class Subscription<E> {
+        private final Class<E> type;
+        private final Consumer<List<E>> listener;
+        private final Executor executor;
+        private final Object lock = new Object();
+
+        // Événements en attente de remise (doublons écartés) ; null si aucune remise planifiée
+        private Set<E> pending;
+        private volatile boolean cancelled;
+
+        private Subscription(Class<E> type, Consumer<List<E>> listener, Executor executor) {
+            this.type = type;
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        /**
+         * Met fin à l'abonnement ; un lot déjà planifié n'est pas remis
+         */
+        public void cancel() {
+            cancelled = true;
+            EventBus.getInstance().subscriptions.remove(this);
+        }
+
+        private void offer(List<Object> batch) {
+            List<E> events = new ArrayList<>();
+            for (Object event : batch) {
+                if (type.isInstance(event)) {
+                    events.add(type.cast(event));
+                }
+            }
+            if (events.isEmpty() || cancelled) {
+                return;
+            }
+            synchronized (lock) {
+                if (pending != null) {
+                    // Le lot précédent n'a pas encore été remis : il recevra aussi ceux-ci
+                    pending.addAll(events);
+                    return;
+                }
+                pending = new LinkedHashSet<>(events);
+            }
+            executor.execute(this::deliver);
+        }
+
+        private void deliver() {
+            List<E> events;
+            synchronized (lock) {
+                events = new ArrayList<>(pending);
+                pending = null;
+            }
+            if (cancelled) {
+                return;
+            }
+            try {
+                listener.accept(events);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Erreur d'un abonné aux événements " + type.getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Constructeur privé (Singleton)
+     */
+    private EventBus(long coalesceMillis) {
+        this.coalesceMillis = coalesceMillis;
+        Thread dispatcher = new Thread(this::dispatchLoop, "bus-evenements");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Obtient l'instance unique du bus d'événements
+     *
+     * @return L'instance de EventBus
+     */
+    public static synchronized EventBus getInstance() {
+        if (instance == null) {
+            instance = new EventBus(AppConfig.EVENT_COALESCE_MILLIS);
+        }
+        return instance;
+    }
+
+    /**
+     * Abonne un écouteur à un type d'événements (et à ses sous-types)
+     *
+     * @param type Le type des événements
+     * @param listener Reçoit les événements par lots, dans l'ordre de publication, sans doublons
+     * @param executor L'exécuteur de la remise (EDT, DIRECT ou autre)
+     * @return L'abonnement, pour y mettre fin
+     */
+    public <E> Subscription<E> subscribe(Class<E> type, Consumer<List<E>> listener, Executor executor) {
+        Subscription<E> subscription = new Subscription<>(type, listener, executor);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publie un événement ; la remise aux abonnés est asynchrone
+     *
+     * @param event L'événement (immuable, avec equals pour le regroupement)
+     */
+    public void publish(Object event) {
+        if (event != null) {
+            queue.add(event);
+        }
+    }
+
+    /**
+     * Boucle du thread de distribution : une rafale d'événements par itération
+     */
+    private void dispatchLoop() {
+        while (true) {
+            try {
+                Object first = queue.take();
+
+                // Laisser la rafale se terminer (écritures d'un lot, annulation d'une journée...)
+                Thread.sleep(coalesceMillis);
+                Set<Object> batch = new LinkedHashSet<>();
+                batch.add(first);
+                List<Object> drained = new ArrayList<>();
+                queue.drainTo(drained);
+                batch.addAll(drained);
+
+                List<Object> events = new ArrayList<>(batch);
+                for (Subscription<?> subscription : subscriptions) {
+                    try {
+                        subscription.offer(events);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING, "Erreur lors de la distribution des événements", e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
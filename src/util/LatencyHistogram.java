@@ -0,0 +1,144 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées sans verrou, pour une mesure permanente sur les chemins chauds.
+ *
+ * Les valeurs (en microsecondes) sont rangées dans des intervalles log-linéaires : exacts
+ * sous 16 µs, puis 8 intervalles par puissance de deux, soit une erreur relative d'au
+ * plus 12,5 % sur les percentiles. Un enregistrement ne fait que des incréments atomiques,
+ * sans allocation ; les lectures (percentiles) parcourent les intervalles et peuvent
+ * ne pas refléter les enregistrements concurrents.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+    // Au-delà de 2^40 µs (environ 12 jours), les valeurs tombent dans le dernier intervalle
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Enregistre une durée
+     *
+     * @param micros La durée en microsecondes (les valeurs négatives comptent pour 0)
+     */
+    public void record(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Un autre thread a enregistré un maximum entre-temps : relire
+        }
+    }
+
+    /**
+     * @return Le nombre de durées enregistrées
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return La somme des durées enregistrées, en microsecondes
+     */
+    public long getSumMicros() {
+        return sum.sum();
+    }
+
+    /**
+     * @return La durée moyenne, en microsecondes
+     */
+    public long getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * @return La durée maximale observée, en microsecondes
+     */
+    public long getMaxMicros() {
+        return max.get();
+    }
+
+    /**
+     * Percentile des durées enregistrées (borne haute de l'intervalle qui le contient,
+     * limitée au maximum observé)
+     *
+     * @param percentile Le percentile, entre 0 et 100 (ex. 95, 99.9)
+     * @return La durée en microsecondes, 0 si aucun enregistrement
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Remet l'histogramme à zéro (les enregistrements concurrents peuvent être perdus)
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long upperBound(int index) {
+        return index + 1 < BUCKET_COUNT ? lowerBound(index + 1) - 1 : MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{n=" + getCount() + ", p50=" + getPercentileMicros(50) + "µs, p95="
+                + getPercentileMicros(95) + "µs, p99=" + getPercentileMicros(99) + "µs, max=" + getMaxMicros() + "µs}";
+    }
+}
@@ -0,0 +1,352 @@
+package util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Cache d'entités thread-safe, borné en taille (éviction LRU) et à expiration par entrée.
+ * Utilisé par les contrôleurs pour les entités récemment consultées et les listes de
+ * référence ; les chemins d'écriture des contrôleurs invalident les entrées concernées.
+ * Les compteurs de succès, d'échecs et d'évictions permettent d'évaluer son efficacité.
+ *
+ * @param <K> Le type des clés
+ * @param <V> Le type des valeurs
+ */
+public final class LruCache<K, V> {
+
+    /**
+     * Chargement d'une valeur absente du cache
+     *
+     * @param <V> Le type de la valeur
+     * @param <X> Le type d'exception levée par le chargement
+     */
+    @FunctionalInterface
+    public interface Loader<V, X extends Exception> {
+        V load() throws X;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long defaultTtlMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Incrémenté à chaque invalidation (sous verrou) : un chargement commencé avant
+    // une invalidation ne remet pas sa valeur, peut-être périmée, en cache
+    private long invalidations;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Constructeur
+     *
+     * @param name Le nom du cache (journalisation, statistiques)
+     * @param maxSize Le nombre maximal d'entrées
+     * @param defaultTtlMillis La durée de vie par défaut d'une entrée en millisecondes
+     */
+    public LruCache(String name, int maxSize, long defaultTtlMillis) {
+        if (maxSize <= 0 || defaultTtlMillis <= 0) {
+            throw new IllegalArgumentException("Taille et durée de vie du cache doivent être positives");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.defaultTtlMillis = defaultTtlMillis;
+        // Ordre d'insertion, tenu à jour comme un ordre d'accès par get et put (voir store) :
+        // l'entrée la moins récemment utilisée est en tête, et peek peut lire sans la déplacer
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, false) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Récupère une valeur si elle est présente et non expirée
+     *
+     * @param key La clé
+     * @return La valeur, ou null si absente ou expirée
+     */
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            // Accès : l'entrée passe en queue (la plus récemment utilisée)
+            entries.remove(key);
+            entries.put(key, entry);
+            hits.incrementAndGet();
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Consulte une valeur présente et non expirée sans la compter comme un accès :
+     * ni les compteurs de succès et d'échecs ni l'ordre LRU ne sont modifiés, et une
+     * entrée expirée est laissée à purgeExpired. Réservé aux consultations internes
+     * (suivi des modifications, invalidations) qui ne reflètent pas l'usage du cache.
+     *
+     * @param key La clé
+     * @return La valeur, ou null si absente ou expirée
+     */
+    public V peek(K key) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            return entry == null || entry.expiresAt <= now ? null : entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Récupère une valeur, en la chargeant si elle est absente ou expirée.
+     * Le chargement est effectué hors verrou ; une valeur null n'est pas mise en cache,
+     * pas plus qu'une valeur dont le chargement a été suivi d'une invalidation.
+     *
+     * @param key La clé
+     * @param loader Le chargement à effectuer en cas d'absence
+     * @return La valeur en cache ou chargée
+     * @throws X Si le chargement échoue
+     */
+    public <X extends Exception> V get(K key, Loader<V, X> loader) throws X {
+        V value = get(key);
+        if (value == null) {
+            long invalidationsBefore = getInvalidations();
+            value = loader.load();
+            if (value != null) {
+                putIfNotInvalidated(key, value, invalidationsBefore);
+            }
+        }
+        return value;
+    }
+
+    private long getInvalidations() {
+        lock.lock();
+        try {
+            return invalidations;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ajoute une valeur chargée, sauf si une invalidation a eu lieu depuis le début du chargement
+     */
+    private void putIfNotInvalidated(K key, V value, long invalidationsBefore) {
+        lock.lock();
+        try {
+            if (invalidations == invalidationsBefore) {
+                store(key, new Entry<>(value, System.currentTimeMillis() + defaultTtlMillis));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ajoute ou remplace une valeur avec la durée de vie par défaut
+     *
+     * @param key La clé
+     * @param value La valeur (ignorée si null)
+     */
+    public void put(K key, V value) {
+        put(key, value, defaultTtlMillis);
+    }
+
+    /**
+     * Ajoute ou remplace une valeur avec une durée de vie spécifique
+     *
+     * @param key La clé
+     * @param value La valeur (ignorée si null)
+     * @param ttlMillis La durée de vie de l'entrée en millisecondes
+     */
+    public void put(K key, V value, long ttlMillis) {
+        if (value == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            store(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ajoute ou remplace une entrée en queue de l'ordre LRU (appelée sous verrou) ;
+     * en ordre d'insertion, un simple put laisserait une clé existante à sa place
+     */
+    private void store(K key, Entry<V> entry) {
+        entries.remove(key);
+        entries.put(key, entry);
+    }
+
+    /**
+     * Retire une entrée du cache
+     *
+     * @param key La clé à invalider
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            invalidations++;
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retire les entrées dont la valeur vérifie un critère (invalidation ciblée
+     * à la réception d'un événement)
+     *
+     * @param predicate Le critère, évalué sous verrou (doit être rapide)
+     * @return Le nombre d'entrées retirées
+     */
+    public int invalidateIf(Predicate<? super V> predicate) {
+        int removed = 0;
+        lock.lock();
+        try {
+            invalidations++;
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (predicate.test(it.next().value)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Vide le cache (les compteurs sont conservés)
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidations++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retire les entrées expirées
+     *
+     * @return Le nombre d'entrées retirées
+     */
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        lock.lock();
+        try {
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().expiresAt <= now) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        expirations.addAndGet(removed);
+        return removed;
+    }
+
+    /**
+     * Nombre d'entrées actuellement en cache (y compris expirées non encore purgées)
+     *
+     * @return La taille du cache
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /**
+     * Taux de succès depuis la création du cache
+     *
+     * @return Le ratio succès / accès, entre 0 et 1
+     */
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache %s : %d/%d entrées, %d succès, %d échecs (%.1f %%), %d évictions, %d expirations",
+                name, size(), maxSize, getHitCount(), getMissCount(), getHitRatio() * 100,
+                getEvictionCount(), getExpirationCount());
+    }
+
+    /**
+     * Valeur en cache et date d'expiration
+     */
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
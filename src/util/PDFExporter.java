@@ -1,12 +1,23 @@
 package util;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,12 +29,13 @@ import com.lowagie.text.FontFactory;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.Paragraph;
 import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 
 import config.AppConfig;
-import model.Appointment;
+import model.AppointmentSummary;
 import model.Doctor;
 
 /**
@@ -39,6 +51,18 @@ public class PDFExporter {
     private static final Font SUBTITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
     private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
     private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final float[] COLUMN_WIDTHS = {0.15f, 0.15f, 0.3f, 0.2f, 0.2f};
+    
+    // Formats de date (immuables, partagés entre les exports simultanés)
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT);
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT);
+    
+    // Taille du tampon d'écriture des fichiers PDF
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    
+    // Suffixe unique des fichiers temporaires (exports simultanés)
+    private static final AtomicLong TEMP_FILE_COUNTER = new AtomicLong(System.nanoTime());
     
     /**
      * Empêche l'instanciation de cette classe utilitaire
@@ -58,82 +82,13 @@ public class PDFExporter {
      * @throws IOException Si une erreur survient lors de la génération du PDF
      */
     public static String exportDailyPlanningToPDF(Doctor doctor, LocalDate date, 
-                                                List<Appointment> appointments, 
+                                                List<AppointmentSummary> appointments, 
                                                 String outputFilePath) throws IOException {
         
-        Document document = new Document(PageSize.A4);
-        
-        try {
-            // Créer le dossier de destination si nécessaire
-            File dir = new File(outputFilePath).getParentFile();
-            if (dir != null && !dir.exists()) {
-                dir.mkdirs();
-            }
-            
-            PdfWriter.getInstance(document, new FileOutputStream(outputFilePath));
-            document.open();
-            
-            // Titre
-            Paragraph title = new Paragraph("Planning Journalier", TITLE_FONT);
-            title.setAlignment(Element.ALIGN_CENTER);
-            document.add(title);
-            
-            // Sous-titre avec médecin et date
-            Paragraph subtitle = new Paragraph(
-                "Dr. " + doctor.getFullName() + " - " + 
-                DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT).format(date),
-                SUBTITLE_FONT
-            );
-            subtitle.setAlignment(Element.ALIGN_CENTER);
-            subtitle.setSpacingBefore(10);
-            subtitle.setSpacingAfter(20);
-            document.add(subtitle);
-            
-            if (appointments.isEmpty()) {
-                Paragraph noAppointments = new Paragraph("Aucun rendez-vous programmé pour cette journée.", NORMAL_FONT);
-                noAppointments.setAlignment(Element.ALIGN_CENTER);
-                document.add(noAppointments);
-            } else {
-                // Tableau des rendez-vous
-                PdfPTable table = new PdfPTable(5); // 5 colonnes
-                table.setWidthPercentage(100);
-                table.setSpacingBefore(10f);
-                table.setSpacingAfter(10f);
-                
-                // Définir la largeur relative des colonnes
-                float[] columnWidths = {0.15f, 0.15f, 0.3f, 0.2f, 0.2f};
-                table.setWidths(columnWidths);
-                
-                // En-têtes du tableau
-                addTableHeader(table, new String[]{"Heure", "Durée", "Patient", "Type", "Statut"});
-                
-                // Contenu du tableau
-                for (Appointment appointment : appointments) {
-                    addAppointmentRow(table, appointment);
-                }
-                
-                document.add(table);
-            }
-            
-            // Informations supplémentaires
-            Paragraph footer = new Paragraph(
-                "Document généré le " + 
-                DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT).format(LocalDateTime.now()),
-                NORMAL_FONT
-            );
-            footer.setAlignment(Element.ALIGN_RIGHT);
-            footer.setSpacingBefore(20);
-            document.add(footer);
-            
-        } catch (DocumentException e) {
-            LOGGER.log(Level.SEVERE, "Erreur lors de la création du document PDF", e);
-            throw new IOException("Erreur lors de la génération du PDF: " + e.getMessage(), e);
-        } finally {
-            if (document.isOpen()) {
-                document.close();
-            }
-        }
-        
+        writeDocument(PageSize.A4, outputFilePath, document -> {
+            addDailyPlanning(document, doctor, date, appointments);
+            addFooter(document);
+        });
         return outputFilePath;
     }
     
@@ -148,103 +103,224 @@ public class PDFExporter {
      * @throws IOException Si une erreur survient lors de la génération du PDF
      */
     public static String exportWeeklyPlanningToPDF(Doctor doctor, LocalDate weekStartDate, 
-                                                 List<Appointment> appointments, 
+                                                 List<AppointmentSummary> appointments, 
                                                  String outputFilePath) throws IOException {
         
-        Document document = new Document(PageSize.A4.rotate()); // Format paysage
+        // Format paysage
+        writeDocument(PageSize.A4.rotate(), outputFilePath, document -> {
+            addWeeklyPlanning(document, doctor, weekStartDate, appointments);
+            addFooter(document);
+        });
+        return outputFilePath;
+    }
+    
+    /**
+     * Exporte les plannings hebdomadaires de plusieurs médecins dans un seul document PDF,
+     * une section (à partir d'une nouvelle page) par médecin
+     * 
+     * @param plannings Les rendez-vous de chaque médecin, dans l'ordre des sections
+     * @param weekStartDate La date de début de la semaine
+     * @param outputFilePath Le chemin du fichier PDF à générer
+     * @return Le chemin du fichier PDF généré
+     * @throws IOException Si une erreur survient lors de la génération du PDF
+     */
+    public static String exportWeeklyPlanningsToPDF(Map<Doctor, List<AppointmentSummary>> plannings,
+                                                  LocalDate weekStartDate,
+                                                  String outputFilePath) throws IOException {
         
-        try {
-            // Créer le dossier de destination si nécessaire
-            File dir = new File(outputFilePath).getParentFile();
-            if (dir != null && !dir.exists()) {
-                dir.mkdirs();
+        writeDocument(PageSize.A4.rotate(), outputFilePath, document -> {
+            boolean first = true;
+            for (Map.Entry<Doctor, List<AppointmentSummary>> planning : plannings.entrySet()) {
+                if (!first) {
+                    document.newPage();
+                }
+                first = false;
+                addWeeklyPlanning(document, planning.getKey(), weekStartDate, planning.getValue());
             }
+            addFooter(document);
+        });
+        return outputFilePath;
+    }
+    
+    /**
+     * Ajoute le titre et le tableau d'un planning journalier
+     */
+    private static void addDailyPlanning(Document document, Doctor doctor, LocalDate date,
+                                         List<AppointmentSummary> appointments) throws DocumentException {
+        // Titre
+        Paragraph title = new Paragraph("Planning Journalier", TITLE_FONT);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+        
+        // Sous-titre avec médecin et date
+        Paragraph subtitle = new Paragraph(
+            "Dr. " + doctor.getFullName() + " - " + DATE_FORMATTER.format(date),
+            SUBTITLE_FONT
+        );
+        subtitle.setAlignment(Element.ALIGN_CENTER);
+        subtitle.setSpacingBefore(10);
+        subtitle.setSpacingAfter(20);
+        document.add(subtitle);
+        
+        if (appointments.isEmpty()) {
+            Paragraph noAppointments = new Paragraph("Aucun rendez-vous programmé pour cette journée.", NORMAL_FONT);
+            noAppointments.setAlignment(Element.ALIGN_CENTER);
+            document.add(noAppointments);
+        } else {
+            // Tableau des rendez-vous
+            PdfPTable table = createAppointmentTable(appointments);
+            table.setSpacingBefore(10f);
+            table.setSpacingAfter(10f);
+            document.add(table);
+        }
+    }
+    
+    /**
+     * Ajoute le titre et les tableaux jour par jour d'un planning hebdomadaire
+     */
+    private static void addWeeklyPlanning(Document document, Doctor doctor, LocalDate weekStartDate,
+                                          List<AppointmentSummary> appointments) throws DocumentException {
+        // Titre
+        Paragraph title = new Paragraph("Planning Hebdomadaire", TITLE_FONT);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+        
+        // Sous-titre avec médecin et semaine
+        LocalDate weekEndDate = weekStartDate.plusDays(6);
+        Paragraph subtitle = new Paragraph(
+            "Dr. " + doctor.getFullName() + " - Semaine du " + 
+            DATE_FORMATTER.format(weekStartDate) + " au " + DATE_FORMATTER.format(weekEndDate),
+            SUBTITLE_FONT
+        );
+        subtitle.setAlignment(Element.ALIGN_CENTER);
+        subtitle.setSpacingBefore(10);
+        subtitle.setSpacingAfter(20);
+        document.add(subtitle);
+        
+        if (appointments.isEmpty()) {
+            Paragraph noAppointments = new Paragraph("Aucun rendez-vous programmé pour cette semaine.", NORMAL_FONT);
+            noAppointments.setAlignment(Element.ALIGN_CENTER);
+            document.add(noAppointments);
+            return;
+        }
+        
+        // Répartir les rendez-vous par jour en un seul passage, triés par heure
+        List<List<AppointmentSummary>> days = new ArrayList<>(7);
+        for (int dayOffset = 0; dayOffset < 7; dayOffset++) {
+            days.add(new ArrayList<>());
+        }
+        for (AppointmentSummary appointment : appointments) {
+            long dayOffset = ChronoUnit.DAYS.between(weekStartDate, appointment.getStartDateTime().toLocalDate());
+            if (dayOffset >= 0 && dayOffset < 7) {
+                days.get((int) dayOffset).add(appointment);
+            }
+        }
+        
+        for (int dayOffset = 0; dayOffset < 7; dayOffset++) {
+            LocalDate currentDate = weekStartDate.plusDays(dayOffset);
             
-            PdfWriter.getInstance(document, new FileOutputStream(outputFilePath));
-            document.open();
-            
-            // Titre
-            Paragraph title = new Paragraph("Planning Hebdomadaire", TITLE_FONT);
-            title.setAlignment(Element.ALIGN_CENTER);
-            document.add(title);
-            
-            // Sous-titre avec médecin et semaine
-            LocalDate weekEndDate = weekStartDate.plusDays(6);
-            Paragraph subtitle = new Paragraph(
-                "Dr. " + doctor.getFullName() + " - Semaine du " + 
-                DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT).format(weekStartDate) + 
-                " au " + 
-                DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT).format(weekEndDate),
-                SUBTITLE_FONT
+            // En-tête du jour
+            Paragraph dayHeader = new Paragraph(
+                currentDate.getDayOfWeek().toString() + " " + DATE_FORMATTER.format(currentDate),
+                HEADER_FONT
             );
-            subtitle.setAlignment(Element.ALIGN_CENTER);
-            subtitle.setSpacingBefore(10);
-            subtitle.setSpacingAfter(20);
-            document.add(subtitle);
+            dayHeader.setSpacingBefore(15);
+            dayHeader.setSpacingAfter(5);
+            document.add(dayHeader);
             
-            if (appointments.isEmpty()) {
-                Paragraph noAppointments = new Paragraph("Aucun rendez-vous programmé pour cette semaine.", NORMAL_FONT);
-                noAppointments.setAlignment(Element.ALIGN_CENTER);
-                document.add(noAppointments);
+            List<AppointmentSummary> dayAppointments = days.get(dayOffset);
+            if (dayAppointments.isEmpty()) {
+                Paragraph noDayAppointments = new Paragraph("Aucun rendez-vous", NORMAL_FONT);
+                noDayAppointments.setIndentationLeft(20);
+                document.add(noDayAppointments);
             } else {
-                // Trier les rendez-vous par jour puis par heure
-                appointments.sort((a1, a2) -> a1.getStartDateTime().compareTo(a2.getStartDateTime()));
-                
-                // Organiser les rendez-vous par jour
-                for (int dayOffset = 0; dayOffset < 7; dayOffset++) {
-                    LocalDate currentDate = weekStartDate.plusDays(dayOffset);
-                    
-                    // En-tête du jour
-                    Paragraph dayHeader = new Paragraph(
-                        currentDate.getDayOfWeek().toString() + " " + 
-                        DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT).format(currentDate),
-                        HEADER_FONT
-                    );
-                    dayHeader.setSpacingBefore(15);
-                    dayHeader.setSpacingAfter(5);
-                    document.add(dayHeader);
-                    
-                    // Filtrer les rendez-vous du jour
-                    final int dayOffsetFinal = dayOffset;
-                    List<Appointment> dayAppointments = appointments.stream()
-                            .filter(a -> a.getStartDateTime().toLocalDate().equals(weekStartDate.plusDays(dayOffsetFinal)))
-                            .toList();
-                    
-                    if (dayAppointments.isEmpty()) {
-                        Paragraph noDayAppointments = new Paragraph("Aucun rendez-vous", NORMAL_FONT);
-                        noDayAppointments.setIndentationLeft(20);
-                        document.add(noDayAppointments);
-                    } else {
-                        // Tableau des rendez-vous du jour
-                        PdfPTable table = new PdfPTable(5); // 5 colonnes
-                        table.setWidthPercentage(100);
-                        
-                        // Définir la largeur relative des colonnes
-                        float[] columnWidths = {0.15f, 0.15f, 0.3f, 0.2f, 0.2f};
-                        table.setWidths(columnWidths);
-                        
-                        // En-têtes du tableau
-                        addTableHeader(table, new String[]{"Heure", "Durée", "Patient", "Type", "Statut"});
-                        
-                        // Contenu du tableau
-                        for (Appointment appointment : dayAppointments) {
-                            addAppointmentRow(table, appointment);
-                        }
-                        
-                        document.add(table);
-                    }
-                }
+                dayAppointments.sort(Comparator.comparing(AppointmentSummary::getStartDateTime));
+                document.add(createAppointmentTable(dayAppointments));
+            }
+        }
+    }
+    
+    /**
+     * Crée le tableau (heure, durée, patient, type, statut) d'une liste de rendez-vous
+     */
+    private static PdfPTable createAppointmentTable(List<AppointmentSummary> appointments) throws DocumentException {
+        PdfPTable table = new PdfPTable(5); // 5 colonnes
+        table.setWidthPercentage(100);
+        
+        // Définir la largeur relative des colonnes
+        table.setWidths(COLUMN_WIDTHS);
+        
+        // En-têtes du tableau
+        addTableHeader(table, new String[]{"Heure", "Durée", "Patient", "Type", "Statut"});
+        
+        // Contenu du tableau
+        for (AppointmentSummary appointment : appointments) {
+            addAppointmentRow(table, appointment);
+        }
+        return table;
+    }
+    
+    /**
+     * Ajoute la date de génération en bas du document
+     */
+    private static void addFooter(Document document) throws DocumentException {
+        Paragraph footer = new Paragraph(
+            "Document généré le " + DATETIME_FORMATTER.format(LocalDateTime.now()),
+            NORMAL_FONT
+        );
+        footer.setAlignment(Element.ALIGN_RIGHT);
+        footer.setSpacingBefore(20);
+        document.add(footer);
+    }
+    
+    /**
+     * Contenu d'un document PDF
+     */
+    @FunctionalInterface
+    private interface DocumentContent {
+        void write(Document document) throws DocumentException;
+    }
+    
+    /**
+     * Génère un document PDF dans un fichier temporaire du dossier de destination,
+     * à travers un flux tamponné, puis le renomme en une opération : un fichier
+     * exporté n'est jamais visible à moitié écrit, et un export en échec ne
+     * remplace pas le précédent.
+     * 
+     * @param pageSize Le format des pages
+     * @param outputFilePath Le chemin du fichier PDF à générer
+     * @param content Le contenu du document
+     * @throws IOException Si une erreur survient lors de la génération ou de l'écriture
+     */
+    private static void writeDocument(Rectangle pageSize, String outputFilePath,
+                                      DocumentContent content) throws IOException {
+        // Créer le dossier de destination si nécessaire
+        Path target = Paths.get(outputFilePath).toAbsolutePath();
+        Path dir = target.getParent();
+        Files.createDirectories(dir);
+        
+        // Fichier temporaire créé avec les permissions par défaut (contrairement à createTempFile)
+        Path temp = dir.resolve(target.getFileName() + "." + TEMP_FILE_COUNTER.incrementAndGet() + ".tmp");
+        Document document = new Document(pageSize);
+        boolean written = false;
+        
+        try {
+            OutputStream out = new BufferedOutputStream(
+                    Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                    OUTPUT_BUFFER_SIZE);
+            try {
+                // Le flux est fermé par document.close()
+                PdfWriter.getInstance(document, out);
+            } catch (DocumentException e) {
+                out.close();
+                throw e;
             }
+            document.open();
+            content.write(document);
+            document.close();
             
-            // Informations supplémentaires
-            Paragraph footer = new Paragraph(
-                "Document généré le " + 
-                DateTimeFormatter.ofPattern(AppConfig.DATETIME_FORMAT).format(LocalDateTime.now()),
-                NORMAL_FONT
-            );
-            footer.setAlignment(Element.ALIGN_RIGHT);
-            footer.setSpacingBefore(20);
-            document.add(footer);
+            moveAtomically(temp, target);
+            written = true;
             
         } catch (DocumentException e) {
             LOGGER.log(Level.SEVERE, "Erreur lors de la création du document PDF", e);
@@ -253,9 +329,22 @@ public class PDFExporter {
             if (document.isOpen()) {
                 document.close();
             }
+            if (!written) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+    
+    /**
+     * Remplace le fichier cible par le fichier temporaire, de façon atomique
+     * lorsque le système de fichiers le permet
+     */
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
         }
-        
-        return outputFilePath;
     }
     
     /**
@@ -280,10 +369,9 @@ public class PDFExporter {
      * @param table Le tableau PDF
      * @param appointment Le rendez-vous à ajouter
      */
-    private static void addAppointmentRow(PdfPTable table, Appointment appointment) {
+    private static void addAppointmentRow(PdfPTable table, AppointmentSummary appointment) {
         // Heure de début
-        String startTime = DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT)
-                            .format(appointment.getStartDateTime());
+        String startTime = TIME_FORMATTER.format(appointment.getStartDateTime());
         PdfPCell cellTime = new PdfPCell(new Phrase(startTime, NORMAL_FONT));
         cellTime.setHorizontalAlignment(Element.ALIGN_CENTER);
         cellTime.setPadding(5);
@@ -296,10 +384,7 @@ public class PDFExporter {
         table.addCell(cellDuration);
         
         // Patient
-        String patientName = appointment.getPatient() != null ? 
-                            appointment.getPatient().getFullName() : 
-                            "Patient #" + appointment.getPatientId();
-        PdfPCell cellPatient = new PdfPCell(new Phrase(patientName, NORMAL_FONT));
+        PdfPCell cellPatient = new PdfPCell(new Phrase(appointment.getPatientName(), NORMAL_FONT));
         cellPatient.setPadding(5);
         table.addCell(cellPatient);
         
@@ -345,4 +430,16 @@ public class PDFExporter {
         String fileName = generatePlanningFileName(doctor, date, isWeekly);
         return AppConfig.EXPORT_DIRECTORY + fileName;
     }
+    
+    /**
+     * Génère le chemin complet du document regroupant les plannings hebdomadaires
+     * de tous les médecins
+     * 
+     * @param weekStartDate La date de début de la semaine
+     * @return Le chemin complet du fichier
+     */
+    public static String generateMergedPlanningFilePath(LocalDate weekStartDate) {
+        return AppConfig.EXPORT_DIRECTORY + AppConfig.PDF_EXPORT_PREFIX + "tous_medecins_hebdo_"
+                + weekStartDate.format(DateTimeFormatter.ISO_LOCAL_DATE) + ".pdf";
+    }
 }
\ No newline at end of file
@@ -15,7 +15,10 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultComboBoxModel;
@@ -34,7 +37,6 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
-import javax.swing.table.DefaultTableModel;
 
 import config.AppConfig;
 import controller.AppointmentController;
@@ -43,11 +45,16 @@ import controller.DoctorController;
 import controller.PatientController;
 import dao.DAOException;
 import model.Appointment;
+import model.AppointmentChanges;
+import model.AppointmentEvent;
 import model.AppointmentStatus;
+import model.AppointmentSummary;
+import model.BookingResult;
 import model.Doctor;
 import model.Patient;
 import model.Secretary;
 import util.DateTimeUtils;
+import util.EventBus;
 
 /**
  * Vue pour la gestion des rendez-vous.
@@ -74,7 +81,7 @@ public class AppointmentView extends JPanel {
     private JButton searchButton;
     
     private JTable appointmentTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<AppointmentSummary> tableModel;
     
     private JTextField patientField;
     private JComboBox<Doctor> appointmentDoctorComboBox;
@@ -91,10 +98,18 @@ public class AppointmentView extends JPanel {
     private JButton deleteButton;
     
     // État courant
-    private List<Appointment> appointments;
     private Appointment currentAppointment;
     private boolean editMode = false;
     
+    // Chargements asynchrones (hors EDT)
+    private final BusyIndicator busyIndicator = new BusyIndicator();
+    private final AsyncLoader asyncLoader = new AsyncLoader(busyIndicator);
+    private final ChangePoller changePoller = new ChangePoller(this, asyncLoader, this::applyChanges);
+    
+    // Journée et médecin de la liste affichée (flux des modifications)
+    private LocalDate shownDate;
+    private int shownDoctorId;
+    
     /**
      * Constructeur par défaut
      */
@@ -106,6 +121,8 @@ public class AppointmentView extends JPanel {
         
         initializeUI();
         loadData();
+        
+        EventBus.getInstance().subscribe(AppointmentEvent.class, this::onAppointmentEvents, EventBus.EDT);
     }
     
     /**
@@ -190,6 +207,10 @@ public class AppointmentView extends JPanel {
         gbc.gridy = 0;
         panel.add(searchButton, gbc);
         
+        gbc.gridx = 7;
+        gbc.gridy = 0;
+        panel.add(busyIndicator, gbc);
+        
         return panel;
     }
     
@@ -203,15 +224,20 @@ public class AppointmentView extends JPanel {
         panel.setBorder(BorderFactory.createTitledBorder("Liste des rendez-vous"));
         
         // Création du modèle de tableau
+        // Modèle virtuel : les rendez-vous sont lus page par page au fil du défilement
         String[] columnNames = {"Date", "Heure", "Patient", "Médecin", "Type", "Statut"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            private static final long serialVersionUID = 1L;
-            
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Rendre toutes les cellules non éditables
-            }
-        };
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT);
+        tableModel = new PagedTableModel<>(columnNames, appointment -> new Object[]{
+                appointment.getStartDateTime().format(dateFormatter),
+                appointment.getStartDateTime().format(timeFormatter),
+                appointment.getPatientName(),
+                appointment.getDoctorName(),
+                appointment.getAppointmentType(),
+                appointment.getStatus().getLabel()
+        }, asyncLoader, "appointments", e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du rafraîchissement des données: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
         
         // Création du tableau
         appointmentTable = new JTable(tableModel);
@@ -224,8 +250,9 @@ public class AppointmentView extends JPanel {
             public void valueChanged(ListSelectionEvent e) {
                 if (!e.getValueIsAdjusting()) {
                     int selectedRow = appointmentTable.getSelectedRow();
-                    if (selectedRow >= 0 && selectedRow < appointments.size()) {
-                        displayAppointment(appointments.get(selectedRow));
+                    AppointmentSummary selected = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+                    if (selected != null) {
+                        openAppointment(selected.getId());
                     }
                 }
             }
@@ -437,9 +464,14 @@ public class AppointmentView extends JPanel {
      * Charge les données initiales
      */
     private void loadData() {
-        try {
-            // Charger les médecins pour le filtre de recherche
-            List<Doctor> doctors = doctorController.getAllDoctors();
+        // Initialiser le champ de date avec la date du jour
+        searchDateField.setText(DateTimeUtils.formatDate(LocalDate.now()));
+        
+        // Initialiser les créneaux horaires disponibles
+        initializeTimeSlots();
+        
+        // Charger les médecins pour le filtre de recherche
+        asyncLoader.submit("doctors", doctorController::getAllDoctors, doctors -> {
             doctorComboBox.removeAllItems();
             doctorComboBox.addItem(null); // Option "Tous les médecins"
             
@@ -447,23 +479,12 @@ public class AppointmentView extends JPanel {
                 doctorComboBox.addItem(doctor);
                 appointmentDoctorComboBox.addItem(doctor);
             }
-            
-            // Charger les rendez-vous du jour
-            LocalDate today = LocalDate.now();
-            appointments = appointmentController.getAppointmentsByDate(today);
-            updateAppointmentTable();
-            
-            // Initialiser le champ de date avec la date du jour
-            searchDateField.setText(DateTimeUtils.formatDate(today));
-            
-            // Initialiser les créneaux horaires disponibles
-            initializeTimeSlots();
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des données: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des données: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
+        
+        // Charger les rendez-vous du jour
+        refreshData();
     }
     
     /**
@@ -484,111 +505,146 @@ public class AppointmentView extends JPanel {
     }
     
     /**
-     * Rafraîchit les données affichées
+     * Rafraîchit les données affichées (chargement en arrière-plan)
      */
     public void refreshData() {
-        try {
-            // Récupérer la date de recherche actuelle ou la date du jour
-            String dateStr = searchDateField.getText().trim();
-            LocalDate date = dateStr.isEmpty() ? 
-                    LocalDate.now() : 
-                    DateTimeUtils.parseDate(dateStr);
-            
-            if (date == null) {
-                date = LocalDate.now();
+        reloadList(true);
+        changePoller.restart();
+    }
+    
+    /**
+     * Recharge la liste des rendez-vous selon les critères de recherche
+     * 
+     * @param clearSelection true pour vider aussi le formulaire de détail
+     */
+    private void reloadList(boolean clearSelection) {
+        // Récupérer la date de recherche actuelle ou la date du jour
+        String dateStr = searchDateField.getText().trim();
+        LocalDate parsedDate = dateStr.isEmpty() ? 
+                LocalDate.now() : 
+                DateTimeUtils.parseDate(dateStr);
+        final LocalDate date = parsedDate != null ? parsedDate : LocalDate.now();
+        
+        // Récupérer le médecin sélectionné
+        final Doctor selectedDoctor = (Doctor) doctorComboBox.getSelectedItem();
+        
+        // Récupérer le texte de recherche patient
+        final String patientSearch = searchPatientField.getText().trim();
+        
+        final int doctorId = selectedDoctor != null ? selectedDoctor.getId() : 0;
+        shownDoctorId = doctorId;
+        shownDate = date;
+        
+        if (patientSearch.isEmpty()) {
+            // Liste paginée des rendez-vous du jour (tous les médecins ou le médecin sélectionné)
+            asyncLoader.cancel("appointments");
+            tableModel.setSource((after, offset, limit) ->
+                    appointmentController.getDailyAppointmentsPage(date, doctorId, after, limit));
+            if (clearSelection) {
+                resetSelection();
             }
-            
-            // Récupérer le médecin sélectionné
-            Doctor selectedDoctor = (Doctor) doctorComboBox.getSelectedItem();
-            
-            // Récupérer le texte de recherche patient
-            String patientSearch = searchPatientField.getText().trim();
-            
-            if (selectedDoctor != null && !patientSearch.isEmpty()) {
-                // Recherche par médecin et patient
-                // Simplification: on récupère tous les RDV du médecin et on filtre côté client
-                appointments = appointmentController.getAppointmentsByDoctorAndDate(selectedDoctor.getId(), date);
-                filterAppointmentsByPatient(patientSearch);
-            } else if (selectedDoctor != null) {
-                // Recherche par médecin uniquement
-                appointments = appointmentController.getAppointmentsByDoctorAndDate(selectedDoctor.getId(), date);
-            } else if (!patientSearch.isEmpty()) {
-                // Recherche par patient uniquement
-                // Simplification: on récupère tous les RDV de la date et on filtre côté client
-                appointments = appointmentController.getAppointmentsByDate(date);
-                filterAppointmentsByPatient(patientSearch);
-            } else {
-                // Recherche par date uniquement
-                appointments = appointmentController.getAppointmentsByDate(date);
+            return;
+        }
+        
+        // Rendez-vous du jour (médecin sélectionné ou tous), filtrés côté client sur le patient saisi
+        asyncLoader.submit("appointments", () -> filterAppointmentsByPatient(
+                appointmentController.getAppointmentSummaries(doctorId, date, date), patientSearch),
+        result -> {
+            tableModel.setRows(result);
+            if (clearSelection) {
+                resetSelection();
             }
-            
-            updateAppointmentTable();
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du rafraîchissement des données: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du rafraîchissement des données: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    /**
+     * Recharge la liste lorsque le flux des modifications concerne la journée affichée ;
+     * le formulaire de détail (éventuellement en cours de saisie) est conservé
+     * 
+     * @param changes Les changements
+     */
+    private void applyChanges(AppointmentChanges changes) {
+        if (shownDate == null) {
+            return;
+        }
+        Set<Integer> changedIds = changes.collectChangedIds(new HashSet<>());
+        if (changes.affects(shownDoctorId, shownDate, shownDate.plusDays(1), Collections.emptySet())
+                || tableModel.anyLoaded(appointment -> changedIds.contains(appointment.getId()))) {
+            reloadList(false);
         }
     }
     
     /**
-     * Filtre la liste des rendez-vous par nom de patient
+     * Recharge la liste lorsqu'une écriture de ce poste concerne la journée affichée ou
+     * un rendez-vous chargé ; le formulaire de détail est conservé
      * 
-     * @param patientName Nom du patient à rechercher
+     * @param events Les événements reçus
      */
-    private void filterAppointmentsByPatient(String patientName) {
-        if (patientName.isEmpty()) {
+    private void onAppointmentEvents(List<AppointmentEvent> events) {
+        if (shownDate == null) {
             return;
         }
-        
-        patientName = patientName.toLowerCase();
-        List<Appointment> filteredAppointments = new ArrayList<>();
-        
-        for (Appointment appointment : appointments) {
-            Patient patient = appointment.getPatient();
-            if (patient != null) {
-                String fullName = patient.getFullName().toLowerCase();
-                if (fullName.contains(patientName)) {
-                    filteredAppointments.add(appointment);
-                }
+        for (AppointmentEvent event : events) {
+            if (event.affects(shownDoctorId, shownDate, shownDate.plusDays(1), Collections.emptySet())
+                    || tableModel.anyLoaded(appointment -> event.getAppointmentIds().contains(appointment.getId()))) {
+                reloadList(false);
+                return;
             }
         }
-        
-        appointments = filteredAppointments;
     }
     
     /**
-     * Met à jour le tableau des rendez-vous
+     * Filtre une liste de rendez-vous par nom de patient
+     * 
+     * @param source Les rendez-vous à filtrer
+     * @param patientName Nom du patient à rechercher
+     * @return Les rendez-vous dont le patient correspond (la liste source si le nom est vide)
      */
-    private void updateAppointmentTable() {
-        // Vider le tableau
-        tableModel.setRowCount(0);
+    private static List<AppointmentSummary> filterAppointmentsByPatient(List<AppointmentSummary> source,
+                                                                        String patientName) {
+        if (patientName.isEmpty()) {
+            return source;
+        }
         
-        // Remplir avec les rendez-vous
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT);
+        String search = patientName.toLowerCase();
+        List<AppointmentSummary> filteredAppointments = new ArrayList<>();
         
-        for (Appointment appointment : appointments) {
-            String date = appointment.getStartDateTime().format(dateFormatter);
-            String time = appointment.getStartDateTime().format(timeFormatter);
-            String patient = appointment.getPatient() != null ? 
-                           appointment.getPatient().getFullName() : 
-                           "Patient #" + appointment.getPatientId();
-            String doctor = appointment.getDoctor() != null ? 
-                          appointment.getDoctor().getFullName() : 
-                          "Médecin #" + appointment.getDoctorId();
-            String type = appointment.getAppointmentType();
-            String status = appointment.getStatus().getLabel();
-            
-            tableModel.addRow(new Object[]{date, time, patient, doctor, type, status});
+        for (AppointmentSummary appointment : source) {
+            if (appointment.getPatientName().toLowerCase().contains(search)) {
+                filteredAppointments.add(appointment);
+            }
         }
         
-        // Désélectionner tout
+        return filteredAppointments;
+    }
+    
+    /**
+     * Désélectionne le rendez-vous courant après un changement de liste
+     */
+    private void resetSelection() {
         appointmentTable.clearSelection();
         clearFields();
         setFieldsEnabled(false);
     }
     
+    /**
+     * Ouvre un rendez-vous sélectionné dans la liste.
+     * La liste ne contient que des résumés : le rendez-vous complet est chargé en arrière-plan.
+     * 
+     * @param appointmentId L'ID du rendez-vous
+     */
+    private void openAppointment(int appointmentId) {
+        asyncLoader.submit("appointment", () -> appointmentController.getAppointmentById(appointmentId), loaded -> {
+            if (loaded != null) {
+                displayAppointment(loaded);
+            }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement du rendez-vous: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+    
     /**
      * Affiche les détails d'un rendez-vous
      * 
@@ -775,8 +831,14 @@ public class AppointmentView extends JPanel {
             
             // Enregistrer le rendez-vous
             if (currentAppointment.getId() == 0) {
-                // Nouveau rendez-vous
-                appointmentController.addAppointment(currentAppointment);
+                // Nouveau rendez-vous : un créneau occupé est signalé sans exception
+                BookingResult result = appointmentController.bookAppointment(currentAppointment);
+                if (!result.isBooked()) {
+                    JOptionPane.showMessageDialog(this,
+                            result.getMessage(),
+                            "Créneau indisponible", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
                 JOptionPane.showMessageDialog(this,
                         AppConfig.SuccessMessages.APPOINTMENT_CREATED,
                         "Succès", JOptionPane.INFORMATION_MESSAGE);
@@ -788,8 +850,8 @@ public class AppointmentView extends JPanel {
                         "Succès", JOptionPane.INFORMATION_MESSAGE);
             }
             
-            // Rafraîchir les données
-            refreshData();
+            // La liste est rechargée à la réception de l'événement publié par le contrôleur
+            resetSelection();
             
         } catch (DAOException e) {
             JOptionPane.showMessageDialog(this,
@@ -831,8 +893,8 @@ public class AppointmentView extends JPanel {
                         AppConfig.SuccessMessages.APPOINTMENT_CANCELLED,
                         "Succès", JOptionPane.INFORMATION_MESSAGE);
                 
-                // Rafraîchir les données
-                refreshData();
+                // La liste est rechargée à la réception de l'événement publié par le contrôleur
+                resetSelection();
                 
             } catch (DAOException e) {
                 JOptionPane.showMessageDialog(this,
@@ -850,13 +912,10 @@ public class AppointmentView extends JPanel {
     }
     
     /**
-     * Ouvre un dialogue pour sélectionner un patient
+     * Ouvre un dialogue pour sélectionner un patient (liste chargée en arrière-plan)
      */
     private void selectPatient() {
-        try {
-            // Liste des patients
-            List<Patient> patients = patientController.getAllPatients();
-            
+        asyncLoader.submit("patients", patientController::getAllPatients, patients -> {
             if (patients.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
                         "Aucun patient trouvé dans la base de données.",
@@ -880,7 +939,7 @@ public class AppointmentView extends JPanel {
                     JOptionPane.OK_CANCEL_OPTION,
                     JOptionPane.PLAIN_MESSAGE);
             
-            if (result == JOptionPane.OK_OPTION) {
+            if (result == JOptionPane.OK_OPTION && currentAppointment != null) {
                 Patient selectedPatient = (Patient) comboBox.getSelectedItem();
                 if (selectedPatient != null) {
                     // Mettre à jour l'UI et le rendez-vous
@@ -889,12 +948,9 @@ public class AppointmentView extends JPanel {
                     currentAppointment.setPatientId(selectedPatient.getId());
                 }
             }
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors de la récupération des patients: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors de la récupération des patients: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
@@ -0,0 +1,218 @@
+package view;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Couche d'exécution asynchrone partagée par les vues.
+ * Les appels aux contrôleurs (accès JDBC, génération PDF) sont exécutés hors de
+ * l'Event Dispatch Thread sur un exécuteur borné — threads virtuels lorsque le JDK
+ * les fournit — puis le résultat est publié via SwingUtilities.invokeLater.
+ *
+ * Chaque requête appartient à un canal (par exemple "planning") : une nouvelle
+ * requête sur un canal annule la précédente, et une réponse périmée (l'utilisateur
+ * est déjà passé à un autre jour) n'est jamais publiée.
+ */
+public final class AsyncLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncLoader.class.getName());
+
+    // Nombre maximal de tâches exécutées simultanément (inférieur à la taille du pool JDBC)
+    private static final int MAX_CONCURRENT_TASKS = 4;
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    // Limite le parallélisme lorsque l'exécuteur (threads virtuels) n'est pas borné
+    private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENT_TASKS);
+
+    /**
+     * Traitement exécuté en arrière-plan
+     *
+     * @param <T> Le type du résultat
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Requête soumise, permettant l'annulation coopérative
+     */
+    public static final class Request {
+        private final String channel;
+        private final long version;
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+
+        private Request(String channel, long version) {
+            this.channel = channel;
+            this.version = version;
+        }
+
+        /**
+         * Annule la requête : le thread est interrompu et le résultat ne sera pas publié
+         */
+        public void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final BusyIndicator busyIndicator;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, Request> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur
+     *
+     * @param busyIndicator L'indicateur d'activité de la vue (peut être null)
+     */
+    public AsyncLoader(BusyIndicator busyIndicator) {
+        this.busyIndicator = busyIndicator;
+    }
+
+    /**
+     * Exécute un traitement en arrière-plan et publie son résultat sur l'EDT.
+     * Doit être appelé depuis l'EDT.
+     *
+     * @param channel Le canal de la requête ; la requête précédente du même canal est annulée
+     * @param task Le traitement à exécuter hors EDT
+     * @param onSuccess Appelé sur l'EDT avec le résultat si la requête est toujours d'actualité
+     * @param onError Appelé sur l'EDT en cas d'erreur si la requête est toujours d'actualité
+     * @return La requête soumise
+     */
+    public <T> Request submit(String channel, Task<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        long version = versions.computeIfAbsent(channel, k -> new AtomicLong()).incrementAndGet();
+        Request request = new Request(channel, version);
+
+        Request previous = pending.put(channel, request);
+        if (previous != null) {
+            previous.cancel();
+            releaseBusy();
+        }
+        if (busyIndicator != null) {
+            busyIndicator.start();
+        }
+
+        request.future = EXECUTOR.submit(() -> {
+            T result = null;
+            Exception error = null;
+            try {
+                PERMITS.acquire();
+                try {
+                    if (!request.isCancelled()) {
+                        result = task.call();
+                    }
+                } finally {
+                    PERMITS.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                request.cancelled = true;
+            } catch (Exception e) {
+                error = e;
+            }
+
+            final T value = result;
+            final Exception failure = error;
+            SwingUtilities.invokeLater(() -> publish(request, value, failure, onSuccess, onError));
+        });
+        return request;
+    }
+
+    /**
+     * Annule la requête en cours d'un canal : sa réponse ne sera pas publiée
+     *
+     * @param channel Le canal
+     */
+    public void cancel(String channel) {
+        Request request = pending.remove(channel);
+        if (request != null) {
+            request.cancel();
+            releaseBusy();
+        }
+    }
+
+    /**
+     * Annule toutes les requêtes en cours de la vue
+     */
+    public void cancelAll() {
+        for (Request request : pending.values()) {
+            request.cancel();
+            releaseBusy();
+        }
+        pending.clear();
+    }
+
+    private <T> void publish(Request request, T result, Exception error,
+                             Consumer<T> onSuccess, Consumer<Exception> onError) {
+        boolean current = pending.remove(request.channel, request);
+        if (current) {
+            releaseBusy();
+        }
+        if (!current || request.isCancelled()
+                || versions.get(request.channel).get() != request.version) {
+            // Réponse périmée : ignorée
+            return;
+        }
+
+        if (error != null) {
+            LOGGER.log(Level.WARNING, "Échec du chargement asynchrone (" + request.channel + ")", error);
+            if (onError != null) {
+                onError.accept(error);
+            }
+        } else if (onSuccess != null) {
+            onSuccess.accept(result);
+        }
+    }
+
+    private void releaseBusy() {
+        if (busyIndicator != null) {
+            busyIndicator.stop();
+        }
+    }
+
+    /**
+     * Crée l'exécuteur partagé : threads virtuels si disponibles (JDK 21+),
+     * sinon un pool borné de threads démons
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            LOGGER.info("Chargements asynchrones sur threads virtuels");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CONCURRENT_TASKS, MAX_CONCURRENT_TASKS,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "chargement-async-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package view;
+
+import java.awt.FlowLayout;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.Timer;
+
+/**
+ * Indicateur d'activité non bloquant affiché pendant les chargements asynchrones.
+ * L'indicateur n'apparaît qu'après un court délai afin d'éviter le clignotement
+ * pour les chargements rapides ; l'interface reste utilisable pendant l'attente.
+ * Toutes les méthodes doivent être appelées depuis l'EDT.
+ */
+public class BusyIndicator extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    // Délai avant affichage de l'indicateur (ms)
+    private static final int SHOW_DELAY_MILLIS = 250;
+
+    private final Timer showTimer;
+    private int activeTasks;
+
+    /**
+     * Constructeur
+     */
+    public BusyIndicator() {
+        super(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        setOpaque(false);
+
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setPreferredSize(new java.awt.Dimension(80, 12));
+
+        add(new JLabel("Chargement..."));
+        add(progressBar);
+        setVisible(false);
+
+        showTimer = new Timer(SHOW_DELAY_MILLIS, e -> setVisible(activeTasks > 0));
+        showTimer.setRepeats(false);
+    }
+
+    /**
+     * Signale le début d'une tâche
+     */
+    public void start() {
+        if (activeTasks++ == 0) {
+            showTimer.restart();
+        }
+    }
+
+    /**
+     * Signale la fin d'une tâche
+     */
+    public void stop() {
+        if (activeTasks > 0 && --activeTasks == 0) {
+            showTimer.stop();
+            setVisible(false);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package view;
+
+import java.awt.event.HierarchyEvent;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+import config.AppConfig;
+import controller.AppointmentController;
+import model.AppointmentChanges;
+
+/**
+ * Interrogation périodique du flux des modifications de rendez-vous pour une vue.
+ *
+ * Les chargements complets de la vue passent par submitLoad, qui lit le filigrane juste
+ * avant le chargement et ne l'enregistre que si le résultat est publié ; tant que la
+ * vue est affichée, les changements survenus depuis lui sont transmis sur
+ * l'EDT, et la vue les fusionne dans ses données au lieu de tout recharger. Une
+ * interrogation coûte une lecture d'index proportionnelle au nombre de changements ;
+ * elle passe par une couche asynchrone distincte, sans indicateur d'activité.
+ *
+ * Les changements récents sont relus pendant la fenêtre de recouvrement ; ceux déjà
+ * transmis par l'interrogation précédente sont écartés. Après un chargement complet,
+ * la première interrogation transmet de nouveau toute la fenêtre, ce qui rattrape une
+ * fusion écrasée par un chargement concurrent. Toutes les méthodes doivent être
+ * appelées depuis l'EDT.
+ */
+final class ChangePoller {
+
+    private static final String CHANNEL = "changes";
+
+    private final JComponent owner;
+    private final AsyncLoader asyncLoader;
+    private final AsyncLoader pollLoader = new AsyncLoader(null);
+    private final AppointmentController appointmentController;
+    private final Consumer<AppointmentChanges> listener;
+    private final Timer timer;
+
+    private LocalDateTime watermark;
+
+    // Résultat brut de la dernière interrogation, pour écarter les changements relivrés
+    private AppointmentChanges lastChanges;
+
+    /**
+     * Constructeur. L'interrogation démarre lorsque la vue est affichée et s'arrête
+     * lorsqu'elle est masquée.
+     *
+     * @param owner La vue
+     * @param asyncLoader La couche asynchrone de la vue
+     * @param listener Reçoit sur l'EDT les changements non vides (ou une demande de rechargement complet)
+     */
+    ChangePoller(JComponent owner, AsyncLoader asyncLoader, Consumer<AppointmentChanges> listener) {
+        this.owner = owner;
+        this.asyncLoader = asyncLoader;
+        this.appointmentController = AppointmentController.getInstance();
+        this.listener = listener;
+        this.timer = new Timer(AppConfig.CHANGE_POLL_INTERVAL_MILLIS, e -> poll());
+
+        owner.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                if (owner.isShowing()) {
+                    timer.start();
+                    poll();
+                } else {
+                    timer.stop();
+                    pollLoader.cancel(CHANNEL);
+                }
+            }
+        });
+    }
+
+    /**
+     * Chargement complet de la vue, sur sa couche asynchrone : le filigrane est lu
+     * avant le chargement et enregistré avec la publication du résultat
+     *
+     * @param channel Le canal de la vue
+     * @param task Le chargement, exécuté hors EDT
+     * @param onSuccess Appelé sur l'EDT avec le résultat
+     * @param onError Appelé sur l'EDT en cas d'erreur
+     */
+    <T> void submitLoad(String channel, AsyncLoader.Task<T> task, Consumer<T> onSuccess,
+                        Consumer<Exception> onError) {
+        asyncLoader.submit(channel, () -> {
+            LocalDateTime loadWatermark = appointmentController.getAppointmentsChangedSince(null).getWatermark();
+            return new Snapshot<>(loadWatermark, task.call());
+        }, snapshot -> {
+            watermark = snapshot.watermark;
+            lastChanges = null;
+            onSuccess.accept(snapshot.value);
+        }, onError);
+    }
+
+    /**
+     * Suit les changements à partir de maintenant, pour une vue dont les données sont
+     * chargées par un autre moyen (pages d'un tableau) : la fenêtre de recouvrement
+     * couvre l'écart avec le chargement lancé au même moment
+     */
+    void restart() {
+        pollLoader.submit(CHANNEL, () -> appointmentController.getAppointmentsChangedSince(null),
+                changes -> {
+                    watermark = changes.getWatermark();
+                    lastChanges = null;
+                }, null);
+    }
+
+    /**
+     * Interroge immédiatement le flux (sans effet avant le premier chargement complet)
+     */
+    void poll() {
+        final LocalDateTime since = watermark;
+        if (since == null || !owner.isShowing()) {
+            return;
+        }
+        pollLoader.submit(CHANNEL, () -> appointmentController.getAppointmentsChangedSince(since), changes -> {
+            // Un chargement complet a pu fixer un nouveau filigrane entre-temps
+            if (!since.equals(watermark)) {
+                return;
+            }
+            AppointmentChanges fresh = changes.without(lastChanges);
+            watermark = changes.getWatermark();
+            lastChanges = changes;
+            if (!fresh.isEmpty()) {
+                listener.accept(fresh);
+            }
+        }, null);
+    }
+
+    /**
+     * Résultat d'un chargement complet et filigrane lu avant lui
+     */
+    private static final class Snapshot<T> {
+        final LocalDateTime watermark;
+        final T value;
+
+        Snapshot(LocalDateTime watermark, T value) {
+            this.watermark = watermark;
+            this.value = value;
+        }
+    }
+}
@@ -68,6 +68,10 @@ public class DoctorManagementView extends JPanel {
     private Doctor currentDoctor;
     private boolean editMode = false;
     
+    // Chargements asynchrones (hors EDT)
+    private final BusyIndicator busyIndicator = new BusyIndicator();
+    private final AsyncLoader asyncLoader = new AsyncLoader(busyIndicator);
+    
     /**
      * Constructeur par défaut
      */
@@ -143,6 +147,7 @@ public class DoctorManagementView extends JPanel {
             }
         });
         buttonPanel.add(newButton);
+        buttonPanel.add(busyIndicator);
         
         panel.add(buttonPanel, BorderLayout.SOUTH);
         
@@ -306,21 +311,16 @@ public class DoctorManagementView extends JPanel {
      * Charge les données initiales
      */
     private void loadData() {
-        try {
-            // Charger tous les médecins
-            List<Doctor> doctors = doctorController.getAllDoctors();
-            
+        // Charger tous les médecins en arrière-plan
+        asyncLoader.submit("doctors", doctorController::getAllDoctors, doctors -> {
             // Mettre à jour la liste
             listModel.clear();
             for (Doctor doctor : doctors) {
                 listModel.addElement(doctor);
             }
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des médecins: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des médecins: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
@@ -336,9 +336,12 @@ public class DoctorManagementView extends JPanel {
      * @param doctor Le médecin à afficher
      */
     private void displayDoctor(Doctor doctor) {
-        try {
-            // Charger les détails complets du médecin
-            currentDoctor = doctorController.getDoctorById(doctor.getId());
+        // Charger les détails complets du médecin en arrière-plan
+        asyncLoader.submit("doctor", () -> doctorController.getDoctorById(doctor.getId()), loaded -> {
+            if (loaded == null) {
+                return;
+            }
+            currentDoctor = loaded;
             
             // Afficher les informations dans les champs
             usernameField.setText(currentDoctor.getUsername());
@@ -352,12 +355,9 @@ public class DoctorManagementView extends JPanel {
             // Activer les boutons appropriés
             setFieldsEnabled(true);
             editMode = false;
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des détails du médecin: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des détails du médecin: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
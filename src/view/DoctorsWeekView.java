@@ -0,0 +1,419 @@
+package view;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+
+import controller.AppointmentController;
+import controller.DoctorController;
+import model.AppointmentChanges;
+import model.AppointmentEvent;
+import model.AppointmentSummary;
+import model.Doctor;
+import model.DoctorEvent;
+import model.PlanningGrid;
+import util.EventBus;
+
+/**
+ * Vue d'ensemble de l'accueil : les plannings de tous les médecins côte à côte
+ * (une ligne par médecin, une colonne par jour).
+ *
+ * La semaine est lue en une seule requête pour tous les médecins. En avançant ou
+ * en reculant d'un jour ou d'une semaine, la grille affichée est réutilisée et seuls
+ * les jours nouvellement visibles sont chargés. Les modifications faites depuis les
+ * autres postes sont lues par le flux des modifications et fusionnées dans la grille.
+ */
+public class DoctorsWeekView extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    // Nombre de jours affichés
+    private static final int DAY_COUNT = 7;
+
+    // Nombre maximal de rendez-vous listés dans une cellule
+    private static final int MAX_LINES_PER_CELL = 12;
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("EEE dd/MM", Locale.FRENCH);
+    private static final DateTimeFormatter RANGE_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy", Locale.FRENCH);
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Contrôleurs
+    private final AppointmentController appointmentController;
+    private final DoctorController doctorController;
+
+    // Composants de l'interface
+    private final GridTableModel tableModel = new GridTableModel();
+    private JTable gridTable;
+    private JLabel rangeLabel;
+    private JLabel statusLabel;
+
+    // État courant : grille affichée et premier jour demandé (peut précéder le chargement)
+    private PlanningGrid grid;
+    private LocalDate targetStartDate;
+
+    // Chargements asynchrones (hors EDT)
+    private final BusyIndicator busyIndicator = new BusyIndicator();
+    private final AsyncLoader asyncLoader = new AsyncLoader(busyIndicator);
+    private final ChangePoller changePoller = new ChangePoller(this, asyncLoader, this::applyChanges);
+
+    /**
+     * Constructeur
+     */
+    public DoctorsWeekView() {
+        this.appointmentController = AppointmentController.getInstance();
+        this.doctorController = DoctorController.getInstance();
+        this.targetStartDate = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        initializeUI();
+        loadGrid();
+
+        EventBus eventBus = EventBus.getInstance();
+        eventBus.subscribe(AppointmentEvent.class, this::onAppointmentEvents, EventBus.EDT);
+        eventBus.subscribe(DoctorEvent.class, events -> loadGrid(), EventBus.EDT);
+    }
+
+    /**
+     * Initialise l'interface utilisateur
+     */
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        add(createControlPanel(), BorderLayout.NORTH);
+
+        gridTable = new JTable(tableModel);
+        gridTable.setDefaultRenderer(Object.class, new CellRenderer());
+        gridTable.setRowSelectionAllowed(false);
+        gridTable.getTableHeader().setReorderingAllowed(false);
+        JScrollPane scrollPane = new JScrollPane(gridTable);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Planning des médecins"));
+        add(scrollPane, BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Crée le panneau de navigation
+     *
+     * @return Le panneau de navigation
+     */
+    private JPanel createControlPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createTitledBorder("Période"));
+
+        rangeLabel = new JLabel(" ");
+        panel.add(rangeLabel, BorderLayout.WEST);
+
+        JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 5));
+        navigationPanel.add(createNavigationButton("◀◀ Semaine", -DAY_COUNT));
+        navigationPanel.add(createNavigationButton("◀ Jour", -1));
+
+        JButton todayButton = new JButton("Cette semaine");
+        todayButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                moveTo(LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            }
+        });
+        navigationPanel.add(todayButton);
+
+        navigationPanel.add(createNavigationButton("Jour ▶", 1));
+        navigationPanel.add(createNavigationButton("Semaine ▶▶", DAY_COUNT));
+
+        JButton refreshButton = new JButton("Actualiser");
+        refreshButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refreshData();
+            }
+        });
+        navigationPanel.add(refreshButton);
+
+        panel.add(navigationPanel, BorderLayout.EAST);
+        panel.add(busyIndicator, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    private JButton createNavigationButton(String text, int days) {
+        JButton button = new JButton(text);
+        button.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                moveTo(targetStartDate.plusDays(days));
+            }
+        });
+        return button;
+    }
+
+    /**
+     * Charge la liste des médecins puis toute la fenêtre (en arrière-plan)
+     */
+    private void loadGrid() {
+        final LocalDate startDate = targetStartDate;
+        final long start = System.nanoTime();
+        updateRangeLabel();
+
+        changePoller.submitLoad("grid", () -> {
+            List<Doctor> doctors = doctorController.getAllDoctors();
+            List<Integer> doctorIds = new ArrayList<>(doctors.size());
+            for (Doctor doctor : doctors) {
+                doctorIds.add(doctor.getId());
+            }
+            return new LoadedGrid(doctors, appointmentController.getPlanningGrid(doctorIds, startDate, DAY_COUNT));
+        }, loaded -> showGrid(loaded.doctors, loaded.grid, DAY_COUNT, start), this::showError);
+    }
+
+    /**
+     * Déplace la fenêtre : seuls les jours absents de la grille affichée sont chargés
+     *
+     * @param startDate Le nouveau premier jour
+     */
+    private void moveTo(LocalDate startDate) {
+        targetStartDate = startDate;
+        final PlanningGrid current = grid;
+        if (current == null) {
+            loadGrid();
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final int loadedDays = current.getMissingDays(startDate, DAY_COUNT).size();
+        updateRangeLabel();
+
+        // Une requête plus récente sur le canal annule celle-ci : la suivante repart
+        // de la grille affichée, qui reste cohérente
+        asyncLoader.submit("grid", () -> appointmentController.movePlanningGrid(current, startDate, DAY_COUNT),
+                moved -> showGrid(tableModel.doctors, moved, loadedDays, start), this::showError);
+    }
+
+    /**
+     * Fusionne les modifications lues par le flux dans la grille affichée
+     *
+     * @param changes Les changements
+     */
+    private void applyChanges(AppointmentChanges changes) {
+        if (changes.isFullReloadRequired() || grid == null) {
+            loadGrid();
+            return;
+        }
+        PlanningGrid merged = grid.applyChanges(changes);
+        if (merged != grid) {
+            grid = merged;
+            tableModel.setGrid(tableModel.doctors, merged);
+            updateRowHeights();
+            statusLabel.setText(changes.getUpdated().size() + changes.getDeletions().size()
+                    + " modification(s) fusionnée(s)");
+        }
+    }
+
+    /**
+     * Écritures de ce poste : interroge le flux des modifications si la fenêtre
+     * affichée est concernée, pour ne fusionner que les journées modifiées
+     *
+     * @param events Les événements reçus
+     */
+    private void onAppointmentEvents(List<AppointmentEvent> events) {
+        if (grid == null) {
+            return;
+        }
+        Set<Integer> shownIds = grid.getAppointmentIds();
+        for (AppointmentEvent event : events) {
+            if (event.affects(0, grid.getStartDate(), grid.getEndDate(), shownIds)) {
+                changePoller.poll();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Affiche une grille chargée
+     */
+    private void showGrid(List<Doctor> doctors, PlanningGrid newGrid, int loadedDays, long start) {
+        grid = newGrid;
+        tableModel.setGrid(doctors, newGrid);
+        updateRowHeights();
+        statusLabel.setText(doctors.size() + " médecins, " + loadedDays + " jour(s) chargé(s) en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void showError(Exception e) {
+        JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement du planning des médecins: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void updateRangeLabel() {
+        rangeLabel.setText("Du " + targetStartDate.format(RANGE_FORMATTER) + " au "
+                + targetStartDate.plusDays(DAY_COUNT - 1).format(RANGE_FORMATTER));
+    }
+
+    /**
+     * Ajuste la hauteur de chaque ligne au jour le plus chargé du médecin
+     */
+    private void updateRowHeights() {
+        int lineHeight = gridTable.getFontMetrics(gridTable.getFont()).getHeight();
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            int lines = 1;
+            for (int column = 1; column < tableModel.getColumnCount(); column++) {
+                lines = Math.max(lines, Math.min(MAX_LINES_PER_CELL + 1, tableModel.getAppointments(row, column).size()));
+            }
+            gridTable.setRowHeight(row, lines * lineHeight + 6);
+        }
+    }
+
+    /**
+     * Actualise la vue : fusionne les modifications depuis le dernier chargement
+     * (chargement complet si la grille n'est pas encore affichée)
+     */
+    public void refreshData() {
+        if (grid == null) {
+            loadGrid();
+        } else {
+            changePoller.poll();
+        }
+    }
+
+    /**
+     * Résultat du chargement complet : les médecins et leur grille
+     */
+    private static final class LoadedGrid {
+        final List<Doctor> doctors;
+        final PlanningGrid grid;
+
+        LoadedGrid(List<Doctor> doctors, PlanningGrid grid) {
+            this.doctors = doctors;
+            this.grid = grid;
+        }
+    }
+
+    /**
+     * Modèle de la table : une ligne par médecin, une colonne par jour de la grille
+     */
+    private static final class GridTableModel extends AbstractTableModel {
+
+        private static final long serialVersionUID = 1L;
+
+        private List<Doctor> doctors = Collections.emptyList();
+        private PlanningGrid grid;
+
+        void setGrid(List<Doctor> doctors, PlanningGrid grid) {
+            boolean structureChanged = this.grid == null || !doctors.equals(this.doctors)
+                    || !grid.getStartDate().equals(this.grid.getStartDate());
+            this.doctors = doctors;
+            this.grid = grid;
+            if (structureChanged) {
+                // Les en-têtes de colonnes (jours) changent
+                fireTableStructureChanged();
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        List<AppointmentSummary> getAppointments(int row, int column) {
+            return grid.getAppointments(doctors.get(row).getId(), grid.getDate(column - 1));
+        }
+
+        @Override
+        public int getRowCount() {
+            return grid == null ? 0 : doctors.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return grid == null ? 1 : grid.getDayCount() + 1;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            if (column == 0 || grid == null) {
+                return "Médecin";
+            }
+            return grid.getDate(column - 1).format(DAY_FORMATTER);
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (column == 0) {
+                Doctor doctor = doctors.get(row);
+                return "Dr. " + doctor.getFullName() + " (" + grid.getAppointmentCount(doctor.getId()) + ")";
+            }
+            return getAppointments(row, column);
+        }
+    }
+
+    /**
+     * Rendu d'une cellule : un rendez-vous par ligne, les annulations en gris barré
+     */
+    private static final class CellRenderer extends DefaultTableCellRenderer {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            Object text = value;
+            String tooltip = null;
+            if (value instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<AppointmentSummary> appointments = (List<AppointmentSummary>) value;
+                text = toHtml(appointments);
+                tooltip = appointments.isEmpty() ? null : appointments.size() + " rendez-vous";
+            }
+            super.getTableCellRendererComponent(table, text, isSelected, hasFocus, row, column);
+            setVerticalAlignment(SwingConstants.TOP);
+            setToolTipText(tooltip);
+            return this;
+        }
+
+        private static String toHtml(List<AppointmentSummary> appointments) {
+            if (appointments.isEmpty()) {
+                return "";
+            }
+            StringBuilder html = new StringBuilder("<html>");
+            int shown = Math.min(MAX_LINES_PER_CELL, appointments.size());
+            for (int i = 0; i < shown; i++) {
+                AppointmentSummary appointment = appointments.get(i);
+                boolean cancelled = appointment.getStatus().isCancelled();
+                if (i > 0) {
+                    html.append("<br>");
+                }
+                html.append(cancelled ? "<font color='gray'><s>" : "")
+                        .append(appointment.getStartDateTime().format(TIME_FORMATTER)).append(' ')
+                        .append(escape(appointment.getPatientName()))
+                        .append(cancelled ? "</s></font>" : "");
+            }
+            if (appointments.size() > shown) {
+                html.append("<br><i>+ ").append(appointments.size() - shown).append(" autres</i>");
+            }
+            return html.append("</html>").toString();
+        }
+
+        private static String escape(String text) {
+            return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        }
+    }
+}
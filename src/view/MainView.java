@@ -58,6 +58,7 @@ public class MainView extends JFrame {
     private PatientManagementView patientPanel;
     private AppointmentView appointmentPanel;
     private PlanningView planningPanel;
+    private DoctorsWeekView doctorsWeekPanel;
     
     /**
      * Constructeur pour la secrétaire
@@ -145,6 +146,9 @@ public class MainView extends JFrame {
         planningPanel = new PlanningView();
         mainPanel.add(planningPanel, "planning");
         
+        doctorsWeekPanel = new DoctorsWeekView();
+        mainPanel.add(doctorsWeekPanel, "doctorsWeek");
+        
         // Afficher le tableau de bord par défaut
         cardLayout.show(mainPanel, "dashboard");
     }
@@ -165,7 +169,8 @@ public class MainView extends JFrame {
             if (component instanceof JButton) {
                 JButton button = (JButton) component;
                 String actionCommand = button.getActionCommand();
-                if ("patients".equals(actionCommand) || "appointments".equals(actionCommand)) {
+                if ("patients".equals(actionCommand) || "appointments".equals(actionCommand)
+                        || "doctorsWeek".equals(actionCommand)) {
                     button.setVisible(false);
                 }
             }
@@ -238,6 +243,11 @@ public class MainView extends JFrame {
         // Bouton pour le planning
         JButton planningButton = createNavButton("Planning", "planning");
         panel.add(planningButton);
+        panel.add(Box.createVerticalStrut(10));
+        
+        // Bouton pour les plannings de tous les médecins (accueil)
+        JButton doctorsWeekButton = createNavButton("Tous les médecins", "doctorsWeek");
+        panel.add(doctorsWeekButton);
         
         // Espace flexible pour pousser les boutons vers le haut
         panel.add(Box.createVerticalGlue());
@@ -415,6 +425,8 @@ public class MainView extends JFrame {
             appointmentPanel.refreshData();
         } else if (activeComponent == planningPanel) {
             planningPanel.refreshData();
+        } else if (activeComponent == doctorsWeekPanel) {
+            doctorsWeekPanel.refreshData();
         }
     }
     
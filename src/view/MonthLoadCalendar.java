@@ -0,0 +1,203 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.ToolTipManager;
+import javax.swing.UIManager;
+
+import model.MonthLoad;
+
+/**
+ * Calendrier d'un mois coloré selon la charge de chaque jour (carte de charge).
+ * Le mois est dessiné directement dans paintComponent à partir d'un MonthLoad,
+ * sans composant par jour ; un clic sur un jour est transmis à l'écouteur.
+ * Toutes les méthodes doivent être appelées depuis l'EDT.
+ */
+public class MonthLoadCalendar extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int CELL_WIDTH = 34;
+    private static final int CELL_HEIGHT = 28;
+    private static final int TITLE_HEIGHT = 22;
+    private static final int HEADER_HEIGHT = 18;
+    private static final int ROWS = 6;
+
+    private static final Color EMPTY_COLOR = new Color(245, 245, 245);
+    private static final Color LOW_LOAD_COLOR = new Color(198, 230, 198);
+    private static final Color HIGH_LOAD_COLOR = new Color(214, 69, 65);
+    private static final Color SELECTION_COLOR = new Color(30, 90, 180);
+
+    private static final DateTimeFormatter TITLE_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.FRENCH);
+
+    private MonthLoad load;
+    private YearMonth month = YearMonth.now();
+    private LocalDate selectedDate;
+    private Consumer<LocalDate> dateListener;
+
+    /**
+     * Constructeur
+     */
+    public MonthLoadCalendar() {
+        setPreferredSize(new Dimension(7 * CELL_WIDTH + 1, TITLE_HEIGHT + HEADER_HEIGHT + ROWS * CELL_HEIGHT + 1));
+        setFont(UIManager.getFont("Label.font"));
+        setForeground(UIManager.getColor("Label.foreground"));
+        ToolTipManager.sharedInstance().registerComponent(this);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                LocalDate date = dateAt(e.getX(), e.getY());
+                if (date != null && dateListener != null) {
+                    dateListener.accept(date);
+                }
+            }
+        });
+    }
+
+    /**
+     * Affiche la charge d'un mois
+     *
+     * @param load La charge du mois (null pour un mois sans données)
+     * @param selectedDate Le jour sélectionné (peut être null)
+     */
+    public void setMonthLoad(MonthLoad load, LocalDate selectedDate) {
+        this.load = load;
+        this.selectedDate = selectedDate;
+        if (load != null) {
+            this.month = load.getMonth();
+        } else if (selectedDate != null) {
+            this.month = YearMonth.from(selectedDate);
+        }
+        repaint();
+    }
+
+    /**
+     * Change le jour sélectionné sans recharger la charge du mois
+     *
+     * @param selectedDate Le jour sélectionné
+     */
+    public void setSelectedDate(LocalDate selectedDate) {
+        this.selectedDate = selectedDate;
+        repaint();
+    }
+
+    /**
+     * Définit l'écouteur appelé lors d'un clic sur un jour
+     *
+     * @param dateListener L'écouteur
+     */
+    public void setDateListener(Consumer<LocalDate> dateListener) {
+        this.dateListener = dateListener;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        LocalDate date = dateAt(e.getX(), e.getY());
+        if (date == null || load == null) {
+            return null;
+        }
+        int minutes = load.getBookedMinutes(date);
+        return load.getAppointmentCount(date) + " rendez-vous, "
+                + (minutes / 60) + " h " + String.format("%02d", minutes % 60) + " réservées";
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            FontMetrics metrics = g2.getFontMetrics();
+
+            // Titre : mois et année
+            String title = month.format(TITLE_FORMATTER);
+            g2.setColor(getForeground());
+            g2.drawString(title, (7 * CELL_WIDTH - metrics.stringWidth(title)) / 2, metrics.getAscent() + 2);
+
+            // Jours de la semaine
+            for (int column = 0; column < 7; column++) {
+                String name = DayOfWeek.of(column + 1).getDisplayName(TextStyle.SHORT, Locale.FRENCH);
+                int x = column * CELL_WIDTH + (CELL_WIDTH - metrics.stringWidth(name)) / 2;
+                g2.drawString(name, x, TITLE_HEIGHT + metrics.getAscent());
+            }
+
+            int max = load != null ? load.getMaxAppointmentCount() : 0;
+            int offset = month.atDay(1).getDayOfWeek().getValue() - 1;
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                LocalDate date = month.atDay(day);
+                int cell = offset + day - 1;
+                int x = (cell % 7) * CELL_WIDTH;
+                int y = TITLE_HEIGHT + HEADER_HEIGHT + (cell / 7) * CELL_HEIGHT;
+
+                int count = load != null ? load.getAppointmentCount(date) : 0;
+                g2.setColor(loadColor(count, max));
+                g2.fillRect(x, y, CELL_WIDTH, CELL_HEIGHT);
+                g2.setColor(Color.LIGHT_GRAY);
+                g2.drawRect(x, y, CELL_WIDTH, CELL_HEIGHT);
+
+                if (date.equals(selectedDate)) {
+                    g2.setColor(SELECTION_COLOR);
+                    g2.drawRect(x + 1, y + 1, CELL_WIDTH - 2, CELL_HEIGHT - 2);
+                }
+
+                String label = String.valueOf(day);
+                g2.setColor(getForeground());
+                g2.drawString(label, x + (CELL_WIDTH - metrics.stringWidth(label)) / 2,
+                        y + (CELL_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2);
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    /**
+     * Couleur d'un jour : du vert pâle (peu chargé) au rouge (jour le plus chargé du mois)
+     */
+    private static Color loadColor(int count, int max) {
+        if (count == 0 || max == 0) {
+            return EMPTY_COLOR;
+        }
+        float ratio = (float) count / max;
+        return new Color(
+                interpolate(LOW_LOAD_COLOR.getRed(), HIGH_LOAD_COLOR.getRed(), ratio),
+                interpolate(LOW_LOAD_COLOR.getGreen(), HIGH_LOAD_COLOR.getGreen(), ratio),
+                interpolate(LOW_LOAD_COLOR.getBlue(), HIGH_LOAD_COLOR.getBlue(), ratio));
+    }
+
+    private static int interpolate(int from, int to, float ratio) {
+        return Math.round(from + (to - from) * ratio);
+    }
+
+    /**
+     * Jour du mois affiché sous un point du composant
+     *
+     * @return Le jour, ou null hors de la grille
+     */
+    private LocalDate dateAt(int x, int y) {
+        int gridY = y - TITLE_HEIGHT - HEADER_HEIGHT;
+        if (x < 0 || gridY < 0 || x >= 7 * CELL_WIDTH || gridY >= ROWS * CELL_HEIGHT) {
+            return null;
+        }
+        int cell = (gridY / CELL_HEIGHT) * 7 + x / CELL_WIDTH;
+        int day = cell - (month.atDay(1).getDayOfWeek().getValue() - 1) + 1;
+        if (day < 1 || day > month.lengthOfMonth()) {
+            return null;
+        }
+        return month.atDay(day);
+    }
+}
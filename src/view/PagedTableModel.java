@@ -0,0 +1,335 @@
+package view;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modèle de tableau virtuel alimenté page par page.
+ * Les pages sont chargées hors EDT à la demande, lorsque le tableau affiche
+ * une ligne non encore chargée : ouvrir un écran ne coûte qu'une page de lectures.
+ * Le nombre de lignes croît au fil du défilement, jusqu'à la dernière page.
+ *
+ * Seules MAX_PAGES pages sont conservées en mémoire (les moins récemment affichées
+ * sont libérées). Le dernier élément de chaque page est conservé comme clé : une page
+ * libérée est relue par pagination par clé, sans OFFSET.
+ * Toutes les méthodes doivent être appelées depuis l'EDT.
+ *
+ * @param <T> Le type des éléments affichés
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    // Nombre de lignes par page
+    public static final int PAGE_SIZE = 100;
+
+    // Nombre maximal de pages conservées en mémoire
+    private static final int MAX_PAGES = 10;
+
+    // Valeur affichée dans une ligne dont la page est en cours de chargement
+    private static final String LOADING_LABEL = "Chargement...";
+
+    /**
+     * Source des pages, appelée hors EDT
+     *
+     * @param <T> Le type des éléments
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        /**
+         * Lit une page
+         *
+         * @param after Le dernier élément de la page précédente (null pour la première page)
+         * @param offset La position du premier élément de la page
+         * @param limit La taille de la page
+         * @return Les éléments de la page (moins de limit pour la dernière page)
+         * @throws Exception En cas d'erreur de lecture
+         */
+        List<T> fetch(T after, int offset, int limit) throws Exception;
+    }
+
+    private final String[] columnNames;
+    private final Function<T, Object[]> rowMapper;
+    private final AsyncLoader asyncLoader;
+    private final String channel;
+    private final Consumer<Exception> onError;
+
+    private PageSource<T> source;
+
+    // Incrémentée à chaque changement de source : les pages d'une source précédente sont ignorées
+    private int generation;
+
+    // Pages chargées, par ordre d'accès (la moins récemment affichée en tête)
+    private final Map<Integer, Page<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Dernier élément de chaque page découverte (clé de la page suivante)
+    private final List<T> pageKeys = new ArrayList<>();
+
+    private final Set<Integer> pendingPages = new HashSet<>();
+
+    private int rowCount;
+    private boolean complete;
+
+    /**
+     * Constructeur
+     *
+     * @param columnNames Les en-têtes de colonnes
+     * @param rowMapper Convertit un élément en valeurs de colonnes
+     * @param asyncLoader La couche asynchrone de la vue
+     * @param channel Le préfixe des canaux de chargement
+     * @param onError Appelé sur l'EDT si le chargement d'une page échoue
+     */
+    public PagedTableModel(String[] columnNames, Function<T, Object[]> rowMapper, AsyncLoader asyncLoader,
+                           String channel, Consumer<Exception> onError) {
+        this.columnNames = columnNames.clone();
+        this.rowMapper = rowMapper;
+        this.asyncLoader = asyncLoader;
+        this.channel = channel;
+        this.onError = onError;
+    }
+
+    /**
+     * Remplace la source des lignes et charge la première page
+     *
+     * @param source La nouvelle source
+     */
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        generation++;
+        pages.clear();
+        pageKeys.clear();
+        pendingPages.clear();
+        rowCount = 0;
+        complete = false;
+        fireTableDataChanged();
+        requestPage(0);
+    }
+
+    /**
+     * Affiche une liste déjà chargée (résultats de recherche)
+     *
+     * @param items Les éléments à afficher
+     */
+    public void setRows(List<T> items) {
+        List<T> snapshot = new ArrayList<>(items);
+        setSource((after, offset, limit) ->
+                new ArrayList<>(snapshot.subList(Math.min(offset, snapshot.size()),
+                        Math.min(offset + limit, snapshot.size()))));
+    }
+
+    /**
+     * Recharge la source courante depuis le début
+     */
+    public void reload() {
+        if (source != null) {
+            setSource(source);
+        }
+    }
+
+    /**
+     * Récupère l'élément affiché à une ligne
+     *
+     * @param row L'index de la ligne
+     * @return L'élément, ou null si sa page n'est pas chargée
+     */
+    public T getRow(int row) {
+        Page<T> page = pages.get(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return page != null && index < page.items.size() ? page.items.get(index) : null;
+    }
+
+    /**
+     * Indique si un élément des pages chargées vérifie un critère
+     * (les pages libérées seront relues à jour)
+     *
+     * @param predicate Le critère
+     * @return true si au moins un élément chargé le vérifie
+     */
+    public boolean anyLoaded(Predicate<T> predicate) {
+        for (Page<T> page : pages.values()) {
+            for (T item : page.items) {
+                if (predicate.test(item)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remplace sur place les éléments chargés qui vérifient un critère (élément modifié
+     * ailleurs), sans recharger les pages ni changer la sélection. Les clés de pagination
+     * ne sont pas modifiées : les pages suivantes restent lues à partir des mêmes positions.
+     *
+     * @param predicate Le critère
+     * @param replacement Calcule le nouvel élément à partir de l'ancien
+     * @return Le nombre d'éléments remplacés
+     */
+    public int replaceLoaded(Predicate<T> predicate, UnaryOperator<T> replacement) {
+        List<Integer> updatedRows = new ArrayList<>();
+        for (Map.Entry<Integer, Page<T>> entry : pages.entrySet()) {
+            Page<T> page = entry.getValue();
+            List<T> items = null;
+            Object[][] rows = null;
+            for (int i = 0; i < page.items.size(); i++) {
+                T item = page.items.get(i);
+                if (!predicate.test(item)) {
+                    continue;
+                }
+                if (items == null) {
+                    items = new ArrayList<>(page.items);
+                    rows = page.rows.clone();
+                }
+                T newItem = replacement.apply(item);
+                items.set(i, newItem);
+                rows[i] = rowMapper.apply(newItem);
+                updatedRows.add(entry.getKey() * PAGE_SIZE + i);
+            }
+            if (items != null) {
+                // setValue ne modifie pas l'ordre d'accès : l'itération reste valide
+                entry.setValue(new Page<>(items, rows));
+            }
+        }
+        for (int row : updatedRows) {
+            if (row < rowCount) {
+                fireTableRowsUpdated(row, row);
+            }
+        }
+        return updatedRows.size();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / PAGE_SIZE;
+        Page<T> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return column == 0 ? LOADING_LABEL : "";
+        }
+
+        // Dernière page affichée : charger la suivante pour prolonger le défilement
+        if (!complete && pageIndex == pageKeys.size() - 1) {
+            requestPage(pageIndex + 1);
+        }
+
+        int index = row % PAGE_SIZE;
+        return index < page.rows.length ? page.rows[index][column] : "";
+    }
+
+    /**
+     * Demande le chargement d'une page si elle n'est ni chargée ni en cours de chargement
+     */
+    private void requestPage(int pageIndex) {
+        if (source == null || pendingPages.contains(pageIndex) || pages.containsKey(pageIndex)
+                || pageIndex > pageKeys.size()) {
+            return;
+        }
+
+        final int requestGeneration = generation;
+        final PageSource<T> pageSource = source;
+        final T after = pageIndex == 0 ? null : pageKeys.get(pageIndex - 1);
+        pendingPages.add(pageIndex);
+
+        asyncLoader.submit(channel + "-page-" + pageIndex,
+                () -> pageSource.fetch(after, pageIndex * PAGE_SIZE, PAGE_SIZE),
+                items -> {
+                    if (requestGeneration == generation) {
+                        pageLoaded(pageIndex, items);
+                    }
+                },
+                e -> {
+                    if (requestGeneration == generation) {
+                        pendingPages.remove(pageIndex);
+                        if (onError != null) {
+                            onError.accept(e);
+                        }
+                    }
+                });
+    }
+
+    private void pageLoaded(int pageIndex, List<T> items) {
+        pendingPages.remove(pageIndex);
+
+        Object[][] rows = new Object[items.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = rowMapper.apply(items.get(i));
+        }
+        pages.put(pageIndex, new Page<>(items, rows));
+        evictPages(pageIndex);
+
+        if (pageIndex == pageKeys.size()) {
+            // Nouvelle page découverte : mémoriser sa clé et agrandir le tableau
+            if (!items.isEmpty()) {
+                pageKeys.add(items.get(items.size() - 1));
+            }
+            complete = items.size() < PAGE_SIZE;
+
+            int oldCount = rowCount;
+            rowCount = pageIndex * PAGE_SIZE + items.size();
+            if (rowCount > oldCount) {
+                fireTableRowsInserted(oldCount, rowCount - 1);
+            }
+        }
+
+        if (!items.isEmpty()) {
+            int first = pageIndex * PAGE_SIZE;
+            fireTableRowsUpdated(first, Math.min(rowCount, first + items.size()) - 1);
+        }
+    }
+
+    /**
+     * Libère les pages les moins récemment affichées au-delà de MAX_PAGES
+     */
+    private void evictPages(int keptPage) {
+        Iterator<Integer> it = pages.keySet().iterator();
+        while (pages.size() > MAX_PAGES && it.hasNext()) {
+            if (it.next() != keptPage) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Page chargée : éléments et valeurs de colonnes déjà calculées
+     */
+    private static final class Page<T> {
+        final List<T> items;
+        final Object[][] rows;
+
+        Page(List<T> items, Object[][] rows) {
+            this.items = items;
+            this.rows = rows;
+        }
+    }
+}
@@ -12,7 +12,13 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JFileChooser;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -23,21 +29,29 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
 
 import config.AppConfig;
 import controller.AppointmentController;
 import controller.PatientController;
+import controller.PatientImporter;
 import dao.DAOException;
-import model.Appointment;
+import model.AppointmentEvent;
+import model.AppointmentSummary;
+import model.ChangeType;
 import model.Patient;
+import model.PatientEvent;
+import model.PatientSummary;
 import util.DateTimeUtils;
+import util.EventBus;
 
 /**
  * Vue pour la gestion des patients.
@@ -62,7 +76,7 @@ public class PatientManagementView extends JPanel {
     private JButton searchButton;
     
     private JTable patientTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<PatientSummary> tableModel;
     
     private JTextField lastNameField;
     private JTextField firstNameField;
@@ -73,16 +87,25 @@ public class PatientManagementView extends JPanel {
     private JTextArea notesArea;
     
     private JButton newButton;
+    private JButton importButton;
+    private JLabel importStatusLabel;
     private JButton saveButton;
     private JButton cancelButton;
     private JButton deleteButton;
     private JButton appointmentsButton;
     
     // État courant
-    private List<Patient> patients;
     private Patient currentPatient;
     private boolean editMode = false;
     
+    // Historique affiché dans la boîte de dialogue ouverte (null si fermée)
+    private DefaultTableModel historyModel;
+    private int historyPatientId;
+    
+    // Chargements asynchrones (hors EDT)
+    private final BusyIndicator busyIndicator = new BusyIndicator();
+    private final AsyncLoader asyncLoader = new AsyncLoader(busyIndicator);
+    
     /**
      * Constructeur par défaut
      */
@@ -92,6 +115,10 @@ public class PatientManagementView extends JPanel {
         
         initializeUI();
         loadData();
+        
+        EventBus eventBus = EventBus.getInstance();
+        eventBus.subscribe(PatientEvent.class, this::onPatientEvents, EventBus.EDT);
+        eventBus.subscribe(AppointmentEvent.class, this::onAppointmentEvents, EventBus.EDT);
     }
     
     /**
@@ -175,6 +202,10 @@ public class PatientManagementView extends JPanel {
         gbc.gridy = 0;
         panel.add(searchButton, gbc);
         
+        gbc.gridx = 7;
+        gbc.gridy = 0;
+        panel.add(busyIndicator, gbc);
+        
         return panel;
     }
     
@@ -188,15 +219,18 @@ public class PatientManagementView extends JPanel {
         panel.setBorder(BorderFactory.createTitledBorder("Liste des patients"));
         
         // Création du modèle de tableau
+        // Modèle virtuel : les patients sont lus page par page au fil du défilement
         String[] columnNames = {"Nom", "Prénom", "Date de naissance", "Téléphone", "Email"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            private static final long serialVersionUID = 1L;
-            
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Rendre toutes les cellules non éditables
-            }
-        };
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
+        tableModel = new PagedTableModel<>(columnNames, patient -> new Object[]{
+                patient.getLastName(),
+                patient.getFirstName(),
+                patient.getBirthDate() != null ? patient.getBirthDate().format(dateFormatter) : "",
+                patient.getPhoneNumber(),
+                patient.getEmail()
+        }, asyncLoader, "patients", e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des patients: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
         
         // Création du tableau
         patientTable = new JTable(tableModel);
@@ -209,8 +243,9 @@ public class PatientManagementView extends JPanel {
             public void valueChanged(ListSelectionEvent e) {
                 if (!e.getValueIsAdjusting()) {
                     int selectedRow = patientTable.getSelectedRow();
-                    if (selectedRow >= 0 && selectedRow < patients.size()) {
-                        displayPatient(patients.get(selectedRow));
+                    PatientSummary selected = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+                    if (selected != null) {
+                        displayPatient(selected.getId());
                     }
                 }
             }
@@ -233,6 +268,18 @@ public class PatientManagementView extends JPanel {
         });
         buttonPanel.add(newButton);
         
+        importButton = new JButton("Importer (CSV)...");
+        importButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                importPatients();
+            }
+        });
+        buttonPanel.add(importButton);
+        
+        importStatusLabel = new JLabel();
+        buttonPanel.add(importStatusLabel);
+        
         panel.add(buttonPanel, BorderLayout.SOUTH);
         
         return panel;
@@ -408,19 +455,29 @@ public class PatientManagementView extends JPanel {
     }
     
     /**
-     * Charge les données initiales
+     * Charge les données initiales (en arrière-plan)
      */
     private void loadData() {
-        try {
-            // Charger tous les patients ou un nombre limité pour les grandes bases
-            patients = patientController.getAllPatients();
-            updatePatientTable();
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des patients: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        // Liste alphabétique paginée : seule la première page est lue à l'ouverture
+        asyncLoader.cancel("patients");
+        tableModel.setSource((after, offset, limit) -> patientController.getPatientsPage(after, limit));
+        resetSelection();
+    }
+    
+    /**
+     * Charge une liste de patients (résultats de recherche) hors EDT puis l'affiche dans le tableau.
+     * Une recherche plus récente remplace toujours une recherche en cours.
+     * 
+     * @param query La requête à exécuter
+     * @param errorMessage Le préfixe du message affiché en cas d'erreur
+     */
+    private void showPatients(AsyncLoader.Task<List<PatientSummary>> query, String errorMessage) {
+        asyncLoader.submit("patients", query, result -> {
+            tableModel.setRows(result);
+            resetSelection();
+        }, e -> JOptionPane.showMessageDialog(this,
+                errorMessage + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
@@ -431,28 +488,67 @@ public class PatientManagementView extends JPanel {
     }
     
     /**
-     * Met à jour le tableau des patients
+     * Met à jour la liste après des écritures de patients : les lignes modifiées sont
+     * remplacées sur place, une création ou une suppression recharge la liste
+     * 
+     * @param events Les événements reçus
      */
-    private void updatePatientTable() {
-        // Vider le tableau
-        tableModel.setRowCount(0);
-        
-        // Formatter pour les dates
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
-        
-        // Remplir avec les patients
-        for (Patient patient : patients) {
-            String lastName = patient.getLastName();
-            String firstName = patient.getFirstName();
-            String birthDate = patient.getBirthDate() != null ? 
-                             patient.getBirthDate().format(dateFormatter) : "";
-            String phone = patient.getPhone();
-            String email = patient.getEmail();
-            
-            tableModel.addRow(new Object[]{lastName, firstName, birthDate, phone, email});
+    private void onPatientEvents(List<PatientEvent> events) {
+        Set<Integer> updatedIds = new HashSet<>();
+        for (PatientEvent event : events) {
+            if (event.getType() == ChangeType.CREATED || event.getType() == ChangeType.DELETED) {
+                loadData();
+                return;
+            }
+            updatedIds.addAll(event.getPatientIds());
+        }
+        if (updatedIds.isEmpty() || !tableModel.anyLoaded(patient -> updatedIds.contains(patient.getId()))) {
+            return;
         }
         
-        // Désélectionner tout
+        // Fiches lues depuis le cache du contrôleur (mis à jour par l'écriture)
+        asyncLoader.submit("patientEvents", () -> {
+            Map<Integer, PatientSummary> summaries = new HashMap<>();
+            for (Integer patientId : updatedIds) {
+                Patient patient = patientController.getPatientById(patientId);
+                if (patient != null) {
+                    summaries.put(patientId, new PatientSummary(patient.getId(), patient.getLastName(),
+                            patient.getFirstName(), patient.getBirthDate(), patient.getPhone(), patient.getEmail()));
+                }
+            }
+            return summaries;
+        }, summaries -> tableModel.replaceLoaded(patient -> summaries.containsKey(patient.getId()),
+                patient -> summaries.get(patient.getId())), null);
+    }
+    
+    /**
+     * Recharge l'historique affiché lorsqu'un rendez-vous du patient a changé
+     * 
+     * @param events Les événements reçus
+     */
+    private void onAppointmentEvents(List<AppointmentEvent> events) {
+        if (historyModel == null) {
+            return;
+        }
+        for (AppointmentEvent event : events) {
+            if (event.concernsPatient(historyPatientId)) {
+                final DefaultTableModel model = historyModel;
+                final int patientId = historyPatientId;
+                asyncLoader.submit("historyRefresh", () -> patientController.getPatientAppointmentHistory(patientId),
+                        appointments -> {
+                            if (historyModel == model) {
+                                fillHistory(model, appointments);
+                            }
+                        }, null);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Désélectionne le patient courant après un changement de liste
+     */
+    private void resetSelection() {
         patientTable.clearSelection();
         clearFields();
         setFieldsEnabled(false);
@@ -461,12 +557,15 @@ public class PatientManagementView extends JPanel {
     /**
      * Affiche les détails d'un patient
      * 
-     * @param patient Le patient à afficher
+     * @param patientId L'ID du patient à afficher
      */
-    private void displayPatient(Patient patient) {
-        try {
-            // Charger les détails complets du patient
-            currentPatient = patientController.getPatientById(patient.getId());
+    private void displayPatient(int patientId) {
+        // La liste ne contient que des résumés : charger la fiche complète en arrière-plan
+        asyncLoader.submit("patient", () -> patientController.getPatientById(patientId), loaded -> {
+            if (loaded == null) {
+                return;
+            }
+            currentPatient = loaded;
             
             // Formatter pour les dates
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
@@ -484,12 +583,9 @@ public class PatientManagementView extends JPanel {
             // Activer les boutons appropriés
             setFieldsEnabled(true);
             editMode = false;
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des détails du patient: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des détails du patient: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
@@ -510,6 +606,59 @@ public class PatientManagementView extends JPanel {
         lastNameField.requestFocus();
     }
     
+    /**
+     * Importe des patients depuis un fichier CSV choisi par l'utilisateur (en arrière-plan)
+     */
+    private void importPatients() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Importer des patients");
+        chooser.setFileFilter(new FileNameExtensionFilter("Fichiers CSV (UTF-8)", "csv", "txt"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        importButton.setEnabled(false);
+        importStatusLabel.setText("Import en cours...");
+        
+        asyncLoader.submit("import", () -> patientController.importPatients(file,
+                progress -> SwingUtilities.invokeLater(() -> importStatusLabel.setText(
+                        progress.getRowsRead() + " lignes traitées, " + progress.getImported() + " importées"))),
+                report -> {
+                    importButton.setEnabled(true);
+                    importStatusLabel.setText("");
+                    showImportReport(report);
+                }, e -> {
+                    importButton.setEnabled(true);
+                    importStatusLabel.setText("");
+                    JOptionPane.showMessageDialog(this,
+                            "Erreur lors de l'import des patients: " + e.getMessage(),
+                            "Erreur", JOptionPane.ERROR_MESSAGE);
+                });
+    }
+    
+    /**
+     * Affiche le bilan d'un import, avec les premières lignes rejetées
+     * 
+     * @param report Le bilan de l'import
+     */
+    private void showImportReport(PatientImporter.Report report) {
+        StringBuilder message = new StringBuilder(report.toString());
+        List<PatientImporter.RowError> errors = report.getErrors();
+        int shown = Math.min(errors.size(), 20);
+        for (int i = 0; i < shown; i++) {
+            message.append('\n').append(errors.get(i));
+        }
+        if (report.getRejected() > shown) {
+            message.append("\n... et ").append(report.getRejected() - shown).append(" autres lignes rejetées");
+        }
+        
+        JTextArea text = new JTextArea(message.toString(), Math.min(shown + 2, 20), 60);
+        text.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(text), "Import de patients",
+                report.getRejected() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+    }
+    
     /**
      * Enregistre le patient courant
      */
@@ -573,8 +722,8 @@ public class PatientManagementView extends JPanel {
                         "Succès", JOptionPane.INFORMATION_MESSAGE);
             }
             
-            // Rafraîchir les données
-            refreshData();
+            // La liste est mise à jour à la réception de l'événement publié par le contrôleur
+            resetSelection();
             
         } catch (DAOException e) {
             JOptionPane.showMessageDialog(this,
@@ -589,7 +738,7 @@ public class PatientManagementView extends JPanel {
     private void cancelEditing() {
         // Si en mode édition d'un patient existant, réafficher ses données
         if (!editMode && currentPatient != null && currentPatient.getId() > 0) {
-            displayPatient(currentPatient);
+            displayPatient(currentPatient.getId());
         } else {
             // Sinon, vider les champs
             clearFields();
@@ -607,7 +756,7 @@ public class PatientManagementView extends JPanel {
         
         // Vérifier si le patient a des rendez-vous
         try {
-            List<Appointment> appointments = appointmentController.getAppointmentsByPatient(currentPatient.getId());
+            List<AppointmentSummary> appointments = appointmentController.getAppointmentSummariesByPatient(currentPatient.getId());
             
             if (!appointments.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
@@ -626,8 +775,8 @@ public class PatientManagementView extends JPanel {
                         "Patient supprimé avec succès.",
                         "Succès", JOptionPane.INFORMATION_MESSAGE);
                 
-                // Rafraîchir les données
-                refreshData();
+                // La liste est rechargée à la réception de l'événement publié par le contrôleur
+                resetSelection();
             }
             
         } catch (DAOException e) {
@@ -645,9 +794,8 @@ public class PatientManagementView extends JPanel {
             return;
         }
         
-        try {
-            List<Appointment> appointments = patientController.getPatientAppointmentHistory(currentPatient.getId());
-            
+        final Patient patient = currentPatient;
+        asyncLoader.submit("history", () -> patientController.getPatientAppointmentHistory(patient.getId()), appointments -> {
             if (appointments.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
                         "Ce patient n'a pas de rendez-vous.",
@@ -666,20 +814,7 @@ public class PatientManagementView extends JPanel {
                 }
             };
             
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT);
-            
-            for (Appointment appointment : appointments) {
-                String date = appointment.getStartDateTime().format(dateFormatter);
-                String time = appointment.getStartDateTime().format(timeFormatter);
-                String doctor = appointment.getDoctor() != null ? 
-                              appointment.getDoctor().getFullName() : 
-                              "Médecin #" + appointment.getDoctorId();
-                String type = appointment.getAppointmentType();
-                String status = appointment.getStatus().getLabel();
-                
-                appointmentModel.addRow(new Object[]{date, time, doctor, type, status});
-            }
+            fillHistory(appointmentModel, appointments);
             
             JTable appointmentTable = new JTable(appointmentModel);
             appointmentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -689,15 +824,41 @@ public class PatientManagementView extends JPanel {
             scrollPane.setPreferredSize(new Dimension(600, 300));
             
             JPanel panel = new JPanel(new BorderLayout());
-            panel.add(new JLabel("Historique des rendez-vous pour " + currentPatient.getFullName(), SwingConstants.CENTER), BorderLayout.NORTH);
+            panel.add(new JLabel("Historique des rendez-vous pour " + patient.getFullName(), SwingConstants.CENTER), BorderLayout.NORTH);
             panel.add(scrollPane, BorderLayout.CENTER);
             
-            JOptionPane.showMessageDialog(this, panel, "Rendez-vous du patient", JOptionPane.PLAIN_MESSAGE);
+            // Boîte modale : l'historique reste à jour tant qu'elle est ouverte
+            historyModel = appointmentModel;
+            historyPatientId = patient.getId();
+            try {
+                JOptionPane.showMessageDialog(this, panel, "Rendez-vous du patient", JOptionPane.PLAIN_MESSAGE);
+            } finally {
+                historyModel = null;
+            }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    /**
+     * Remplit le tableau de l'historique des rendez-vous
+     * 
+     * @param model Le modèle du tableau (vidé au préalable)
+     * @param appointments Les rendez-vous du patient
+     */
+    private static void fillHistory(DefaultTableModel model, List<AppointmentSummary> appointments) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(AppConfig.DATE_FORMAT);
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern(AppConfig.TIME_FORMAT);
+        
+        model.setRowCount(0);
+        for (AppointmentSummary appointment : appointments) {
+            String date = appointment.getStartDateTime().format(dateFormatter);
+            String time = appointment.getStartDateTime().format(timeFormatter);
+            String doctor = appointment.getDoctorName();
+            String type = appointment.getAppointmentType();
+            String status = appointment.getStatus().getLabel();
             
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors de la récupération des rendez-vous: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            model.addRow(new Object[]{date, time, doctor, type, status});
         }
     }
     
@@ -705,29 +866,24 @@ public class PatientManagementView extends JPanel {
      * Effectue la recherche des patients selon les critères
      */
     private void searchPatients() {
-        try {
-            String lastName = searchLastNameField.getText().trim();
-            String firstName = searchFirstNameField.getText().trim();
-            String phone = searchPhoneField.getText().trim();
-            
-            if (lastName.isEmpty() && firstName.isEmpty() && phone.isEmpty()) {
-                // Recherche sans critère, charger tous les patients
-                patients = patientController.getAllPatients();
-            } else if (!phone.isEmpty()) {
-                // Priorité à la recherche par téléphone
-                patients = patientController.searchPatientsByPhone(phone);
-            } else {
-                // Recherche par nom et/ou prénom
-                patients = patientController.searchPatientsByName(lastName, firstName);
-            }
-            
-            updatePatientTable();
-            
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors de la recherche de patients: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
+        String lastName = searchLastNameField.getText().trim();
+        String firstName = searchFirstNameField.getText().trim();
+        String phone = searchPhoneField.getText().trim();
+        
+        AsyncLoader.Task<List<PatientSummary>> query;
+        if (lastName.isEmpty() && firstName.isEmpty() && phone.isEmpty()) {
+            // Recherche sans critère : liste complète paginée
+            loadData();
+            return;
+        } else if (!phone.isEmpty()) {
+            // Priorité à la recherche par téléphone
+            query = () -> patientController.searchPatientSummariesByPhone(phone);
+        } else {
+            // Recherche par nom et/ou prénom
+            query = () -> patientController.searchPatientSummariesByName(lastName, firstName);
         }
+        
+        showPatients(query, "Erreur lors de la recherche de patients: ");
     }
     
     /**
@@ -0,0 +1,826 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.ToolTipManager;
+import javax.swing.UIManager;
+
+import model.AppointmentStatus;
+import model.AppointmentSummary;
+import model.WorkSchedule;
+
+/**
+ * Planning d'un médecin sur un ou plusieurs jours consécutifs (journée, semaine),
+ * dessiné directement dans paintComponent : axe horaire, plages de travail et blocs
+ * de rendez-vous, sans composant par créneau ni par rendez-vous.
+ *
+ * La géométrie des blocs (colonnes côte à côte pour les rendez-vous qui se
+ * chevauchent) et leurs textes tronqués sont calculés une fois par changement de
+ * données ou de largeur ; le dessin ne parcourt que les créneaux et les blocs
+ * qui coupent la zone à repeindre. Chaque journée est indexée par heure de début :
+ * un point ou une bande horaire ne parcourt que les blocs dont le début tombe dans
+ * [début - durée max, fin], comme l'index des créneaux côté DAO. Une mise à jour
+ * qui ne touche que quelques rendez-vous ne repeint que leurs anciens et nouveaux
+ * rectangles. À placer dans un JScrollPane, avec getHeader() en en-tête de colonnes.
+ * Toutes les méthodes doivent être appelées depuis l'EDT.
+ */
+public class PlanningCalendar extends JComponent implements Scrollable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int HOUR_HEIGHT = 80;
+    private static final int MIN_DAY_WIDTH = 110;
+    private static final int BLOCK_GAP = 2;
+    private static final int TEXT_PADDING = 3;
+
+    // Plage affichée par défaut (médecin sans horaires pour les jours affichés)
+    private static final int DEFAULT_START_MINUTE = 9 * 60;
+    private static final int DEFAULT_END_MINUTE = 18 * 60;
+
+    private static final Color BACKGROUND_COLOR = Color.WHITE;
+    private static final Color OFF_HOURS_COLOR = new Color(242, 242, 242);
+    private static final Color TODAY_COLOR = new Color(235, 242, 255);
+    private static final Color SLOT_LINE_COLOR = new Color(232, 232, 232);
+    private static final Color HOUR_LINE_COLOR = new Color(200, 200, 200);
+    private static final Color BLOCK_COLOR = new Color(240, 240, 255);
+    private static final Color CANCELLED_BLOCK_COLOR = new Color(236, 236, 236);
+    private static final Color SELECTION_COLOR = new Color(30, 90, 180);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("EEEE dd/MM", Locale.FRENCH);
+
+    // Libellés des heures, calculés une fois (aucune allocation pendant le dessin)
+    private static final String[] HOUR_LABELS = new String[25];
+
+    static {
+        for (int hour = 0; hour <= 24; hour++) {
+            HOUR_LABELS[hour] = String.format("%02d:00", hour);
+        }
+    }
+
+    private static final Comparator<Block> BY_START =
+            Comparator.comparingInt((Block block) -> block.startMinute).thenComparingInt(block -> block.appointment.getId());
+
+    private final Header header = new Header();
+
+    private LocalDate firstDay = LocalDate.now();
+    private DayColumn[] days = new DayColumn[0];
+    private int slotMinutes = 15;
+    private int rangeStart = DEFAULT_START_MINUTE;
+    private int rangeEnd = DEFAULT_END_MINUTE;
+
+    // Géométrie en cache : recalculée lorsque la largeur ou la police change
+    private FontMetrics metrics;
+    private FontMetrics boldMetrics;
+    private Font boldFont;
+    private int gutterWidth;
+    private int layoutWidth = -1;
+
+    private int selectedId;
+    private Consumer<AppointmentSummary> openListener;
+
+    // Zone à repeindre, réutilisée d'un dessin à l'autre
+    private final Rectangle clip = new Rectangle();
+
+    /**
+     * Rendez-vous placé dans une journée
+     */
+    private static final class Block {
+        final AppointmentSummary appointment;
+        final int startMinute;
+        final int endMinute;
+        final String timeText;
+        int lane;
+        int laneCount;
+        final Rectangle bounds = new Rectangle();
+        String fittedTime;
+        String fittedName;
+        String fittedDetail;
+
+        Block(AppointmentSummary appointment) {
+            this.appointment = appointment;
+            this.startMinute = appointment.getStartDateTime().getHour() * 60 + appointment.getStartDateTime().getMinute();
+            this.endMinute = Math.min(24 * 60, startMinute + Math.max(1, appointment.getDurationMinutes()));
+            this.timeText = appointment.getStartDateTime().format(TIME_FORMATTER) + " - "
+                    + appointment.getEndDateTime().format(TIME_FORMATTER);
+        }
+    }
+
+    /**
+     * Journée affichée : blocs triés par heure de début (index) et plages de travail
+     */
+    private static final class DayColumn {
+        final LocalDate date;
+        final Block[] blocks;
+        final int maxDuration;
+        final int[] workRanges;
+        final String label;
+
+        DayColumn(LocalDate date, List<AppointmentSummary> appointments, WorkSchedule schedule) {
+            this.date = date;
+            this.blocks = new Block[appointments.size()];
+            int longest = 0;
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = new Block(appointments.get(i));
+                longest = Math.max(longest, blocks[i].endMinute - blocks[i].startMinute);
+            }
+            Arrays.sort(blocks, BY_START);
+            this.maxDuration = longest;
+            this.workRanges = schedule.ranges(date.getDayOfWeek());
+            this.label = date.format(DAY_FORMATTER);
+            assignLanes();
+        }
+
+        /**
+         * Répartit les rendez-vous qui se chevauchent en colonnes côte à côte ;
+         * tous les blocs d'un même groupe de chevauchement partagent la même largeur
+         */
+        private void assignLanes() {
+            int groupStart = 0;
+            int groupEnd = -1;
+            int[] laneEnds = new int[4];
+            int lanes = 0;
+            for (int i = 0; i <= blocks.length; i++) {
+                if (i == blocks.length || blocks[i].startMinute >= groupEnd) {
+                    // Fin du groupe précédent
+                    for (int j = groupStart; j < i; j++) {
+                        blocks[j].laneCount = lanes;
+                    }
+                    if (i == blocks.length) {
+                        break;
+                    }
+                    groupStart = i;
+                    lanes = 0;
+                }
+                Block block = blocks[i];
+                int lane = 0;
+                while (lane < lanes && laneEnds[lane] > block.startMinute) {
+                    lane++;
+                }
+                if (lane == lanes) {
+                    if (lanes == laneEnds.length) {
+                        laneEnds = Arrays.copyOf(laneEnds, lanes * 2);
+                    }
+                    lanes++;
+                }
+                laneEnds[lane] = block.endMinute;
+                block.lane = lane;
+                groupEnd = Math.max(groupEnd, block.endMinute);
+            }
+        }
+
+        /**
+         * @return L'index du premier bloc dont le début est supérieur ou égal à minute
+         */
+        int firstStartingAtOrAfter(int minute) {
+            int low = 0;
+            int high = blocks.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (blocks[mid].startMinute < minute) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Constructeur
+     */
+    public PlanningCalendar() {
+        setFont(UIManager.getFont("Label.font"));
+        setForeground(UIManager.getColor("Label.foreground"));
+        setOpaque(true);
+        ToolTipManager.sharedInstance().registerComponent(this);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                Block block = blockAt(e.getX(), e.getY());
+                select(block != null ? block.appointment.getId() : 0);
+                if (block != null && e.getClickCount() == 2 && openListener != null) {
+                    openListener.accept(block.appointment);
+                }
+            }
+        });
+    }
+
+    /**
+     * En-tête des jours, à placer en en-tête de colonnes du JScrollPane
+     *
+     * @return L'en-tête
+     */
+    public JComponent getHeader() {
+        return header;
+    }
+
+    /**
+     * Définit l'écouteur appelé lors d'un double-clic sur un rendez-vous
+     *
+     * @param openListener L'écouteur
+     */
+    public void setOpenListener(Consumer<AppointmentSummary> openListener) {
+        this.openListener = openListener;
+    }
+
+    /**
+     * Définit la granularité des lignes de la grille horaire
+     *
+     * @param slotMinutes La durée d'un créneau en minutes (diviseur de 60)
+     */
+    public void setSlotMinutes(int slotMinutes) {
+        if (slotMinutes <= 0 || 60 % slotMinutes != 0) {
+            throw new IllegalArgumentException("La durée d'un créneau doit diviser une heure.");
+        }
+        this.slotMinutes = slotMinutes;
+        repaint();
+    }
+
+    /**
+     * Affiche un planning. Si les jours et les horaires sont ceux déjà affichés, seules
+     * les journées dont les rendez-vous ont changé sont recalculées, et seuls les
+     * rectangles des rendez-vous modifiés, ajoutés ou retirés sont repeints.
+     *
+     * @param firstDay Le premier jour affiché
+     * @param dayCount Le nombre de jours affichés
+     * @param schedule Les horaires du médecin (plages de travail, plage horaire affichée)
+     * @param appointments Les rendez-vous de la période (dans un ordre quelconque)
+     */
+    public void setPlanning(LocalDate firstDay, int dayCount, WorkSchedule schedule,
+                            Collection<AppointmentSummary> appointments) {
+        if (dayCount <= 0) {
+            throw new IllegalArgumentException("Le planning doit contenir au moins un jour.");
+        }
+        WorkSchedule newSchedule = schedule != null ? schedule : WorkSchedule.EMPTY;
+        List<List<AppointmentSummary>> byDay = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (AppointmentSummary appointment : appointments) {
+            int index = (int) (appointment.getStartDateTime().toLocalDate().toEpochDay() - firstDay.toEpochDay());
+            if (index >= 0 && index < dayCount) {
+                byDay.get(index).add(appointment);
+            }
+        }
+
+        int[] range = computeRange(firstDay, dayCount, newSchedule, byDay);
+        boolean sameFrame = firstDay.equals(this.firstDay) && dayCount == days.length && sameWorkRanges(newSchedule)
+                && range[0] == rangeStart && range[1] == rangeEnd && layoutWidth == getWidth();
+
+        if (!sameFrame) {
+            this.firstDay = firstDay;
+            this.rangeStart = range[0];
+            this.rangeEnd = range[1];
+            this.days = new DayColumn[dayCount];
+            for (int i = 0; i < dayCount; i++) {
+                days[i] = new DayColumn(firstDay.plusDays(i), byDay.get(i), newSchedule);
+            }
+            layoutWidth = -1;
+            revalidate();
+            repaint();
+            header.revalidate();
+            header.repaint();
+            return;
+        }
+
+        // Même cadre : ne recalculer et ne repeindre que les journées modifiées
+        for (int i = 0; i < dayCount; i++) {
+            if (!sameAppointments(days[i], byDay.get(i))) {
+                DayColumn previous = days[i];
+                days[i] = new DayColumn(previous.date, byDay.get(i), newSchedule);
+                layoutDay(i);
+                repaintChanges(previous, days[i]);
+            }
+        }
+    }
+
+    /**
+     * Plage horaire affichée : plages de travail des jours affichés, étendue aux
+     * rendez-vous en dehors, arrondie à l'heure
+     */
+    private static int[] computeRange(LocalDate firstDay, int dayCount, WorkSchedule schedule,
+                                      List<List<AppointmentSummary>> byDay) {
+        int start = Integer.MAX_VALUE;
+        int end = Integer.MIN_VALUE;
+        for (int i = 0; i < dayCount; i++) {
+            int[] ranges = schedule.ranges(firstDay.plusDays(i).getDayOfWeek());
+            for (int j = 0; j < ranges.length; j += 2) {
+                start = Math.min(start, ranges[j]);
+                end = Math.max(end, ranges[j + 1]);
+            }
+        }
+        if (start == Integer.MAX_VALUE) {
+            start = DEFAULT_START_MINUTE;
+            end = DEFAULT_END_MINUTE;
+        }
+        for (List<AppointmentSummary> appointments : byDay) {
+            for (AppointmentSummary appointment : appointments) {
+                int minute = appointment.getStartDateTime().getHour() * 60 + appointment.getStartDateTime().getMinute();
+                start = Math.min(start, minute);
+                end = Math.max(end, Math.min(24 * 60, minute + appointment.getDurationMinutes()));
+            }
+        }
+        return new int[] {start / 60 * 60, Math.min(24 * 60, (end + 59) / 60 * 60)};
+    }
+
+    /**
+     * Les horaires sont relus avec le médecin à chaque chargement : comparer les plages
+     * des jours affichés plutôt que l'instance
+     */
+    private boolean sameWorkRanges(WorkSchedule newSchedule) {
+        for (DayColumn day : days) {
+            if (!Arrays.equals(day.workRanges, newSchedule.ranges(day.date.getDayOfWeek()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameAppointments(DayColumn day, List<AppointmentSummary> appointments) {
+        if (day.blocks.length != appointments.size()) {
+            return false;
+        }
+        Map<Integer, AppointmentSummary> shown = new HashMap<>();
+        for (Block block : day.blocks) {
+            shown.put(block.appointment.getId(), block.appointment);
+        }
+        for (AppointmentSummary appointment : appointments) {
+            if (!sameContent(shown.get(appointment.getId()), appointment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameContent(AppointmentSummary a, AppointmentSummary b) {
+        return a != null && b != null
+                && a.getStartDateTime().equals(b.getStartDateTime())
+                && a.getDurationMinutes() == b.getDurationMinutes()
+                && a.getStatus() == b.getStatus()
+                && Objects.equals(a.getAppointmentType(), b.getAppointmentType())
+                && Objects.equals(a.getPatientName(), b.getPatientName());
+    }
+
+    /**
+     * Repeint les rectangles des blocs modifiés, ajoutés ou retirés d'une journée
+     */
+    private void repaintChanges(DayColumn previous, DayColumn current) {
+        Map<Integer, Block> before = new HashMap<>();
+        for (Block block : previous.blocks) {
+            before.put(block.appointment.getId(), block);
+        }
+        for (Block block : current.blocks) {
+            Block old = before.remove(block.appointment.getId());
+            if (old == null || !old.bounds.equals(block.bounds) || !sameContent(old.appointment, block.appointment)) {
+                repaintBlock(old);
+                repaintBlock(block);
+            }
+        }
+        for (Block removed : before.values()) {
+            repaintBlock(removed);
+        }
+    }
+
+    private void repaintBlock(Block block) {
+        if (block != null) {
+            Rectangle bounds = block.bounds;
+            repaint(bounds.x - 2, bounds.y - 2, bounds.width + 4, bounds.height + 4);
+        }
+    }
+
+    /**
+     * Sélectionne un rendez-vous (0 pour aucun) en ne repeignant que les deux blocs concernés
+     */
+    private void select(int appointmentId) {
+        if (appointmentId == selectedId) {
+            return;
+        }
+        repaintBlock(findBlock(selectedId));
+        selectedId = appointmentId;
+        repaintBlock(findBlock(selectedId));
+    }
+
+    private Block findBlock(int appointmentId) {
+        if (appointmentId == 0) {
+            return null;
+        }
+        for (DayColumn day : days) {
+            for (Block block : day.blocks) {
+                if (block.appointment.getId() == appointmentId) {
+                    return block;
+                }
+            }
+        }
+        return null;
+    }
+
+    // --- Géométrie ---
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        metrics = null;
+        layoutWidth = -1;
+        header.revalidate();
+        revalidate();
+        repaint();
+    }
+
+    private void ensureMetrics() {
+        if (metrics == null) {
+            metrics = getFontMetrics(getFont());
+            boldFont = getFont().deriveFont(Font.BOLD);
+            boldMetrics = getFontMetrics(boldFont);
+            gutterWidth = metrics.stringWidth("00:00") + 2 * TEXT_PADDING + 4;
+        }
+    }
+
+    /**
+     * Recalcule la géométrie si la largeur ou la police ont changé
+     */
+    private void ensureLayout() {
+        ensureMetrics();
+        if (layoutWidth != getWidth()) {
+            layoutWidth = getWidth();
+            for (int i = 0; i < days.length; i++) {
+                layoutDay(i);
+            }
+        }
+    }
+
+    private void layoutDay(int index) {
+        ensureMetrics();
+        int x = dayX(index);
+        int width = dayX(index + 1) - x;
+        for (Block block : days[index].blocks) {
+            int laneWidth = Math.max(1, (width - BLOCK_GAP) / Math.max(1, block.laneCount));
+            int top = minuteY(block.startMinute);
+            block.bounds.setBounds(x + BLOCK_GAP + block.lane * laneWidth, top + 1,
+                    Math.max(1, laneWidth - BLOCK_GAP), Math.max(3, minuteY(block.endMinute) - top - 1));
+            int textWidth = block.bounds.width - 2 * TEXT_PADDING - 3;
+            block.fittedTime = fit(block.timeText, boldMetrics, textWidth);
+            block.fittedName = fit(block.appointment.getPatientName(), metrics, textWidth);
+            String type = block.appointment.getAppointmentType();
+            String detail = (type != null && !type.isEmpty() ? type + " - " : "")
+                    + block.appointment.getStatus().getLabel();
+            block.fittedDetail = fit(detail, metrics, textWidth);
+        }
+    }
+
+    /**
+     * Tronque un texte avec "..." pour qu'il tienne dans une largeur
+     */
+    private static String fit(String text, FontMetrics fontMetrics, int width) {
+        if (text == null || width <= 0) {
+            return "";
+        }
+        if (fontMetrics.stringWidth(text) <= width) {
+            return text;
+        }
+        int ellipsis = fontMetrics.stringWidth("...");
+        int end = text.length();
+        while (end > 0 && fontMetrics.stringWidth(text.substring(0, end)) + ellipsis > width) {
+            end--;
+        }
+        return end == 0 ? "" : text.substring(0, end) + "...";
+    }
+
+    private int dayX(int index) {
+        int width = Math.max(getWidth(), getPreferredSize().width);
+        return gutterWidth + (width - gutterWidth) * index / Math.max(1, days.length);
+    }
+
+    private int dayAtX(int x) {
+        if (x < gutterWidth || days.length == 0) {
+            return -1;
+        }
+        for (int i = 0; i < days.length; i++) {
+            if (x < dayX(i + 1)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int minuteY(int minute) {
+        return (minute - rangeStart) * HOUR_HEIGHT / 60;
+    }
+
+    private int minuteAtY(int y) {
+        return rangeStart + y * 60 / HOUR_HEIGHT;
+    }
+
+    /**
+     * Rendez-vous sous un point : seuls les blocs dont le début tombe dans
+     * [minute - durée max, minute] sont examinés
+     *
+     * @return Le bloc, ou null
+     */
+    private Block blockAt(int x, int y) {
+        ensureLayout();
+        int index = dayAtX(x);
+        if (index < 0) {
+            return null;
+        }
+        DayColumn day = days[index];
+        int minute = minuteAtY(y);
+        for (int i = day.firstStartingAtOrAfter(minute - day.maxDuration);
+             i < day.blocks.length && day.blocks[i].startMinute <= minute; i++) {
+            if (day.blocks[i].bounds.contains(x, y)) {
+                return day.blocks[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        ensureMetrics();
+        return new Dimension(gutterWidth + Math.max(1, days.length) * MIN_DAY_WIDTH,
+                minuteY(rangeEnd) + 1);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        Block block = blockAt(e.getX(), e.getY());
+        if (block == null) {
+            return null;
+        }
+        AppointmentSummary appointment = block.appointment;
+        return "<html><b>" + block.timeText + "</b> (" + appointment.getDurationMinutes() + " min)<br>"
+                + appointment.getPatientName() + "<br>"
+                + (appointment.getAppointmentType() != null ? appointment.getAppointmentType() + " - " : "")
+                + appointment.getStatus().getLabel() + "</html>";
+    }
+
+    // --- Dessin ---
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            ensureLayout();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.getClipBounds(clip);
+            if (clip.isEmpty()) {
+                clip.setBounds(0, 0, getWidth(), getHeight());
+            }
+            int clipBottom = clip.y + clip.height;
+            int firstMinute = Math.max(rangeStart, minuteAtY(clip.y));
+            int lastMinute = Math.min(rangeEnd, minuteAtY(clipBottom) + 1);
+
+            g2.setColor(BACKGROUND_COLOR);
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+            // Fond des journées : aujourd'hui, heures non travaillées
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < days.length; i++) {
+                int x = dayX(i);
+                int width = dayX(i + 1) - x;
+                if (x >= clip.x + clip.width || x + width <= clip.x) {
+                    continue;
+                }
+                DayColumn day = days[i];
+                paintOffHours(g2, day, x, width, firstMinute, lastMinute, day.date.equals(today));
+            }
+
+            // Lignes des créneaux et des heures
+            int firstLine = (firstMinute - rangeStart) / slotMinutes * slotMinutes + rangeStart;
+            int lineStart = Math.max(clip.x, gutterWidth);
+            for (int minute = firstLine; minute <= lastMinute; minute += slotMinutes) {
+                int y = minuteY(minute);
+                g2.setColor(minute % 60 == 0 ? HOUR_LINE_COLOR : SLOT_LINE_COLOR);
+                g2.drawLine(lineStart, y, clip.x + clip.width, y);
+            }
+            g2.setColor(HOUR_LINE_COLOR);
+            for (int i = 0; i <= days.length; i++) {
+                int x = dayX(i);
+                if (x >= clip.x && x <= clip.x + clip.width) {
+                    g2.drawLine(x, clip.y, x, clipBottom);
+                }
+            }
+
+            // Heures dans la marge
+            if (clip.x < gutterWidth) {
+                g2.setFont(getFont());
+                g2.setColor(getForeground());
+                for (int hour = (firstMinute + 59) / 60; hour * 60 <= lastMinute && hour < 24; hour++) {
+                    int y = minuteY(hour * 60);
+                    g2.drawString(HOUR_LABELS[hour], TEXT_PADDING, Math.max(metrics.getAscent(), y + metrics.getAscent() / 2));
+                }
+            }
+
+            // Rendez-vous coupant la zone à repeindre (index par heure de début)
+            for (int i = 0; i < days.length; i++) {
+                int x = dayX(i);
+                if (x >= clip.x + clip.width || dayX(i + 1) <= clip.x) {
+                    continue;
+                }
+                DayColumn day = days[i];
+                for (int j = day.firstStartingAtOrAfter(firstMinute - day.maxDuration);
+                     j < day.blocks.length && day.blocks[j].startMinute <= lastMinute; j++) {
+                    Block block = day.blocks[j];
+                    if (block.bounds.intersects(clip)) {
+                        paintBlock(g2, block);
+                    }
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private void paintOffHours(Graphics2D g2, DayColumn day, int x, int width, int firstMinute, int lastMinute,
+                               boolean today) {
+        // Toute la bande visible en gris, puis les plages de travail par-dessus
+        g2.setColor(OFF_HOURS_COLOR);
+        int top = minuteY(firstMinute);
+        g2.fillRect(x, top, width, minuteY(lastMinute) - top);
+        g2.setColor(today ? TODAY_COLOR : BACKGROUND_COLOR);
+        int[] ranges = day.workRanges;
+        for (int i = 0; i < ranges.length; i += 2) {
+            int start = Math.max(ranges[i], firstMinute);
+            int end = Math.min(ranges[i + 1], lastMinute);
+            if (start < end) {
+                int y = minuteY(start);
+                g2.fillRect(x, y, width, minuteY(end) - y);
+            }
+        }
+    }
+
+    private void paintBlock(Graphics2D g2, Block block) {
+        Rectangle bounds = block.bounds;
+        AppointmentStatus status = block.appointment.getStatus();
+        boolean cancelled = status.isCancelled();
+
+        g2.setColor(cancelled ? CANCELLED_BLOCK_COLOR : BLOCK_COLOR);
+        g2.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        g2.setColor(getStatusColor(status));
+        g2.fillRect(bounds.x, bounds.y, 3, bounds.height);
+        if (block.appointment.getId() == selectedId) {
+            g2.setColor(SELECTION_COLOR);
+            g2.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+            g2.drawRect(bounds.x + 1, bounds.y + 1, bounds.width - 3, bounds.height - 3);
+        } else {
+            g2.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+        }
+
+        // Lignes de texte tant qu'elles tiennent dans la hauteur du bloc
+        int textX = bounds.x + 3 + TEXT_PADDING;
+        int lineHeight = metrics.getHeight();
+        int baseline = bounds.y + TEXT_PADDING + boldMetrics.getAscent();
+        int limit = bounds.y + bounds.height;
+        if (baseline > limit) {
+            return;
+        }
+        g2.setColor(cancelled ? Color.GRAY : getForeground());
+        g2.setFont(boldFont);
+        g2.drawString(block.fittedTime, textX, baseline);
+
+        g2.setFont(getFont());
+        baseline += lineHeight;
+        if (baseline <= limit) {
+            g2.drawString(block.fittedName, textX, baseline);
+            if (cancelled) {
+                int strikeY = baseline - metrics.getAscent() / 3;
+                g2.drawLine(textX, strikeY, textX + metrics.stringWidth(block.fittedName), strikeY);
+            }
+        }
+        baseline += lineHeight;
+        if (baseline <= limit) {
+            g2.drawString(block.fittedDetail, textX, baseline);
+        }
+    }
+
+    /**
+     * Couleur selon le statut du rendez-vous
+     *
+     * @param status Le statut du rendez-vous
+     * @return La couleur correspondante
+     */
+    static Color getStatusColor(AppointmentStatus status) {
+        switch (status) {
+            case PLANIFIE:
+                return Color.BLUE;
+            case CONFIRME:
+                return Color.GREEN;
+            case ANNULE_PATIENT:
+            case ANNULE_CABINET:
+                return Color.RED;
+            case REALISE:
+                return Color.DARK_GRAY;
+            case ABSENT:
+                return Color.ORANGE;
+            default:
+                return Color.BLACK;
+        }
+    }
+
+    // --- Défilement ---
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? Math.max(1, slotMinutes * HOUR_HEIGHT / 60) : MIN_DAY_WIDTH / 4;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL
+                ? Math.max(1, visibleRect.height - HOUR_HEIGHT / 2)
+                : Math.max(1, visibleRect.width - MIN_DAY_WIDTH);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        // Les journées s'élargissent avec la fenêtre, sans descendre sous MIN_DAY_WIDTH
+        return getParent() != null && getParent().getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() != null && getParent().getHeight() > getPreferredSize().height;
+    }
+
+    /**
+     * En-tête des jours, aligné sur les colonnes du planning
+     */
+    private final class Header extends JComponent {
+
+        private static final long serialVersionUID = 1L;
+
+        Header() {
+            setOpaque(true);
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            ensureMetrics();
+            return new Dimension(PlanningCalendar.this.getPreferredSize().width,
+                    boldMetrics.getHeight() + 2 * TEXT_PADDING + 2);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                ensureMetrics();
+                g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g2.setColor(UIManager.getColor("Panel.background"));
+                g2.fillRect(0, 0, getWidth(), getHeight());
+
+                LocalDate today = LocalDate.now();
+                int baseline = TEXT_PADDING + boldMetrics.getAscent();
+                for (int i = 0; i < days.length; i++) {
+                    int x = dayX(i);
+                    int width = dayX(i + 1) - x;
+                    boolean isToday = days[i].date.equals(today);
+                    FontMetrics fontMetrics = isToday ? boldMetrics : metrics;
+                    String label = fit(days[i].label, fontMetrics, width - 2 * TEXT_PADDING);
+                    g2.setFont(isToday ? boldFont : PlanningCalendar.this.getFont());
+                    g2.setColor(isToday ? SELECTION_COLOR : PlanningCalendar.this.getForeground());
+                    g2.drawString(label, x + (width - fontMetrics.stringWidth(label)) / 2, baseline);
+                    g2.setColor(HOUR_LINE_COLOR);
+                    g2.drawLine(x, 0, x, getHeight());
+                }
+                g2.drawLine(0, getHeight() - 1, getWidth(), getHeight() - 1);
+            } finally {
+                g2.dispose();
+            }
+        }
+    }
+}
@@ -1,27 +1,26 @@
 package view;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
-import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.format.TextStyle;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.WeekFields;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
-import javax.swing.Box;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JButton;
@@ -37,16 +36,18 @@ import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
-import javax.swing.BoxLayout;
+import config.AppConfig;
 import controller.AppointmentController;
 import controller.AuthController;
 import controller.DoctorController;
 import controller.PlanningController;
-import dao.DAOException;
-import model.Appointment;
-import model.AppointmentStatus;
+import controller.WeeklyPlanningExport;
+import model.AppointmentChanges;
+import model.AppointmentEvent;
+import model.AppointmentSummary;
 import model.Doctor;
-import util.DateTimeUtils;
+import model.DoctorDay;
+import util.EventBus;
 
 /**
  * Vue pour la gestion des plannings des médecins.
@@ -65,6 +66,10 @@ public class PlanningView extends JPanel {
     // Composants de l'interface
     private JPanel controlPanel;
     private JPanel contentPanel;
+    private MonthLoadCalendar monthCalendar;
+    private PlanningCalendar planningCalendar;
+    private JLabel periodLabel;
+    private JLabel doctorLabel;
     
     private JComboBox<Doctor> doctorComboBox;
     private JComboBox<LocalDate> dateComboBox;
@@ -73,12 +78,25 @@ public class PlanningView extends JPanel {
     private JButton nextButton;
     private JButton todayButton;
     private JButton exportButton;
+    private JButton cancelDayButton;
+    private JButton exportAllButton;
     
     // État courant
     private Doctor currentDoctor;
     private LocalDate currentDate;
     private boolean weeklyView = false;
-    private List<Appointment> currentAppointments;
+    private List<AppointmentSummary> currentAppointments;
+    
+    // Période des rendez-vous affichés (fusion du flux des modifications)
+    private int shownDoctorId;
+    private LocalDate shownFrom;
+    private LocalDate shownTo;
+    private boolean shownWeekly;
+    
+    // Chargements asynchrones (hors EDT)
+    private final BusyIndicator busyIndicator = new BusyIndicator();
+    private final AsyncLoader asyncLoader = new AsyncLoader(busyIndicator);
+    private final ChangePoller changePoller = new ChangePoller(this, asyncLoader, this::applyChanges);
     
     /**
      * Constructeur pour secrétaire (tous les médecins)
@@ -91,6 +109,10 @@ public class PlanningView extends JPanel {
         
         initializeUI();
         this.currentDate = LocalDate.now();
+        
+        // Annulation d'une journée (absence du médecin) : réservée aux secrétaires
+        cancelDayButton.setVisible(true);
+        exportAllButton.setVisible(true);
 
         loadDoctors();
         
@@ -139,9 +161,40 @@ public class PlanningView extends JPanel {
         add(controlPanel, BorderLayout.NORTH);
         
         // Panneau de contenu (calendrier)
-        contentPanel = new JPanel(new BorderLayout());
+        contentPanel = new JPanel(new BorderLayout(0, 10));
         contentPanel.setBorder(BorderFactory.createTitledBorder("Planning"));
         add(contentPanel, BorderLayout.CENTER);
+        
+        // En-tête avec période et médecin
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        periodLabel = new JLabel(" ", SwingConstants.CENTER);
+        periodLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        headerPanel.add(periodLabel, BorderLayout.NORTH);
+        doctorLabel = new JLabel(" ", SwingConstants.CENTER);
+        doctorLabel.setFont(new Font("Arial", Font.ITALIC, 14));
+        headerPanel.add(doctorLabel, BorderLayout.CENTER);
+        contentPanel.add(headerPanel, BorderLayout.NORTH);
+        
+        // Calendrier dessiné (journée ou semaine), créé une fois et mis à jour sur place
+        planningCalendar = new PlanningCalendar();
+        planningCalendar.setOpenListener(this::showAppointmentDetails);
+        JScrollPane calendarScrollPane = new JScrollPane(planningCalendar);
+        calendarScrollPane.setColumnHeaderView(planningCalendar.getHeader());
+        contentPanel.add(calendarScrollPane, BorderLayout.CENTER);
+        
+        // Carte de charge du mois : un clic sur un jour affiche ce jour
+        monthCalendar = new MonthLoadCalendar();
+        monthCalendar.setDateListener(date -> {
+            currentDate = date;
+            updateDateComboBox();
+            loadPlanning();
+        });
+        JPanel monthPanel = new JPanel(new BorderLayout());
+        monthPanel.setBorder(BorderFactory.createTitledBorder("Charge du mois"));
+        monthPanel.add(monthCalendar, BorderLayout.NORTH);
+        add(monthPanel, BorderLayout.EAST);
+        
+        EventBus.getInstance().subscribe(AppointmentEvent.class, this::onAppointmentEvents, EventBus.EDT);
     }
     
     /**
@@ -253,18 +306,37 @@ public class PlanningView extends JPanel {
         });
         navigationPanel.add(exportButton);
         
+        cancelDayButton = new JButton("Annuler la journée");
+        cancelDayButton.setVisible(false);
+        cancelDayButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cancelDoctorDay();
+            }
+        });
+        navigationPanel.add(cancelDayButton);
+        
+        exportAllButton = new JButton("Exporter tous les médecins");
+        exportAllButton.setVisible(false);
+        exportAllButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportAllPlannings();
+            }
+        });
+        navigationPanel.add(exportAllButton);
+        
         panel.add(navigationPanel, BorderLayout.EAST);
+        panel.add(busyIndicator, BorderLayout.SOUTH);
         
         return panel;
     }
     
     /**
-     * Charge la liste des médecins
+     * Charge la liste des médecins (en arrière-plan)
      */
     private void loadDoctors() {
-        try {
-            List<Doctor> doctors = doctorController.getAllDoctors();
-            
+        asyncLoader.submit("doctors", doctorController::getAllDoctors, doctors -> {
             doctorComboBox.removeAllItems();
             for (Doctor doctor : doctors) {
                 doctorComboBox.addItem(doctor);
@@ -275,12 +347,75 @@ public class PlanningView extends JPanel {
                 doctorComboBox.setSelectedItem(currentDoctor);
                 loadPlanning();
             }
+        }, e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des médecins: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    /**
+     * Annule tous les rendez-vous à venir du médecin sélectionné pour la date sélectionnée,
+     * après confirmation (en arrière-plan)
+     */
+    private void cancelDoctorDay() {
+        if (currentDoctor == null || currentDate == null) {
+            return;
+        }
+        
+        final int doctorId = currentDoctor.getId();
+        final LocalDate date = currentDate;
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE dd MMMM yyyy", Locale.FRENCH);
+        
+        int choice = JOptionPane.showConfirmDialog(this,
+                "Annuler tous les rendez-vous planifiés ou confirmés du Dr. " + currentDoctor.getFullName()
+                        + " pour le " + date.format(formatter) + " ?",
+                "Annuler la journée", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        asyncLoader.submit("cancelDay", () -> appointmentController.cancelDoctorDay(doctorId, date),
+            count -> {
+                JOptionPane.showMessageDialog(this,
+                        count + " rendez-vous annulé(s).",
+                        "Succès", JOptionPane.INFORMATION_MESSAGE);
+                // Le planning est mis à jour à la réception de l'événement publié par le contrôleur
+            }, e -> JOptionPane.showMessageDialog(this,
+                    "Erreur lors de l'annulation de la journée: " + e.getMessage(),
+                    "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    /**
+     * Exporte en PDF les plannings hebdomadaires de tous les médecins pour la semaine
+     * sélectionnée (génération en arrière-plan)
+     */
+    private void exportAllPlannings() {
+        final LocalDate date = currentDate != null ? currentDate : LocalDate.now();
+        
+        int choice = JOptionPane.showConfirmDialog(this,
+                "Générer aussi un document unique regroupant tous les médecins ?",
+                "Export des plannings de la semaine", JOptionPane.YES_NO_CANCEL_OPTION);
+        if (choice == JOptionPane.CANCEL_OPTION || choice == JOptionPane.CLOSED_OPTION) {
+            return;
+        }
+        final boolean merged = choice == JOptionPane.YES_OPTION;
+        
+        exportAllButton.setEnabled(false);
+        asyncLoader.submit("exportAll", () -> planningController.exportAllWeeklyPlannings(date, merged), report -> {
+            exportAllButton.setEnabled(true);
             
-        } catch (DAOException e) {
+            StringBuilder message = new StringBuilder(report.toString()).append('\n');
+            for (WeeklyPlanningExport.DoctorExport export : report.getExports()) {
+                message.append('\n').append(export);
+            }
+            message.append("\n\nDossier : ").append(AppConfig.EXPORT_DIRECTORY);
+            JOptionPane.showMessageDialog(this, message.toString(), "Export des plannings de la semaine",
+                    report.getFailureCount() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+        }, e -> {
+            exportAllButton.setEnabled(true);
             JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des médecins: " + e.getMessage(),
+                    "Erreur lors de l'exportation des plannings: " + e.getMessage(),
                     "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     /**
@@ -300,375 +435,166 @@ public class PlanningView extends JPanel {
     }
     
     /**
-     * Charge et affiche le planning
+     * Charge et affiche le planning.
+     * Les rendez-vous sont récupérés en arrière-plan ; si l'utilisateur change de
+     * médecin ou de date entre-temps, la réponse périmée est ignorée.
      */
     private void loadPlanning() {
         if (currentDoctor == null) {
             return;
         }
         if (currentDate == null) {
-        currentDate = LocalDate.now();
-        updateDateComboBox();
-    }
-        try {
-            if (weeklyView) {
-                loadWeeklyPlanning();
-            } else {
-                loadDailyPlanning();
-            }
-        } catch (DAOException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement du planning: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            currentDate = LocalDate.now();
+            updateDateComboBox();
         }
+        
+        final int doctorId = currentDoctor.getId();
+        final boolean weekly = weeklyView;
+        final LocalDate weekStartDate = currentDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        final LocalDate date = currentDate;
+        
+        monthCalendar.setSelectedDate(date);
+        loadMonthLoad(doctorId, date);
+        
+        // Résumés seulement : le planning n'affiche ni notes ni fiches complètes
+        final LocalDate from = weekly ? weekStartDate : date;
+        final LocalDate to = weekly ? weekStartDate.plusDays(7) : date.plusDays(1);
+        changePoller.submitLoad("planning",
+            () -> appointmentController.getAppointmentSummaries(doctorId, from, to.minusDays(1)),
+            appointments -> {
+                currentAppointments = appointments;
+                shownDoctorId = doctorId;
+                shownFrom = from;
+                shownTo = to;
+                shownWeekly = weekly;
+                showPlanning();
+            }, e -> JOptionPane.showMessageDialog(this,
+                    "Erreur lors du chargement du planning: " + e.getMessage(),
+                    "Erreur", JOptionPane.ERROR_MESSAGE));
     }
     
     /**
-     * Charge et affiche le planning d'une journée
-     * 
-     * @throws DAOException En cas d'erreur de chargement des données
+     * Charge la carte de charge du mois en une requête agrégée (mise en cache par le contrôleur)
      */
-    private void loadDailyPlanning() throws DAOException {
-        // Récupérer les rendez-vous du médecin pour la date spécifiée
-        currentAppointments = appointmentController.getAppointmentsByDoctorAndDate(currentDoctor.getId(), currentDate);
-        
-        // Créer le panneau de planning journalier
-        JPanel dailyPanel = createDailyPlanningPanel();
-        
-        // Mettre à jour le panneau de contenu
-        contentPanel.removeAll();
-        contentPanel.add(new JScrollPane(dailyPanel), BorderLayout.CENTER);
-        contentPanel.revalidate();
-        contentPanel.repaint();
+    private void loadMonthLoad(int doctorId, LocalDate date) {
+        asyncLoader.submit("monthLoad", () -> planningController.getMonthLoad(doctorId, YearMonth.from(date)),
+            load -> monthCalendar.setMonthLoad(load, date), null);
     }
     
     /**
-     * Charge et affiche le planning d'une semaine
-     * 
-     * @throws DAOException En cas d'erreur de chargement des données
+     * Affiche le planning (journée ou semaine) à partir des rendez-vous chargés
      */
-    private void loadWeeklyPlanning() throws DAOException {
-        // Calculer le premier jour de la semaine
-        LocalDate weekStartDate = currentDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        LocalDate weekEndDate = weekStartDate.plusDays(6); // Dimanche
-        
-        // Récupérer les rendez-vous du médecin pour la semaine
-        currentAppointments = appointmentController.getAppointmentsByDoctorAndDateRange(
-                currentDoctor.getId(), weekStartDate, weekEndDate);
-        
-        // Créer le panneau de planning hebdomadaire
-        JPanel weeklyPanel = createWeeklyPlanningPanel(weekStartDate);
-        
-        // Mettre à jour le panneau de contenu
-        contentPanel.removeAll();
-        contentPanel.add(new JScrollPane(weeklyPanel), BorderLayout.CENTER);
-        contentPanel.revalidate();
-        contentPanel.repaint();
+    private void showPlanning() {
+        if (shownWeekly) {
+            showWeeklyPlanning(shownFrom);
+        } else {
+            showDailyPlanning();
+        }
     }
     
     /**
-     * Crée un panneau de planning journalier
+     * Fusionne les modifications lues par le flux dans le planning affiché ;
+     * l'affichage n'est reconstruit que si le médecin ou la période affichés sont concernés
      * 
-     * @return Le panneau de planning journalier
+     * @param changes Les changements
      */
-    
-    private JPanel createDailyPlanningPanel() {
-     if (currentDate == null) {
-        currentDate = LocalDate.now();
-    }
-    JPanel panel = new JPanel(new BorderLayout(0, 10));
-    
-    // En-tête avec date et médecin
-    JPanel headerPanel = new JPanel(new BorderLayout());
-    DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE dd MMMM yyyy", Locale.FRENCH);
-    JLabel dateLabel = new JLabel(currentDate.format(dateFormatter), SwingConstants.CENTER);
-    dateLabel.setFont(new Font("Arial", Font.BOLD, 16));
-    headerPanel.add(dateLabel, BorderLayout.NORTH);
-    
-    JLabel doctorLabel = new JLabel("Dr. " + currentDoctor.getFullName() + " - " + currentDoctor.getSpecialty(), SwingConstants.CENTER);
-    doctorLabel.setFont(new Font("Arial", Font.ITALIC, 14));
-    headerPanel.add(doctorLabel, BorderLayout.CENTER);
-    
-    panel.add(headerPanel, BorderLayout.NORTH);
-    
-    // Panneau de planning
-    JPanel timelinePanel = new JPanel(new GridLayout(0, 1, 0, 1));
-    timelinePanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-    
-    // Générer des créneaux horaires avec gestion sécurisée
-    String workStart = "09:00"; // Valeur par défaut
-    String workEnd = "18:00";   // Valeur par défaut
-    
-    // Traiter les horaires de travail du médecin de manière sécurisée
-    if (currentDoctor.getWorkHours() != null && !currentDoctor.getWorkHours().isEmpty()) {
-        try {
-            String workHours = currentDoctor.getWorkHours();
-            // Récupérer le jour de la semaine actuel
-            String dayName = currentDate.getDayOfWeek().toString().toLowerCase();
-            
-            // Chercher les horaires pour ce jour spécifique
-            if (workHours.contains(dayName + ":")) {
-                String[] days = workHours.split(";");
-                for (String day : days) {
-                    if (day.startsWith(dayName + ":")) {
-                        String[] parts = day.split(":");
-                        if (parts.length > 1) {
-                            String timeRanges = parts[1];
-                            String[] ranges = timeRanges.split(",");
-                            if (ranges.length > 0) {
-                                String[] times = ranges[0].split("-");
-                                if (times.length >= 2) {
-                                    workStart = times[0].trim();
-                                    workEnd = times[1].trim();
-                                }
-                            }
-                        }
-                        break;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // En cas d'erreur, utiliser les valeurs par défaut
-            System.err.println("Erreur lors du traitement des horaires de travail: " + e.getMessage());
+    private void applyChanges(AppointmentChanges changes) {
+        // Un chargement est en cours pour une autre sélection : il lira l'état à jour
+        if (currentAppointments == null || currentDoctor == null || currentDoctor.getId() != shownDoctorId
+                || weeklyView != shownWeekly || currentDate.isBefore(shownFrom) || !currentDate.isBefore(shownTo)) {
+            return;
         }
-    }
-    
-    List<String> timeSlots = DateTimeUtils.generateTimeSlots(workStart, workEnd, 15);
-    
-    // Continuez avec le reste de la méthode...
-        // Ajouter chaque créneau horaire
-        for (String timeSlot : timeSlots) {
-            JPanel slotPanel = new JPanel(new BorderLayout());
-            slotPanel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createMatteBorder(0, 0, 1, 0, Color.LIGHT_GRAY),
-                    BorderFactory.createEmptyBorder(5, 5, 5, 5)));
-            
-            JLabel timeLabel = new JLabel(timeSlot);
-            timeLabel.setPreferredSize(new Dimension(60, 25));
-            slotPanel.add(timeLabel, BorderLayout.WEST);
-            
-            // Vérifier si un rendez-vous existe pour ce créneau
-            LocalDate date = currentDate;
-            int hour = Integer.parseInt(timeSlot.split(":")[0]);
-            int minute = Integer.parseInt(timeSlot.split(":")[1]);
-            
-            boolean hasAppointment = false;
-            for (Appointment appointment : currentAppointments) {
-                LocalDate appointmentDate = appointment.getStartDateTime().toLocalDate();
-                int appointmentHour = appointment.getStartDateTime().getHour();
-                int appointmentMinute = appointment.getStartDateTime().getMinute();
-                
-                if (date.equals(appointmentDate) && hour == appointmentHour && minute == appointmentMinute) {
-                    hasAppointment = true;
-                    
-                    JPanel appointmentPanel = createAppointmentPanel(appointment);
-                    slotPanel.add(appointmentPanel, BorderLayout.CENTER);
-                    break;
-                }
-            }
-            
-            // Si pas de rendez-vous, ajouter un espace vide
-            if (!hasAppointment) {
-                JPanel emptyPanel = new JPanel();
-                emptyPanel.setBackground(Color.WHITE);
-                emptyPanel.setPreferredSize(new Dimension(200, 25));
-                slotPanel.add(emptyPanel, BorderLayout.CENTER);
-            }
-            
-            timelinePanel.add(slotPanel);
+        if (changes.isFullReloadRequired()) {
+            loadPlanning();
+            return;
+        }
+        Set<Integer> shownIds = new HashSet<>();
+        for (AppointmentSummary appointment : currentAppointments) {
+            shownIds.add(appointment.getId());
+        }
+        if (changes.affects(shownDoctorId, shownFrom, shownTo, shownIds)) {
+            currentAppointments = changes.applyTo(currentAppointments, shownDoctorId, shownFrom, shownTo);
+            showPlanning();
+            loadMonthLoad(shownDoctorId, currentDate);
         }
-        
-        panel.add(new JScrollPane(timelinePanel), BorderLayout.CENTER);
-        
-        return panel;
     }
     
     /**
-     * Crée un panneau de planning hebdomadaire
+     * Écritures de ce poste : interroge le flux des modifications si le planning affiché
+     * est concerné (seuls les rendez-vous modifiés sont alors fusionnés), et recharge la
+     * charge du mois si une journée modifiée appartient au mois affiché
      * 
-     * @param weekStartDate Premier jour de la semaine
-     * @return Le panneau de planning hebdomadaire
+     * @param events Les événements reçus
      */
-    private JPanel createWeeklyPlanningPanel(LocalDate weekStartDate) {
-        JPanel panel = new JPanel(new BorderLayout(0, 10));
-        
-        // En-tête avec semaine et médecin
-        JPanel headerPanel = new JPanel(new BorderLayout());
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        String weekRange = "Semaine du " + dateFormatter.format(weekStartDate) + 
-                          " au " + dateFormatter.format(weekStartDate.plusDays(6));
-        JLabel weekLabel = new JLabel(weekRange, SwingConstants.CENTER);
-        weekLabel.setFont(new Font("Arial", Font.BOLD, 16));
-        headerPanel.add(weekLabel, BorderLayout.NORTH);
-        
-        JLabel doctorLabel = new JLabel("Dr. " + currentDoctor.getFullName() + " - " + currentDoctor.getSpecialty(), SwingConstants.CENTER);
-        doctorLabel.setFont(new Font("Arial", Font.ITALIC, 14));
-        headerPanel.add(doctorLabel, BorderLayout.CENTER);
-        
-        panel.add(headerPanel, BorderLayout.NORTH);
-        
-        // Panneau de planning
-        JPanel weekPanel = new JPanel(new GridLayout(1, 7, 5, 0));
-        
-        // Créer un panneau pour chaque jour de la semaine
-        for (int i = 0; i < 7; i++) {
-            LocalDate dayDate = weekStartDate.plusDays(i);
-            JPanel dayPanel = createDayPanel(dayDate);
-            weekPanel.add(dayPanel);
+    private void onAppointmentEvents(List<AppointmentEvent> events) {
+        if (currentAppointments == null) {
+            return;
+        }
+        Set<Integer> shownIds = new HashSet<>();
+        for (AppointmentSummary appointment : currentAppointments) {
+            shownIds.add(appointment.getId());
+        }
+        YearMonth shownMonth = YearMonth.from(currentDate);
+        boolean planningAffected = false;
+        boolean monthAffected = false;
+        for (AppointmentEvent event : events) {
+            planningAffected |= event.affects(shownDoctorId, shownFrom, shownTo, shownIds);
+            monthAffected |= event.getDays().isEmpty();
+            for (DoctorDay day : event.getDays()) {
+                monthAffected |= day.isIn(shownDoctorId, shownMonth.atDay(1), shownMonth.atEndOfMonth().plusDays(1));
+            }
+        }
+        if (planningAffected) {
+            // La fusion recharge aussi la charge du mois
+            changePoller.poll();
+        } else if (monthAffected) {
+            loadMonthLoad(shownDoctorId, currentDate);
         }
-        
-        panel.add(new JScrollPane(weekPanel), BorderLayout.CENTER);
-        
-        return panel;
     }
     
     /**
-     * Crée un panneau pour un jour dans la vue hebdomadaire
-     * 
-     * @param date La date du jour
-     * @return Le panneau du jour
+     * Affiche le planning d'une journée à partir des rendez-vous chargés
      */
-    private JPanel createDayPanel(LocalDate date) {
-        JPanel panel = new JPanel(new BorderLayout(0, 5));
-        
-        // En-tête du jour
-        String dayName = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.FRENCH);
-        String dayHeader = dayName + " " + date.getDayOfMonth();
-        JLabel headerLabel = new JLabel(dayHeader, SwingConstants.CENTER);
-        headerLabel.setFont(new Font("Arial", Font.BOLD, 12));
-        headerLabel.setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, Color.GRAY));
-        panel.add(headerLabel, BorderLayout.NORTH);
-        
-        // Contenu des rendez-vous du jour
-        JPanel appointmentsPanel = new JPanel();
-        appointmentsPanel.setLayout(new BoxLayout(appointmentsPanel, BoxLayout.Y_AXIS));
-        appointmentsPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        
-        // Filtrer les rendez-vous pour ce jour
-        List<Appointment> dayAppointments = currentAppointments.stream()
-                .filter(a -> a.getStartDateTime().toLocalDate().equals(date))
-                .sorted((a1, a2) -> a1.getStartDateTime().compareTo(a2.getStartDateTime()))
-                .collect(java.util.stream.Collectors.toList());
-        
-        if (dayAppointments.isEmpty()) {
-            JLabel emptyLabel = new JLabel("Aucun rendez-vous", SwingConstants.CENTER);
-            emptyLabel.setForeground(Color.GRAY);
-            appointmentsPanel.add(emptyLabel);
-        } else {
-            // Ajouter chaque rendez-vous
-            for (Appointment appointment : dayAppointments) {
-                JPanel appointmentPanel = createCompactAppointmentPanel(appointment);
-                appointmentsPanel.add(appointmentPanel);
-                appointmentsPanel.add(Box.createVerticalStrut(5));
-            }
-        }
-        
-        panel.add(new JScrollPane(appointmentsPanel), BorderLayout.CENTER);
-        
-        // Bordure différente si c'est le jour courant
-        if (date.equals(LocalDate.now())) {
-            panel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(Color.BLUE, 2),
-                    BorderFactory.createEmptyBorder(2, 2, 2, 2)));
-        } else {
-            panel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(Color.LIGHT_GRAY),
-                    BorderFactory.createEmptyBorder(3, 3, 3, 3)));
-        }
-        
-        return panel;
+    private void showDailyPlanning() {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE dd MMMM yyyy", Locale.FRENCH);
+        showCalendar(shownFrom.format(dateFormatter), shownFrom, 1);
     }
     
     /**
-     * Crée un panneau de rendez-vous pour la vue journalière
+     * Affiche le planning d'une semaine à partir des rendez-vous chargés
      * 
-     * @param appointment Le rendez-vous à afficher
-     * @return Le panneau de rendez-vous
+     * @param weekStartDate Le premier jour (lundi) de la semaine
      */
-    private JPanel createAppointmentPanel(Appointment appointment) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getStatusColor(appointment.getStatus()), 2),
-                BorderFactory.createEmptyBorder(3, 3, 3, 3)));
-        panel.setBackground(new Color(240, 240, 255));
-        
-        // Heure et durée
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-        String timeText = appointment.getStartDateTime().format(timeFormatter) + 
-                         " - " + appointment.getEndDateTime().format(timeFormatter) +
-                         " (" + appointment.getDurationMinutes() + " min)";
-        JLabel timeLabel = new JLabel(timeText);
-        timeLabel.setFont(new Font("Arial", Font.BOLD, 12));
-        panel.add(timeLabel, BorderLayout.NORTH);
-        
-        // Patient et type
-        String patientName = appointment.getPatient() != null ? 
-                           appointment.getPatient().getFullName() : 
-                           "Patient #" + appointment.getPatientId();
-        JLabel patientLabel = new JLabel(patientName);
-        patientLabel.setFont(new Font("Arial", Font.PLAIN, 12));
-        panel.add(patientLabel, BorderLayout.CENTER);
-        
-        String typeAndStatus = appointment.getAppointmentType() + " - " + appointment.getStatus().getLabel();
-        JLabel typeLabel = new JLabel(typeAndStatus);
-        typeLabel.setFont(new Font("Arial", Font.ITALIC, 10));
-        panel.add(typeLabel, BorderLayout.SOUTH);
-        
-        return panel;
+    private void showWeeklyPlanning(LocalDate weekStartDate) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        String weekRange = "Semaine du " + dateFormatter.format(weekStartDate) + 
+                          " au " + dateFormatter.format(weekStartDate.plusDays(6));
+        showCalendar(weekRange, weekStartDate, 7);
     }
     
     /**
-     * Crée un panneau de rendez-vous compact pour la vue hebdomadaire
-     * 
-     * @param appointment Le rendez-vous à afficher
-     * @return Le panneau de rendez-vous compact
+     * Met à jour l'en-tête et le calendrier ; le calendrier ne recalcule et ne repeint
+     * que les journées modifiées lorsque la période affichée est la même
      */
-    private JPanel createCompactAppointmentPanel(Appointment appointment) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(getStatusColor(appointment.getStatus()), 1),
-                BorderFactory.createEmptyBorder(2, 2, 2, 2)));
-        panel.setBackground(new Color(240, 240, 255));
-        
-        // Heure
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-        JLabel timeLabel = new JLabel(appointment.getStartDateTime().format(timeFormatter));
-        timeLabel.setFont(new Font("Arial", Font.BOLD, 10));
-        panel.add(timeLabel, BorderLayout.WEST);
-        
-        // Patient
-        String patientName = appointment.getPatient() != null ? 
-                           appointment.getPatient().getFullName() : 
-                           "Patient #" + appointment.getPatientId();
-        JLabel patientLabel = new JLabel(patientName);
-        patientLabel.setFont(new Font("Arial", Font.PLAIN, 10));
-        panel.add(patientLabel, BorderLayout.CENTER);
-        
-        return panel;
+    private void showCalendar(String title, LocalDate firstDay, int dayCount) {
+        periodLabel.setText(title);
+        doctorLabel.setText("Dr. " + currentDoctor.getFullName() + " - " + currentDoctor.getSpecialty());
+        planningCalendar.setPlanning(firstDay, dayCount, currentDoctor.getWorkSchedule(), currentAppointments);
     }
     
     /**
-     * Obtient une couleur selon le statut du rendez-vous
+     * Affiche le détail d'un rendez-vous (double-clic dans le calendrier)
      * 
-     * @param status Le statut du rendez-vous
-     * @return La couleur correspondante
+     * @param appointment Le rendez-vous
      */
-    private Color getStatusColor(AppointmentStatus status) {
-        switch (status) {
-            case PLANIFIE:
-                return Color.BLUE;
-            case CONFIRME:
-                return Color.GREEN;
-            case ANNULE_PATIENT:
-            case ANNULE_CABINET:
-                return Color.RED;
-            case REALISE:
-                return Color.DARK_GRAY;
-            case ABSENT:
-                return Color.ORANGE;
-            default:
-                return Color.BLACK;
-        }
+    private void showAppointmentDetails(AppointmentSummary appointment) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        String message = "Patient : " + appointment.getPatientName() + "\n"
+                + "Début : " + appointment.getStartDateTime().format(formatter) + "\n"
+                + "Durée : " + appointment.getDurationMinutes() + " min\n"
+                + "Type : " + (appointment.getAppointmentType() != null ? appointment.getAppointmentType() : "") + "\n"
+                + "Statut : " + appointment.getStatus().getLabel();
+        JOptionPane.showMessageDialog(this, message, "Rendez-vous", JOptionPane.INFORMATION_MESSAGE);
     }
     
     /**
@@ -713,7 +639,7 @@ public class PlanningView extends JPanel {
     }
     
     /**
-     * Exporte le planning en PDF
+     * Exporte le planning en PDF (génération en arrière-plan)
      */
     public void exportPlanning() {
         if (currentDoctor == null) {
@@ -723,17 +649,21 @@ public class PlanningView extends JPanel {
             return;
         }
         
-        try {
-            String pdfPath;
-            
-            if (weeklyView) {
+        final Doctor doctor = currentDoctor;
+        final boolean weekly = weeklyView;
+        final LocalDate date = currentDate;
+        
+        exportButton.setEnabled(false);
+        asyncLoader.submit("export", () -> {
+            if (weekly) {
                 // Exporter le planning hebdomadaire
-                LocalDate weekStartDate = currentDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-                pdfPath = planningController.exportWeeklyPlanning(currentDoctor, weekStartDate);
-            } else {
-                // Exporter le planning journalier
-                pdfPath = planningController.exportDailyPlanning(currentDoctor, currentDate);
+                LocalDate weekStartDate = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                return planningController.exportWeeklyPlanning(doctor, weekStartDate);
             }
+            // Exporter le planning journalier
+            return planningController.exportDailyPlanning(doctor, date);
+        }, pdfPath -> {
+            exportButton.setEnabled(true);
             
             // Demander à l'utilisateur s'il veut ouvrir le fichier
             int response = JOptionPane.showConfirmDialog(this,
@@ -743,21 +673,32 @@ public class PlanningView extends JPanel {
             if (response == JOptionPane.YES_OPTION) {
                 File pdfFile = new File(pdfPath);
                 if (pdfFile.exists()) {
-                    java.awt.Desktop.getDesktop().open(pdfFile);
+                    try {
+                        java.awt.Desktop.getDesktop().open(pdfFile);
+                    } catch (IOException e) {
+                        JOptionPane.showMessageDialog(this,
+                                "Impossible d'ouvrir le fichier PDF: " + e.getMessage(),
+                                "Erreur", JOptionPane.ERROR_MESSAGE);
+                    }
                 }
             }
-            
-        } catch (DAOException | IOException e) {
+        }, e -> {
+            exportButton.setEnabled(true);
             JOptionPane.showMessageDialog(this,
                     "Erreur lors de l'exportation du planning: " + e.getMessage(),
                     "Erreur", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     /**
-     * Rafraîchit les données affichées
+     * Rafraîchit les données affichées : fusionne les modifications depuis le dernier
+     * chargement (chargement complet si le planning n'est pas encore affiché)
      */
     public void refreshData() {
-        loadPlanning();
+        if (currentAppointments == null) {
+            loadPlanning();
+        } else {
+            changePoller.poll();
+        }
     }
 }
\ No newline at end of file